@@ -0,0 +1,165 @@
+package cwms.cda;
+
+import cwms.cda.data.dto.Catalog;
+import cwms.cda.data.dto.LocationCategory;
+import cwms.cda.data.dto.LocationGroup;
+import cwms.cda.data.dto.LocationLevel;
+import cwms.cda.data.dto.LocationLevels;
+import cwms.cda.data.dto.Office;
+import cwms.cda.data.dto.SeasonalValueBean;
+import cwms.cda.data.dto.TimeSeries;
+import cwms.cda.data.dto.basinconnectivity.Basin;
+import cwms.cda.data.dto.basinconnectivity.Stream;
+import cwms.cda.data.dto.basinconnectivity.StreamLocation;
+import cwms.cda.data.dto.catalog.LocationCatalogEntry;
+import cwms.cda.data.dto.rating.IndependentRoundingSpec;
+import cwms.cda.data.dto.rating.RatingSpec;
+import cwms.cda.data.dto.rating.RatingSpecs;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Synthetic data for the benchmarks, shaped like typical responses but needing no database.
+ */
+public final class Fixtures {
+    public static final String OFFICE = "SWT";
+    public static final ZonedDateTime BEGIN =
+            ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+
+    private Fixtures() {
+    }
+
+    /**
+     * An hourly time series with the given number of values.
+     */
+    public static TimeSeries timeSeries(int size) {
+        TimeSeries retval = new TimeSeries(null, size, size, "BENCH.Stage.Inst.1Hour.0.bench",
+                OFFICE, BEGIN, BEGIN.plusHours(size), "ft", Duration.ofHours(1));
+        long start = BEGIN.toInstant().toEpochMilli();
+        for (int i = 0; i < size; i++) {
+            retval.addValue(start + i * 3_600_000L, 10.0 + (i % 100) / 10.0, 0);
+        }
+        return retval;
+    }
+
+    /**
+     * A seasonal level with up to a year of daily values.
+     */
+    public static LocationLevel locationLevel(String locationId, int seasonalValues) {
+        LocationLevel.Builder builder = new LocationLevel.Builder(
+                locationId + ".Stage.Inst.0.Top of Flood", BEGIN)
+                .withOfficeId(OFFICE)
+                .withLevelUnitsId("ft")
+                .withIntervalOrigin(BEGIN)
+                .withIntervalMonths(12)
+                .withInterpolateString("T");
+        for (int i = 0; i < seasonalValues; i++) {
+            builder.withSeasonalValue(new SeasonalValueBean.Builder(100.0 + i)
+                    .withOffsetMinutes(BigInteger.valueOf(i * 1440L))
+                    .build());
+        }
+        return builder.build();
+    }
+
+    /**
+     * A page of levels, each with twelve monthly seasonal values.
+     */
+    public static LocationLevels locationLevels(int size) {
+        LocationLevels.Builder builder = new LocationLevels.Builder(null, size, size);
+        for (int i = 0; i < size; i++) {
+            builder.add(locationLevel("BENCH" + i, 12));
+        }
+        return builder.build();
+    }
+
+    public static Catalog locationCatalog(int size) {
+        List<LocationCatalogEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new LocationCatalogEntry.Builder()
+                    .officeId(OFFICE)
+                    .name("BENCH" + i)
+                    .publicName("Benchmark Location " + i)
+                    .longName("Benchmark Location " + i + " near Tulsa")
+                    .kind("SITE")
+                    .timeZone("US/Central")
+                    .latitude(36.0 + i / 10_000.0)
+                    .longitude(-96.0 - i / 10_000.0)
+                    .horizontalDatum("NAD83")
+                    .elevation(650.0 + i)
+                    .unit("ft")
+                    .verticalDatum("NGVD29")
+                    .nation("US")
+                    .state("OK")
+                    .county("Tulsa")
+                    .boundingOffice(OFFICE)
+                    .aliases(Collections.emptyList())
+                    .build());
+        }
+        return new Catalog(null, size, size + 1, entries);
+    }
+
+    public static RatingSpecs ratingSpecs(int size) {
+        List<RatingSpec> specs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String location = "BENCH" + i;
+            specs.add(new RatingSpec.Builder()
+                    .withOfficeId(OFFICE)
+                    .withRatingId(location + ".Stage;Flow.USGS-EXSA.USGS-NWIS")
+                    .withTemplateId("Stage;Flow.USGS-EXSA")
+                    .withLocationId(location)
+                    .withVersion("USGS-NWIS")
+                    .withSourceAgency("USGS")
+                    .withInRangeMethod("LINEAR")
+                    .withOutRangeLowMethod("NEAREST")
+                    .withOutRangeHighMethod("NEAREST")
+                    .withActive(true)
+                    .withAutoUpdate(true)
+                    .withIndependentRoundingSpecs(new IndependentRoundingSpec[]{
+                        new IndependentRoundingSpec("2223456782")})
+                    .withDependentRoundingSpec("2222233332")
+                    .withDescription("Benchmark rating " + i)
+                    .withEffectiveDates(Collections.singletonList(BEGIN))
+                    .build());
+        }
+        return new RatingSpecs.Builder(0, size + 1, size).specs(specs).build();
+    }
+
+    public static List<Office> offices(int size) {
+        List<Office> retval = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            retval.add(new Office("O" + i, "Benchmark Office " + i, "DIS", "SWD"));
+        }
+        return retval;
+    }
+
+    public static LocationGroup locationGroup() {
+        LocationCategory category = new LocationCategory(OFFICE, "Benchmark", "Benchmark category");
+        return new LocationGroup(category, OFFICE, "Benchmark Group", "Benchmark group",
+                null, null, null);
+    }
+
+    /**
+     * A basin whose primary stream has the given number of locations.
+     */
+    public static Basin basin(int streamLocations) {
+        List<StreamLocation> locations = new ArrayList<>(streamLocations);
+        for (int i = 0; i < streamLocations; i++) {
+            locations.add(new StreamLocation.Builder("BENCH" + i, "Benchmark Creek",
+                    (double) i, "L", OFFICE)
+                    .withTotalDrainageArea(10.0 * i)
+                    .build());
+        }
+        Stream stream = new Stream.Builder("Benchmark Creek", true, (double) streamLocations, OFFICE)
+                .withStreamLocations(locations)
+                .build();
+        return new Basin.Builder("Benchmark Basin", OFFICE)
+                .withPrimaryStream(stream)
+                .withBasinArea(1000.0)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package cwms.cda.data.dao;
+
+import cwms.cda.Fixtures;
+import cwms.cda.data.dto.TimeSeries;
+import hec.data.level.JDomLocationLevelRef;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import mil.army.usace.hec.metadata.Interval;
+import mil.army.usace.hec.metadata.IntervalFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import usace.cwms.db.jooq.codegen.udt.records.ZTSV_ARRAY;
+import usace.cwms.db.jooq.codegen.udt.records.ZTSV_TYPE;
+
+/**
+ * Location level values at 15 minute steps, computed in process or prepared for and mapped
+ * back from RETRIEVE_LOC_LVL_VALUES3. The database path only measures building the bind array
+ * and mapping the returned one, so the difference is a lower bound of what local evaluation
+ * saves: the round trip and the database's own evaluation come on top.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocationLevelValuesBenchmark {
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    /** A day and a year of 15 minute steps. */
+    @Param({"96", "35040"})
+    public int steps;
+
+    private final JDomLocationLevelRef levelRef = new JDomLocationLevelRef(Fixtures.OFFICE,
+            "BENCH.Stage.Inst.0.Top of Flood");
+    private Interval interval;
+    private LocationLevelEvaluator evaluator;
+    private Instant start;
+    private Instant end;
+    private ZTSV_ARRAY returned;
+
+    @Setup
+    public void setup() {
+        interval = IntervalFactory.findAny(IntervalFactory.equalsName("15Minutes"))
+                .orElseThrow(() -> new IllegalStateException("No 15Minutes interval"));
+        evaluator = LocationLevelEvaluator.of(Fixtures.locationLevel("BENCH", 365));
+        start = Fixtures.BEGIN.toInstant();
+        end = start.plusSeconds((steps - 1) * 900L);
+        List<Instant> times = LocationLevelsDaoImpl.buildTimes(start, end, interval, UTC);
+        returned = new ZTSV_ARRAY();
+        for (Instant time : times) {
+            returned.add(new ZTSV_TYPE(Timestamp.from(time), evaluator.valueAt(time), null));
+        }
+    }
+
+    @Benchmark
+    public TimeSeries database() {
+        List<Instant> times = LocationLevelsDaoImpl.buildTimes(start, end, interval, UTC);
+        ZTSV_ARRAY specifiedTimes = LocationLevelsDaoImpl.buildTsvArray(times);
+        if (specifiedTimes.size() != returned.size()) {
+            throw new IllegalStateException("Unexpected number of times");
+        }
+        return LocationLevelsDaoImpl.buildTimeSeries(levelRef, interval, returned, UTC);
+    }
+
+    @Benchmark
+    public TimeSeries local() {
+        List<Instant> times = LocationLevelsDaoImpl.buildTimes(start, end, interval, UTC);
+        return LocationLevelsDaoImpl.buildTimeSeries(levelRef, interval, times,
+                evaluator.valuesAt(times), UTC);
+    }
+}
@@ -0,0 +1,99 @@
+package cwms.cda.data.dao;
+
+import static usace.cwms.db.jooq.codegen.tables.AV_LOCATION_LEVEL.AV_LOCATION_LEVEL;
+
+import cwms.cda.Fixtures;
+import cwms.cda.data.dto.LocationLevel;
+import cwms.cda.data.dto.TimeSeries;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Record3;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Turning fetched rows into DTOs. The rows are built in memory with the same columns the DAOs
+ * select, so no database is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordMappingBenchmark {
+    private static final Field<Timestamp> DATE_TIME = DSL.field("date_time", SQLDataType.TIMESTAMP);
+    private static final Field<Double> VALUE = DSL.field("value", SQLDataType.DOUBLE);
+    private static final Field<BigDecimal> QUALITY_CODE = DSL.field("quality_code", SQLDataType.NUMERIC);
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private final DSLContext dsl = DSL.using(SQLDialect.ORACLE18C);
+    private final LocationLevelsDaoImpl levelsDao = new LocationLevelsDaoImpl(dsl);
+    private List<Record3<Timestamp, Double, BigDecimal>> valueRows;
+    private List<Record> levelRows;
+
+    @Setup
+    public void setup() {
+        long start = Fixtures.BEGIN.toInstant().toEpochMilli();
+        valueRows = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Record3<Timestamp, Double, BigDecimal> r = dsl.newRecord(DATE_TIME, VALUE, QUALITY_CODE);
+            r.value1(new Timestamp(start + i * 3_600_000L));
+            r.value2(10.0 + (i % 100) / 10.0);
+            r.value3(BigDecimal.ZERO);
+            valueRows.add(r);
+        }
+
+        // twelve monthly seasonal values per level
+        Field<?>[] fields = levelsDao.getAddSeasonalValueFields().toArray(new Field<?>[0]);
+        Timestamp levelDate = new Timestamp(start);
+        levelRows = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Record r = dsl.newRecord(fields);
+            r.set(AV_LOCATION_LEVEL.OFFICE_ID, Fixtures.OFFICE);
+            r.set(AV_LOCATION_LEVEL.LOCATION_LEVEL_ID, "BENCH" + (i / 12) + ".Stage.Inst.0.Top of Flood");
+            r.set(AV_LOCATION_LEVEL.LEVEL_DATE, levelDate);
+            r.set(AV_LOCATION_LEVEL.LEVEL_UNIT, "ft");
+            r.set(AV_LOCATION_LEVEL.INTERPOLATE, "T");
+            r.set(AV_LOCATION_LEVEL.SEASONAL_LEVEL, 100.0 + i % 12);
+            r.set(AV_LOCATION_LEVEL.CALENDAR_OFFSET, String.format("00-%02d", i % 12));
+            r.set(AV_LOCATION_LEVEL.TIME_OFFSET, "000 00:00:00");
+            levelRows.add(r);
+        }
+    }
+
+    @Benchmark
+    public TimeSeries timeSeriesValues() {
+        TimeSeries ts = new TimeSeries(null, rows, rows, "BENCH.Stage.Inst.1Hour.0.bench",
+                Fixtures.OFFICE, Fixtures.BEGIN, Fixtures.BEGIN.plusHours(rows), "ft",
+                Duration.ofHours(1));
+        TimeSeriesDaoImpl.addValues(ts, valueRows);
+        return ts;
+    }
+
+    @Benchmark
+    public List<LocationLevel> locationLevels() {
+        return levelsDao.buildLocationLevels(levelRows);
+    }
+}
@@ -0,0 +1,55 @@
+package cwms.cda.data.dto;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding and decoding of page cursors, done for every page of every paginated response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CursorBenchmark {
+    private String timeSeriesCursor;
+    private String levelCursor;
+
+    @Setup
+    public void setup() {
+        timeSeriesCursor = encodeTimeSeries();
+        levelCursor = encodeLevel();
+    }
+
+    @Benchmark
+    public String encodeTimeSeries() {
+        return CwmsDTOPaginated.encodeCursor("1704067200000", 500, 8760);
+    }
+
+    @Benchmark
+    public String encodeLevel() {
+        String page = String.join(CwmsDTOPaginated.delimiter, "SWT",
+                "BENCH1.Stage.Inst.0.Top of Flood", "1704067200000");
+        return CwmsDTOPaginated.encodeCursor(page, 500, 12000);
+    }
+
+    @Benchmark
+    public String[] decodeTimeSeries() {
+        return CwmsDTOPaginated.decodeCursor(timeSeriesCursor);
+    }
+
+    @Benchmark
+    public String[] decodeLevel() {
+        return CwmsDTOPaginated.decodeCursor(levelCursor);
+    }
+}
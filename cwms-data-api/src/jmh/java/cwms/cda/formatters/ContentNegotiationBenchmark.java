@@ -0,0 +1,49 @@
+package cwms.cda.formatters;
+
+import cwms.cda.data.dto.Office;
+import cwms.cda.data.dto.TimeSeries;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Resolving the response content type from the Accept header or format parameter, which
+ * every request does before anything is formatted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentNegotiationBenchmark {
+    private static final String BROWSER_HEADER = "text/html,application/xhtml+xml,"
+            + "application/xml;q=0.9,image/avif,image/webp,*/*;q=0.8";
+
+    @Benchmark
+    public ContentType browserHeader() {
+        return Formats.parseHeader(BROWSER_HEADER, TimeSeries.class);
+    }
+
+    @Benchmark
+    public ContentType versionedHeader() {
+        return Formats.parseHeader(Formats.JSONV2, TimeSeries.class);
+    }
+
+    @Benchmark
+    public ContentType aliasedHeader() {
+        return Formats.parseHeader(Formats.JSON, Office.class);
+    }
+
+    @Benchmark
+    public ContentType legacyQueryParameter() {
+        return Formats.parseHeaderAndQueryParm(null, "json", Office.class);
+    }
+}
@@ -0,0 +1,121 @@
+package cwms.cda.formatters;
+
+import cwms.cda.Fixtures;
+import cwms.cda.data.dto.Catalog;
+import cwms.cda.data.dto.LocationGroup;
+import cwms.cda.data.dto.LocationLevels;
+import cwms.cda.data.dto.Office;
+import cwms.cda.data.dto.TimeSeries;
+import cwms.cda.data.dto.basinconnectivity.Basin;
+import cwms.cda.data.dto.rating.RatingSpecs;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Formatting of the larger responses through {@link Formats}, as the controllers do it.
+ * Sizes are the number of values, entries or levels in the response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatterBenchmark {
+    private static final ContentType JSONV1 = new ContentType(Formats.JSONV1);
+    private static final ContentType JSONV2 = new ContentType(Formats.JSONV2);
+    private static final ContentType XML = new ContentType(Formats.XML);
+    private static final ContentType XMLV2 = new ContentType(Formats.XMLV2);
+    private static final ContentType CSV = new ContentType(Formats.CSV);
+    private static final ContentType TAB = new ContentType(Formats.TAB);
+    private static final ContentType PGJSON = new ContentType(Formats.PGJSON);
+
+    @Param({"100", "5000"})
+    public int size;
+
+    private TimeSeries timeSeries;
+    private Catalog catalog;
+    private LocationLevels levels;
+    private RatingSpecs ratingSpecs;
+    private List<Office> offices;
+    private LocationGroup locationGroup;
+    private Basin basin;
+
+    @Setup
+    public void setup() {
+        timeSeries = Fixtures.timeSeries(size);
+        catalog = Fixtures.locationCatalog(size);
+        // levels carry twelve seasonal values each, keep the response a realistic size
+        levels = Fixtures.locationLevels(Math.max(1, size / 10));
+        ratingSpecs = Fixtures.ratingSpecs(Math.max(1, size / 10));
+        offices = Fixtures.offices(size);
+        locationGroup = Fixtures.locationGroup();
+        basin = Fixtures.basin(size);
+    }
+
+    @Benchmark
+    public String timeSeriesJsonV2() {
+        return Formats.format(JSONV2, timeSeries);
+    }
+
+    @Benchmark
+    public String timeSeriesXmlV2() {
+        return Formats.format(XMLV2, timeSeries);
+    }
+
+    @Benchmark
+    public String locationCatalogJsonV2() {
+        return Formats.format(JSONV2, catalog);
+    }
+
+    @Benchmark
+    public String locationCatalogJsonV1() {
+        return Formats.format(JSONV1, catalog);
+    }
+
+    @Benchmark
+    public String locationCatalogXml() {
+        return Formats.format(XML, catalog);
+    }
+
+    @Benchmark
+    public String locationLevelsJsonV2() {
+        return Formats.format(JSONV2, levels);
+    }
+
+    @Benchmark
+    public String ratingSpecsJsonV2() {
+        return Formats.format(JSONV2, ratingSpecs);
+    }
+
+    @Benchmark
+    public String officesCsv() {
+        return Formats.format(CSV, offices, Office.class);
+    }
+
+    @Benchmark
+    public String officesTab() {
+        return Formats.format(TAB, offices, Office.class);
+    }
+
+    @Benchmark
+    public String locationGroupCsv() {
+        return Formats.format(CSV, locationGroup);
+    }
+
+    @Benchmark
+    public String basinPgJson() {
+        return Formats.format(PGJSON, basin);
+    }
+}
@@ -0,0 +1,64 @@
+package cwms.cda.formatters.xml;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import cwms.cda.Fixtures;
+import cwms.cda.data.dto.LocationLevel;
+import cwms.cda.data.dto.TimeSeries;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares building an XmlMapper for every call, as XMLv2 used to, with the shared
+ * writer the formatter uses now.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlMapperBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private final XMLv2 formatter = new XMLv2();
+    private TimeSeries timeSeries;
+    private LocationLevel locationLevel;
+
+    @Setup
+    public void setup() {
+        timeSeries = Fixtures.timeSeries(size);
+        locationLevel = Fixtures.locationLevel("BENCH", Math.min(size, 365));
+    }
+
+    @Benchmark
+    public String timeSeriesPerCallMapper() throws JsonProcessingException {
+        return XMLv2.buildXmlMapper().writeValueAsString(timeSeries);
+    }
+
+    @Benchmark
+    public String timeSeriesSharedMapper() {
+        return formatter.format(timeSeries);
+    }
+
+    @Benchmark
+    public String locationLevelPerCallMapper() throws JsonProcessingException {
+        return XMLv2.buildXmlMapper().writeValueAsString(locationLevel);
+    }
+
+    @Benchmark
+    public String locationLevelSharedMapper() {
+        return formatter.format(locationLevel);
+    }
+}
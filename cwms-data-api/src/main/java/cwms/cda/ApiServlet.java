@@ -49,6 +49,7 @@ import cwms.cda.api.BinaryTimeSeriesValueController;
 import cwms.cda.api.BlobController;
 import cwms.cda.api.CatalogController;
 import cwms.cda.api.ClobController;
+import cwms.cda.api.ClobValuesController;
 import cwms.cda.api.Controllers;
 import cwms.cda.api.CountyController;
 import cwms.cda.api.EmbankmentController;
@@ -70,11 +71,15 @@ import cwms.cda.api.RatingController;
 import cwms.cda.api.RatingMetadataController;
 import cwms.cda.api.RatingSpecController;
 import cwms.cda.api.RatingTemplateController;
+import cwms.cda.api.RatingValuesController;
+import cwms.cda.api.ResponseCache;
 import cwms.cda.api.SpecifiedLevelController;
 import cwms.cda.api.StandardTextController;
 import cwms.cda.api.StateController;
 import cwms.cda.api.TextTimeSeriesController;
 import cwms.cda.api.TextTimeSeriesValueController;
+import cwms.cda.api.TimeSeriesBatchController;
+import cwms.cda.api.TimeSeriesBulkController;
 import cwms.cda.api.TimeSeriesCategoryController;
 import cwms.cda.api.TimeSeriesController;
 import cwms.cda.api.TimeSeriesGroupController;
@@ -111,7 +116,9 @@ import cwms.cda.api.watersupply.WaterUserCreateController;
 import cwms.cda.api.watersupply.WaterUserDeleteController;
 import cwms.cda.api.watersupply.WaterUserUpdateController;
 import cwms.cda.api.location.kind.VirtualOutletCreateController;
+import cwms.cda.data.dao.DataChangeBus;
 import cwms.cda.data.dao.JooqDao;
+import cwms.cda.datasource.SessionStateTracker;
 import cwms.cda.formatters.Formats;
 import cwms.cda.formatters.FormattingException;
 import cwms.cda.formatters.UnsupportedFormatException;
@@ -129,6 +136,7 @@ import io.javalin.core.util.Header;
 import io.javalin.core.validation.JavalinValidation;
 import io.javalin.http.BadRequestResponse;
 import io.javalin.http.Handler;
+import io.javalin.http.HttpResponseException;
 import io.javalin.http.JavalinServlet;
 import io.javalin.plugin.openapi.OpenApiOptions;
 import io.javalin.plugin.openapi.OpenApiPlugin;
@@ -151,6 +159,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
 import java.util.jar.Manifest;
 import javax.annotation.Resource;
 import javax.management.ServiceNotFoundException;
@@ -245,6 +254,9 @@ public class ApiServlet extends HttpServlet {
         metrics = (MetricRegistry)config.getServletContext()
                 .getAttribute(MetricsServlet.METRICS_REGISTRY);
         totalRequests = metrics.meter("cwms.dataapi.total_requests");
+        SessionStateTracker.registerMetrics(metrics);
+        ResponseCache.registerMetrics(metrics);
+        DataChangeBus.registerMetrics(metrics);
         super.init(config);
     }
 
@@ -378,6 +390,15 @@ public class ApiServlet extends HttpServlet {
                     ctx.status(e.getAuthFailCode()).json(re);
                 })
                 .exception(Exception.class, (e, ctx) -> {
+                    // A request body limit tripped while a DAO was reading the body arrives
+                    // wrapped by jOOQ or the driver, answer with its own status.
+                    HttpResponseException wrapped = Controllers.wrappedResponse(e);
+                    if (wrapped != null) {
+                        CdaError re = new CdaError(wrapped.getMessage());
+                        logger.atInfo().withCause(e).log(re.toString());
+                        ctx.status(wrapped.getStatus()).json(re);
+                        return;
+                    }
                     CdaError errResponse = new CdaError("System Error");
                     logger.atWarning().withCause(e).log("error on request[%s]: %s",
                             errResponse.getIncidentIdentifier(), ctx.req.getRequestURI());
@@ -427,17 +448,17 @@ public class ApiServlet extends HttpServlet {
                 new LocationGroupController(metrics), requiredRoles, 5, TimeUnit.MINUTES);
         cdaCrudCache("/locations/{location-id}",
                 new LocationController(metrics), requiredRoles, 5, TimeUnit.MINUTES);
-        cdaCrudCache("/states/{state}",
+        cdaCrudResponseCache("/states/{state}",
                 new StateController(metrics), requiredRoles, 60, TimeUnit.MINUTES);
-        cdaCrudCache("/counties/{county}",
+        cdaCrudResponseCache("/counties/{county}",
                 new CountyController(metrics), requiredRoles, 60, TimeUnit.MINUTES);
-        cdaCrudCache("/offices/{office}",
+        cdaCrudResponseCache("/offices/{office}",
                 new OfficeController(metrics), requiredRoles, 60, TimeUnit.MINUTES);
-        cdaCrudCache("/units/{unit-id}",
+        cdaCrudResponseCache("/units/{unit-id}",
                 new UnitsController(metrics), requiredRoles, 60, TimeUnit.MINUTES);
-        cdaCrudCache("/parameters/{param-id}",
+        cdaCrudResponseCache("/parameters/{param-id}",
                 new ParametersController(metrics), requiredRoles, 60, TimeUnit.MINUTES);
-        cdaCrudCache("/timezones/{zone}",
+        cdaCrudResponseCache("/timezones/{zone}",
                 new TimeZoneController(metrics), requiredRoles,60, TimeUnit.MINUTES);
         cdaCrudCache(format("/levels/{%s}", Controllers.LEVEL_ID),
                 new LevelsController(metrics), requiredRoles,5, TimeUnit.MINUTES);
@@ -448,8 +469,12 @@ public class ApiServlet extends HttpServlet {
         String recentPath = "/timeseries/recent/";
         get(recentPath, new TimeSeriesRecentController(metrics));
         addCacheControl(recentPath, 5, TimeUnit.MINUTES);
+        String batchPath = "/timeseries/batch";
+        get(batchPath, new TimeSeriesBatchController(metrics));
+        addCacheControl(batchPath, 5, TimeUnit.MINUTES);
+        post("/timeseries/bulk", new TimeSeriesBulkController(metrics), requiredRoles);
 
-        cdaCrudCache(format("/standard-text-id/{%s}", Controllers.STANDARD_TEXT_ID),
+        cdaCrudResponseCache(format("/standard-text-id/{%s}", Controllers.STANDARD_TEXT_ID),
                 new StandardTextController(metrics), requiredRoles,1, TimeUnit.DAYS);
 
         String textTsPath = format("/timeseries/text/{%s}", NAME);
@@ -479,6 +504,8 @@ public class ApiServlet extends HttpServlet {
                 new RatingMetadataController(metrics), requiredRoles,5, TimeUnit.MINUTES);
         cdaCrudCache("/ratings/{rating-id}",
                 new RatingController(metrics), requiredRoles,5, TimeUnit.MINUTES);
+        post(format("/ratings/{%s}/rate", Controllers.RATING_ID),
+                new RatingValuesController(metrics));
         cdaCrudCache("/catalog/{dataset}",
                 new CatalogController(metrics), requiredRoles,5, TimeUnit.MINUTES);
         cdaCrudCache("/basins/{basin-id}",
@@ -497,6 +524,10 @@ public class ApiServlet extends HttpServlet {
                 new StreamReachController(metrics), requiredRoles,1, TimeUnit.DAYS);
         cdaCrudCache("/blobs/{blob-id}",
                 new BlobController(metrics), requiredRoles,5, TimeUnit.MINUTES);
+        // registered before the crud routes so that it is not taken for a clob id
+        String clobValuesPath = "/clobs/values";
+        get(clobValuesPath, new ClobValuesController(metrics));
+        addCacheControl(clobValuesPath, 1, TimeUnit.DAYS);
         cdaCrudCache("/clobs/{clob-id}",
                 new ClobController(metrics), requiredRoles,5, TimeUnit.MINUTES);
         cdaCrudCache("/pools/{pool-id}",
@@ -541,7 +572,7 @@ public class ApiServlet extends HttpServlet {
                 new ProjectController(metrics), requiredRoles,5, TimeUnit.MINUTES);
         cdaCrudCache(format("/properties/{%s}", Controllers.NAME),
                 new PropertyController(metrics), requiredRoles,1, TimeUnit.DAYS);
-        cdaCrudCache(format("/lookup-types/{%s}", Controllers.NAME),
+        cdaCrudResponseCache(format("/lookup-types/{%s}", Controllers.NAME),
                 new LookupTypeController(metrics), requiredRoles,1, TimeUnit.DAYS);
     }
 
@@ -594,6 +625,24 @@ public class ApiServlet extends HttpServlet {
         addCacheControl(pathWithoutResource, duration, timeUnit);
     }
 
+    /**
+     * Same as {@link #cdaCrudCache(String, CrudHandler, RouteRole[], long, TimeUnit)}, but GET
+     * responses are also kept on the server for the same duration, see {@link ResponseCache}.
+     * Only meant for reference data whose responses do not depend on the user.
+     */
+    public static void cdaCrudResponseCache(@NotNull String path, @NotNull CrudHandler crudHandler,
+                                            @NotNull RouteRole[] roles, long duration, TimeUnit timeUnit) {
+        String pathWithoutResource = path.replace(getResourceId(path), "");
+        cdaCrud(path, crudHandler,
+                get -> ResponseCache.cached(get, pathWithoutResource, duration, timeUnit), roles);
+
+        addCacheControl(path, duration, timeUnit);
+        addCacheControl(pathWithoutResource, duration, timeUnit);
+
+        ResponseCache.invalidateOnWrite(staticInstance(), path, pathWithoutResource);
+        ResponseCache.invalidateOnWrite(staticInstance(), pathWithoutResource, pathWithoutResource);
+    }
+
     private static void addCacheControl(@NotNull String path, long duration, TimeUnit timeUnit) {
         if (timeUnit != null && duration > 0) {
             staticInstance().after(path, ctx -> {
@@ -619,6 +668,12 @@ public class ApiServlet extends HttpServlet {
      */
     public static void cdaCrud(@NotNull String path, @NotNull CrudHandler crudHandler,
                                  @NotNull RouteRole... roles) {
+        cdaCrud(path, crudHandler, UnaryOperator.identity(), roles);
+    }
+
+    private static void cdaCrud(@NotNull String path, @NotNull CrudHandler crudHandler,
+                                @NotNull UnaryOperator<Handler> getWrapper,
+                                @NotNull RouteRole... roles) {
         String fullPath = prefixPath(path);
         String resourceId = getResourceId(fullPath);
 
@@ -628,10 +683,10 @@ public class ApiServlet extends HttpServlet {
 
         Javalin instance = staticInstance();
         // getOne and getAll are assumed not to need authorization
-        instance.get(fullPath, crudFunctions.get(CrudFunction.GET_ONE));
+        instance.get(fullPath, getWrapper.apply(crudFunctions.get(CrudFunction.GET_ONE)));
         String pathWithoutResource = fullPath.replace(resourceId, "");
         instance.get(pathWithoutResource,
-                crudFunctions.get(CrudFunction.GET_ALL));
+                getWrapper.apply(crudFunctions.get(CrudFunction.GET_ALL)));
 
         // create, update and delete need authorization.
         instance.post(pathWithoutResource,
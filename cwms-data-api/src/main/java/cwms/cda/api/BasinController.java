@@ -44,6 +44,7 @@ import cwms.cda.api.enums.UnitSystem;
 import cwms.cda.api.errors.CdaError;
 import cwms.cda.data.dao.JooqDao;
 import cwms.cda.data.dao.basinconnectivity.BasinDao;
+import cwms.cda.data.dao.basinconnectivity.StreamNetworkCache;
 import cwms.cda.data.dto.CwmsId;
 import cwms.cda.data.dto.basinconnectivity.Basin;
 import cwms.cda.formatters.ContentType;
@@ -74,6 +75,7 @@ public class BasinController implements CrudHandler {
 
     public BasinController(MetricRegistry metrics) {
         this.metrics = metrics;
+        StreamNetworkCache.registerMetrics(metrics);
     }
 
     private Timer.Context markAndTime(String subject) {
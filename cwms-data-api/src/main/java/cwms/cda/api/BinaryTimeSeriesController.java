@@ -24,8 +24,10 @@
 
 package cwms.cda.api;
 
+import static com.codahale.metrics.MetricRegistry.name;
 import static cwms.cda.api.Controllers.BEGIN;
 import static cwms.cda.api.Controllers.CREATE;
+import static cwms.cda.api.Controllers.CURSOR;
 import static cwms.cda.api.Controllers.DATE;
 import static cwms.cda.api.Controllers.DELETE;
 import static cwms.cda.api.Controllers.END;
@@ -33,13 +35,17 @@ import static cwms.cda.api.Controllers.GET_ALL;
 import static cwms.cda.api.Controllers.NAME;
 import static cwms.cda.api.Controllers.NOT_SUPPORTED_YET;
 import static cwms.cda.api.Controllers.OFFICE;
+import static cwms.cda.api.Controllers.PAGE;
+import static cwms.cda.api.Controllers.PAGE_SIZE;
 import static cwms.cda.api.Controllers.STATUS_200;
 import static cwms.cda.api.Controllers.TIMEZONE;
 import static cwms.cda.api.Controllers.UPDATE;
 import static cwms.cda.api.Controllers.VERSION_DATE;
+import static cwms.cda.api.Controllers.queryParamAsClass;
 import static cwms.cda.api.Controllers.queryParamAsInstant;
 import static cwms.cda.api.Controllers.requiredInstant;
 import static cwms.cda.api.Controllers.requiredParam;
+import static cwms.cda.api.Controllers.writeRows;
 import static cwms.cda.data.dao.JooqDao.getDslContext;
 
 import com.codahale.metrics.MetricRegistry;
@@ -47,18 +53,21 @@ import com.codahale.metrics.Timer;
 import cwms.cda.api.errors.CdaError;
 import cwms.cda.data.dao.binarytimeseries.TimeSeriesBinaryDao;
 import cwms.cda.data.dto.binarytimeseries.BinaryTimeSeries;
+import cwms.cda.data.dto.CwmsDTOPaginated;
 import cwms.cda.formatters.ContentType;
 import cwms.cda.formatters.Formats;
 import cwms.cda.helpers.ReplaceUtils;
 import io.javalin.apibuilder.CrudHandler;
 import io.javalin.core.util.Header;
 import io.javalin.http.Context;
+import io.javalin.http.HttpCode;
 import io.javalin.plugin.openapi.annotations.HttpMethod;
 import io.javalin.plugin.openapi.annotations.OpenApi;
 import io.javalin.plugin.openapi.annotations.OpenApiContent;
 import io.javalin.plugin.openapi.annotations.OpenApiParam;
 import io.javalin.plugin.openapi.annotations.OpenApiRequestBody;
 import io.javalin.plugin.openapi.annotations.OpenApiResponse;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
@@ -78,6 +87,8 @@ public class BinaryTimeSeriesController implements CrudHandler {
     public static final String REPLACE_ALL = "replace-all";
     private static final String DEFAULT_BIN_TYPE_MASK = "*";
     public static final String BINARY_TYPE_MASK = "binary-type-mask";
+    private static final int DEFAULT_PAGE_SIZE =
+            Integer.parseInt(System.getProperty("cda.api.ts.bin.page.size", "500"));
     private final MetricRegistry metrics;
 
 
@@ -116,7 +127,13 @@ public class BinaryTimeSeriesController implements CrudHandler {
                         + "the default time zone of UTC shall be used."),
                 @OpenApiParam(name = BEGIN, required = true, description = "The start of the time window"),
                 @OpenApiParam(name = END, required = true, description = "The end of the time window"),
-                @OpenApiParam(name = VERSION_DATE, description = "The version date for the time series.")
+                @OpenApiParam(name = VERSION_DATE, description = "The version date for the time series."),
+                @OpenApiParam(name = PAGE, description = "This end point can return large amounts "
+                        + "of data as a series of pages. This parameter is used to describes the "
+                        + "current location in the response stream.  This is an opaque "
+                        + "value, and can be obtained from the 'next-page' value in the response."),
+                @OpenApiParam(name = PAGE_SIZE, type = Integer.class, description = "How many "
+                        + "entries per page returned. Default " + DEFAULT_PAGE_SIZE + ".")
             },
             responses = {
                 @OpenApiResponse(status = STATUS_200,
@@ -136,6 +153,15 @@ public class BinaryTimeSeriesController implements CrudHandler {
         String binTypeMask = ctx.queryParamAsClass(BINARY_TYPE_MASK, String.class).getOrDefault(DEFAULT_BIN_TYPE_MASK);
         int kiloByteLimit = Integer.parseInt(System.getProperty("cda.api.ts.bin.max.length.kB", "64"));
 
+        String cursor = queryParamAsClass(ctx, new String[]{PAGE, CURSOR},
+                String.class, "", metrics, name(BinaryTimeSeriesController.class.getName(), GET_ALL));
+        if (!CwmsDTOPaginated.CURSOR_CHECK.invoke(cursor)) {
+            ctx.json(new CdaError("cursor or page passed in but failed validation"))
+                    .status(HttpCode.BAD_REQUEST);
+            return;
+        }
+        int pageSize = queryParamAsClass(ctx, new String[]{PAGE_SIZE},
+                Integer.class, DEFAULT_PAGE_SIZE, metrics, name(BinaryTimeSeriesController.class.getName(), GET_ALL));
         String formatHeader = ctx.header(Header.ACCEPT);
         ContentType contentType = Formats.parseHeaderAndQueryParm(formatHeader, "");
         try (Timer.Context ignored = markAndTime(GET_ALL)) {
@@ -159,20 +185,23 @@ public class BinaryTimeSeriesController implements CrudHandler {
             DSLContext dsl = getDslContext(ctx);
             TimeSeriesBinaryDao dao = getDao(dsl);
 
-            BinaryTimeSeries binaryTimeSeries = dao.retrieve(office, tsId, binTypeMask,
-                    begin, end, version, kiloByteLimit, urlBuilder);
-
-            ctx.contentType(contentType.toString());
-
-            String result = Formats.format(contentType, binaryTimeSeries);
-            ctx.result(result);
-
-            ctx.status(HttpServletResponse.SC_OK);
+            // rows are written as they are read, the response starts with the first row
+            dao.retrieve(office, tsId, binTypeMask, begin, end, version, kiloByteLimit,
+                    urlBuilder, cursor, pageSize, (header, rows) ->
+                            writeRows(ctx, contentType, header, "binary-values", rows,
+                                    rows::getNextPage));
         } catch (URISyntaxException | UnsupportedEncodingException ex) {
             CdaError re =
                     new CdaError("Failed to process request: " + ex.getLocalizedMessage());
             logger.log(Level.SEVERE, re.toString(), ex);
             ctx.status(HttpServletResponse.SC_INTERNAL_SERVER_ERROR).json(re);
+        } catch (IOException ex) {
+            // Usually the client went away part way through a streamed response.
+            CdaError re = new CdaError("Unable to write binary time series");
+            logger.log(Level.WARNING, re.toString(), ex);
+            if (!ctx.res.isCommitted()) {
+                ctx.status(HttpServletResponse.SC_INTERNAL_SERVER_ERROR).json(re);
+            }
         }
     }
 
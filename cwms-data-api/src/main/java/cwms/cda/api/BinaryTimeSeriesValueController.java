@@ -29,6 +29,7 @@ import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import cwms.cda.api.errors.CdaError;
 import cwms.cda.data.dao.BlobDao;
+import cwms.cda.data.dao.BlobFileCache;
 import io.javalin.http.Context;
 import io.javalin.http.Handler;
 import io.javalin.plugin.openapi.annotations.OpenApi;
@@ -38,7 +39,6 @@ import io.javalin.plugin.openapi.annotations.OpenApiResponse;
 import org.jooq.DSLContext;
 
 import javax.servlet.http.HttpServletResponse;
-import java.io.InputStream;
 import java.util.logging.Logger;
 
 import static com.codahale.metrics.MetricRegistry.name;
@@ -54,6 +54,7 @@ public class BinaryTimeSeriesValueController implements Handler {
     public BinaryTimeSeriesValueController(MetricRegistry metrics) {
         this.metrics = metrics;
         requestResultSize = this.metrics.histogram((name(BinaryTimeSeriesValueController.class, RESULTS, SIZE)));
+        BlobFileCache.registerMetrics(metrics);
     }
 
     private Timer.Context markAndTime(String subject) {
@@ -93,14 +94,12 @@ public class BinaryTimeSeriesValueController implements Handler {
             String officeId = requiredParam(ctx, OFFICE);
             DSLContext dsl = getDslContext(ctx);
             BlobDao blobDao = new BlobDao(dsl);
-            blobDao.getBlob(binaryId, officeId, (blob, mediaType) -> {
-                if (blob == null) {
+            blobDao.getBlob(binaryId, officeId, (is, mediaType, size) -> {
+                if (is == null) {
                     ctx.status(HttpServletResponse.SC_NOT_FOUND).json(new CdaError("Unable to find "
                             + "blob based on given parameters"));
                 } else {
-                    long size = blob.length();
                     requestResultSize.update(size);
-                    InputStream is = blob.getBinaryStream();
                     ctx.seekableStream(is, mediaType, size);
                 }
             });
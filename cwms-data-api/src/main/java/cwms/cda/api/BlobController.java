@@ -1,11 +1,13 @@
 package cwms.cda.api;
 
 import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import com.google.common.flogger.FluentLogger;
 import cwms.cda.api.errors.CdaError;
 import cwms.cda.data.dao.BlobDao;
+import cwms.cda.data.dao.BlobFileCache;
 import cwms.cda.data.dao.JooqDao;
 import cwms.cda.data.dto.Blob;
 import cwms.cda.data.dto.Blobs;
@@ -27,7 +29,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jooq.DSLContext;
 
 import javax.servlet.http.HttpServletResponse;
-import java.io.InputStream;
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,17 +44,22 @@ public class BlobController implements CrudHandler {
     private static final FluentLogger logger = FluentLogger.forEnclosingClass();
     private static final int DEFAULT_PAGE_SIZE = 20;
     public static final String TAG = "Blob";
+    private static final long MAX_UPLOAD_BYTES =
+            Long.parseLong(System.getProperty("cda.api.blob.max.upload.length.MB", "512")) * 1024 * 1024;
 
     private final MetricRegistry metrics;
 
 
     private final Histogram requestResultSize;
+    private final Meter uploadBytes;
 
     public BlobController(MetricRegistry metrics) {
         this.metrics = metrics;
         String className = BlobController.class.getName();
 
         requestResultSize = this.metrics.histogram((name(className, RESULTS, SIZE)));
+        BlobFileCache.registerMetrics(metrics);
+        uploadBytes = this.metrics.meter(name(className, "upload", "bytes"));
     }
 
     private Timer.Context markAndTime(String subject) {
@@ -144,15 +151,13 @@ public class BlobController implements CrudHandler {
             String officeQP = ctx.queryParam(OFFICE);
             Optional<String> office = Optional.ofNullable(officeQP);
 
-            BlobDao.BlobConsumer tripleConsumer = (blob, mediaType) -> {
+            BlobDao.BlobConsumer tripleConsumer = (is, mediaType, size) -> {
 
-                if (blob == null) {
+                if (is == null) {
                     ctx.status(HttpServletResponse.SC_NOT_FOUND).json(new CdaError("Unable to find "
                             + "blob based on given parameters"));
                 } else {
-                    long size = blob.length();
                     requestResultSize.update(size);
-                    InputStream is = blob.getBinaryStream();
                     ctx.seekableStream(is, mediaType, size);
                 }
             };
@@ -166,7 +171,9 @@ public class BlobController implements CrudHandler {
 
 
     @OpenApi(
-            description = "Create new Blob",
+            description = "Create new Blob. A request body that is not JSON or XML is stored "
+                    + "as is, with the request content type as its media type and the office, "
+                    + "id and description taken from the query parameters.",
             requestBody = @OpenApiRequestBody(
                     content = {
                         @OpenApiContent(from = Blob.class, type = Formats.JSONV2)
@@ -174,7 +181,17 @@ public class BlobController implements CrudHandler {
                     required = true),
             queryParams = {
                 @OpenApiParam(name = FAIL_IF_EXISTS, type = Boolean.class,
-                        description = "Create will fail if provided ID already exists. Default: true")
+                        description = "Create will fail if provided ID already exists. Default: true"),
+                @OpenApiParam(name = OFFICE, description = "The owning office of a blob "
+                        + "uploaded as is. Required when the body is not JSON."),
+                @OpenApiParam(name = BLOB_ID, description = "The id of a blob uploaded as is. "
+                        + "Required when the body is not JSON."),
+                @OpenApiParam(name = DESCRIPTION, description = "The description of a blob "
+                        + "uploaded as is.")
+            },
+            responses = {
+                @OpenApiResponse(status = STATUS_413, description = "The uploaded blob is "
+                        + "larger than the server allows."),
             },
             method = HttpMethod.POST,
             tags = {TAG}
@@ -185,14 +202,26 @@ public class BlobController implements CrudHandler {
             DSLContext dsl = getDslContext(ctx);
 
             String reqContentType = ctx.req.getContentType();
-            String formatHeader = reqContentType != null ? reqContentType : Formats.JSON;
 
             boolean failIfExists = ctx.queryParamAsClass(FAIL_IF_EXISTS, Boolean.class).getOrDefault(true);
-            ContentType contentType = Formats.parseHeader(formatHeader, Blob.class);
-            Blob blob = Formats.parseContent(contentType, ctx.bodyAsInputStream(), Blob.class);
             BlobDao dao = new BlobDao(dsl);
-            dao.create(blob, failIfExists, false);
+            if (isDtoContentType(reqContentType)) {
+                String formatHeader = reqContentType != null ? reqContentType : Formats.JSON;
+                ContentType contentType = Formats.parseHeader(formatHeader, Blob.class);
+                Blob blob = Formats.parseContent(contentType, ctx.bodyAsInputStream(), Blob.class);
+                dao.create(blob, failIfExists, false);
+            } else {
+                // Stream the body into the database instead of parsing it into memory
+                Blob blob = new Blob(requiredParam(ctx, OFFICE), requiredParam(ctx, BLOB_ID),
+                        ctx.queryParam(DESCRIPTION), new ContentType(reqContentType).getType(), null);
+                long size = dao.create(blob, limitedBody(ctx, MAX_UPLOAD_BYTES), failIfExists, false);
+                uploadBytes.mark(size);
+            }
             ctx.status(HttpCode.CREATED);
+        } catch (IOException ex) {
+            CdaError re = new CdaError("Unable to read the uploaded blob");
+            logger.atInfo().withCause(ex).log(re.toString());
+            ctx.status(HttpServletResponse.SC_BAD_REQUEST).json(re);
         }
     }
 
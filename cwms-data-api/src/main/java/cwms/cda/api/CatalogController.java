@@ -30,6 +30,7 @@ import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import cwms.cda.api.enums.UnitSystem;
 import cwms.cda.api.errors.CdaError;
+import cwms.cda.data.dao.CatalogCountCache;
 import cwms.cda.data.dao.CatalogRequestParameters;
 import cwms.cda.data.dao.JooqDao;
 import cwms.cda.data.dao.LocationsDao;
@@ -75,6 +76,7 @@ public class CatalogController implements CrudHandler {
         String className = this.getClass().getName();
 
         requestResultSize = this.metrics.histogram((name(className, RESULTS, SIZE)));
+        CatalogCountCache.registerMetrics(metrics);
     }
 
     private Timer.Context markAndTime(String subject) {
@@ -1,9 +1,11 @@
 package cwms.cda.api;
 
 import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import com.google.common.flogger.FluentLogger;
+import com.google.common.io.CountingInputStream;
 import cwms.cda.api.errors.CdaError;
 import cwms.cda.data.dao.ClobDao;
 import cwms.cda.data.dao.JooqDao;
@@ -28,6 +30,12 @@ import org.jetbrains.annotations.NotNull;
 import org.jooq.DSLContext;
 
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -40,8 +48,11 @@ public class ClobController implements CrudHandler {
     private static final int DEFAULT_PAGE_SIZE = 20;
     public static final String TAG = "Clob";
     public static final String TEXT_PLAIN = "text/plain";
+    private static final long MAX_UPLOAD_BYTES =
+            Long.parseLong(System.getProperty("cda.api.clob.max.upload.length.MB", "512")) * 1024 * 1024;
     private final MetricRegistry metrics;
     private final Histogram requestResultSize;
+    private final Meter uploadBytes;
 
 
 
@@ -49,6 +60,7 @@ public class ClobController implements CrudHandler {
         this.metrics = metrics;
         String className = ClobController.class.getName();
         requestResultSize = this.metrics.histogram((name(className, RESULTS, SIZE)));
+        uploadBytes = this.metrics.meter(name(className, "upload", "bytes"));
     }
 
     private Timer.Context markAndTime(String subject) {
@@ -59,6 +71,11 @@ public class ClobController implements CrudHandler {
         return JooqDao.getDslContext(ctx);
     }
 
+    protected ClobDao getDao(DSLContext dsl) {
+        return new ClobDao(dsl);
+    }
+
+
     @OpenApi(
             queryParams = {
                 @OpenApiParam(name = OFFICE,
@@ -118,7 +135,7 @@ public class ClobController implements CrudHandler {
                     name(ClobController.class.getName(), GET_ALL));
             String like = ctx.queryParamAsClass(LIKE, String.class).getOrDefault(".*");
 
-            ClobDao dao = new ClobDao(dsl);
+            ClobDao dao = getDao(dsl);
             Clobs clobs = dao.getClobs(cursor, pageSize, office, includeValues, like);
             String result = Formats.format(contentType, clobs);
 
@@ -167,7 +184,7 @@ public class ClobController implements CrudHandler {
             String formatHeader = ctx.header(Header.ACCEPT);
 
             DSLContext dsl = getDslContext(ctx);
-            ClobDao dao = new ClobDao(dsl);
+            ClobDao dao = getDao(dsl);
             String office = ctx.queryParam(OFFICE);
 
             if (TEXT_PLAIN.equals(formatHeader)) {
@@ -212,7 +229,17 @@ public class ClobController implements CrudHandler {
                     required = true),
             queryParams = {
                 @OpenApiParam(name = FAIL_IF_EXISTS, type = Boolean.class,
-                        description = "Create will fail if provided ID already exists. Default: true")
+                        description = "Create will fail if provided ID already exists. Default: true"),
+                @OpenApiParam(name = OFFICE, description = "The owning office of a clob "
+                        + "uploaded as plain text. Required when the body is not JSON or XML."),
+                @OpenApiParam(name = CLOB_ID, description = "The id of a clob uploaded as plain "
+                        + "text. Required when the body is not JSON or XML."),
+                @OpenApiParam(name = DESCRIPTION, description = "The description of a clob "
+                        + "uploaded as plain text.")
+            },
+            responses = {
+                @OpenApiResponse(status = STATUS_413, description = "The uploaded clob is "
+                        + "larger than the server allows."),
             },
             method = HttpMethod.POST,
             tags = {TAG}
@@ -223,18 +250,38 @@ public class ClobController implements CrudHandler {
             DSLContext dsl = getDslContext(ctx);
 
             String reqContentType = ctx.req.getContentType();
-            String formatHeader = reqContentType != null ? reqContentType : Formats.JSONV2;
 
             boolean failIfExists = ctx.queryParamAsClass(FAIL_IF_EXISTS, Boolean.class).getOrDefault(true);
 
-            ContentType contentType = Formats.parseHeader(formatHeader, Clob.class);
-            Clob clob = Formats.parseContent(contentType, ctx.bodyAsInputStream(), Clob.class);
-            ClobDao dao = new ClobDao(dsl);
-            dao.create(clob, failIfExists);
+            ClobDao dao = getDao(dsl);
+            if (isDtoContentType(reqContentType)) {
+                String formatHeader = reqContentType != null ? reqContentType : Formats.JSONV2;
+                ContentType contentType = Formats.parseHeader(formatHeader, Clob.class);
+                Clob clob = Formats.parseContent(contentType, ctx.bodyAsInputStream(), Clob.class);
+                dao.create(clob, failIfExists);
+            } else {
+                // Stream the body into the database instead of parsing it into memory
+                Clob clob = new Clob(requiredParam(ctx, OFFICE), requiredParam(ctx, CLOB_ID),
+                        ctx.queryParam(DESCRIPTION), null);
+                CountingInputStream body = new CountingInputStream(
+                        limitedBody(ctx, MAX_UPLOAD_BYTES));
+                dao.create(clob, bodyReader(ctx, body), failIfExists);
+                uploadBytes.mark(body.getCount());
+            }
             ctx.status(HttpCode.CREATED);
+        } catch (IOException ex) {
+            CdaError re = new CdaError("Unable to read the uploaded clob");
+            log.atInfo().withCause(ex).log(re.toString());
+            ctx.status(HttpServletResponse.SC_BAD_REQUEST).json(re);
         }
     }
 
+    private static Reader bodyReader(Context ctx, InputStream body) {
+        String encoding = ctx.req.getCharacterEncoding();
+        Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        return new InputStreamReader(body, charset);
+    }
+
     @OpenApi(
             pathParams = {
                 @OpenApiParam(name = CLOB_ID, required = true,
@@ -244,7 +291,11 @@ public class ClobController implements CrudHandler {
                 @OpenApiParam(name = IGNORE_NULLS, type = Boolean.class,
                         description = "If true, null and empty fields in the provided clob "
                                 + "will be ignored and the existing value of those fields "
-                                + "left in place. Default: true")
+                                + "left in place. Default: true"),
+                @OpenApiParam(name = OFFICE, description = "The owning office of a clob "
+                        + "uploaded as plain text. Required when the body is not JSON or XML."),
+                @OpenApiParam(name = DESCRIPTION, description = "The new description of a clob "
+                        + "uploaded as plain text.")
             },
             requestBody = @OpenApiRequestBody(
                 content = {
@@ -265,8 +316,18 @@ public class ClobController implements CrudHandler {
             DSLContext dsl = getDslContext(ctx);
 
             String reqContentType = ctx.req.getContentType();
+            ClobDao dao = getDao(dsl);
+            if (!isDtoContentType(reqContentType)) {
+                Clob clob = new Clob(requiredParam(ctx, OFFICE), clobId,
+                        ctx.queryParam(DESCRIPTION), null);
+                CountingInputStream body = new CountingInputStream(
+                        limitedBody(ctx, MAX_UPLOAD_BYTES));
+                dao.update(clob, bodyReader(ctx, body), ignoreNulls);
+                uploadBytes.mark(body.getCount());
+                ctx.status(HttpCode.OK);
+                return;
+            }
             String formatHeader = reqContentType != null ? reqContentType : Formats.JSON;
-            ClobDao dao = new ClobDao(dsl);
             ContentType contentType = Formats.parseHeader(formatHeader, Clob.class);
             Clob clob = Formats.parseContent(contentType, ctx.bodyAsInputStream(), Clob.class);
 
@@ -282,6 +343,10 @@ public class ClobController implements CrudHandler {
                         "Clob id in body does not match id in path");
             }
             dao.update(clob, ignoreNulls);
+        } catch (IOException ex) {
+            CdaError re = new CdaError("Unable to read the uploaded clob");
+            log.atInfo().withCause(ex).log(re.toString());
+            ctx.status(HttpServletResponse.SC_BAD_REQUEST).json(re);
         }
     }
 
@@ -325,7 +390,7 @@ public class ClobController implements CrudHandler {
 
         try (final Timer.Context ignored = markAndTime(DELETE)) {
             DSLContext dsl = getDslContext(ctx);
-            ClobDao dao = new ClobDao(dsl);
+            ClobDao dao = getDao(dsl);
             dao.delete(office, clobId);
         }
     }
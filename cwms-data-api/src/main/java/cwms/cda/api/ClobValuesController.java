@@ -0,0 +1,165 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Hydrologic Engineering Center
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package cwms.cda.api;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static cwms.cda.api.Controllers.*;
+import static cwms.cda.data.dao.JooqDao.getDslContext;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import cwms.cda.api.errors.CdaError;
+import cwms.cda.data.dao.ClobDao;
+import cwms.cda.formatters.Formats;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.plugin.openapi.annotations.OpenApi;
+import io.javalin.plugin.openapi.annotations.OpenApiContent;
+import io.javalin.plugin.openapi.annotations.OpenApiParam;
+import io.javalin.plugin.openapi.annotations.OpenApiResponse;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Retrieves the values of many clobs of an office in one request.
+ * <p>
+ * Text values larger than {@code cda.api.ts.text.max.length.kB} are returned by the text time
+ * series endpoint as a value-url each, which would otherwise cost a request and a connection per
+ * value. The clob ids of those urls can be passed here together; all values are read with one
+ * query per thousand ids and streamed into the response as they are read.
+ */
+public class ClobValuesController implements Handler {
+    private static final Logger logger = Logger.getLogger(ClobValuesController.class.getName());
+
+    public static final String VALUES = "values";
+    public static final String NOT_FOUND = "not-found";
+
+    private static final int MAX_VALUES =
+            Integer.parseInt(System.getProperty("cda.api.ts.text.values.max.ids", "500"));
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final MetricRegistry metrics;
+    private final Histogram requestResultSize;
+    private final Histogram batchSize;
+
+    public ClobValuesController(MetricRegistry metrics) {
+        this.metrics = metrics;
+        String className = ClobValuesController.class.getName();
+        requestResultSize = this.metrics.histogram(name(className, RESULTS, SIZE));
+        batchSize = this.metrics.histogram(name(className, "batch", SIZE));
+    }
+
+    private Timer.Context markAndTime(String subject) {
+        return Controllers.markAndTime(metrics, getClass().getName(), subject);
+    }
+
+    @OpenApi(
+            description = "Retrieve the values of several clobs, such as those referenced by the "
+                    + "value-url of the rows of a text time series. The response holds an object "
+                    + "of the values found, keyed by id, and the list of ids that were not found.",
+            queryParams = {
+                    @OpenApiParam(name = OFFICE, required = true, description = "Specifies the "
+                            + "owning office of the clobs."),
+                    @OpenApiParam(name = CLOB_ID, required = true, description = "The id of a "
+                            + "clob to retrieve. Repeat the parameter for each value, at most "
+                            + "500 by default.")
+            },
+            responses = {
+                    @OpenApiResponse(status = STATUS_200,
+                            content = {
+                                    @OpenApiContent(type = Formats.JSON)
+                            }
+                    ),
+                    @OpenApiResponse(status = STATUS_400, description = "No id or too many ids "
+                            + "were requested.")
+            },
+            tags = {ClobController.TAG}
+    )
+    public void handle(Context ctx) {
+        String officeId = requiredParam(ctx, OFFICE);
+        List<String> textIds = new ArrayList<>(new LinkedHashSet<>(ctx.queryParams(CLOB_ID)));
+        if (textIds.isEmpty() || textIds.size() > MAX_VALUES) {
+            ctx.status(HttpServletResponse.SC_BAD_REQUEST).json(new CdaError("Between 1 and "
+                    + MAX_VALUES + " " + CLOB_ID + " parameters must be provided."));
+            return;
+        }
+        batchSize.update(textIds.size());
+
+        try (Timer.Context ignored = markAndTime(GET_ALL)) {
+            ClobDao clobDao = new ClobDao(getDslContext(ctx));
+            ctx.status(HttpServletResponse.SC_OK);
+            ctx.contentType(Formats.JSON);
+
+            Controllers.ResponseBody body = Controllers.responseBody(ctx);
+
+            JsonGenerator gen = JSON.createGenerator(body.stream());
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.writeStartObject();
+            gen.writeObjectFieldStart(VALUES);
+            Set<String> found = new HashSet<>();
+            clobDao.getClobs(officeId, textIds, (textId, clob) -> {
+                found.add(textId);
+                gen.writeFieldName(textId);
+                if (clob == null) {
+                    gen.writeNull();
+                } else {
+                    // the text is copied from the database to the response in chunks
+                    try (Reader reader = clob.getCharacterStream()) {
+                        gen.writeString(reader, -1);
+                    }
+                }
+            });
+            gen.writeEndObject();
+            gen.writeArrayFieldStart(NOT_FOUND);
+            for (String textId : textIds) {
+                if (!found.contains(textId)) {
+                    gen.writeString(textId);
+                }
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+            gen.close();
+            requestResultSize.update(body.finish());
+        } catch (IOException ex) {
+            // Usually the client went away part way through the response.
+            CdaError re = new CdaError("Unable to write clob values");
+            logger.log(Level.WARNING, re.toString(), ex);
+            if (!ctx.res.isCommitted()) {
+                ctx.status(HttpServletResponse.SC_INTERNAL_SERVER_ERROR).json(re);
+            }
+        }
+    }
+}
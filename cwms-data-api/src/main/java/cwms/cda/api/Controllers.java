@@ -29,21 +29,39 @@ import static com.codahale.metrics.MetricRegistry.name;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import com.google.common.io.CountingOutputStream;
 import cwms.cda.api.enums.UnitSystem;
 import cwms.cda.api.enums.VersionType;
 import cwms.cda.api.errors.RequiredQueryParameterException;
 import cwms.cda.data.dao.JooqDao;
+import cwms.cda.data.dto.CwmsDTOBase;
 import cwms.cda.formatters.ContentType;
 import cwms.cda.formatters.Formats;
 import cwms.cda.helpers.DateUtils;
+import io.javalin.core.util.Header;
 import io.javalin.core.validation.JavalinValidation;
 import io.javalin.core.validation.Validator;
 import io.javalin.http.Context;
+import io.javalin.http.HttpResponseException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Clob;
+import java.sql.SQLException;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.http.HttpServletResponse;
 import org.jetbrains.annotations.Nullable;
 
 public final class Controllers {
@@ -81,6 +99,7 @@ public final class Controllers {
     public static final String ACCEPT = "Accept";
     public static final String CLOB_ID = "clob-id";
     public static final String BLOB_ID = "blob-id";
+    public static final String DESCRIPTION = "description";
     public static final String INCLUDE_VALUES = "include-values";
     public static final String FAIL_IF_EXISTS = "fail-if-exists";
     public static final String IGNORE_NULLS = "ignore-nulls";
@@ -161,6 +180,7 @@ public final class Controllers {
     public static final String STATUS_404 = "404";
     public static final String STATUS_501 = "501";
     public static final String STATUS_400 = "400";
+    public static final String STATUS_413 = "413";
     public static final String TEXT_MASK = "text-mask";
     public static final String DELETE_MODE = "delete-mode";
     public static final String MIN_ATTRIBUTE = "min-attribute";
@@ -420,4 +440,179 @@ public final class Controllers {
             ctx.res.addHeader(DEPRECATED_HEADER, DEPRECATED_CSV);
         }
     }
+
+    /**
+     * Whether the client accepts a gzip encoded response.
+     */
+    static boolean acceptsGzip(Context ctx) {
+        String acceptEncoding = ctx.header(Header.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    /**
+     * Open the response for a body written past Javalin's result, gzip encoded if the client
+     * accepts it. Javalin only compresses a result, so the body is encoded exactly once.
+     * The status and all headers have to be set before this is called.
+     *
+     * @param ctx the request context
+     * @return the body, {@link ResponseBody#finish()} has to be called once it is written
+     */
+    static ResponseBody responseBody(Context ctx) throws IOException {
+        OutputStream out = ctx.res.getOutputStream();
+        GZIPOutputStream gzipOut = null;
+        if (acceptsGzip(ctx)) {
+            ctx.header(Header.CONTENT_ENCODING, "gzip");
+            // sync flush, so that a flush sends what was written so far
+            gzipOut = new GZIPOutputStream(out, true);
+            out = gzipOut;
+        }
+        return new ResponseBody(out, gzipOut);
+    }
+
+    /**
+     * A response body opened by {@link #responseBody(Context)} that counts the bytes written
+     * to it before compression.
+     */
+    static final class ResponseBody {
+        private final CountingOutputStream counter;
+        @Nullable
+        private final GZIPOutputStream gzipOut;
+
+        private ResponseBody(OutputStream out, @Nullable GZIPOutputStream gzipOut) {
+            this.counter = new CountingOutputStream(out);
+            this.gzipOut = gzipOut;
+        }
+
+        OutputStream stream() {
+            return counter;
+        }
+
+        /**
+         * Write the gzip trailer, if any, and flush the response without closing it.
+         *
+         * @return the number of bytes written before compression
+         */
+        long finish() throws IOException {
+            if (gzipOut != null) {
+                gzipOut.finish();
+            }
+            counter.flush();
+            return counter.getCount();
+        }
+    }
+
+    /**
+     * Copy a CLOB to the response as it is read, gzip encoded if the client accepts it.
+     * The status and all headers have to be set before this is called.
+     *
+     * @param ctx the request context
+     * @param clob the CLOB to write, null writes an empty body
+     * @return the number of bytes written before compression
+     */
+    static long writeClob(Context ctx, Clob clob) throws SQLException, IOException {
+        ResponseBody body = responseBody(ctx);
+        Writer writer = new OutputStreamWriter(body.stream(), StandardCharsets.UTF_8);
+        if (clob != null) {
+            try (Reader reader = clob.getCharacterStream()) {
+                char[] buffer = new char[8192];
+                int read;
+                while ((read = reader.read(buffer)) != -1) {
+                    writer.write(buffer, 0, read);
+                }
+            }
+        }
+        writer.flush();
+        return body.finish();
+    }
+
+    /**
+     * Write a paged dto to the response while its rows are still being read, gzip encoded if
+     * the client accepts it. Sets the status and content type before the first byte is written.
+     *
+     * @param ctx the request context
+     * @param contentType the format to write
+     * @param header the dto without its rows
+     * @param rowsField the name of the field holding the rows
+     * @param rows the rows of the page
+     * @param nextPage the cursor of the next page once the rows have been read
+     * @return the number of bytes written before compression
+     */
+    static long writeRows(Context ctx, ContentType contentType, CwmsDTOBase header,
+                          String rowsField, Iterator<?> rows, Supplier<String> nextPage)
+            throws IOException {
+        ctx.status(HttpServletResponse.SC_OK);
+        ctx.contentType(contentType.toString());
+        ResponseBody body = responseBody(ctx);
+        Formats.format(contentType, header, rowsField, rows, nextPage, body.stream());
+        return body.finish();
+    }
+
+    /**
+     * Whether a request body of this content type holds a serialized dto rather than raw
+     * content to be stored as is. A missing content type is treated as a dto.
+     */
+    static boolean isDtoContentType(@Nullable String contentType) {
+        if (contentType == null || contentType.isEmpty()) {
+            return true;
+        }
+        String type = new ContentType(contentType).getType();
+        return Formats.JSON.equals(type) || Formats.XML.equals(type);
+    }
+
+    /**
+     * The request body as a stream that fails with 413 Payload Too Large once more than
+     * maxBytes have been read, or immediately if the declared length is already larger.
+     */
+    static InputStream limitedBody(Context ctx, long maxBytes) {
+        if (ctx.req.getContentLengthLong() > maxBytes) {
+            throw payloadTooLarge(maxBytes);
+        }
+        return new FilterInputStream(ctx.bodyAsInputStream()) {
+            private long remaining = maxBytes;
+
+            @Override
+            public int read() throws IOException {
+                int retval = super.read();
+                if (retval != -1) {
+                    consumed(1);
+                }
+                return retval;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int retval = super.read(b, off, len);
+                if (retval > 0) {
+                    consumed(retval);
+                }
+                return retval;
+            }
+
+            private void consumed(int count) {
+                remaining -= count;
+                if (remaining < 0) {
+                    throw payloadTooLarge(maxBytes);
+                }
+            }
+        };
+    }
+
+    /**
+     * The response exception, such as the one thrown by {@link #limitedBody(Context, long)},
+     * that caused the given exception when jOOQ or the driver wrapped it on its way out of a DAO.
+     */
+    @Nullable
+    public static HttpResponseException wrappedResponse(Throwable e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpResponseException) {
+                return (HttpResponseException) cause;
+            }
+        }
+        return null;
+    }
+
+    private static HttpResponseException payloadTooLarge(long maxBytes) {
+        return new HttpResponseException(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                "Request body exceeds the maximum of " + maxBytes + " bytes");
+    }
 }
@@ -28,6 +28,7 @@ import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import cwms.cda.api.errors.CdaError;
+import cwms.cda.data.dao.BlobFileCache;
 import cwms.cda.data.dao.ForecastInstanceDao;
 import cwms.cda.helpers.DateUtils;
 import io.javalin.http.Context;
@@ -38,7 +39,6 @@ import io.javalin.plugin.openapi.annotations.OpenApiParam;
 import io.javalin.plugin.openapi.annotations.OpenApiResponse;
 
 import javax.servlet.http.HttpServletResponse;
-import java.io.InputStream;
 import java.time.Instant;
 
 import static com.codahale.metrics.MetricRegistry.name;
@@ -53,6 +53,7 @@ public final class ForecastFileController implements Handler {
     public ForecastFileController(MetricRegistry metrics) {
         this.metrics = metrics;
         requestResultSize = this.metrics.histogram((name(BinaryTimeSeriesValueController.class, RESULTS, SIZE)));
+        BlobFileCache.registerMetrics(metrics);
     }
 
     private Timer.Context markAndTime(String subject) {
@@ -102,14 +103,12 @@ public final class ForecastFileController implements Handler {
         Instant issueInstant = DateUtils.parseUserDate(issueDate, "UTC").toInstant();
         try (Timer.Context ignored = markAndTime(GET_ALL)) {
             ForecastInstanceDao dao = new ForecastInstanceDao(getDslContext(ctx));
-            dao.getFileBlob(office, specId, designator, forecastInstant, issueInstant, (blob, mediaType) -> {
-                if (blob == null) {
+            dao.getFileBlob(office, specId, designator, forecastInstant, issueInstant, (is, mediaType, size) -> {
+                if (is == null) {
                     ctx.status(HttpServletResponse.SC_NOT_FOUND).json(new CdaError("Unable to find "
                             + "blob based on given parameters"));
                 } else {
-                    long size = blob.length();
                     requestResultSize.update(size);
-                    InputStream is = blob.getBinaryStream();
                     ctx.seekableStream(is, mediaType, size);
                 }
             });
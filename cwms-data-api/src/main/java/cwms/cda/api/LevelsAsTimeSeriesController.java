@@ -26,6 +26,7 @@ package cwms.cda.api;
 
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import cwms.cda.data.dao.LocationLevelCache;
 import cwms.cda.data.dao.LocationLevelsDao;
 import cwms.cda.data.dao.LocationLevelsDaoImpl;
 import cwms.cda.data.dto.TimeSeries;
@@ -56,6 +57,7 @@ public class LevelsAsTimeSeriesController implements Handler {
 
     public LevelsAsTimeSeriesController(MetricRegistry metrics) {
         this.metrics = metrics;
+        LocationLevelCache.registerMetrics(metrics);
     }
 
     private Timer.Context markAndTime(String subject) {
@@ -52,6 +52,7 @@ import static cwms.cda.api.Controllers.VERSION;
 import static cwms.cda.api.Controllers.addDeprecatedContentTypeWarning;
 import static cwms.cda.api.Controllers.queryParamAsClass;
 import static cwms.cda.api.Controllers.requiredParam;
+import static cwms.cda.api.Controllers.writeClob;
 import static cwms.cda.data.dao.JooqDao.getDslContext;
 
 import com.codahale.metrics.Histogram;
@@ -89,16 +90,20 @@ import io.javalin.plugin.openapi.annotations.OpenApiContent;
 import io.javalin.plugin.openapi.annotations.OpenApiParam;
 import io.javalin.plugin.openapi.annotations.OpenApiRequestBody;
 import io.javalin.plugin.openapi.annotations.OpenApiResponse;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.servlet.http.HttpServletResponse;
 import org.jetbrains.annotations.NotNull;
 import org.jooq.DSLContext;
 
 
 public class LevelsController implements CrudHandler {
+    private static final Logger logger = Logger.getLogger(LevelsController.class.getName());
     static final String TAG = "Levels";
     private final MetricRegistry metrics;
 
@@ -308,14 +313,10 @@ public class LevelsController implements CrudHandler {
 
                 ctx.status(HttpServletResponse.SC_OK);
                 ctx.contentType(contentType.toString());
+                addDeprecatedContentTypeWarning(ctx, contentType);
             } else {
                 //Use the type string, not the full string with properties.
                 //i.e. application/json not application/json;version=1
-                String results = levelsDao.getLocationLevels(format, levelIdMask, office, unit, datum,
-                        begin, end, timezone);
-                ctx.status(HttpServletResponse.SC_OK);
-                ctx.result(results);
-                requestResultSize.update(results.length());
                 if (isLegacyVersion)
                 {
                     ctx.contentType(contentType.toString());
@@ -324,8 +325,20 @@ public class LevelsController implements CrudHandler {
                 {
                     ctx.contentType(contentType.getType());
                 }
+                // Headers must be complete before the CLOB is copied to the response.
+                ctx.status(HttpServletResponse.SC_OK);
+                addDeprecatedContentTypeWarning(ctx, contentType);
+                levelsDao.getLocationLevels(format, levelIdMask, office, unit, datum,
+                        begin, end, timezone,
+                        clob -> requestResultSize.update(writeClob(ctx, clob)));
+            }
+        } catch (IOException ex) {
+            // Usually the client went away part way through the response.
+            CdaError re = new CdaError("Unable to write location levels");
+            logger.log(Level.WARNING, re.toString(), ex);
+            if (!ctx.res.isCommitted()) {
+                ctx.status(HttpServletResponse.SC_INTERNAL_SERVER_ERROR).json(re);
             }
-            addDeprecatedContentTypeWarning(ctx, contentType);
         }
     }
 
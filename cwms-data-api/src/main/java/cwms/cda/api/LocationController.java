@@ -41,6 +41,7 @@ import static cwms.cda.api.Controllers.UNIT;
 import static cwms.cda.api.Controllers.UPDATE;
 import static cwms.cda.api.Controllers.VERSION;
 import static cwms.cda.api.Controllers.addDeprecatedContentTypeWarning;
+import static cwms.cda.api.Controllers.writeClob;
 import static cwms.cda.data.dao.JooqDao.getDslContext;
 
 import com.codahale.metrics.Histogram;
@@ -204,9 +205,6 @@ public class LocationController implements CrudHandler {
             else
             {
                 String format = Formats.getLegacyTypeFromContentType(contentType);
-                results = locationsDao.getLocations(names, format, units, datum, office);
-                ctx.result(results);
-                requestResultSize.update(results.length());
                 if (isLegacyFormat)
                 {
                     ctx.contentType(contentType.toString());
@@ -215,6 +213,12 @@ public class LocationController implements CrudHandler {
                 {
                     ctx.contentType(contentType.getType());
                 }
+                // Headers must be complete before the CLOB is copied to the response.
+                addDeprecatedContentTypeWarning(ctx, contentType);
+                ctx.status(HttpServletResponse.SC_OK);
+                locationsDao.getLocations(names, format, units, datum, office,
+                        clob -> requestResultSize.update(writeClob(ctx, clob)));
+                return;
             }
 
             addDeprecatedContentTypeWarning(ctx, contentType);
@@ -224,7 +228,9 @@ public class LocationController implements CrudHandler {
         } catch (Exception ex) {
             CdaError re = new CdaError("failed to process request");
             logger.log(Level.SEVERE, re.toString(), ex);
-            ctx.status(HttpServletResponse.SC_INTERNAL_SERVER_ERROR).json(re);
+            if (!ctx.res.isCommitted()) {
+                ctx.status(HttpServletResponse.SC_INTERNAL_SERVER_ERROR).json(re);
+            }
         }
     }
 
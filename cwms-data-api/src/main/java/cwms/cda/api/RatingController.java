@@ -51,6 +51,7 @@ import static cwms.cda.api.Controllers.UNIT;
 import static cwms.cda.api.Controllers.UPDATE;
 import static cwms.cda.api.Controllers.VERSION_DATE;
 import static cwms.cda.api.Controllers.addDeprecatedContentTypeWarning;
+import static cwms.cda.api.Controllers.writeClob;
 import static cwms.cda.data.dao.JooqDao.getDslContext;
 
 import com.codahale.metrics.Histogram;
@@ -59,6 +60,7 @@ import com.codahale.metrics.Timer;
 import cwms.cda.api.errors.CdaError;
 import cwms.cda.data.dao.JsonRatingUtils;
 import cwms.cda.data.dao.RatingDao;
+import cwms.cda.data.dao.RatingSetCache;
 import cwms.cda.data.dao.RatingSetDao;
 import cwms.cda.data.dto.CwmsDTOBase;
 import cwms.cda.formatters.ContentType;
@@ -109,6 +111,7 @@ public class RatingController implements CrudHandler {
         this.metrics = metrics;
         String className = this.getClass().getName();
         requestResultSize = this.metrics.histogram((name(className, RESULTS, SIZE)));
+        RatingSetCache.registerMetrics(metrics);
     }
 
     private static RatingSet.DatabaseLoadMethod getDatabaseLoadMethod(String input) {
@@ -318,13 +321,18 @@ public class RatingController implements CrudHandler {
             //At the moment, we still use the legacy formatting here, since we don't have a newer API for serializing/deserializing
             //a collection of rating sets - unlike getOne.
             String legacyFormat = Formats.getLegacyTypeFromContentType(contentType);
-            String results = ratingDao.retrieveRatings(legacyFormat, names, unit, datum, office, start,
-                    end, timezone);
-
+            // Headers must be complete before the CLOB is copied to the response.
             ctx.status(HttpServletResponse.SC_OK);
-            ctx.result(results);
             addDeprecatedContentTypeWarning(ctx, contentType);
-            requestResultSize.update(results.length());
+            ratingDao.retrieveRatings(legacyFormat, names, unit, datum, office, start,
+                    end, timezone, clob -> requestResultSize.update(writeClob(ctx, clob)));
+        } catch (IOException ex) {
+            // Usually the client went away part way through the response.
+            CdaError re = new CdaError("Unable to write ratings");
+            logger.log(Level.WARNING, re.toString(), ex);
+            if (!ctx.res.isCommitted()) {
+                ctx.status(HttpServletResponse.SC_INTERNAL_SERVER_ERROR).json(re);
+            }
         }
     }
 
@@ -406,15 +414,22 @@ public class RatingController implements CrudHandler {
             if (isJson || isXml) {
                 ctx.contentType(contentType.toString());
                 try {
-                    RatingSet ratingSet = getRatingSet(ctx, method, officeId, rating, begin, end);
-                    if (ratingSet != null) {
-                        if (isJson) {
-                            retval = JsonRatingUtils.toJson(ratingSet);
+                    if (method == RatingSet.DatabaseLoadMethod.EAGER) {
+                        RatingSetCache.Entry entry = RatingSetCache.get(officeId, rating, begin, end,
+                                () -> getRatingSet(ctx, method, officeId, rating, begin, end));
+                        if (entry != null) {
+                            retval = entry.getFormatted(contentType.toString(),
+                                    ratingSet -> serializeRatingSet(ratingSet, isJson));
                         } else {
-                            retval = RatingXmlFactory.toXml(ratingSet, " ");
+                            ctx.status(HttpCode.NOT_FOUND);
                         }
                     } else {
-                        ctx.status(HttpCode.NOT_FOUND);
+                        RatingSet ratingSet = getRatingSet(ctx, method, officeId, rating, begin, end);
+                        if (ratingSet != null) {
+                            retval = serializeRatingSet(ratingSet, isJson);
+                        } else {
+                            ctx.status(HttpCode.NOT_FOUND);
+                        }
                     }
                 } catch (RatingException e) {
                     CdaError re =
@@ -443,6 +458,15 @@ public class RatingController implements CrudHandler {
         return retval;
     }
 
+    private static String serializeRatingSet(RatingSet ratingSet, boolean isJson)
+            throws IOException, RatingException {
+        if (isJson) {
+            return JsonRatingUtils.toJson(ratingSet);
+        } else {
+            return RatingXmlFactory.toXml(ratingSet, " ");
+        }
+    }
+
     private RatingSet getRatingSet(Context ctx, RatingSet.DatabaseLoadMethod method,
                                    String officeId, String rating, Instant begin,
                                    Instant end) throws IOException, RatingException {
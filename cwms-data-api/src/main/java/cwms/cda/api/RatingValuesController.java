@@ -0,0 +1,256 @@
+package cwms.cda.api;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static cwms.cda.api.Controllers.OFFICE;
+import static cwms.cda.api.Controllers.RATING_ID;
+import static cwms.cda.api.Controllers.RESULTS;
+import static cwms.cda.api.Controllers.SIZE;
+import static cwms.cda.api.Controllers.STATUS_200;
+import static cwms.cda.api.Controllers.STATUS_400;
+import static cwms.cda.api.Controllers.STATUS_404;
+import static cwms.cda.api.Controllers.requiredParam;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import cwms.cda.api.errors.CdaError;
+import cwms.cda.api.errors.NotFoundException;
+import cwms.cda.data.dao.JooqDao;
+import cwms.cda.data.dao.RatingSetCache;
+import cwms.cda.data.dao.RatingSetDao;
+import cwms.cda.data.dao.TimeSeriesDao;
+import cwms.cda.data.dao.TimeSeriesDaoImpl;
+import cwms.cda.data.dto.TimeSeries;
+import cwms.cda.data.dto.rating.RatedValues;
+import cwms.cda.formatters.ContentType;
+import cwms.cda.formatters.Formats;
+import hec.data.RatingException;
+import hec.data.cwmsRating.RatingSet;
+import io.javalin.core.util.Header;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.plugin.openapi.annotations.HttpMethod;
+import io.javalin.plugin.openapi.annotations.OpenApi;
+import io.javalin.plugin.openapi.annotations.OpenApiContent;
+import io.javalin.plugin.openapi.annotations.OpenApiParam;
+import io.javalin.plugin.openapi.annotations.OpenApiRequestBody;
+import io.javalin.plugin.openapi.annotations.OpenApiResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.http.HttpServletResponse;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.DSLContext;
+
+/**
+ * Rates values with a stored rating without sending the rating itself to the client.
+ * The rating set is loaded once and kept in the {@link RatingSetCache}, each request then
+ * rates all of its values with a single call.
+ */
+public class RatingValuesController implements Handler {
+    private static final Logger logger = Logger.getLogger(RatingValuesController.class.getName());
+
+    /**
+     * Value the rating library returns for values it could not rate (hec.lang.Const.UNDEFINED_DOUBLE).
+     */
+    static final double UNDEFINED_DOUBLE = -Float.MAX_VALUE;
+
+    private final MetricRegistry metrics;
+    private final Histogram requestResultSize;
+
+    public RatingValuesController(MetricRegistry metrics) {
+        this.metrics = metrics;
+        requestResultSize = this.metrics.histogram((name(RatingValuesController.class, RESULTS, SIZE)));
+        RatingSetCache.registerMetrics(metrics);
+    }
+
+    private Timer.Context markAndTime(String subject) {
+        return Controllers.markAndTime(metrics, getClass().getName(), subject);
+    }
+
+    @OpenApi(
+            pathParams = {
+                @OpenApiParam(name = RATING_ID, required = true, description = "The rating-id of "
+                        + "the rating to apply."),
+            },
+            queryParams = {
+                @OpenApiParam(name = OFFICE, required = true, description = "Specifies the owning "
+                        + "office of the rating."),
+            },
+            requestBody = @OpenApiRequestBody(content = {
+                @OpenApiContent(from = RatedValues.class, type = Formats.JSONV2),
+                @OpenApiContent(from = RatedValues.class, type = Formats.JSON)
+            }, required = true),
+            responses = {
+                @OpenApiResponse(status = STATUS_200, content = {
+                    @OpenApiContent(from = RatedValues.class, type = Formats.JSONV2)}),
+                @OpenApiResponse(status = STATUS_400, description = "The values could not be "
+                        + "rated, for instance because of unknown units."),
+                @OpenApiResponse(status = STATUS_404, description = "The rating or time series "
+                        + "was not found."),
+            },
+            path = "/ratings/{rating-id}/rate",
+            description = "Rates the provided independent values, or the values of a time series, "
+                    + "with the rating. The dependent values are returned in the same order.",
+            method = HttpMethod.POST,
+            tags = {"Ratings"}
+    )
+    @Override
+    public void handle(@NotNull Context ctx) throws IOException {
+        try (Timer.Context ignored = markAndTime("rate")) {
+            String office = requiredParam(ctx, OFFICE);
+            String ratingId = ctx.pathParam(RATING_ID);
+            String contentTypeHeader = ctx.req.getContentType();
+            ContentType contentType = Formats.parseHeader(
+                    contentTypeHeader != null ? contentTypeHeader : Formats.JSONV2, RatedValues.class);
+            RatedValues input = Formats.parseContent(contentType, ctx.body(), RatedValues.class);
+            input.validate();
+
+            DSLContext dsl = JooqDao.getDslContext(ctx);
+            RatingSetCache.Entry entry = RatingSetCache.get(office, ratingId, null, null,
+                    () -> new RatingSetDao(dsl).retrieve(RatingSet.DatabaseLoadMethod.EAGER,
+                            office, ratingId, null, null));
+            if (entry == null) {
+                throw new NotFoundException("Unable to find rating: " + ratingId);
+            }
+            // the cached rating set is shared, other units are rated with a copy
+            RatingSet ratingSet = input.getUnits() == null ? entry.getRatingSet()
+                    : entry.getRatingSet(input.getUnits());
+
+            RatedValues result;
+            if (input.getTimeseriesId() != null) {
+                result = rateTimeSeries(dsl, ratingSet, office, input);
+            } else {
+                List<Double> rated = rate(ratingSet, input.getValueTimes(),
+                        input.getIndependentValues());
+                result = new RatedValues.Builder()
+                        .withUnits(unitsUsed(ratingSet, input.getUnits()))
+                        .withValueTimes(input.getValueTimes())
+                        .withDependentValues(rated)
+                        .build();
+            }
+
+            ContentType responseType = Formats.parseHeader(ctx.header(Header.ACCEPT), RatedValues.class);
+            String body = Formats.format(responseType, result);
+            ctx.contentType(responseType.toString());
+            ctx.result(body);
+            ctx.status(HttpServletResponse.SC_OK);
+            requestResultSize.update(body.length());
+        } catch (RatingException ex) {
+            CdaError re = new CdaError("Unable to rate values: " + ex.getLocalizedMessage());
+            logger.log(Level.FINE, re.toString(), ex);
+            ctx.status(HttpServletResponse.SC_BAD_REQUEST).json(re);
+        }
+    }
+
+    private RatedValues rateTimeSeries(DSLContext dsl, RatingSet ratingSet, String office,
+                                       RatedValues input) throws RatingException {
+        List<String> units = unitsUsed(ratingSet, input.getUnits());
+        if (units.size() != 2) {
+            throw new RatingException("Only ratings with a single independent parameter can rate "
+                    + "a time series.");
+        }
+        TimeSeriesDao dao = new TimeSeriesDaoImpl(dsl, metrics);
+        TimeSeries ts = dao.getTimeseries(null, -1, input.getTimeseriesId(), office, units.get(0),
+                input.getBegin(), input.getEnd(), null, true);
+        if (ts == null) {
+            throw new NotFoundException("Unable to find time series: " + input.getTimeseriesId());
+        }
+        long[] times = ts.getDateTimeArray();
+        double[] values = ts.getValueArray();
+        List<Double> independent = new ArrayList<>(values.length);
+        for (double value : values) {
+            independent.add(Double.isNaN(value) ? null : value);
+        }
+        List<List<Double>> independentValues = Collections.singletonList(independent);
+        return new RatedValues.Builder()
+                .withUnits(units)
+                .withTimeseriesId(ts.getName())
+                .withBegin(input.getBegin())
+                .withEnd(input.getEnd())
+                .withValueTimes(times)
+                .withIndependentValues(independentValues)
+                .withDependentValues(rate(ratingSet, times, independentValues))
+                .build();
+    }
+
+    private static List<String> unitsUsed(RatingSet ratingSet, List<String> requested) {
+        if (requested != null) {
+            return requested;
+        }
+        synchronized (ratingSet) {
+            return Arrays.asList(ratingSet.getDataUnits());
+        }
+    }
+
+    /**
+     * Rate the independent values, one list per independent parameter, in a single call to the
+     * rating set. Positions where any independent value is missing are left out of the call and
+     * come back as null.
+     *
+     * <p>The rating set may be shared between requests, so access is synchronized on it.
+     */
+    static List<Double> rate(RatingSet ratingSet, long[] valueTimes,
+                             List<List<Double>> independentValues) throws RatingException {
+        int paramCount = independentValues.size();
+        int count = paramCount == 0 ? 0 : independentValues.get(0).size();
+        int[] positions = new int[count];
+        int rateCount = 0;
+        for (int i = 0; i < count; i++) {
+            boolean valid = true;
+            for (List<Double> param : independentValues) {
+                Double value = param.get(i);
+                if (value == null || !Double.isFinite(value)) {
+                    valid = false;
+                    break;
+                }
+            }
+            if (valid) {
+                positions[rateCount++] = i;
+            }
+        }
+
+        double[][] indVals = new double[paramCount][rateCount];
+        long[] times = valueTimes == null ? null : new long[rateCount];
+        for (int j = 0; j < rateCount; j++) {
+            int i = positions[j];
+            for (int p = 0; p < paramCount; p++) {
+                indVals[p][j] = independentValues.get(p).get(i);
+            }
+            if (times != null) {
+                times[j] = valueTimes[i];
+            }
+        }
+
+        double[] depVals;
+        if (rateCount == 0) {
+            depVals = new double[0];
+        } else {
+            synchronized (ratingSet) {
+                depVals = rate(ratingSet, times, indVals);
+            }
+        }
+
+        Double[] retval = new Double[count];
+        for (int j = 0; j < rateCount; j++) {
+            double value = depVals[j];
+            if (Double.isFinite(value) && value != UNDEFINED_DOUBLE) {
+                retval[positions[j]] = value;
+            }
+        }
+        return Arrays.asList(retval);
+    }
+
+    private static double[] rate(RatingSet ratingSet, long[] times, double[][] indVals)
+            throws RatingException {
+        if (indVals.length == 1) {
+            return times == null ? ratingSet.rate(indVals[0]) : ratingSet.rate(times, indVals[0]);
+        } else {
+            return times == null ? ratingSet.rate(indVals) : ratingSet.rate(times, indVals);
+        }
+    }
+}
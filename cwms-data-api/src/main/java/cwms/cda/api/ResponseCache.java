@@ -0,0 +1,289 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Hydrologic Engineering Center
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package cwms.cda.api;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.ByteStreams;
+import cwms.cda.data.dao.CacheSupport;
+import io.javalin.Javalin;
+import io.javalin.core.util.Header;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.Adler32;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Server side cache of rendered GET responses for reference data that rarely changes, such as
+ * offices, units and parameters.
+ *
+ * <p>The GET handlers of a route are wrapped by {@link #cached}, which looks the response up by
+ * path, sorted query parameters and Accept header. A hit is answered without calling the
+ * endpoint, with 304 when the If-None-Match header matches the stored ETag, or with the stored
+ * body, already gzipped for clients that accept it. A miss calls the endpoint and stores a
+ * successful response that was rendered into a result, with the same ETag Javalin generates.
+ * Any other request to the route that succeeds drops the route's entries. Setting the system
+ * property {@value #ENABLED_PROPERTY} to false disables the cache.
+ */
+public final class ResponseCache {
+    private static final Logger logger = Logger.getLogger(ResponseCache.class.getName());
+
+    public static final String PROP_BASE = "cwms.cda.api.response.cache";
+    public static final String ENABLED_PROPERTY = PROP_BASE + ".enabled";
+
+    private static final boolean ENABLED = Boolean.parseBoolean(
+            System.getProperty(ENABLED_PROPERTY, "true"));
+
+    /** Javalin does not compress smaller responses either. */
+    private static final int MIN_GZIP_SIZE = 1500;
+
+    /** Headers that describe a single response rather than the resource. */
+    private static final Set<String> UNCACHED_HEADERS = new HashSet<>(Arrays.asList(
+            Header.CONTENT_LENGTH.toLowerCase(), Header.CONTENT_ENCODING.toLowerCase(),
+            Header.ETAG.toLowerCase(), Header.CONTENT_TYPE.toLowerCase(), "date",
+            "set-cookie"));
+
+    private static final Cache<String, Entry> cache = CacheBuilder.newBuilder()
+            .maximumWeight(Long.getLong(PROP_BASE + ".maxBytes", 64L * 1024 * 1024))
+            .weigher((String key, Entry entry) -> entry.weight())
+            .build();
+
+    private static final CacheSupport.Generation generation = new CacheSupport.Generation();
+
+    private static final Meter hits = new Meter();
+    private static final Meter misses = new Meter();
+    private static final Meter notModified = new Meter();
+
+    private ResponseCache() {
+    }
+
+    /**
+     * Wrap a GET handler so that its responses are kept for the given time.
+     *
+     * @param handler the endpoint, only called on a miss
+     * @param group the routes whose entries are dropped together, e.g. /offices/
+     */
+    public static Handler cached(@NotNull Handler handler, @NotNull String group, long duration,
+                                 TimeUnit timeUnit) {
+        if (!ENABLED || timeUnit == null || duration <= 0) {
+            return handler;
+        }
+        long ttlMillis = timeUnit.toMillis(duration);
+        return ctx -> {
+            String key = key(group, ctx);
+            Entry entry = lookup(key);
+            if (entry != null) {
+                serve(entry, ctx);
+                return;
+            }
+            long startGeneration = generation.current();
+            handler.handle(ctx);
+            store(ctx, key, startGeneration, ttlMillis);
+        };
+    }
+
+    /**
+     * Drop the group's entries after a request to the route, other than a GET, succeeds.
+     *
+     * @param path the route, e.g. /offices/{office}
+     * @param group the routes whose entries are dropped together, e.g. /offices/
+     */
+    public static void invalidateOnWrite(Javalin instance, @NotNull String path,
+                                         @NotNull String group) {
+        if (!ENABLED) {
+            return;
+        }
+        instance.after(path, ctx -> {
+            if (!"GET".equals(ctx.method()) && ctx.status() >= 200 && ctx.status() < 300) {
+                invalidateGroup(group);
+            }
+        });
+    }
+
+    @Nullable
+    private static Entry lookup(String key) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.isExpired()) {
+            cache.invalidate(key);
+            entry = null;
+        }
+        if (entry != null) {
+            hits.mark();
+        } else {
+            misses.mark();
+        }
+        return entry;
+    }
+
+    private static void store(Context ctx, String key, long startGeneration, long ttlMillis) {
+        InputStream result = ctx.resultStream();
+        // only bodies set with ctx.result, streamed responses are not cached
+        if (ctx.status() != HttpServletResponse.SC_OK
+                || !(result instanceof ByteArrayInputStream)) {
+            return;
+        }
+        try {
+            result.reset();
+            byte[] body = ByteStreams.toByteArray(result);
+            result.reset();
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (String name : ctx.res.getHeaderNames()) {
+                if (!UNCACHED_HEADERS.contains(name.toLowerCase())) {
+                    headers.put(name, ctx.res.getHeader(name));
+                }
+            }
+            Entry entry = new Entry(body, ctx.res.getContentType(), headers,
+                    System.currentTimeMillis() + ttlMillis);
+            ctx.header(Header.ETAG, entry.etag);
+            generation.putIfUnchanged(cache, key, entry, startGeneration);
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, ex, () -> "Unable to cache response for " + key);
+        }
+    }
+
+    private static void serve(Entry entry, Context ctx) {
+        entry.headers.forEach(ctx::header);
+        ctx.header(Header.ETAG, entry.etag);
+        if (entry.etag.equals(ctx.header(Header.IF_NONE_MATCH))) {
+            notModified.mark();
+            ctx.status(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        ctx.status(HttpServletResponse.SC_OK);
+        if (entry.contentType != null) {
+            ctx.contentType(entry.contentType);
+        }
+        if (entry.gzipped != null && Controllers.acceptsGzip(ctx)) {
+            // written past the result so that Javalin does not compress it again
+            ctx.header(Header.CONTENT_ENCODING, "gzip");
+            ctx.res.setContentLength(entry.gzipped.length);
+            try {
+                ctx.res.getOutputStream().write(entry.gzipped);
+            } catch (IOException ex) {
+                // Usually the client went away.
+                logger.log(Level.FINE, "Unable to write cached response", ex);
+            }
+        } else {
+            ctx.result(entry.body);
+        }
+    }
+
+    /**
+     * Drop the cached responses of a group of routes.
+     */
+    public static void invalidateGroup(String group) {
+        generation.bump();
+        String prefix = group + "\u001f";
+        cache.asMap().keySet().removeIf(k -> k.startsWith(prefix));
+    }
+
+    static String key(String group, Context ctx) {
+        Map<String, List<String>> query = new TreeMap<>(ctx.queryParamMap());
+        StringBuilder builder = new StringBuilder(group).append('\u001f')
+                .append(ctx.path()).append('\u001f');
+        query.forEach((name, values) -> builder.append(name).append('=')
+                .append(String.join(",", values)).append('&'));
+        return builder.append('\u001f').append(ctx.header(Header.ACCEPT)).toString();
+    }
+
+    /**
+     * The same checksum Javalin uses for the ETags it generates, so a client's ETag stays valid
+     * whether the response came from the cache or not.
+     */
+    static String etag(byte[] body) {
+        Adler32 checksum = new Adler32();
+        checksum.update(body, 0, body.length);
+        return String.valueOf(checksum.getValue());
+    }
+
+    /**
+     * Register hit, miss and not modified rates and the cache size with the given registry.
+     */
+    public static void registerMetrics(@Nullable MetricRegistry metrics) {
+        if (metrics != null) {
+            CacheSupport.registerMeter(metrics, ResponseCache.class, "hits", hits);
+            CacheSupport.registerMeter(metrics, ResponseCache.class, "misses", misses);
+            CacheSupport.registerMeter(metrics, ResponseCache.class, "not-modified",
+                    notModified);
+            CacheSupport.registerGauge(metrics, ResponseCache.class, "size", cache::size);
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] body;
+        @Nullable
+        private final byte[] gzipped;
+        private final String etag;
+        private final String contentType;
+        private final Map<String, String> headers;
+        private final long expiresAt;
+
+        private Entry(byte[] body, String contentType, Map<String, String> headers,
+                      long expiresAt) throws IOException {
+            this.body = body;
+            this.contentType = contentType;
+            this.headers = Collections.unmodifiableMap(headers);
+            this.expiresAt = expiresAt;
+            this.etag = etag(body);
+            if (body.length >= MIN_GZIP_SIZE) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                    gzip.write(body);
+                }
+                gzipped = out.toByteArray();
+            } else {
+                gzipped = null;
+            }
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+
+        private int weight() {
+            return body.length + (gzipped == null ? 0 : gzipped.length);
+        }
+    }
+}
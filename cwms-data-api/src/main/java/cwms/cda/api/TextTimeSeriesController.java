@@ -24,6 +24,7 @@
 
 package cwms.cda.api;
 
+import static com.codahale.metrics.MetricRegistry.name;
 import static cwms.cda.api.Controllers.*;
 import static cwms.cda.data.dao.JooqDao.getDslContext;
 
@@ -31,6 +32,7 @@ import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import cwms.cda.api.errors.CdaError;
 import cwms.cda.data.dao.texttimeseries.TimeSeriesTextDao;
+import cwms.cda.data.dto.CwmsDTOPaginated;
 import cwms.cda.data.dto.texttimeseries.TextTimeSeries;
 import cwms.cda.formatters.ContentType;
 import cwms.cda.formatters.Formats;
@@ -38,12 +40,14 @@ import cwms.cda.helpers.ReplaceUtils;
 import io.javalin.apibuilder.CrudHandler;
 import io.javalin.core.util.Header;
 import io.javalin.http.Context;
+import io.javalin.http.HttpCode;
 import io.javalin.plugin.openapi.annotations.HttpMethod;
 import io.javalin.plugin.openapi.annotations.OpenApi;
 import io.javalin.plugin.openapi.annotations.OpenApiContent;
 import io.javalin.plugin.openapi.annotations.OpenApiParam;
 import io.javalin.plugin.openapi.annotations.OpenApiRequestBody;
 import io.javalin.plugin.openapi.annotations.OpenApiResponse;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
@@ -60,6 +64,8 @@ import org.jooq.DSLContext;
 public class TextTimeSeriesController implements CrudHandler {
     private static final Logger logger = Logger.getLogger(TextTimeSeriesController.class.getName());
     static final String TAG = "Text-TimeSeries";
+    private static final int DEFAULT_PAGE_SIZE =
+            Integer.parseInt(System.getProperty("cda.api.ts.text.page.size", "500"));
 
     public static final String REPLACE_ALL = "replace-all";
 
@@ -97,7 +103,13 @@ public class TextTimeSeriesController implements CrudHandler {
                         + "otherwise specified). If this field is not specified, "
                         + "the default time zone of UTC shall be used."),
                 @OpenApiParam(name = BEGIN, required = true, description = "The start of the time window"),
-                @OpenApiParam(name = END, required = true, description = "The end of the time window.")
+                @OpenApiParam(name = END, required = true, description = "The end of the time window."),
+                @OpenApiParam(name = PAGE, description = "This end point can return large amounts "
+                        + "of data as a series of pages. This parameter is used to describes the "
+                        + "current location in the response stream.  This is an opaque "
+                        + "value, and can be obtained from the 'next-page' value in the response."),
+                @OpenApiParam(name = PAGE_SIZE, type = Integer.class, description = "How many "
+                        + "entries per page returned. Default " + DEFAULT_PAGE_SIZE + ".")
             },
             responses = {
                 @OpenApiResponse(status = STATUS_200,
@@ -116,6 +128,17 @@ public class TextTimeSeriesController implements CrudHandler {
         Instant end = requiredInstant(ctx, END);
         Instant version = queryParamAsInstant(ctx, VERSION_DATE);
         int kiloByteLimit = Integer.parseInt(System.getProperty("cda.api.ts.text.max.length.kB", "64"));
+        String cursor = queryParamAsClass(ctx, new String[]{PAGE, CURSOR},
+                String.class, "", metrics,
+                name(TextTimeSeriesController.class.getName(), GET_ALL));
+        if (!CwmsDTOPaginated.CURSOR_CHECK.invoke(cursor)) {
+            ctx.json(new CdaError("cursor or page passed in but failed validation"))
+                    .status(HttpCode.BAD_REQUEST);
+            return;
+        }
+        int pageSize = queryParamAsClass(ctx, new String[]{PAGE_SIZE},
+                Integer.class, DEFAULT_PAGE_SIZE, metrics,
+                name(TextTimeSeriesController.class.getName(), GET_ALL));
         String formatHeader = ctx.header(Header.ACCEPT);
         ContentType contentType = Formats.parseHeaderAndQueryParm(formatHeader, "");
         try (Timer.Context ignored = markAndTime(GET_ALL)) {
@@ -141,20 +164,23 @@ public class TextTimeSeriesController implements CrudHandler {
             ReplaceUtils.OperatorBuilder urlBuilder = new ReplaceUtils.OperatorBuilder()
                     .withTemplate(url)
                     .withOperatorKey(URLEncoder.encode(dateToken, "UTF-8"));
-            TextTimeSeries textTimeSeries = dao.retrieveFromDao(office, tsId, textMask,
-                    begin, end, version, kiloByteLimit, urlBuilder);
-
-            ctx.contentType(contentType.toString());
-
-            String result = Formats.format(contentType, textTimeSeries);
-            ctx.result(result);
-
-            ctx.status(HttpServletResponse.SC_OK);
+            // rows are written as they are read, the response starts with the first row
+            dao.retrieveFromDao(office, tsId, textMask, begin, end, version, kiloByteLimit,
+                    urlBuilder, cursor, pageSize, (header, rows) ->
+                            writeRows(ctx, contentType, header, "regular-text-values", rows,
+                                    rows::getNextPage));
         } catch (URISyntaxException | UnsupportedEncodingException ex) {
             CdaError re =
                     new CdaError("Failed to process request: " + ex.getLocalizedMessage());
             logger.log(Level.SEVERE, re.toString(), ex);
             ctx.status(HttpServletResponse.SC_INTERNAL_SERVER_ERROR).json(re);
+        } catch (IOException ex) {
+            // Usually the client went away part way through a streamed response.
+            CdaError re = new CdaError("Unable to write text time series");
+            logger.log(Level.WARNING, re.toString(), ex);
+            if (!ctx.res.isCommitted()) {
+                ctx.status(HttpServletResponse.SC_INTERNAL_SERVER_ERROR).json(re);
+            }
         }
 
     }
@@ -0,0 +1,347 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Hydrologic Engineering Center
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package cwms.cda.api;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static cwms.cda.api.Controllers.BEGIN;
+import static cwms.cda.api.Controllers.CATEGORY_ID;
+import static cwms.cda.api.Controllers.DATE_FORMAT;
+import static cwms.cda.api.Controllers.END;
+import static cwms.cda.api.Controllers.EXAMPLE_DATE;
+import static cwms.cda.api.Controllers.GROUP_ID;
+import static cwms.cda.api.Controllers.OFFICE;
+import static cwms.cda.api.Controllers.RESULTS;
+import static cwms.cda.api.Controllers.SIZE;
+import static cwms.cda.api.Controllers.STATUS_200;
+import static cwms.cda.api.Controllers.STATUS_400;
+import static cwms.cda.api.Controllers.TIMEZONE;
+import static cwms.cda.api.Controllers.TRIM;
+import static cwms.cda.api.Controllers.TS_IDS;
+import static cwms.cda.api.Controllers.UNIT;
+import static cwms.cda.api.Controllers.VERSION_DATE;
+import static cwms.cda.api.Controllers.queryParamAsZdt;
+import static cwms.cda.api.Controllers.requiredParam;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cwms.cda.api.enums.UnitSystem;
+import cwms.cda.api.errors.CdaError;
+import cwms.cda.api.errors.NotFoundException;
+import cwms.cda.data.dao.JooqDao;
+import cwms.cda.data.dao.TimeSeriesDao;
+import cwms.cda.data.dao.TimeSeriesDaoImpl;
+import cwms.cda.data.dao.TimeSeriesGroupDao;
+import cwms.cda.data.dto.AssignedTimeSeries;
+import cwms.cda.data.dto.TimeSeries;
+import cwms.cda.data.dto.TimeSeriesBatch;
+import cwms.cda.data.dto.TimeSeriesGroup;
+import cwms.cda.formatters.ContentType;
+import cwms.cda.formatters.Formats;
+import cwms.cda.formatters.json.JsonV2;
+import cwms.cda.helpers.DateUtils;
+import io.javalin.core.util.Header;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.plugin.openapi.annotations.HttpMethod;
+import io.javalin.plugin.openapi.annotations.OpenApi;
+import io.javalin.plugin.openapi.annotations.OpenApiContent;
+import io.javalin.plugin.openapi.annotations.OpenApiParam;
+import io.javalin.plugin.openapi.annotations.OpenApiResponse;
+import java.io.IOException;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.http.HttpServletResponse;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.DSLContext;
+
+/**
+ * Retrieves several time series over a common window in one request.
+ * <p>
+ * The series are fetched in parallel on a pool shared by all batch requests, so the number of
+ * database connections a batch can hold at once is bounded by
+ * {@code cda.api.ts.batch.threads}. Each worker borrows its own connection from the pool of
+ * the request's DSLContext. At most {@code cda.api.ts.batch.queue} series wait for a worker,
+ * a batch that does not fit is answered with 503. Each series is written to the response as
+ * soon as it has been retrieved.
+ */
+public class TimeSeriesBatchController implements Handler {
+    private static final Logger logger = Logger.getLogger(TimeSeriesBatchController.class.getName());
+
+    private static final int MAX_SERIES =
+            Integer.parseInt(System.getProperty("cda.api.ts.batch.max.series", "200"));
+    private static final ThreadPoolExecutor executor = newExecutor(
+            Integer.parseInt(System.getProperty("cda.api.ts.batch.threads", "4")),
+            Integer.parseInt(System.getProperty("cda.api.ts.batch.queue",
+                    String.valueOf(2 * MAX_SERIES))));
+    private static final String RETRY_AFTER = "Retry-After";
+    private static final String RETRY_AFTER_SECONDS = "5";
+    private static final ObjectMapper MAPPER = JsonV2.buildObjectMapper();
+
+    private final MetricRegistry metrics;
+    private final Histogram requestResultSize;
+    private final Histogram batchSize;
+
+    public TimeSeriesBatchController(MetricRegistry metrics) {
+        this.metrics = metrics;
+        String className = this.getClass().getName();
+        requestResultSize = this.metrics.histogram((name(className, RESULTS, SIZE)));
+        batchSize = this.metrics.histogram(name(className, "batch", SIZE));
+    }
+
+    private Timer.Context markAndTime(String subject) {
+        return Controllers.markAndTime(metrics, getClass().getName(), subject);
+    }
+
+    protected DSLContext getDslContext(Context ctx) {
+        return JooqDao.getDslContext(ctx);
+    }
+
+    @NotNull
+    protected TimeSeriesDao getTimeSeriesDao(DSLContext dsl) {
+        return new TimeSeriesDaoImpl(dsl, metrics);
+    }
+
+    protected Executor getExecutor() {
+        return executor;
+    }
+
+    @OpenApi(
+            queryParams = {
+                @OpenApiParam(name = OFFICE, required = true, description = "Specifies the "
+                        + "owning office of the time series."),
+                @OpenApiParam(name = TS_IDS, description = "Accepts a comma separated list of "
+                        + "time series ids to retrieve. Cannot be used in combination with "
+                        + CATEGORY_ID + " and " + GROUP_ID + "."),
+                @OpenApiParam(name = CATEGORY_ID, description = "Specifies the category id of "
+                        + "a time series group whose assigned time series are retrieved."),
+                @OpenApiParam(name = GROUP_ID, description = "Specifies the group id of "
+                        + "a time series group whose assigned time series are retrieved."),
+                @OpenApiParam(name = UNIT, description = "Specifies the unit or unit system "
+                        + "of the response. Defaults to EN."),
+                @OpenApiParam(name = BEGIN, description = "Specifies the start of the time "
+                        + "window for all of the time series. Defaults to 24 hours before end. "
+                        + "The format for this field is ISO 8601 extended, with optional offset "
+                        + "and timezone, i.e., '" + DATE_FORMAT + "', e.g., '" + EXAMPLE_DATE
+                        + "'."),
+                @OpenApiParam(name = END, description = "Specifies the end of the time window "
+                        + "for all of the time series. Defaults to the current time."),
+                @OpenApiParam(name = TIMEZONE, description = "Specifies the time zone of "
+                        + BEGIN + " and " + END + " if they do not include one. Defaults to UTC."),
+                @OpenApiParam(name = VERSION_DATE, description = "Specifies the version date "
+                        + "of the time series traces to be selected."),
+                @OpenApiParam(name = TRIM, type = Boolean.class, description = "Specifies "
+                        + "whether to trim missing values from the beginning and end of each "
+                        + "time series. Defaults to true."),
+            },
+            responses = {
+                @OpenApiResponse(status = STATUS_200, description = "The time series in the "
+                        + "order their retrieval finished. Series that could not be retrieved "
+                        + "are listed under errors.",
+                        content = {
+                            @OpenApiContent(from = TimeSeriesBatch.class, type = Formats.JSONV2)
+                        }),
+                @OpenApiResponse(status = STATUS_400, description = "Neither or both of "
+                        + TS_IDS + " and a time series group were provided, or too many time "
+                        + "series were requested."),
+            },
+            path = "/timeseries/batch",
+            description = "Returns several time series over a common time window",
+            tags = TimeSeriesController.TAG,
+            method = HttpMethod.GET
+    )
+    @Override
+    public void handle(@NotNull Context ctx) {
+        try (final Timer.Context ignored = markAndTime("getBatch")) {
+            String office = requiredParam(ctx, OFFICE);
+            String categoryId = ctx.queryParam(CATEGORY_ID);
+            String groupId = ctx.queryParam(GROUP_ID);
+            List<String> tsIds = TimeSeriesRecentController.getTsIds(ctx.queryParam(TS_IDS));
+            String unit = ctx.queryParamAsClass(UNIT, String.class)
+                    .getOrDefault(UnitSystem.EN.getValue());
+            String timezone = ctx.queryParamAsClass(TIMEZONE, String.class).getOrDefault("UTC");
+            boolean trim = ctx.queryParamAsClass(TRIM, Boolean.class).getOrDefault(true);
+            ZonedDateTime versionDate = queryParamAsZdt(ctx, VERSION_DATE);
+
+            String begin = ctx.queryParamAsClass(BEGIN, String.class).getOrDefault("PT-24H");
+            String end = ctx.queryParam(END);
+            ZonedDateTime beginZdt = DateUtils.parseUserDate(begin, timezone);
+            ZonedDateTime endZdt = end != null
+                    ? DateUtils.parseUserDate(end, timezone)
+                    : ZonedDateTime.now(ZoneId.of(timezone, ZoneId.SHORT_IDS));
+
+            ContentType contentType = Formats.parseHeader(ctx.header(Header.ACCEPT),
+                    TimeSeriesBatch.class);
+
+            boolean hasGroup = categoryId != null || groupId != null;
+            boolean hasTsIds = tsIds != null && !tsIds.isEmpty();
+            if (hasGroup == hasTsIds) {
+                badRequest(ctx, "Either " + TS_IDS + " or both " + CATEGORY_ID + " and "
+                        + GROUP_ID + " must be provided.");
+                return;
+            }
+
+            DSLContext dsl = getDslContext(ctx);
+            Set<String> names = new LinkedHashSet<>();
+            if (hasTsIds) {
+                names.addAll(tsIds);
+            } else {
+                if (categoryId == null || groupId == null) {
+                    badRequest(ctx, "Both " + CATEGORY_ID + " and " + GROUP_ID
+                            + " are required to retrieve a time series group.");
+                    return;
+                }
+                for (TimeSeriesGroup group : new TimeSeriesGroupDao(dsl)
+                        .getTimeSeriesGroups(office, categoryId, groupId)) {
+                    for (AssignedTimeSeries assigned : group.getAssignedTimeSeries()) {
+                        names.add(assigned.getTimeseriesId());
+                    }
+                }
+            }
+            if (names.size() > MAX_SERIES) {
+                badRequest(ctx, "At most " + MAX_SERIES + " time series may be retrieved "
+                        + "in one request.");
+                return;
+            }
+            batchSize.update(names.size());
+
+            CompletionService<TimeSeries> completion =
+                    new ExecutorCompletionService<>(getExecutor());
+            List<Future<TimeSeries>> futures = new ArrayList<>(names.size());
+            List<String> submitted = new ArrayList<>(names.size());
+            try {
+                for (String tsId : names) {
+                    futures.add(completion.submit(() -> {
+                        TimeSeriesDao dao = getTimeSeriesDao(dsl);
+                        return dao.getTimeseries(null, -1, tsId, office, unit, beginZdt, endZdt,
+                                versionDate, trim);
+                    }));
+                    submitted.add(tsId);
+                }
+            } catch (RejectedExecutionException ex) {
+                futures.forEach(f -> f.cancel(true));
+                CdaError re = new CdaError("Too many time series batches are in progress, "
+                        + "try again later.");
+                logger.log(Level.FINE, "{0} for request {1}", new Object[]{re, ctx.fullUrl()});
+                ctx.header(RETRY_AFTER, RETRY_AFTER_SECONDS);
+                ctx.status(HttpServletResponse.SC_SERVICE_UNAVAILABLE).json(re);
+                return;
+            }
+
+            try {
+                writeBatch(ctx, contentType, completion, futures, submitted);
+            } catch (IOException ex) {
+                // Usually the client went away part way through the response.
+                futures.forEach(f -> f.cancel(true));
+                CdaError re = new CdaError("Unable to write time series batch");
+                logger.log(Level.WARNING, re.toString(), ex);
+                if (!ctx.res.isCommitted()) {
+                    ctx.status(HttpServletResponse.SC_INTERNAL_SERVER_ERROR).json(re);
+                }
+            } catch (InterruptedException ex) {
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void writeBatch(Context ctx, ContentType contentType,
+                            CompletionService<TimeSeries> completion,
+                            List<Future<TimeSeries>> futures, List<String> names)
+            throws IOException, InterruptedException {
+        ctx.status(HttpServletResponse.SC_OK);
+        ctx.contentType(contentType.toString());
+
+        Controllers.ResponseBody body = Controllers.responseBody(ctx);
+        List<TimeSeriesBatch.Failure> failures = new ArrayList<>();
+
+        JsonGenerator gen = MAPPER.getFactory().createGenerator(body.stream());
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.writeStartObject();
+        gen.writeFieldName(TimeSeriesBatch.TIME_SERIES);
+        gen.writeStartArray();
+        for (int i = 0; i < futures.size(); i++) {
+            Future<TimeSeries> done = completion.take();
+            try {
+                // writeValue flushes, so each series goes out as soon as it is ready
+                MAPPER.writeValue(gen, done.get());
+            } catch (ExecutionException ex) {
+                String name = names.get(futures.indexOf(done));
+                failures.add(new TimeSeriesBatch.Failure(name, failureMessage(name, ex.getCause())));
+            }
+        }
+        gen.writeEndArray();
+        gen.writeFieldName(TimeSeriesBatch.ERRORS);
+        MAPPER.writeValue(gen, failures);
+        gen.writeEndObject();
+        gen.close();
+        requestResultSize.update(body.finish());
+    }
+
+    private static String failureMessage(String name, Throwable cause) {
+        if (cause instanceof NotFoundException) {
+            return "Not found.";
+        }
+        CdaError re = new CdaError("Unable to retrieve time series");
+        logger.log(Level.WARNING, cause, () -> re + " for " + name);
+        return re.getMessage() + " (incident " + re.getIncidentIdentifier() + ")";
+    }
+
+    private static void badRequest(Context ctx, String message) {
+        CdaError re = new CdaError(message);
+        logger.log(Level.FINE, "{0} for request {1}", new Object[]{re, ctx.fullUrl()});
+        ctx.status(HttpServletResponse.SC_BAD_REQUEST).json(re);
+    }
+
+    private static ThreadPoolExecutor newExecutor(int threads, int queueSize) {
+        // a bounded queue rejects a batch instead of letting waiting series pile up
+        ThreadPoolExecutor retval = new ThreadPoolExecutor(threads, threads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), r -> {
+                    Thread thread = new Thread(r, TimeSeriesBatchController.class.getSimpleName());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        retval.allowCoreThreadTimeOut(true);
+        return retval;
+    }
+}
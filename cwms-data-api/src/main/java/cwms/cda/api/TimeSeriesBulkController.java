@@ -0,0 +1,202 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Hydrologic Engineering Center
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package cwms.cda.api;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static cwms.cda.api.Controllers.CREATE;
+import static cwms.cda.api.Controllers.CREATE_AS_LRTS;
+import static cwms.cda.api.Controllers.OVERRIDE_PROTECTION;
+import static cwms.cda.api.Controllers.STATUS_200;
+import static cwms.cda.api.Controllers.STATUS_400;
+import static cwms.cda.api.Controllers.STATUS_413;
+import static cwms.cda.api.Controllers.STORE_RULE;
+import static cwms.cda.api.Controllers.limitedBody;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import cwms.cda.api.errors.CdaError;
+import cwms.cda.api.errors.FieldException;
+import cwms.cda.data.dao.JooqDao;
+import cwms.cda.data.dao.StoreRule;
+import cwms.cda.data.dao.TimeSeriesDao;
+import cwms.cda.data.dao.TimeSeriesDaoImpl;
+import cwms.cda.data.dto.TimeSeries;
+import cwms.cda.data.dto.TimeSeriesBatch;
+import cwms.cda.data.dto.TimeSeriesIngestResult;
+import cwms.cda.formatters.ContentType;
+import cwms.cda.formatters.Formats;
+import cwms.cda.formatters.json.JsonV2;
+import io.javalin.core.util.Header;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.plugin.openapi.annotations.HttpMethod;
+import io.javalin.plugin.openapi.annotations.OpenApi;
+import io.javalin.plugin.openapi.annotations.OpenApiContent;
+import io.javalin.plugin.openapi.annotations.OpenApiParam;
+import io.javalin.plugin.openapi.annotations.OpenApiRequestBody;
+import io.javalin.plugin.openapi.annotations.OpenApiResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.http.HttpServletResponse;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+
+/**
+ * Stores many time series posted in one request.
+ * <p>
+ * The body is either a JSON array of time series or newline delimited JSON with one time
+ * series per line. The series are stored on a single connection in batches of
+ * {@code cda.api.ts.bulk.batch.size} and the response lists which were stored and which
+ * failed.
+ */
+public class TimeSeriesBulkController implements Handler {
+    private static final Logger logger = Logger.getLogger(TimeSeriesBulkController.class.getName());
+
+    private static final int MAX_SERIES =
+            Integer.parseInt(System.getProperty("cda.api.ts.bulk.max.series", "10000"));
+    private static final int BATCH_SIZE =
+            Integer.parseInt(System.getProperty("cda.api.ts.bulk.batch.size", "100"));
+    private static final long MAX_UPLOAD_BYTES =
+            Long.parseLong(System.getProperty("cda.api.ts.bulk.max.upload.length.MB", "512")) * 1024 * 1024;
+    private static final ObjectReader READER =
+            JsonV2.buildObjectMapper().readerFor(TimeSeries.class);
+
+    private final MetricRegistry metrics;
+    private final Histogram bulkSize;
+
+    public TimeSeriesBulkController(MetricRegistry metrics) {
+        this.metrics = metrics;
+        String className = this.getClass().getName();
+        bulkSize = this.metrics.histogram(name(className, "bulk", "size"));
+    }
+
+    private Timer.Context markAndTime(String subject) {
+        return Controllers.markAndTime(metrics, getClass().getName(), subject);
+    }
+
+    @OpenApi(
+            description = "Used to store many time series in one request. The body is either a "
+                    + "JSON array of time series or newline delimited JSON (" + Formats.NDJSON
+                    + ") with one time series per line. Data to be stored must have time stamps "
+                    + "in UTC represented as epoch milliseconds.",
+            requestBody = @OpenApiRequestBody(
+                    content = {
+                        @OpenApiContent(from = TimeSeries.class, isArray = true, type = Formats.JSONV2),
+                        @OpenApiContent(from = TimeSeries.class, type = Formats.NDJSON)
+                    },
+                    required = true
+            ),
+            queryParams = {
+                @OpenApiParam(name = CREATE_AS_LRTS, type = Boolean.class, description = "Flag "
+                        + "indicating if new time series should be created as Local Regular Time "
+                        + "Series. 'True' or 'False', default is 'False'"),
+                @OpenApiParam(name = STORE_RULE, type = StoreRule.class,
+                        description = TimeSeriesController.STORE_RULE_DESC),
+                @OpenApiParam(name = OVERRIDE_PROTECTION, type = Boolean.class, description = "A "
+                        + "flag to ignore the protected data quality when storing data. 'True' or "
+                        + "'False'")
+            },
+            responses = {
+                @OpenApiResponse(status = STATUS_200, description = "Lists the time series that "
+                        + "were stored and those that could not be stored.",
+                        content = {
+                            @OpenApiContent(from = TimeSeriesIngestResult.class, type = Formats.JSONV2)
+                        }),
+                @OpenApiResponse(status = STATUS_400, description = "The body could not be read "
+                        + "or held too many time series."),
+                @OpenApiResponse(status = STATUS_413, description = "The body is too large."),
+            },
+            method = HttpMethod.POST,
+            path = "/timeseries/bulk",
+            tags = TimeSeriesController.TAG
+    )
+    @Override
+    public void handle(@NotNull Context ctx) {
+        boolean createAsLrts = ctx.queryParamAsClass(CREATE_AS_LRTS, Boolean.class)
+                .getOrDefault(false);
+        StoreRule storeRule = ctx.queryParamAsClass(STORE_RULE, StoreRule.class)
+                .getOrDefault(StoreRule.REPLACE_ALL);
+        boolean overrideProtection = ctx.queryParamAsClass(OVERRIDE_PROTECTION, Boolean.class)
+                .getOrDefault(TimeSeriesDaoImpl.OVERRIDE_PROTECTION);
+
+        try (final Timer.Context ignored = markAndTime(CREATE)) {
+            List<TimeSeries> valid = new ArrayList<>();
+            List<TimeSeriesBatch.Failure> invalid = new ArrayList<>();
+            try (InputStream body = limitedBody(ctx, MAX_UPLOAD_BYTES);
+                 MappingIterator<TimeSeries> it = READER.readValues(body)) {
+                while (it.hasNextValue()) {
+                    if (valid.size() + invalid.size() >= MAX_SERIES) {
+                        badRequest(ctx, "At most " + MAX_SERIES + " time series may be stored "
+                                + "in one request.");
+                        return;
+                    }
+                    TimeSeries ts = it.nextValue();
+                    try {
+                        ts.validate();
+                        valid.add(ts);
+                    } catch (FieldException ex) {
+                        invalid.add(new TimeSeriesBatch.Failure(ts.getName(), ex.getMessage()));
+                    }
+                }
+            } catch (IOException ex) {
+                badRequest(ctx, "Unable to read the time series: " + ex.getMessage());
+                return;
+            }
+            bulkSize.update(valid.size() + invalid.size());
+
+            DSLContext dsl = JooqDao.getDslContext(ctx);
+            TimeSeriesDao dao = new TimeSeriesDaoImpl(dsl, metrics);
+            TimeSeriesIngestResult stored = dao.storeMulti(valid, createAsLrts, storeRule,
+                    overrideProtection, BATCH_SIZE);
+            List<TimeSeriesBatch.Failure> failures = new ArrayList<>(invalid);
+            failures.addAll(stored.getErrors());
+            TimeSeriesIngestResult result = new TimeSeriesIngestResult(stored.getStored(),
+                    failures);
+
+            ContentType contentType = Formats.parseHeader(ctx.header(Header.ACCEPT),
+                    TimeSeriesIngestResult.class);
+            ctx.contentType(contentType.toString());
+            ctx.status(HttpServletResponse.SC_OK).result(Formats.format(contentType, result));
+        } catch (DataAccessException ex) {
+            CdaError re = new CdaError("Internal Error");
+            logger.log(Level.SEVERE, re.toString(), ex);
+            ctx.status(HttpServletResponse.SC_INTERNAL_SERVER_ERROR).json(re);
+        }
+    }
+
+    private static void badRequest(Context ctx, String message) {
+        CdaError re = new CdaError(message);
+        logger.log(Level.FINE, "{0} for request {1}", new Object[]{re, ctx.fullUrl()});
+        ctx.status(HttpServletResponse.SC_BAD_REQUEST).json(re);
+    }
+}
@@ -40,8 +40,10 @@ import static cwms.cda.api.Controllers.queryParamAsClass;
 import static cwms.cda.api.Controllers.queryParamAsZdt;
 import static cwms.cda.api.Controllers.requiredParam;
 import static cwms.cda.api.Controllers.requiredZdt;
+import static cwms.cda.api.Controllers.writeClob;
 
 import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import cwms.cda.api.enums.UnitSystem;
@@ -55,6 +57,7 @@ import cwms.cda.data.dao.TimeSeriesDeleteOptions;
 import cwms.cda.data.dto.TimeSeries;
 import cwms.cda.formatters.ContentType;
 import cwms.cda.formatters.Formats;
+import cwms.cda.formatters.json.TimeSeriesValueReader;
 import cwms.cda.helpers.DateUtils;
 import io.javalin.apibuilder.CrudHandler;
 import io.javalin.core.util.Header;
@@ -75,6 +78,8 @@ import java.sql.Timestamp;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.servlet.http.HttpServletResponse;
@@ -144,13 +149,17 @@ public class TimeSeriesController implements CrudHandler {
     private final MetricRegistry metrics;
 
     private final Histogram requestResultSize;
+    private final Meter streamedValues;
     private static final int DEFAULT_PAGE_SIZE = 500;
+    private static final int STREAM_CHUNK_SIZE =
+            Integer.parseInt(System.getProperty("cda.api.ts.stream.chunk.size", "10000"));
 
 
     public TimeSeriesController(MetricRegistry metrics) {
         this.metrics = metrics;
         String className = this.getClass().getName();
         requestResultSize = this.metrics.histogram((name(className, RESULTS, SIZE)));
+        streamedValues = this.metrics.meter(name(className, "stream", "values"));
     }
 
     static {
@@ -167,11 +176,23 @@ public class TimeSeriesController implements CrudHandler {
             requestBody = @OpenApiRequestBody(
                     content = {
                         @OpenApiContent(from = TimeSeries.class, type = Formats.JSONV2),
-                        @OpenApiContent(from = TimeSeries.class, type = Formats.XMLV2)
+                        @OpenApiContent(from = TimeSeries.class, type = Formats.XMLV2),
+                        @OpenApiContent(from = TimeSeries.Record.class, type = Formats.NDJSON)
                     },
                     required = true
             ),
             queryParams = {
+                @OpenApiParam(name = NAME, description = "Specifies the name of the time series "
+                        + "to store. Required for, and only used with, " + Formats.NDJSON
+                        + " bodies, which hold one [date-time, value, quality-code] value per "
+                        + "line and are stored as they are read."),
+                @OpenApiParam(name = OFFICE, description = "Specifies the owning office of the "
+                        + "time series. Required for, and only used with, " + Formats.NDJSON
+                        + " bodies."),
+                @OpenApiParam(name = UNIT, description = "Specifies the unit of the values. "
+                        + "Required for, and only used with, " + Formats.NDJSON + " bodies."),
+                @OpenApiParam(name = VERSION_DATE, description = "Specifies the version date of "
+                        + "the values. Only used with " + Formats.NDJSON + " bodies."),
                 @OpenApiParam(name = TIMEZONE, description = "Specifies "
                         + "the time zone of the version-date field (unless "
                         + "otherwise specified). If this field is not specified, the default time zone "
@@ -197,6 +218,12 @@ public class TimeSeriesController implements CrudHandler {
         boolean overrideProtection = ctx.queryParamAsClass(OVERRIDE_PROTECTION, Boolean.class)
                 .getOrDefault(TimeSeriesDaoImpl.OVERRIDE_PROTECTION);
 
+        String contentTypeHeader = ctx.req.getContentType();
+        if (contentTypeHeader != null && contentTypeHeader.startsWith(Formats.NDJSON)) {
+            createFromStream(ctx, createAsLrts, storeRule, overrideProtection);
+            return;
+        }
+
         try (final Timer.Context ignored = markAndTime(CREATE)) {
             DSLContext dsl = getDslContext(ctx);
 
@@ -211,6 +238,47 @@ public class TimeSeriesController implements CrudHandler {
         }
     }
 
+    /**
+     * Store newline delimited values as they are read, so the size of the body is not limited
+     * by the heap. The series is named by the query parameters instead of the body.
+     */
+    private void createFromStream(Context ctx, boolean createAsLrts, StoreRule storeRule,
+                                  boolean overrideProtection) {
+        String name = requiredParam(ctx, NAME);
+        String office = requiredParam(ctx, OFFICE);
+        String units = requiredParam(ctx, UNIT);
+        ZonedDateTime versionDate = queryParamAsZdt(ctx, VERSION_DATE);
+        Timestamp versionTimestamp = versionDate == null ? null
+                : Timestamp.from(versionDate.toInstant());
+
+        // The dao stores each chunk before reading the next, so the chunks stored before a
+        // failure can be counted as the values are read.
+        AtomicLong stored = new AtomicLong();
+        AtomicInteger pending = new AtomicInteger();
+        try (final Timer.Context ignored = markAndTime("createStream");
+             TimeSeriesValueReader reader = new TimeSeriesValueReader(ctx.bodyAsInputStream())) {
+            TimeSeriesDao dao = getTimeSeriesDao(getDslContext(ctx));
+            dao.store(office, name, units, versionTimestamp, (times, values, qualities) -> {
+                stored.addAndGet(pending.getAndSet(0));
+                int count = reader.read(times, values, qualities);
+                pending.set(count);
+                return count;
+            }, STREAM_CHUNK_SIZE, createAsLrts, storeRule, overrideProtection);
+            ctx.status(HttpServletResponse.SC_OK);
+        } catch (IOException ex) {
+            CdaError re = new CdaError("Unable to read the time series values, " + stored.get()
+                    + " values were stored before the error: " + ex.getMessage());
+            logger.log(Level.FINE, re.toString(), ex);
+            ctx.status(HttpServletResponse.SC_BAD_REQUEST).json(re);
+        } catch (DataAccessException ex) {
+            CdaError re = new CdaError("Internal Error");
+            logger.log(Level.SEVERE, re.toString(), ex);
+            ctx.status(HttpServletResponse.SC_INTERNAL_SERVER_ERROR).json(re);
+        } finally {
+            streamedValues.mark(stored.get());
+        }
+    }
+
     protected DSLContext getDslContext(Context ctx) {
         return JooqDao.getDslContext(ctx);
     }
@@ -462,6 +530,15 @@ public class TimeSeriesController implements CrudHandler {
                 }
 
                 String office = requiredParam(ctx, OFFICE);
+                if (pageSize < 0 && cursor.isEmpty()) {
+                    // Unpaged requests can be arbitrarily large, write the values out as they
+                    // are read instead of building the whole series in memory.
+                    addDeprecatedContentTypeWarning(ctx, contentType);
+                    streamTimeseries(ctx, dao, contentType, names, office, unit, beginZdt, endZdt,
+                            versionDate, trim.getOrDefault(true));
+                    return;
+                }
+
                 TimeSeries ts = dao.getTimeseries(cursor, pageSize, names, office, unit,
                         beginZdt, endZdt, versionDate, trim.getOrDefault(true));
 
@@ -483,6 +560,8 @@ public class TimeSeriesController implements CrudHandler {
 
                 ctx.header("Link", linkValue.toString());
                 ctx.result(results).contentType(contentType.toString());
+                addDeprecatedContentTypeWarning(ctx, contentType);
+                requestResultSize.update(results.length());
             } else {
                 if (versionDate != null) {
                     throw new IllegalArgumentException(String.format("Version date is only supported for:%s and %s",
@@ -499,12 +578,12 @@ public class TimeSeriesController implements CrudHandler {
                 }
 
                 String office = ctx.queryParam(OFFICE);
-                results = dao.getTimeseries(format, names, office, unit, datum, beginZdt, endZdt, tz);
+                // Legacy exports can be very large, copy the CLOB to the response as it is read.
                 ctx.status(HttpServletResponse.SC_OK);
-                ctx.result(results);
+                addDeprecatedContentTypeWarning(ctx, contentType);
+                dao.getTimeseries(format, names, office, unit, datum, beginZdt, endZdt, tz,
+                        clob -> requestResultSize.update(writeClob(ctx, clob)));
             }
-            addDeprecatedContentTypeWarning(ctx, contentType);
-            requestResultSize.update(results.length());
         } catch (NotFoundException e) {
             CdaError re = new CdaError("Not found.");
             logger.log(Level.WARNING, re.toString(), e);
@@ -515,9 +594,34 @@ public class TimeSeriesController implements CrudHandler {
             logger.log(Level.SEVERE, re.toString(), ex);
             ctx.status(HttpServletResponse.SC_BAD_REQUEST);
             ctx.json(re);
+        } catch (IOException ex) {
+            // Usually the client went away part way through a streamed response.
+            CdaError re = new CdaError("Unable to write time series");
+            logger.log(Level.WARNING, re.toString(), ex);
+            if (!ctx.res.isCommitted()) {
+                ctx.status(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                ctx.json(re);
+            }
         }
     }
 
+    private void streamTimeseries(Context ctx, TimeSeriesDao dao, ContentType contentType,
+                                  String names, String office, String unit,
+                                  ZonedDateTime begin, ZonedDateTime end,
+                                  ZonedDateTime versionDate, boolean trim) throws IOException {
+        dao.streamTimeseries(names, office, unit, begin, end, versionDate, trim, (ts, values) -> {
+            // Headers have to be in place before the first byte is written.
+            ctx.status(HttpServletResponse.SC_OK);
+            ctx.contentType(contentType.toString());
+            ctx.header("Link", String.format("<%s>; rel=self; type=\"%s\"",
+                    buildRequestUrl(ctx, ts, ts.getPage()), contentType));
+
+            Controllers.ResponseBody body = Controllers.responseBody(ctx);
+            Formats.format(contentType, ts, values, body.stream());
+            requestResultSize.update(body.finish());
+        });
+    }
+
     @OpenApi(ignore = true)
     @Override
     public void getOne(@NotNull Context ctx, @NotNull String id) {
@@ -42,6 +42,7 @@ import static cwms.cda.api.Controllers.STATION_UNIT;
 import static cwms.cda.api.Controllers.STATUS_200;
 import static cwms.cda.data.dao.JooqDao.getDslContext;
 import cwms.cda.data.dao.StreamLocationDao;
+import cwms.cda.data.dao.basinconnectivity.StreamNetworkCache;
 import cwms.cda.data.dto.stream.StreamLocation;
 import cwms.cda.formatters.ContentType;
 import cwms.cda.formatters.Formats;
@@ -62,6 +63,7 @@ public final class UpstreamLocationsGetController implements Handler {
         this.metrics = metrics;
         String className = this.getClass().getName();
         requestResultSize = this.metrics.histogram(name(className, RESULTS, SIZE));
+        StreamNetworkCache.registerMetrics(metrics);
     }
 
     private Timer.Context markAndTime(String subject) {
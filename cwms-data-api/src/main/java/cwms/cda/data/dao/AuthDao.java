@@ -1,6 +1,8 @@
 package cwms.cda.data.dao;
 
+import com.google.common.base.Ticker;
 import com.google.common.flogger.FluentLogger;
+import com.google.common.hash.Hashing;
 import cwms.cda.ApiServlet;
 import cwms.cda.data.dto.auth.ApiKey;
 import cwms.cda.datasource.ConnectionPreparer;
@@ -8,6 +10,7 @@ import cwms.cda.datasource.ConnectionPreparingDataSource;
 import cwms.cda.datasource.DelegatingConnectionPreparer;
 import cwms.cda.datasource.DirectUserPreparer;
 import cwms.cda.datasource.SessionOfficePreparer;
+import cwms.cda.datasource.SessionStateTracker;
 import cwms.cda.datasource.SessionTimeZonePreparer;
 import cwms.cda.helpers.ResourceHelper;
 import cwms.cda.security.CwmsAuthException;
@@ -16,6 +19,7 @@ import cwms.cda.security.Role;
 import io.javalin.core.security.RouteRole;
 import io.javalin.http.Context;
 import io.javalin.http.HttpCode;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.sql.Connection;
@@ -38,7 +42,9 @@ import java.util.concurrent.TimeUnit;
 import javax.sql.DataSource;
 import org.jetbrains.annotations.NotNull;
 import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
 import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
 
 public class AuthDao extends Dao<DataApiPrincipal> {
     public static final FluentLogger logger = FluentLogger.forEnclosingClass();
@@ -72,6 +78,25 @@ public class AuthDao extends Dao<DataApiPrincipal> {
             + "from cwms_20.at_api_keys where UPPER(userid) = UPPER(?) and key_name = ?";
     public static final String ONLY_OWN_KEY_MESSAGE = "You may not create API keys for any user other than your own.";
 
+    public static final String PROP_BASE = "cwms.cda.data.dao.auth";
+    public static final String PRINCIPAL_CACHE_SIZE = PROP_BASE + ".principalCache.size";
+    public static final String PRINCIPAL_CACHE_TTL = PROP_BASE + ".principalCache.ttlSeconds";
+
+    /**
+     * Principals from successful key and EDIPI lookups. Only a hash of the key is kept. A size
+     * of 0 disables caching; the TTL bounds how long another instance's key removal or role
+     * change can go unnoticed.
+     */
+    static final PrincipalCache<String> apiKeyPrincipals = buildPrincipalCache();
+    static final PrincipalCache<Long> edipiPrincipals = buildPrincipalCache();
+
+    static {
+        DataChangeBus.subscribe(DataChangeBus.Entity.USER, (officeId, userName) -> {
+            apiKeyPrincipals.invalidateUser(userName);
+            edipiPrincipals.invalidateUser(userName);
+        });
+    }
+
     private static boolean hasCwmsEnvMultiOfficeAuthFix = false;
     private static String connectionUser = null;
     private static String defaultOffice = null;
@@ -93,7 +118,12 @@ public class AuthDao extends Dao<DataApiPrincipal> {
             AuthDao.defaultOffice = defaultOffice;
             try {
                 connectionUser = dsl.connectionResult(c -> c.getMetaData().getUserName());
-                dsl.execute("BEGIN cwms_env.set_session_user_direct(?,?); END;", connectionUser, defaultOffice);
+                dsl.connection(c -> {
+                    forgetSessionUser(c);
+                    DSL.using(c, SQLDialect.ORACLE18C)
+                       .execute("BEGIN cwms_env.set_session_user_direct(?,?); END;",
+                                connectionUser, defaultOffice);
+                });
                 hasCwmsEnvMultiOfficeAuthFix = true;
             } catch (DataAccessException ex) {
                 if (ex.getLocalizedMessage()
@@ -155,9 +185,29 @@ public class AuthDao extends Dao<DataApiPrincipal> {
      * @throws CwmsAuthException throw for any issue with verification of Key or user information.
      */
     public DataApiPrincipal getByApiKey(String apikey) throws CwmsAuthException {
-        String userName = checkKey(apikey);
-        Set<RouteRole> roles = getRolesForUser(userName);
-        return new DataApiPrincipal(userName,roles);
+        return apiKeyPrincipals.get(hashKey(apikey), hash -> {
+            String userName = checkKey(apikey);
+            Set<RouteRole> roles = getRolesForUser(userName);
+            return new DataApiPrincipal(userName,roles);
+        });
+    }
+
+    private static String hashKey(String apikey) {
+        return Hashing.sha256().hashString(apikey, StandardCharsets.UTF_8).toString();
+    }
+
+    private static <K> PrincipalCache<K> buildPrincipalCache() {
+        return new PrincipalCache<>(Integer.getInteger(PRINCIPAL_CACHE_SIZE, 1000),
+                Integer.getInteger(PRINCIPAL_CACHE_TTL, 60), Ticker.systemTicker());
+    }
+
+    /**
+     * Drop any cached principals for the given user so the next request reads the keys and
+     * roles from the database again.
+     * @param userName the user whose entries should be removed.
+     */
+    public static void invalidatePrincipals(String userName) {
+        DataChangeBus.publish(DataChangeBus.Entity.USER, null, userName);
     }
 
     /**
@@ -166,6 +216,7 @@ public class AuthDao extends Dao<DataApiPrincipal> {
      * @throws SQLException if there is an issue setting up the session.
      */
     private void setSessionForAuthCheck(Connection conn) throws SQLException {
+        forgetSessionUser(conn);
         if (hasCwmsEnvMultiOfficeAuthFix) {
             try (PreparedStatement setApiUser = conn.prepareStatement(SET_API_USER_DIRECT_WITH_OFFICE)) {
                 setApiUser.setString(1,connectionUser);
@@ -180,6 +231,16 @@ public class AuthDao extends Dao<DataApiPrincipal> {
         }
     }
 
+    /**
+     * The auth checks switch the session user behind the preparers' back, make sure the
+     * next preparer to see this connection sets the user and office again.
+     * @param conn the connection about to have its session user changed.
+     */
+    private static void forgetSessionUser(Connection conn) {
+        SessionStateTracker.forget(conn, SessionStateTracker.USER);
+        SessionStateTracker.forget(conn, SessionStateTracker.OFFICE);
+    }
+
     private String checkKey(String key) throws CwmsAuthException {
         try {
             return dsl.connectionResult(c -> {
@@ -246,9 +307,11 @@ public class AuthDao extends Dao<DataApiPrincipal> {
      * @throws CwmsAuthException if the user is not in the database.
      */
     public DataApiPrincipal getPrincipalFromEdipi(Long edipi) throws CwmsAuthException {
-        String username = userForEdipi(edipi);
-        Set<RouteRole> roles = this.getRolesForUser(username);
-        return new DataApiPrincipal(username, roles);
+        return edipiPrincipals.get(edipi, key -> {
+            String username = userForEdipi(key);
+            Set<RouteRole> roles = this.getRolesForUser(username);
+            return new DataApiPrincipal(username, roles);
+        });
     }
 
     /**
@@ -405,6 +468,7 @@ public class AuthDao extends Dao<DataApiPrincipal> {
                     createKey.execute();
                 }
             });
+            invalidatePrincipals(newKey.getUserId());
             return newKey;
         } catch (NoSuchAlgorithmException ex) {
             throw new CwmsAuthException("Unable to generate appropriate key.", ex,
@@ -474,6 +538,7 @@ public class AuthDao extends Dao<DataApiPrincipal> {
                 deleteKey.execute();
             }
         });
+        invalidatePrincipals(p.getName());
     }
 
 
@@ -1,34 +1,50 @@
 package cwms.cda.data.dao;
 
+import com.google.common.flogger.FluentLogger;
+import com.google.common.io.ByteStreams;
 import cwms.cda.api.errors.NotFoundException;
+import cwms.cda.data.dao.BlobFileCache.CachedBlob;
 import cwms.cda.data.dto.Blob;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jooq.DSLContext;
 import org.jooq.Record;
 import org.jooq.ResultQuery;
+import org.jooq.exception.DataAccessException;
 import usace.cwms.db.dao.util.OracleTypeMap;
 import usace.cwms.db.jooq.codegen.packages.CWMS_TEXT_PACKAGE;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.CallableStatement;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 public class BlobDao extends JooqDao<Blob> {
+    private static final FluentLogger logger = FluentLogger.forEnclosingClass();
 
-    public static final String BLOB_WITH_OFFICE = "SELECT CWMS_MEDIA_TYPE.MEDIA_TYPE_ID, AT_BLOB.VALUE \n"
+    public static final String BLOB_WITH_OFFICE = "SELECT CWMS_MEDIA_TYPE.MEDIA_TYPE_ID, AT_BLOB.VALUE, AT_BLOB.ORA_ROWSCN AS VERSION \n"
             + "FROM CWMS_20.AT_BLOB \n"
             + "join CWMS_20.CWMS_MEDIA_TYPE on AT_BLOB.MEDIA_TYPE_CODE = CWMS_MEDIA_TYPE.MEDIA_TYPE_CODE \n"
             + "join CWMS_20.CWMS_OFFICE on AT_BLOB.OFFICE_CODE=CWMS_OFFICE.OFFICE_CODE \n"
             + "WHERE ID = ? and CWMS_OFFICE.OFFICE_ID = ?";
-    public static final String BLOB_QUERY = "SELECT CWMS_MEDIA_TYPE.MEDIA_TYPE_ID, AT_BLOB.VALUE \n"
+    public static final String BLOB_QUERY = "SELECT CWMS_MEDIA_TYPE.MEDIA_TYPE_ID, AT_BLOB.VALUE, AT_BLOB.ORA_ROWSCN AS VERSION \n"
             + "FROM CWMS_20.AT_BLOB \n"
             + "join CWMS_20.CWMS_MEDIA_TYPE on AT_BLOB.MEDIA_TYPE_CODE = CWMS_MEDIA_TYPE.MEDIA_TYPE_CODE \n"
             + "WHERE ID = ?";
+    public static final String STORE_BINARY = "{call CWMS_20.CWMS_TEXT.STORE_BINARY(?,?,?,?,?,?,?)}";
+
+    static {
+        DataChangeBus.subscribe(DataChangeBus.Entity.BLOB, BlobDao::invalidateCached);
+    }
 
     public BlobDao(DSLContext dsl) {
         super(dsl);
@@ -70,47 +86,95 @@ public class BlobDao extends JooqDao<Blob> {
         // in memory.
         // We can't use the stream once the connection we get from jooq is closed, so we have to pass in
         // what we want javalin to do with the stream as a consumer.
+        // Blobs that fit the BlobFileCache are copied to a local file instead and passed to the
+        // consumer after the connection is released.
         //
-
-        dsl.connection(connection -> {
-            try (PreparedStatement preparedStatement = connection.prepareStatement(BLOB_WITH_OFFICE)) {
-                preparedStatement.setString(1, id);
-                preparedStatement.setString(2, office);
-
-                try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                    if (resultSet.next()) {
-                        handleResultSet(resultSet, consumer);
-                    } else {
-                        throw new NotFoundException("Unable to find blob with id " + id + " in office " + office);
-                    }
-                }
-            }
-        });
+        String key = "blob/" + office.toUpperCase() + "/" + id;
+        streamBlob(key, consumer, connection -> {
+            PreparedStatement preparedStatement = connection.prepareStatement(BLOB_WITH_OFFICE);
+            preparedStatement.setString(1, id);
+            preparedStatement.setString(2, office);
+            return preparedStatement;
+        }, () -> new NotFoundException("Unable to find blob with id " + id + " in office " + office));
     }
 
     public void getBlob(String id, BlobConsumer consumer) {
+        streamBlob("blob/*/" + id, consumer, connection -> {
+            PreparedStatement preparedStatement = connection.prepareStatement(BLOB_QUERY);
+            preparedStatement.setString(1, id);
+            return preparedStatement;
+        }, () -> new NotFoundException("Unable to find blob with id " + id));
+    }
 
+    private void streamBlob(String key, BlobConsumer consumer, BlobStatement statement,
+                            Supplier<NotFoundException> notFound) {
+        CachedBlob[] cached = new CachedBlob[1];
+        String[] mediaType = new String[1];
         dsl.connection(connection -> {
-            try (PreparedStatement preparedStatement = connection.prepareStatement(BLOB_QUERY)) {
-                preparedStatement.setString(1, id);
-
-                try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                    if (resultSet.next()) {
-                        handleResultSet(resultSet, consumer);
-                    } else {
-                        throw new NotFoundException("Unable to find blob with id " + id);
-                    }
+            try (PreparedStatement preparedStatement = statement.prepare(connection);
+                 ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw notFound.get();
+                }
+                mediaType[0] = resultSet.getString("MEDIA_TYPE_ID");
+                java.sql.Blob blob = resultSet.getBlob("VALUE");
+                if (blob == null) {
+                    // the consumer answers a missing value with 404
+                    consumer.accept(null, mediaType[0], 0);
+                    return;
+                }
+                cached[0] = openCached(key, resultSet.getString("VERSION"), () -> blob);
+                if (cached[0] == null) {
+                    consumer.accept(blob.getBinaryStream(), mediaType[0], blob.length());
                 }
             }
         });
+        if (cached[0] != null) {
+            consumeCached(cached[0], mediaType[0], consumer);
+        }
     }
 
-    private static void handleResultSet(ResultSet resultSet, BlobConsumer consumer) throws SQLException {
-        String mediaType = resultSet.getString("MEDIA_TYPE_ID");
-        java.sql.Blob blob = resultSet.getBlob("VALUE");
-        consumer.accept(blob, mediaType);
+    /**
+     * Open the cached copy of a blob, copying the blob to the cache first if there is no copy
+     * at the given version.
+     *
+     * @return the open copy, or null if the blob has to be streamed from the database.
+     */
+    @Nullable
+    static CachedBlob openCached(String key, @Nullable String version, BlobSupplier blob)
+            throws SQLException {
+        if (version == null || !BlobFileCache.isEnabled()) {
+            return null;
+        }
+        CachedBlob retVal = BlobFileCache.open(key, version);
+        if (retVal == null) {
+            try {
+                retVal = BlobFileCache.store(key, version, blob.get());
+            } catch (IOException ex) {
+                logger.atWarning().withCause(ex).log("Unable to cache blob %s", key);
+            }
+        }
+        return retVal;
     }
 
+    /**
+     * Hand a cached copy to the consumer, which owns the stream from then on.
+     */
+    static void consumeCached(CachedBlob cached, String mediaType, BlobConsumer consumer) {
+        try {
+            consumer.accept(cached.getStream(), mediaType, cached.getSize());
+        } catch (SQLException | RuntimeException ex) {
+            try {
+                cached.getStream().close();
+            } catch (IOException closeEx) {
+                ex.addSuppressed(closeEx);
+            }
+            if (ex instanceof SQLException) {
+                throw new DataAccessException("Unable to stream cached blob", ex);
+            }
+            throw (RuntimeException) ex;
+        }
+    }
 
     @Override
     public List<Blob> getAll(String officeId) {
@@ -176,8 +240,70 @@ public class BlobDao extends JooqDao<Blob> {
                 pFailIfExists,
                 pIgnoreNulls,
                 blob.getOfficeId()));
+        DataChangeBus.publish(DataChangeBus.Entity.BLOB, blob.getOfficeId(), blob.getId());
     }
 
+    /**
+     * Store a blob whose value is read from a stream. The stream is copied into a temporary
+     * database blob which is then stored, so the value is never held in memory in full.
+     *
+     * @param blob the office, id, media type and description, the value is ignored
+     * @param value the content to store
+     * @return the number of bytes stored
+     * @throws IOException if the stream can not be read
+     */
+    public long create(Blob blob, InputStream value, boolean failIfExists, boolean ignoreNulls)
+            throws IOException {
+        String pFailIfExists = OracleTypeMap.formatBool(failIfExists);
+        String pIgnoreNulls = OracleTypeMap.formatBool(ignoreNulls);
+        long size;
+        try {
+            size = connectionResult(dsl, c -> {
+                getDslContext(c, blob.getOfficeId());
+                java.sql.Blob temp = c.createBlob();
+                try {
+                    long copied;
+                    try (OutputStream out = temp.setBinaryStream(1)) {
+                        copied = ByteStreams.copy(value, out);
+                    }
+                    try (CallableStatement stmt = c.prepareCall(STORE_BINARY)) {
+                        stmt.setBlob(1, temp);
+                        stmt.setString(2, blob.getId());
+                        stmt.setString(3, blob.getMediaTypeId());
+                        stmt.setString(4, blob.getDescription());
+                        stmt.setString(5, pFailIfExists);
+                        stmt.setString(6, pIgnoreNulls);
+                        stmt.setString(7, blob.getOfficeId());
+                        stmt.execute();
+                    }
+                    return copied;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    temp.free();
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        DataChangeBus.publish(DataChangeBus.Entity.BLOB, blob.getOfficeId(), blob.getId());
+        return size;
+    }
+
+    /**
+     * The cached copy would be replaced anyway once its version no longer matches, dropping it
+     * frees the space right away.
+     */
+    private static void invalidateCached(@Nullable String officeId, @Nullable String id) {
+        if (id == null) {
+            BlobFileCache.invalidateAll();
+            return;
+        }
+        if (officeId != null) {
+            BlobFileCache.invalidate("blob/" + officeId.toUpperCase() + "/" + id);
+        }
+        BlobFileCache.invalidate("blob/*/" + id);
+    }
 
     public static byte[] readFully(@NotNull InputStream stream) throws IOException {
         byte[] buffer = new byte[8192];
@@ -189,8 +315,27 @@ public class BlobDao extends JooqDao<Blob> {
         return output.toByteArray();
     }
 
+    /**
+     * Receives the content of a blob, either straight from the database or from its cached
+     * copy.
+     */
     @FunctionalInterface
     public interface BlobConsumer {
-        void accept(java.sql.Blob blob, String mediaType) throws SQLException;
+        /**
+         * @param stream the content, or null if there is no blob.
+         * @param size the length of the content in bytes.
+         */
+        void accept(@Nullable InputStream stream, String mediaType, long size)
+                throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface BlobStatement {
+        PreparedStatement prepare(Connection connection) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface BlobSupplier {
+        java.sql.Blob get() throws SQLException;
     }
 }
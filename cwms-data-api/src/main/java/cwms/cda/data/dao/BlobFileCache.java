@@ -0,0 +1,290 @@
+package cwms.cda.data.dao;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Copies of database blobs kept in local files, keyed by what the blob is, e.g. the office and
+ * id of a blob, and checked against a version read from the database with the blob locator.
+ *
+ * <p>A download that finds a current copy gives its connection back as soon as the version has
+ * been read and is then served from the file, which also makes range requests a seek instead
+ * of reading and discarding the start of the blob. A stale copy is replaced by the next
+ * download. The least recently used files are deleted once the total size exceeds the limit,
+ * and blobs larger than the entry limit are always streamed from the database.
+ *
+ * <p>Several servers may share the configured directory, so each keeps its files in its own
+ * subdirectory and holds a lock on it while it runs. When the cache starts it deletes the
+ * subdirectories whose lock nobody holds, which were left by servers that have stopped.
+ */
+public final class BlobFileCache {
+    private static final Logger logger = Logger.getLogger(BlobFileCache.class.getName());
+
+    public static final String PROP_BASE = "cwms.cda.data.dao.blob.file.cache";
+    public static final String ENABLED_PROPERTY = PROP_BASE + ".enabled";
+    public static final String DIRECTORY_PROPERTY = PROP_BASE + ".directory";
+
+    private static final String SUFFIX = ".blob";
+    private static final String INSTANCE_PREFIX = "instance-";
+    private static final String LOCK_FILE = ".lock";
+
+    private static final long MAX_ENTRY_BYTES =
+            Long.getLong(PROP_BASE + ".maxEntryMB", 64) * 1024 * 1024;
+
+    private static final Path base = Paths.get(System.getProperty(DIRECTORY_PROPERTY,
+            Paths.get(System.getProperty("java.io.tmpdir"), "cda-blob-cache").toString()));
+
+    /**
+     * Held until the process exits, it tells other servers that the directory is in use.
+     */
+    private static FileChannel instanceLock;
+
+    @Nullable
+    private static final Path directory = Boolean.parseBoolean(
+            System.getProperty(ENABLED_PROPERTY, "true")) ? prepareDirectory() : null;
+
+    private static final boolean ENABLED = directory != null;
+
+    /**
+     * Weighed in kilobytes, Guava weights are ints.
+     */
+    private static final Cache<String, Entry> cache = CacheBuilder.newBuilder()
+            .maximumWeight(Long.getLong(PROP_BASE + ".maxMB", 1024) * 1024)
+            .weigher((String k, Entry e) -> (int) Math.max(1, e.size / 1024))
+            .expireAfterAccess(Integer.getInteger(PROP_BASE + ".expireAfterAccessSeconds", 86400),
+                    TimeUnit.SECONDS)
+            .removalListener((RemovalListener<String, Entry>) n -> delete(n.getValue().file))
+            .build();
+
+    private static final AtomicLong bytes = new AtomicLong();
+    private static final Meter hits = new Meter();
+    private static final Meter misses = new Meter();
+    private static final Meter bypassed = new Meter();
+
+    private BlobFileCache() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Open the copy of the blob if it is at the given version.
+     *
+     * @return a stream over the copy, which the caller has to close, or null if there is no
+     *     current copy.
+     */
+    @Nullable
+    public static CachedBlob open(String key, String version) {
+        if (!ENABLED) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.version.equals(version)) {
+            try {
+                // FileInputStream skips by seeking, which is what range requests use
+                CachedBlob retVal = new CachedBlob(new FileInputStream(entry.file.toFile()),
+                        entry.size);
+                hits.mark();
+                return retVal;
+            } catch (FileNotFoundException ex) {
+                logger.log(Level.FINE, ex, () -> "Cached blob " + entry.file + " disappeared");
+                cache.asMap().remove(key, entry);
+            }
+        }
+        misses.mark();
+        return null;
+    }
+
+    /**
+     * Copy the blob to a file and open the copy.
+     *
+     * @return a stream over the copy, which the caller has to close, or null if the blob is
+     *     not cached and has to be streamed from the database.
+     */
+    @Nullable
+    public static CachedBlob store(String key, String version, @Nullable Blob blob)
+            throws SQLException, IOException {
+        if (blob == null) {
+            return null;
+        }
+        long size = blob.length();
+        if (!ENABLED || size > MAX_ENTRY_BYTES) {
+            bypassed.mark();
+            return null;
+        }
+        String prefix = Hashing.sha256().hashString(key + "\u001f" + version,
+                StandardCharsets.UTF_8).toString().substring(0, 16) + "-";
+        Path file = Files.createTempFile(directory, prefix, SUFFIX);
+        try {
+            try (InputStream in = blob.getBinaryStream();
+                 OutputStream out = Files.newOutputStream(file)) {
+                ByteStreams.copy(in, out);
+            }
+            CachedBlob retVal = new CachedBlob(new FileInputStream(file.toFile()), size);
+            bytes.addAndGet(size);
+            cache.put(key, new Entry(version, file, size));
+            return retVal;
+        } catch (IOException | SQLException | RuntimeException ex) {
+            Files.deleteIfExists(file);
+            throw ex;
+        }
+    }
+
+    /**
+     * Drop the copy of the blob, e.g. because it has just been stored again.
+     */
+    public static void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    public static void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static void delete(Path file) {
+        try {
+            long size = Files.size(file);
+            // a stream that is still being served keeps the content until it is closed
+            if (Files.deleteIfExists(file)) {
+                bytes.addAndGet(-size);
+            }
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, ex, () -> "Unable to delete cached blob " + file);
+        }
+    }
+
+    @Nullable
+    private static Path prepareDirectory() {
+        try {
+            Files.createDirectories(base);
+            removeAbandoned(base);
+            Path retVal = Files.createTempDirectory(base, INSTANCE_PREFIX);
+            FileChannel channel = FileChannel.open(retVal.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.lock();
+            instanceLock = channel;
+            return retVal;
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, ex, () -> "Unable to use " + base
+                    + " for cached blobs, blobs will be streamed from the database.");
+            return null;
+        }
+    }
+
+    /**
+     * Delete the subdirectories of servers that are no longer running. A subdirectory without
+     * a lock file is skipped, its server is still starting.
+     */
+    static void removeAbandoned(Path base) throws IOException {
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(base,
+                INSTANCE_PREFIX + "*")) {
+            for (Path dir : dirs) {
+                Path lockFile = dir.resolve(LOCK_FILE);
+                if (Files.exists(lockFile) && isAbandoned(lockFile)) {
+                    try {
+                        deleteContents(dir);
+                        // the lock file can only be deleted once it is closed on some systems
+                        Files.deleteIfExists(lockFile);
+                        Files.deleteIfExists(dir);
+                    } catch (IOException ex) {
+                        logger.log(Level.WARNING, ex, () -> "Unable to delete " + dir);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isAbandoned(Path lockFile) {
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.WRITE);
+             FileLock held = channel.tryLock()) {
+            return held != null;
+        } catch (OverlappingFileLockException ex) {
+            // locked by another cache in this process, e.g. a second web application
+            return false;
+        } catch (IOException ex) {
+            logger.log(Level.FINE, ex, () -> "Unable to check " + lockFile);
+            return false;
+        }
+    }
+
+    private static void deleteContents(Path dir) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Register hit, miss and bypass rates and the size of the cached files with the given
+     * registry.
+     */
+    public static void registerMetrics(@Nullable MetricRegistry metrics) {
+        if (metrics != null) {
+            CacheSupport.registerMeter(metrics, BlobFileCache.class, "hits", hits);
+            CacheSupport.registerMeter(metrics, BlobFileCache.class, "misses", misses);
+            CacheSupport.registerMeter(metrics, BlobFileCache.class, "bypassed", bypassed);
+            CacheSupport.registerGauge(metrics, BlobFileCache.class, "bytes", bytes::get);
+        }
+    }
+
+    /**
+     * An open copy of a blob.
+     */
+    public static final class CachedBlob {
+        private final InputStream stream;
+        private final long size;
+
+        private CachedBlob(InputStream stream, long size) {
+            this.stream = stream;
+            this.size = size;
+        }
+
+        public InputStream getStream() {
+            return stream;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+
+    private static final class Entry {
+        private final String version;
+        private final Path file;
+        private final long size;
+
+        private Entry(String version, Path file, long size) {
+            this.version = version;
+            this.file = file;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package cwms.cda.data.dao;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.cache.Cache;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Metric registration and the load guard shared by the process wide caches.
+ *
+ * <p>Metrics are named after the class of the cache and registered once, so that each
+ * controller that uses a cache can register them without replacing the others.
+ */
+public final class CacheSupport {
+
+    private CacheSupport() {
+    }
+
+    /**
+     * Register the hit, miss and eviction counts and the size of a cache built with
+     * recordStats.
+     */
+    public static void registerStats(MetricRegistry metrics, Class<?> owner, Cache<?, ?> cache) {
+        registerGauge(metrics, owner, "hits", () -> cache.stats().hitCount());
+        registerGauge(metrics, owner, "misses", () -> cache.stats().missCount());
+        registerGauge(metrics, owner, "evictions", () -> cache.stats().evictionCount());
+        registerGauge(metrics, owner, "size", cache::size);
+    }
+
+    public static void registerGauge(MetricRegistry metrics, Class<?> owner, String stat,
+                                     LongSupplier value) {
+        String name = MetricRegistry.name(owner.getName(), stat);
+        if (metrics.getGauges().get(name) == null) {
+            MetricRegistry.MetricSupplier<? extends Gauge> gauge =
+                    () -> (Gauge<Long>) value::getAsLong;
+            metrics.gauge(name, gauge);
+        }
+    }
+
+    public static void registerMeter(MetricRegistry metrics, Class<?> owner, String stat,
+                                     Meter meter) {
+        String name = MetricRegistry.name(owner.getName(), stat);
+        if (metrics.getMeters().get(name) == null) {
+            metrics.meter(name, () -> meter);
+        }
+    }
+
+    public static void registerTimer(MetricRegistry metrics, Class<?> owner, String stat,
+                                     Timer timer) {
+        String name = MetricRegistry.name(owner.getName(), stat);
+        if (metrics.getTimers().get(name) == null) {
+            metrics.timer(name, () -> timer);
+        }
+    }
+
+    public static void registerHistogram(MetricRegistry metrics, Class<?> owner, String stat,
+                                         Histogram histogram) {
+        String name = MetricRegistry.name(owner.getName(), stat);
+        if (metrics.getHistograms().get(name) == null) {
+            metrics.histogram(name, () -> histogram);
+        }
+    }
+
+    /**
+     * Keeps a load that started before a write from putting the old value back into the cache.
+     * Every invalidation calls {@link #bump()}, and a value loaded while the generation changed
+     * is returned to its caller but not cached.
+     */
+    public static final class Generation {
+        private final AtomicLong generation = new AtomicLong();
+
+        /**
+         * @return the generation to hand to {@link #putIfUnchanged} once the load is done.
+         */
+        public long current() {
+            return generation.get();
+        }
+
+        public void bump() {
+            generation.incrementAndGet();
+        }
+
+        /**
+         * Cache the value unless there was an invalidation since the load started.
+         */
+        public <K, V> void putIfUnchanged(Cache<K, ? super V> cache, K key, V value,
+                                          long startGeneration) {
+            if (startGeneration == generation.get()) {
+                cache.put(key, value);
+            }
+        }
+
+        /**
+         * Return the cached value or load it, caching it unless there was an invalidation
+         * during the load.
+         */
+        public <K, V> V get(Cache<K, ? super V> cache, K key, Supplier<V> loader) {
+            @SuppressWarnings("unchecked")
+            V value = (V) cache.getIfPresent(key);
+            if (value == null) {
+                long startGeneration = current();
+                value = loader.get();
+                putIfUnchanged(cache, key, value, startGeneration);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package cwms.cda.data.dao;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Short lived cache of catalog totals keyed by the catalog and its request parameters.
+ *
+ * <p>Counting every matching time series or location can take longer than retrieving the
+ * first page, so a total is reused until it expires, or until a location or a group of the
+ * office is written. Storing time series values does not drop the totals, a busy office would
+ * otherwise never keep one. Setting the system property
+ * {@value #ASYNC_PROPERTY} to true lets a first page whose total is not cached return without
+ * a total while the count runs in the background; later pages pick the total up from the
+ * cache and carry it forward in the cursor.
+ */
+public final class CatalogCountCache {
+    private static final Logger logger = Logger.getLogger(CatalogCountCache.class.getName());
+
+    public static final String PROP_BASE = "cwms.cda.data.dao.catalog.count";
+    public static final String ASYNC_PROPERTY = PROP_BASE + ".async";
+
+    private static final boolean ASYNC = Boolean.getBoolean(ASYNC_PROPERTY);
+
+    private static final Cache<String, Integer> cache = CacheBuilder.newBuilder()
+            .maximumSize(Integer.getInteger(PROP_BASE + ".maxSize", 1000))
+            .expireAfterWrite(Integer.getInteger(PROP_BASE + ".expireAfterSeconds", 60),
+                    TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+
+    private static final CacheSupport.Generation generation = new CacheSupport.Generation();
+
+    /**
+     * Keys with a background count queued or running, so a burst of first page requests
+     * only counts once.
+     */
+    private static final ConcurrentMap<String, Boolean> pending = new ConcurrentHashMap<>();
+
+    private static final ThreadPoolExecutor executor = newExecutor(
+            Integer.getInteger(PROP_BASE + ".threads", 2));
+
+    private static final Timer countTimer = new Timer();
+    private static final Timer pageTimer = new Timer();
+
+    static {
+        DataChangeBus.Listener listener = (officeId, id) -> invalidateOffice(officeId);
+        DataChangeBus.subscribe(DataChangeBus.Entity.LOCATION, listener);
+        DataChangeBus.subscribe(DataChangeBus.Entity.LOCATION_GROUP, listener);
+        DataChangeBus.subscribe(DataChangeBus.Entity.TIME_SERIES_GROUP, listener);
+    }
+
+    @FunctionalInterface
+    public interface CountQuery {
+        int count();
+    }
+
+    private CatalogCountCache() {
+    }
+
+    /**
+     * Build the cache key of a catalog request. The office is the only parameter that is
+     * normalized, the others are regular expressions and are used as given.
+     *
+     * @param catalog the kind of catalog, e.g. TIMESERIES or LOCATIONS
+     */
+    public static String key(String catalog, CatalogRequestParameters params) {
+        String office = params.getOffice();
+        return String.join("\u001f", catalog,
+                office == null ? "" : office.toUpperCase(),
+                String.valueOf(params.getIdLike()),
+                String.valueOf(params.getUnitSystem()),
+                String.valueOf(params.getLocCatLike()),
+                String.valueOf(params.getLocGroupLike()),
+                String.valueOf(params.getTsCatLike()),
+                String.valueOf(params.getTsGroupLike()),
+                String.valueOf(params.getBoundingOfficeLike()),
+                String.valueOf(params.isExcludeEmpty()),
+                String.valueOf(params.getLocationKind()),
+                String.valueOf(params.getLocationType()));
+    }
+
+    /**
+     * Return the cached total or count it.
+     *
+     * @param key from {@link #key(String, CatalogRequestParameters)}
+     * @param query counts on the current request's connection
+     * @param background counts without the current request, null if that is not possible
+     * @return the total, or null if it is being counted in the background.
+     */
+    @Nullable
+    public static Integer getTotal(String key, CountQuery query, @Nullable CountQuery background) {
+        Integer total = cache.getIfPresent(key);
+        if (total != null) {
+            return total;
+        }
+        if (ASYNC && background != null) {
+            countInBackground(key, background);
+            return null;
+        }
+        long startGeneration = generation.current();
+        total = timedCount(query);
+        generation.putIfUnchanged(cache, key, total, startGeneration);
+        return total;
+    }
+
+    /**
+     * Return the cached total without counting.
+     */
+    @Nullable
+    public static Integer getIfPresent(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Remove the totals of the given office, along with those of requests for every office.
+     */
+    public static void invalidateOffice(@Nullable String officeId) {
+        generation.bump();
+        if (officeId == null || officeId.isEmpty()) {
+            cache.invalidateAll();
+            return;
+        }
+        String office = officeId.toUpperCase();
+        cache.asMap().keySet().removeIf(k -> {
+            String keyOffice = k.split("\u001f", -1)[1];
+            return keyOffice.isEmpty() || keyOffice.equals(office);
+        });
+    }
+
+    /**
+     * Time the retrieval of a catalog page, reported separately from the count.
+     */
+    public static Timer.Context timePage() {
+        return pageTimer.time();
+    }
+
+    private static int timedCount(CountQuery query) {
+        try (Timer.Context ignored = countTimer.time()) {
+            return query.count();
+        }
+    }
+
+    private static void countInBackground(String key, CountQuery background) {
+        if (pending.putIfAbsent(key, Boolean.TRUE) == null) {
+            long startGeneration = generation.current();
+            executor.execute(() -> {
+                try {
+                    generation.putIfUnchanged(cache, key, timedCount(background),
+                            startGeneration);
+                } catch (RuntimeException ex) {
+                    logger.log(Level.WARNING, ex, () -> "Unable to count catalog entries for " + key);
+                } finally {
+                    pending.remove(key);
+                }
+            });
+        }
+    }
+
+    /**
+     * Register the count and page timers along with the cache hit and miss counts.
+     */
+    public static void registerMetrics(@Nullable MetricRegistry metrics) {
+        if (metrics != null) {
+            CacheSupport.registerTimer(metrics, CatalogCountCache.class, "count", countTimer);
+            CacheSupport.registerTimer(metrics, CatalogCountCache.class, "page", pageTimer);
+            CacheSupport.registerStats(metrics, CatalogCountCache.class, cache);
+        }
+    }
+
+    private static ThreadPoolExecutor newExecutor(int threads) {
+        ThreadPoolExecutor retval = new ThreadPoolExecutor(threads, threads,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, CatalogCountCache.class.getSimpleName());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        retval.allowCoreThreadTimeOut(true);
+        return retval;
+    }
+}
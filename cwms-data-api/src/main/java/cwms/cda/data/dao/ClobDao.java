@@ -1,6 +1,7 @@
 package cwms.cda.data.dao;
 
 import com.google.common.flogger.FluentLogger;
+import com.google.common.io.CharStreams;
 import cwms.cda.api.errors.NotFoundException;
 import cwms.cda.data.dto.Clob;
 import cwms.cda.data.dto.Clobs;
@@ -23,9 +24,13 @@ import usace.cwms.db.jooq.codegen.tables.AV_OFFICE;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.CallableStatement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +42,16 @@ public class ClobDao extends JooqDao<Clob> {
             + "from cwms_20.av_clob join cwms_20.av_office "
             + "on av_clob.office_code = av_office.office_code "
             + "where av_office.office_id = ? and av_clob.id = ?";
+    public static final String SELECT_CLOBS_QUERY = "select cwms_20.AV_CLOB.ID, cwms_20.AV_CLOB.VALUE "
+            + "from cwms_20.av_clob join cwms_20.av_office "
+            + "on av_clob.office_code = av_office.office_code "
+            + "where av_office.office_id = ? and av_clob.id in (%s)";
+    /**
+     * Oracle allows at most 1000 expressions in an IN list.
+     */
+    private static final int MAX_IN_LIST = 1000;
+    public static final String STORE_TEXT = "{call CWMS_20.CWMS_TEXT.STORE_TEXT(?,?,?,?,?)}";
+    public static final String UPDATE_TEXT = "{call CWMS_20.CWMS_TEXT.UPDATE_TEXT(?,?,?,?,?)}";
 
     public ClobDao(DSLContext dsl) {
         super(dsl);
@@ -244,6 +259,56 @@ public class ClobDao extends JooqDao<Clob> {
         );
     }
 
+    /**
+     * Store a clob whose value is read from a stream. The text is copied into a temporary
+     * database clob which is then stored, so the value is never held in memory in full.
+     *
+     * @param clob the office, id and description, the value is ignored
+     * @param value the text to store
+     * @return the number of characters stored
+     * @throws IOException if the stream can not be read
+     */
+    public long create(Clob clob, Reader value, boolean failIfExists) throws IOException {
+        return storeText(STORE_TEXT, clob, value, getBoolean(failIfExists));
+    }
+
+    /**
+     * Update a clob with a value read from a stream, see {@link #create(Clob, Reader, boolean)}.
+     */
+    public long update(Clob clob, Reader value, boolean ignoreNulls) throws IOException {
+        return storeText(UPDATE_TEXT, clob, value, getBoolean(ignoreNulls));
+    }
+
+    private long storeText(String call, Clob clob, Reader value, String flag) throws IOException {
+        try {
+            return connectionResult(dsl, c -> {
+                getDslContext(c, clob.getOfficeId());
+                java.sql.Clob temp = c.createClob();
+                try {
+                    long size;
+                    try (Writer out = temp.setCharacterStream(1)) {
+                        size = CharStreams.copy(value, out);
+                    }
+                    try (CallableStatement stmt = c.prepareCall(call)) {
+                        stmt.setClob(1, temp);
+                        stmt.setString(2, clob.getId());
+                        stmt.setString(3, clob.getDescription());
+                        stmt.setString(4, flag);
+                        stmt.setString(5, clob.getOfficeId());
+                        stmt.execute();
+                    }
+                    return size;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    temp.free();
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     /**
      *
      * @param clobId the id to search for
@@ -282,6 +347,45 @@ public class ClobDao extends JooqDao<Clob> {
         });
     }
 
+    /**
+     * Retrieve several clobs of an office with one query per thousand ids. The consumer is
+     * called with each clob while the connection is still open, in no particular order; ids
+     * that do not exist are skipped.
+     *
+     * @param officeId the office
+     * @param clobIds the ids to search for
+     * @param clobsConsumer a consumer that should be handed the id and the clob
+     */
+    public void getClobs(String officeId, List<String> clobIds, ClobsConsumer clobsConsumer)
+            throws IOException {
+        try {
+            connection(dsl, connection -> {
+                for (int start = 0; start < clobIds.size(); start += MAX_IN_LIST) {
+                    List<String> ids = clobIds.subList(start,
+                            Math.min(clobIds.size(), start + MAX_IN_LIST));
+                    String query = String.format(SELECT_CLOBS_QUERY,
+                            String.join(",", Collections.nCopies(ids.size(), "?")));
+                    try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                        preparedStatement.setString(1, officeId);
+                        for (int i = 0; i < ids.size(); i++) {
+                            preparedStatement.setString(i + 2, ids.get(i));
+                        }
+                        try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                            while (resultSet.next()) {
+                                clobsConsumer.accept(resultSet.getString("ID"),
+                                        resultSet.getClob("VALUE"));
+                            }
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     public static String readFully(java.sql.Clob clob) throws IOException, SQLException {
         try(Reader reader = clob.getCharacterStream();
             BufferedReader br = new BufferedReader(reader)) {
@@ -296,6 +400,11 @@ public class ClobDao extends JooqDao<Clob> {
 
     @FunctionalInterface
     public interface ClobConsumer {
-        void accept(java.sql.Clob blob) throws SQLException;
+        void accept(java.sql.Clob blob) throws SQLException, IOException;
+    }
+
+    @FunctionalInterface
+    public interface ClobsConsumer {
+        void accept(String clobId, java.sql.Clob clob) throws SQLException, IOException;
     }
 }
@@ -29,6 +29,7 @@ import static usace.cwms.db.jooq.codegen.tables.AV_DB_CHANGE_LOG.AV_DB_CHANGE_LO
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import cwms.cda.data.dto.CwmsDTO;
+import cwms.cda.datasource.SessionStateTracker;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
@@ -101,8 +102,10 @@ public abstract class Dao<T> {
     }
 
     protected void setOffice(Connection c, String office) throws SQLException {
-        CwmsDbEnv db = CwmsDbServiceLookup.buildCwmsDb(CwmsDbEnv.class, c);
-        db.setSessionOfficeId(c,office);
+        SessionStateTracker.apply(c, SessionStateTracker.OFFICE, office, () -> {
+            CwmsDbEnv db = CwmsDbServiceLookup.buildCwmsDb(CwmsDbEnv.class, c);
+            db.setSessionOfficeId(c, office);
+        });
     }
 
 
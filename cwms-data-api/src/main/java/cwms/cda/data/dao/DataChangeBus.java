@@ -0,0 +1,115 @@
+package cwms.cda.data.dao;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * In process notifications of the writes made through the DAOs, so that each cache can drop
+ * exactly the entries a write affects instead of the DAOs knowing about every cache.
+ *
+ * <p>A DAO publishes a change once the block that wrote has returned its connection, keyed by
+ * the kind of entity, the office and the identifier. The pooled connections auto commit, so the
+ * write is visible by then and a cache that reloads right away does not pick up the old value.
+ * A DAO built on a single connection whose owner commits later publishes before that commit, a
+ * read in between can cache the old value until it expires.
+ *
+ * <p>A null identifier stands for every entity of that kind in the office and a null office for
+ * every office. Caches subscribe to the kinds they hold when their class is loaded; a cache that
+ * has not been loaded holds nothing that could be stale. Listeners run on the publishing thread
+ * and should only drop entries. Writes made by other processes are not
+ * seen, caches still rely on their entries expiring for those.
+ */
+public final class DataChangeBus {
+    private static final Logger logger = Logger.getLogger(DataChangeBus.class.getName());
+
+    public enum Entity {
+        LOCATION,
+        LOCATION_GROUP,
+        LOCATION_LEVEL,
+        TIME_SERIES,
+        TIME_SERIES_GROUP,
+        RATING,
+        BLOB,
+        STREAM,
+        STREAM_REACH,
+        STREAM_LOCATION,
+        USER
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * @param officeId the office of the changed entity, null for every office
+         * @param id the identifier of the changed entity, null for every entity of the office
+         */
+        void changed(@Nullable String officeId, @Nullable String id);
+    }
+
+    private static final Map<Entity, List<Listener>> listeners = new EnumMap<>(Entity.class);
+    private static final Map<Entity, Meter> published = new EnumMap<>(Entity.class);
+
+    static {
+        for (Entity entity : Entity.values()) {
+            listeners.put(entity, new CopyOnWriteArrayList<>());
+            published.put(entity, new Meter());
+        }
+    }
+
+    private DataChangeBus() {
+    }
+
+    public static void subscribe(Entity entity, Listener listener) {
+        listeners.get(entity).add(listener);
+    }
+
+    public static void unsubscribe(Entity entity, Listener listener) {
+        listeners.get(entity).remove(listener);
+    }
+
+    /**
+     * Tell the subscribers of the entity kind that an entity has been written or deleted.
+     * A failing listener is logged and does not keep the others from being called.
+     */
+    public static void publish(Entity entity, @Nullable String officeId, @Nullable String id) {
+        published.get(entity).mark();
+        String office = officeId == null || officeId.isEmpty() ? null : officeId;
+        for (Listener listener : listeners.get(entity)) {
+            try {
+                listener.changed(office, id);
+            } catch (RuntimeException ex) {
+                logger.log(Level.WARNING, ex, () -> "Unable to invalidate cached " + entity
+                        + " " + office + "/" + id);
+            }
+        }
+    }
+
+    /**
+     * Tell the subscribers of the entity kind that any entity of the office may have changed.
+     */
+    public static void publishOffice(Entity entity, @Nullable String officeId) {
+        publish(entity, officeId, null);
+    }
+
+    /**
+     * Register the rate of published changes of each entity kind with the given registry.
+     */
+    public static void registerMetrics(@Nullable MetricRegistry metrics) {
+        if (metrics != null) {
+            published.forEach((entity, meter) -> {
+                String name = MetricRegistry.name(DataChangeBus.class.getName(), "published",
+                        entity.name().toLowerCase(Locale.ROOT));
+                if (metrics.getMeters().get(name) == null) {
+                    metrics.meter(name, () -> meter);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package cwms.cda.data.dao;
+
+import cwms.cda.data.dto.CwmsDTOPaginated;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.jetbrains.annotations.Nullable;
+import org.jooq.exception.DataAccessException;
+
+/**
+ * A page of rows ordered by date time, for retrievals like text and binary time series that can
+ * return several rows at the same time.
+ *
+ * <p>The cursor holds the date time of the first row of the page, the number of rows at that
+ * time which were returned on earlier pages, and the page size, so the next page starts the
+ * retrieval at that time instead of reading and discarding every earlier row.
+ */
+public final class DateTimePage {
+    public static final String FETCH_SIZE_PROPERTY = "cwms.cda.data.dao.rows.fetchSize";
+
+    private static final int FETCH_SIZE = Integer.getInteger(FETCH_SIZE_PROPERTY, 100);
+
+    private final Instant start;
+    private final int skip;
+    private final int pageSize;
+
+    private DateTimePage(Instant start, int skip, int pageSize) {
+        this.start = start;
+        this.skip = skip;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * The first page of a retrieval, or the page the cursor points to.
+     *
+     * @param page the cursor from the next-page of the previous response, or null
+     * @param begin the start of the requested window
+     * @param pageSize the number of rows per page, ignored when continuing from a cursor
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    public static DateTimePage of(@Nullable String page, Instant begin, int pageSize) {
+        if (page == null || page.isEmpty()) {
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("page-size must be greater than 0");
+            }
+            return new DateTimePage(begin, 0, pageSize);
+        }
+        String[] parts = CwmsDTOPaginated.decodeCursor(page);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid page");
+        }
+        Instant start;
+        int skip;
+        int cursorPageSize;
+        try {
+            start = Instant.ofEpochMilli(Long.parseLong(parts[0]));
+            skip = Integer.parseInt(parts[1]);
+            // Use the pageSize from the original cursor, for consistent paging
+            cursorPageSize = Integer.parseInt(parts[2]);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid page", ex);
+        }
+        if (skip < 0 || cursorPageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page");
+        }
+        return new DateTimePage(start, skip, cursorPageSize);
+    }
+
+    /**
+     * Every row of the window on one page.
+     */
+    public static DateTimePage all(Instant begin) {
+        return new DateTimePage(begin, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return where the retrieval has to start.
+     */
+    public Instant getStart() {
+        return start;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public String encode() {
+        return CwmsDTOPaginated.encodeCursor(start.toEpochMilli(), skip, pageSize);
+    }
+
+    /**
+     * Iterate over the rows of this page, reading them from the result set as they are needed.
+     * The result set must be ordered by date time and start at {@link #getStart()}.
+     */
+    public <T> Rows<T> rows(ResultSet rs, DateTimeReader dateTime, RowReader<T> reader)
+            throws SQLException {
+        // one row more than the page to find the start of the next page
+        rs.setFetchSize(pageSize < FETCH_SIZE ? pageSize + 1 : FETCH_SIZE);
+        return new Rows<>(rs, dateTime, reader);
+    }
+
+    @FunctionalInterface
+    public interface DateTimeReader {
+        Instant read(ResultSet rs) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface RowReader<T> {
+        T read(ResultSet rs) throws SQLException, IOException;
+    }
+
+    /**
+     * Receives the header of a retrieval and its rows while the connection is still open.
+     */
+    @FunctionalInterface
+    public interface RowsConsumer<H, T> {
+        void accept(H header, Rows<T> rows) throws IOException;
+    }
+
+    /**
+     * The rows of the page. Reading a row can throw a {@link DataAccessException} or an
+     * {@link UncheckedIOException}.
+     */
+    public final class Rows<T> implements Iterator<T> {
+        private final ResultSet rs;
+        private final DateTimeReader dateTime;
+        private final RowReader<T> reader;
+
+        private int toSkip = skip;
+        private Instant last = start;
+        private int atLast = 0;
+        private int returned = 0;
+        private T next;
+        private boolean done;
+        private String nextPage;
+
+        private Rows(ResultSet rs, DateTimeReader dateTime, RowReader<T> reader) {
+            this.rs = rs;
+            this.dateTime = dateTime;
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                advance();
+            }
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T retVal = next;
+            next = null;
+            return retVal;
+        }
+
+        /**
+         * @return the cursor of the next page, or null if this is the last page. Only known
+         *     once every row of the page has been read.
+         */
+        @Nullable
+        public String getNextPage() {
+            return nextPage;
+        }
+
+        private void advance() {
+            try {
+                while (rs.next()) {
+                    Instant time = dateTime.read(rs);
+                    if (toSkip > 0 && time.equals(start)) {
+                        // returned by an earlier page
+                        toSkip--;
+                        atLast++;
+                        continue;
+                    }
+                    if (returned >= pageSize) {
+                        nextPage = new DateTimePage(time, time.equals(last) ? atLast : 0,
+                                pageSize).encode();
+                        done = true;
+                        return;
+                    }
+                    if (time.equals(last)) {
+                        atLast++;
+                    } else {
+                        last = time;
+                        atLast = 1;
+                    }
+                    returned++;
+                    next = reader.read(rs);
+                    return;
+                }
+                done = true;
+            } catch (SQLException ex) {
+                throw new DataAccessException("Unable to read row", ex);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
@@ -90,7 +90,7 @@ public final class ForecastInstanceDao extends JooqDao<ForecastInstance> {
             "                          group by info.FCST_INST_CODE) fcst_info" +
             "                         on (inst.FCST_INST_CODE = info_inst_code)";
 
-    private static final String FILE_QUERY = "select inst.BLOB_FILE" +
+    private static final String FILE_QUERY = "select inst.BLOB_FILE, inst.ORA_ROWSCN as VERSION" +
             " from CWMS_20.AT_FCST_INST inst" +
             "         left outer join CWMS_20.AT_FCST_SPEC spec on inst.FCST_SPEC_CODE = spec.FCST_SPEC_CODE";
 
@@ -298,6 +298,10 @@ public final class ForecastInstanceDao extends JooqDao<ForecastInstance> {
             Instant forecastDate, Instant issueDate, BlobDao.BlobConsumer consumer) {
 
         String query = FILE_QUERY + FILE_CONDITIONS;
+        String key = String.join("/", "forecast", office.toUpperCase(), name, designator,
+                String.valueOf(forecastDate.toEpochMilli()), String.valueOf(issueDate.toEpochMilli()));
+        BlobFileCache.CachedBlob[] cached = new BlobFileCache.CachedBlob[1];
+        String[] cachedMediaType = new String[1];
         connection(dsl, c -> {
             try (PreparedStatement preparedStatement = c.prepareStatement(query)) {
                 preparedStatement.setString(1, office);
@@ -316,14 +320,27 @@ public final class ForecastInstanceDao extends JooqDao<ForecastInstance> {
                                     mediaType = "application/octet-stream";
                                 }
                                 Blob blob = (Blob) attributes[4];
-                                consumer.accept(blob, mediaType);
+                                if (blob == null) {
+                                    consumer.accept(null, mediaType, 0);
+                                    return;
+                                }
+                                cached[0] = BlobDao.openCached(key, resultSet.getString("VERSION"),
+                                        () -> blob);
+                                if (cached[0] != null) {
+                                    cachedMediaType[0] = mediaType;
+                                } else {
+                                    consumer.accept(blob.getBinaryStream(), mediaType, blob.length());
+                                }
                                 return;
                             }
                         }
                     }
-                    consumer.accept(null, null);
+                    consumer.accept(null, null, 0);
                 }
             }
         });
+        if (cached[0] != null) {
+            BlobDao.consumeCached(cached[0], cachedMediaType[0], consumer);
+        }
     }
 }
@@ -33,12 +33,16 @@ import cwms.cda.api.errors.AlreadyExists;
 import cwms.cda.api.errors.InvalidItemException;
 import cwms.cda.api.errors.NotFoundException;
 import cwms.cda.datasource.ConnectionPreparingDataSource;
+import cwms.cda.datasource.SessionStateTracker;
 import cwms.cda.security.CwmsAuthException;
 import io.javalin.http.Context;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.sql.CallableStatement;
 import java.sql.Connection;
-import java.sql.SQLClientInfoException;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -49,6 +53,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jooq.Condition;
 import org.jooq.ConnectionCallable;
+import org.jooq.ConnectionProvider;
 import org.jooq.ConnectionRunnable;
 import org.jooq.DSLContext;
 import org.jooq.ExecuteListener;
@@ -57,6 +62,7 @@ import org.jooq.SQLDialect;
 import org.jooq.exception.DataAccessException;
 import org.jooq.impl.CustomCondition;
 import org.jooq.impl.DSL;
+import org.jooq.impl.DataSourceConnectionProvider;
 import org.jooq.impl.DefaultExecuteListenerProvider;
 import org.owasp.html.HtmlPolicyBuilder;
 import org.owasp.html.PolicyFactory;
@@ -97,6 +103,9 @@ public abstract class JooqDao<T> extends Dao<T> {
      * recognized SQLExceptions in more specific CDA exception types.  This
      * enables ApiServlet to handle the exception specialization in a more
      * generic way.
+     * The client info of the request is read when this method is called, so the
+     * returned DSLContext does not touch the request context afterwards and each
+     * thread that uses it gets its own connection from the pool.
      *
      * @param ctx The current request context.
      * @return A DSLContext for the current request.
@@ -106,8 +115,11 @@ public abstract class JooqDao<T> extends Dao<T> {
         final String officeId = ctx.attribute(ApiServlet.OFFICE_ID);
         final DataSource dataSource = ctx.attribute(ApiServlet.DATA_SOURCE);
         if (dataSource != null) {
+            String module = ctx.endpointHandlerPath();
+            String action = ctx.method();
+            String clientId = ctx.url().replace(ctx.path(), "") + ctx.contextPath();
             DataSource wrappedDataSource = new ConnectionPreparingDataSource(connection ->
-                    setClientInfo(ctx, connection), dataSource);
+                    setClientInfo(connection, module, action, clientId), dataSource);
             retVal = DSL.using(wrappedDataSource, SQLDialect.ORACLE18C);
         } else {
             // Some tests still use this method
@@ -134,17 +146,19 @@ public abstract class JooqDao<T> extends Dao<T> {
         // code within the block should use the returned DSLContext or the connection.
         DSLContext dsl = DSL.using(connection, SQLDialect.ORACLE18C);
         CWMS_ENV_PACKAGE.call_SET_SESSION_OFFICE_ID(dsl.configuration(), officeId);
+        SessionStateTracker.applied(connection, SessionStateTracker.OFFICE, officeId);
 
         return dsl;
     }
 
-    private static Connection setClientInfo(Context ctx, Connection connection) {
+    private static Connection setClientInfo(Connection connection, String module, String action,
+                                            String clientId) {
         try {
-            connection.setClientInfo("OCSID.ECID", ApiServlet.APPLICATION_TITLE + " " + ApiServlet.VERSION);
-            connection.setClientInfo("OCSID.MODULE", ctx.endpointHandlerPath());
-            connection.setClientInfo("OCSID.ACTION", ctx.method());
-            connection.setClientInfo("OCSID.CLIENTID", ctx.url().replace(ctx.path(), "") + ctx.contextPath());
-        } catch (SQLClientInfoException ex) {
+            setClientInfo(connection, "OCSID.ECID", ApiServlet.APPLICATION_TITLE + " " + ApiServlet.VERSION);
+            setClientInfo(connection, "OCSID.MODULE", module);
+            setClientInfo(connection, "OCSID.ACTION", action);
+            setClientInfo(connection, "OCSID.CLIENTID", clientId);
+        } catch (SQLException ex) {
             logger.atWarning()
                     .withCause(ex)
                     .log("Unable to set client info on connection.");
@@ -152,6 +166,12 @@ public abstract class JooqDao<T> extends Dao<T> {
         return connection;
     }
 
+    private static void setClientInfo(Connection connection, String name, String value)
+            throws SQLException {
+        SessionStateTracker.apply(connection, name, value,
+                () -> connection.setClientInfo(name, value));
+    }
+
     @Override
     public List<T> getAll(String officeId) {
         throw new UnsupportedOperationException("Not supported yet.");
@@ -577,4 +597,65 @@ public abstract class JooqDao<T> extends Dao<T> {
         }
     }
 
+    /**
+     * A DSLContext on the same data source that does not refer back to the current request,
+     * for work that may still be running after the response has been sent.
+     *
+     * @return the context, or null if this dao is bound to a single connection.
+     */
+    @Nullable
+    protected DSLContext detachedDslContext() {
+        ConnectionProvider provider = dsl.configuration().connectionProvider();
+        if (!(provider instanceof DataSourceConnectionProvider)) {
+            return null;
+        }
+        DataSource dataSource = ((DataSourceConnectionProvider) provider).dataSource();
+        if (dataSource instanceof ConnectionPreparingDataSource) {
+            // the outer preparer set up by getDslContext(Context) reads client info from the request
+            dataSource = ((ConnectionPreparingDataSource) dataSource).getDelegate();
+        }
+        DSLContext retVal = DSL.using(dataSource, dsl.dialect());
+        retVal.configuration().set(new DefaultExecuteListenerProvider(listener));
+        return retVal;
+    }
+
+    /**
+     * Call a database function that returns a CLOB and hand the CLOB to the consumer while
+     * the connection is still open.  The generated jOOQ routines bind the CLOB to a String,
+     * which holds the entire result in memory; this lets the caller read it as a stream.
+     *
+     * @param function the qualified function name, e.g. CWMS_20.CWMS_TS.RETRIEVE_TIME_SERIES_F
+     * @param consumer handed the CLOB, or null if the function returned null
+     * @param args the function arguments, in declaration order
+     * @throws IOException if the consumer fails to write the CLOB
+     */
+    protected void callClobFunction(String function, ClobDao.ClobConsumer consumer, String... args)
+            throws IOException {
+        String call = "{? = call " + function + "("
+                + String.join(",", Collections.nCopies(args.length, "?")) + ")}";
+        try {
+            connection(dsl, c -> {
+                try (CallableStatement stmt = c.prepareCall(call)) {
+                    stmt.registerOutParameter(1, Types.CLOB);
+                    for (int i = 0; i < args.length; i++) {
+                        stmt.setString(i + 2, args[i]);
+                    }
+                    stmt.execute();
+                    java.sql.Clob clob = stmt.getClob(1);
+                    try {
+                        consumer.accept(clob);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        if (clob != null) {
+                            clob.free();
+                        }
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
 }
@@ -393,6 +393,7 @@ public final class LocationGroupDao extends JooqDao<LocationGroup> {
             CWMS_LOC_PACKAGE.call_DELETE_LOC_GROUP__2(dslContext.configuration(), categoryId,
                     groupId, OracleTypeMap.formatBool(cascadeDelete), office);
         });
+        DataChangeBus.publish(DataChangeBus.Entity.LOCATION_GROUP, office, groupId);
     }
 
     /**
@@ -410,6 +411,7 @@ public final class LocationGroupDao extends JooqDao<LocationGroup> {
                     group.getSharedRefLocationId());
             assignLocs(group);
         });
+        DataChangeBus.publish(DataChangeBus.Entity.LOCATION_GROUP, office, group.getId());
     }
 
     @NotNull
@@ -432,6 +434,8 @@ public final class LocationGroupDao extends JooqDao<LocationGroup> {
             CWMS_LOC_PACKAGE.call_RENAME_LOC_GROUP(dslContext.configuration(), newGroup.getLocationCategory().getId(),
                     oldGroupId, newGroup.getId(), newGroup.getDescription(), "T", office);
         });
+        DataChangeBus.publish(DataChangeBus.Entity.LOCATION_GROUP, office, oldGroupId);
+        DataChangeBus.publish(DataChangeBus.Entity.LOCATION_GROUP, office, newGroup.getId());
     }
 
     public void unassignAllLocs(LocationGroup group) {
@@ -442,6 +446,7 @@ public final class LocationGroupDao extends JooqDao<LocationGroup> {
             CWMS_LOC_PACKAGE.call_UNASSIGN_LOC_GROUP(dslContext.configuration(),
                     cat.getId(), group.getId(), null, "T", office);
         });
+        DataChangeBus.publish(DataChangeBus.Entity.LOCATION_GROUP, office, group.getId());
     }
 
     public void assignLocs(LocationGroup group) {
@@ -459,6 +464,7 @@ public final class LocationGroupDao extends JooqDao<LocationGroup> {
                 CWMS_LOC_PACKAGE.call_ASSIGN_LOC_GROUPS3(dslContext.configuration(),
                         cat.getId(), group.getId(), assignedLocs, office);
             });
+            DataChangeBus.publish(DataChangeBus.Entity.LOCATION_GROUP, office, group.getId());
         }
     }
 }
@@ -0,0 +1,141 @@
+package cwms.cda.data.dao;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Process wide cache of {@link LocationLevelEvaluator}s keyed by office, level id, units and
+ * effective date.
+ *
+ * <p>A level definition does not change for a given effective date unless it is stored again,
+ * so a level is invalidated whenever {@link LocationLevelsDaoImpl} publishes that it stored,
+ * deleted or renamed it, and the levels of a location whenever the location is written. Changes
+ * made by other processes are picked up once an entry expires. Levels that
+ * cannot be evaluated locally are cached as well so their definition is not fetched again
+ * before falling back to the database. Setting the system property {@value #LOCAL_PROPERTY}
+ * to false evaluates every level in the database.
+ */
+public final class LocationLevelCache {
+    public static final String PROP_BASE = "cwms.cda.data.dao.level.cache";
+    public static final String LOCAL_PROPERTY = "cwms.cda.data.dao.level.evaluate.local";
+
+    private static final boolean LOCAL = Boolean.parseBoolean(
+            System.getProperty(LOCAL_PROPERTY, "true"));
+
+    private static final Cache<List<String>, Optional<LocationLevelEvaluator>> cache =
+            CacheBuilder.newBuilder()
+                    .maximumSize(Integer.getInteger(PROP_BASE + ".maxSize", 1000))
+                    .expireAfterWrite(Integer.getInteger(PROP_BASE + ".expireAfterSeconds", 600),
+                            TimeUnit.SECONDS)
+                    .recordStats()
+                    .build();
+
+    private static final CacheSupport.Generation generation = new CacheSupport.Generation();
+
+    static {
+        DataChangeBus.subscribe(DataChangeBus.Entity.LOCATION_LEVEL,
+                LocationLevelCache::invalidate);
+        DataChangeBus.subscribe(DataChangeBus.Entity.LOCATION,
+                LocationLevelCache::invalidateLocation);
+    }
+
+    private static final Meter localValues = new Meter();
+    private static final Meter databaseValues = new Meter();
+
+    private LocationLevelCache() {
+    }
+
+    public static boolean isLocalEvaluationEnabled() {
+        return LOCAL;
+    }
+
+    /**
+     * Return the cached evaluator of the level definition or load and cache it.
+     *
+     * @return the evaluator, or null if the level has to be evaluated by the database.
+     */
+    @Nullable
+    public static LocationLevelEvaluator get(String officeId, String levelId, String units,
+                                             Instant effectiveDate,
+                                             Supplier<LocationLevelEvaluator> loader) {
+        List<String> key = Arrays.asList(officeId.toUpperCase(), levelId.toUpperCase(),
+                units, String.valueOf(effectiveDate.toEpochMilli()));
+        return generation.get(cache, key, () -> Optional.ofNullable(loader.get()))
+                .orElse(null);
+    }
+
+    /**
+     * Remove the level definitions of the given office.
+     */
+    public static void invalidateOffice(@Nullable String officeId) {
+        generation.bump();
+        if (officeId == null || officeId.isEmpty()) {
+            cache.invalidateAll();
+        } else {
+            cache.asMap().keySet().removeIf(k -> k.get(0).equalsIgnoreCase(officeId));
+        }
+    }
+
+    /**
+     * Remove the definitions of the given level, or of every level of the office if the level
+     * is null.
+     */
+    public static void invalidate(@Nullable String officeId, @Nullable String levelId) {
+        if (levelId == null) {
+            invalidateOffice(officeId);
+            return;
+        }
+        generation.bump();
+        cache.asMap().keySet().removeIf(k -> matchesOffice(k, officeId)
+                && k.get(1).equalsIgnoreCase(levelId));
+    }
+
+    /**
+     * Remove the definitions of every level of the given location.
+     */
+    private static void invalidateLocation(@Nullable String officeId,
+                                           @Nullable String locationId) {
+        if (locationId == null) {
+            invalidateOffice(officeId);
+            return;
+        }
+        generation.bump();
+        String prefix = locationId.toUpperCase() + ".";
+        cache.asMap().keySet().removeIf(k -> matchesOffice(k, officeId)
+                && k.get(1).startsWith(prefix));
+    }
+
+    private static boolean matchesOffice(List<String> key, @Nullable String officeId) {
+        return officeId == null || key.get(0).equalsIgnoreCase(officeId);
+    }
+
+    /**
+     * Count values computed in process or by the database.
+     */
+    static void markValues(boolean local, int count) {
+        (local ? localValues : databaseValues).mark(count);
+    }
+
+    /**
+     * Register hit, miss and eviction counts and the local and database value rates with the
+     * given registry.
+     */
+    public static void registerMetrics(@Nullable MetricRegistry metrics) {
+        if (metrics != null) {
+            CacheSupport.registerMeter(metrics, LocationLevelCache.class, "values.local",
+                    localValues);
+            CacheSupport.registerMeter(metrics, LocationLevelCache.class, "values.database",
+                    databaseValues);
+            CacheSupport.registerStats(metrics, LocationLevelCache.class, cache);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package cwms.cda.data.dao;
+
+import cwms.cda.data.dto.LocationLevel;
+import cwms.cda.data.dto.SeasonalValueBean;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Computes the values of a constant or seasonal location level without the database.
+ *
+ * <p>Seasonal values repeat every interval, which starts at the interval origin and lasts a
+ * number of months or minutes. Each value is placed at its offset from the start of the
+ * interval in UTC. Between two values the level is either held at the earlier one or, when
+ * the level interpolates, linearly interpolated; the last value of an interval carries over to
+ * the first value of the next.
+ */
+public final class LocationLevelEvaluator {
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    @Nullable
+    private final Double constantValue;
+    private final ZonedDateTime origin;
+    private final int intervalMonths;
+    private final long intervalMillis;
+    private final boolean interpolate;
+    private final int[] offsetMonths;
+    private final long[] offsetMillis;
+    private final double[] values;
+
+    /**
+     * @return an evaluator for the level, or null if the level is not constant or seasonal,
+     *     e.g. it follows a time series.
+     */
+    @Nullable
+    public static LocationLevelEvaluator of(LocationLevel level) {
+        if (level.getSeasonalTimeSeriesId() != null) {
+            return null;
+        }
+        List<SeasonalValueBean> seasonal = new ArrayList<>();
+        if (level.getSeasonalValues() != null) {
+            for (SeasonalValueBean value : level.getSeasonalValues()) {
+                if (value != null && value.getValue() != null) {
+                    seasonal.add(value);
+                }
+            }
+        }
+        seasonal.sort(Comparator.comparingInt(LocationLevelEvaluator::months)
+                .thenComparingLong(LocationLevelEvaluator::minutes));
+
+        if (seasonal.isEmpty()) {
+            return level.getConstantValue() == null ? null
+                    : new LocationLevelEvaluator(level.getConstantValue(), null, 0, 0, false,
+                            seasonal);
+        }
+        Integer months = level.getIntervalMonths();
+        Integer minutes = level.getIntervalMinutes();
+        if (level.getIntervalOrigin() == null) {
+            return null;
+        }
+        ZonedDateTime origin = level.getIntervalOrigin().withZoneSameInstant(ZoneOffset.UTC);
+        boolean interpolate = "T".equalsIgnoreCase(level.getInterpolateString());
+        if (months != null && months > 0) {
+            return new LocationLevelEvaluator(null, origin, months, 0, interpolate, seasonal);
+        } else if (minutes != null && minutes > 0) {
+            return new LocationLevelEvaluator(null, origin, 0, minutes * MINUTE_MILLIS,
+                    interpolate, seasonal);
+        }
+        return null;
+    }
+
+    private LocationLevelEvaluator(@Nullable Double constantValue, ZonedDateTime origin,
+                                   int intervalMonths, long intervalMillis, boolean interpolate,
+                                   List<SeasonalValueBean> seasonal) {
+        this.constantValue = constantValue;
+        this.origin = origin;
+        this.intervalMonths = intervalMonths;
+        this.intervalMillis = intervalMillis;
+        this.interpolate = interpolate;
+        int size = seasonal.size();
+        offsetMonths = new int[size];
+        offsetMillis = new long[size];
+        values = new double[size];
+        for (int i = 0; i < size; i++) {
+            SeasonalValueBean value = seasonal.get(i);
+            offsetMonths[i] = months(value);
+            offsetMillis[i] = minutes(value) * MINUTE_MILLIS;
+            values[i] = value.getValue();
+        }
+    }
+
+    private static int months(SeasonalValueBean value) {
+        return value.getOffsetMonths() == null ? 0 : value.getOffsetMonths();
+    }
+
+    private static long minutes(SeasonalValueBean value) {
+        BigInteger minutes = value.getOffsetMinutes();
+        return minutes == null ? 0 : minutes.longValue();
+    }
+
+    /**
+     * @return the value of the level at the given time.
+     */
+    public double valueAt(Instant time) {
+        if (constantValue != null) {
+            return constantValue;
+        }
+        long t = time.toEpochMilli();
+        long k = intervalIndex(time);
+        long intervalStart = intervalStart(k);
+
+        int last = values.length - 1;
+        int j = last;
+        while (j >= 0 && pointTime(intervalStart, j) > t) {
+            j--;
+        }
+        long prevTime;
+        double prevValue;
+        long nextTime;
+        double nextValue;
+        if (j < 0) {
+            prevTime = pointTime(intervalStart(k - 1), last);
+            prevValue = values[last];
+            nextTime = pointTime(intervalStart, 0);
+            nextValue = values[0];
+        } else {
+            prevTime = pointTime(intervalStart, j);
+            prevValue = values[j];
+            if (j < last) {
+                nextTime = pointTime(intervalStart, j + 1);
+                nextValue = values[j + 1];
+            } else {
+                nextTime = pointTime(intervalStart(k + 1), 0);
+                nextValue = values[0];
+            }
+        }
+        if (!interpolate || t == prevTime || nextTime == prevTime) {
+            return prevValue;
+        }
+        return prevValue + (nextValue - prevValue) * (t - prevTime) / (nextTime - prevTime);
+    }
+
+    /**
+     * Evaluate the level at each of the given times.
+     */
+    public double[] valuesAt(List<Instant> times) {
+        double[] retVal = new double[times.size()];
+        for (int i = 0; i < retVal.length; i++) {
+            retVal[i] = valueAt(times.get(i));
+        }
+        return retVal;
+    }
+
+    /**
+     * Number of the interval holding the time, counted from the interval origin.
+     */
+    private long intervalIndex(Instant time) {
+        if (intervalMonths == 0) {
+            return Math.floorDiv(time.toEpochMilli() - origin.toInstant().toEpochMilli(),
+                    intervalMillis);
+        }
+        ZonedDateTime utc = time.atZone(ZoneOffset.UTC);
+        long k = Math.floorDiv(ChronoUnit.MONTHS.between(origin, utc), intervalMonths);
+        // MONTHS.between truncates towards zero, correct by at most one interval either way
+        while (intervalStart(k) > time.toEpochMilli()) {
+            k--;
+        }
+        while (intervalStart(k + 1) <= time.toEpochMilli()) {
+            k++;
+        }
+        return k;
+    }
+
+    private long intervalStart(long k) {
+        if (intervalMonths == 0) {
+            return origin.toInstant().toEpochMilli() + k * intervalMillis;
+        }
+        return origin.plusMonths(k * intervalMonths).toInstant().toEpochMilli();
+    }
+
+    private long pointTime(long intervalStart, int j) {
+        if (offsetMonths[j] == 0) {
+            return intervalStart + offsetMillis[j];
+        }
+        return Instant.ofEpochMilli(intervalStart).atZone(ZoneOffset.UTC)
+                .plusMonths(offsetMonths[j]).toInstant().toEpochMilli() + offsetMillis[j];
+    }
+}
@@ -30,6 +30,7 @@ import cwms.cda.data.dto.TimeSeries;
 import hec.data.level.ILocationLevelRef;
 import mil.army.usace.hec.metadata.Interval;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -49,6 +50,14 @@ public interface LocationLevelsDao {
                              String datum, String begin,
                              String end, String timezone);
 
+    /**
+     * Retrieve legacy formatted levels, handing the CLOB to the consumer while the
+     * connection is still open.
+     */
+    void getLocationLevels(String format, String names, String office, String unit,
+                           String datum, String begin, String end, String timezone,
+                           ClobDao.ClobConsumer consumer) throws IOException;
+
     LocationLevels getLocationLevels(String cursor, int pageSize,
                                      String names, String office, String unit, String datum,
                                      ZonedDateTime beginZdt, ZonedDateTime endZdt);
@@ -46,12 +46,15 @@ import hec.data.level.ISpecifiedLevel;
 import hec.data.level.JDomLocationLevelRef;
 import hec.data.level.JDomSeasonalIntervalImpl;
 import hec.data.location.LocationTemplate;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -70,18 +73,19 @@ import mil.army.usace.hec.metadata.Interval;
 import mil.army.usace.hec.metadata.IntervalFactory;
 import mil.army.usace.hec.metadata.constants.NumericalConstants;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jooq.Condition;
 import org.jooq.Configuration;
 import org.jooq.DSLContext;
 import org.jooq.Record;
 import org.jooq.Record1;
+import org.jooq.Record2;
 import org.jooq.SelectLimitPercentAfterOffsetStep;
 import org.jooq.TableField;
 import org.jooq.conf.ParamType;
 import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
 import usace.cwms.db.dao.util.OracleTypeMap;
-import usace.cwms.db.jooq.codegen.packages.CWMS_ENV_PACKAGE;
 import usace.cwms.db.jooq.codegen.packages.CWMS_LEVEL_PACKAGE;
 import usace.cwms.db.jooq.codegen.packages.CWMS_LOC_PACKAGE;
 import usace.cwms.db.jooq.codegen.packages.CWMS_UTIL_PACKAGE;
@@ -111,26 +115,44 @@ public class LocationLevelsDaoImpl extends JooqDao<LocationLevel> implements Loc
                 names, format, unit, datum, begin, end, timezone, office);
     }
 
+    @Override
+    public void getLocationLevels(String format, String names, String office, String unit,
+                                  String datum, String begin, String end, String timezone,
+                                  ClobDao.ClobConsumer consumer) throws IOException {
+        callClobFunction("CWMS_20.CWMS_LEVEL.RETRIEVE_LOCATION_LEVELS_F", consumer,
+                names, format, unit, datum, begin, end, timezone, office);
+    }
+
     @Override
     public LocationLevels getLocationLevels(String cursor, int pageSize,
                                             String levelIdMask, String office, @NotNull String unit,
                                             String datum, ZonedDateTime beginZdt, ZonedDateTime endZdt) {
         Integer total = null;
         int offset = 0;
+        LevelPageKey after = null;
 
         if (cursor != null && !cursor.isEmpty()) {
             String[] parts = CwmsDTOPaginated.decodeCursor(cursor);
 
-            if (parts.length > 2) {
-                offset = Integer.parseInt(parts[0]);
-                if (!"null".equals(parts[1])) {
-                    try {
-                        total = Integer.valueOf(parts[1]);
-                    } catch (NumberFormatException e) {
-                        logger.log(Level.INFO, "Could not parse {0}", parts[1]);
-                    }
+            try {
+                if (parts.length > 4) {
+                    // office||level-id||level-date||total||pageSize
+                    after = new LevelPageKey(parts[0], parts[1], Long.parseLong(parts[2]));
+                    total = parseTotal(parts[3]);
+                    pageSize = Integer.parseInt(parts[4]);
+                } else if (parts.length > 2) {
+                    // older offset||total||pageSize cursors are still honored
+                    offset = Integer.parseInt(parts[0]);
+                    total = parseTotal(parts[1]);
+                    pageSize = Integer.parseInt(parts[2]);
+                } else {
+                    throw new IllegalArgumentException("Invalid page");
                 }
-                pageSize = Integer.parseInt(parts[2]);
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid page", ex);
+            }
+            if (offset < 0 || pageSize <= 0) {
+                throw new IllegalArgumentException("Invalid page");
             }
         }
 
@@ -156,29 +178,135 @@ public class LocationLevelsDaoImpl extends JooqDao<LocationLevel> implements Loc
                     Timestamp.from(endZdt.toInstant())));
         }
 
-        Map<LevelLookup, LocationLevel.Builder> builderMap = new LinkedHashMap<>();
+        Condition pageCondition = whereCondition;
+        if (after != null) {
+            pageCondition = pageCondition.and(DSL.row(DSL.upper(view.OFFICE_ID),
+                            DSL.upper(view.LOCATION_LEVEL_ID), view.LEVEL_DATE)
+                    .gt(after.office, after.levelId, new Timestamp(after.levelDate)));
+        }
 
+        // One more row than requested tells us whether there is a next page.
         SelectLimitPercentAfterOffsetStep<Record> query = dsl.selectDistinct(getAddSeasonalValueFields())
                 .from(view)
-                .where(whereCondition)
+                .where(pageCondition)
                 .orderBy(DSL.upper(view.OFFICE_ID), DSL.upper(view.LOCATION_LEVEL_ID),
-                        view.LEVEL_DATE, view.CALENDAR_OFFSET
+                        view.LEVEL_DATE, view.CALENDAR_OFFSET, view.TIME_OFFSET
                 )
                 .offset(offset)
-                .limit(pageSize);
+                .limit(pageSize + 1);
 
         logger.info(() -> "getLocationLevels query: " + query.getSQL(ParamType.INLINED));
 
-        query.stream().forEach(r -> addSeasonalValue(r, builderMap));
+        List<Record> rows = query.fetch();
+        LevelPageKey nextKey = null;
+        if (rows.size() > pageSize) {
+            // Keep all the seasonal values of a level on the same page: end the page on the last
+            // level that is complete.
+            nextKey = LevelPageKey.of(rows.get(pageSize - 1));
+            boolean levelContinues = nextKey.equals(LevelPageKey.of(rows.get(pageSize)));
+            rows = rows.subList(0, pageSize);
+            if (levelContinues) {
+                int end = rows.size();
+                while (end > 0 && nextKey.equals(LevelPageKey.of(rows.get(end - 1)))) {
+                    end--;
+                }
+                if (end > 0) {
+                    rows = rows.subList(0, end);
+                    nextKey = LevelPageKey.of(rows.get(end - 1));
+                } else {
+                    // a single level with more seasonal values than the page size
+                    rows = dsl.selectDistinct(getAddSeasonalValueFields())
+                            .from(view)
+                            .where(whereCondition)
+                            .and(DSL.upper(view.OFFICE_ID).eq(nextKey.office))
+                            .and(DSL.upper(view.LOCATION_LEVEL_ID).eq(nextKey.levelId))
+                            .and(view.LEVEL_DATE.eq(new Timestamp(nextKey.levelDate)))
+                            .orderBy(view.CALENDAR_OFFSET, view.TIME_OFFSET)
+                            .fetch();
+                }
+            }
+        }
+
+        List<LocationLevel> levels = buildLocationLevels(rows);
+
+        String page = after == null ? null : after.toCursorPage();
+        LocationLevels.Builder builder = new LocationLevels.Builder(page, pageSize, total);
+        builder.addAll(levels);
+        if (nextKey != null) {
+            builder.withNextPage(nextKey.toCursorPage());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Group rows holding the {@link #getAddSeasonalValueFields()} columns into levels, in the
+     * order the levels first appear.
+     */
+    List<LocationLevel> buildLocationLevels(Iterable<? extends Record> rows) {
+        Map<LevelLookup, LocationLevel.Builder> builderMap = new LinkedHashMap<>();
+        rows.forEach(r -> addSeasonalValue(r, builderMap));
 
-        List<LocationLevel> levels = new java.util.ArrayList<>();
+        List<LocationLevel> levels = new ArrayList<>();
         for (LocationLevel.Builder builder : builderMap.values()) {
             levels.add(builder.build());
         }
+        return levels;
+    }
 
-        LocationLevels.Builder builder = new LocationLevels.Builder(offset, pageSize, total);
-        builder.addAll(levels);
-        return builder.build();
+    private static Integer parseTotal(String part) {
+        Integer total = null;
+        if (!"null".equals(part)) {
+            try {
+                total = Integer.valueOf(part);
+            } catch (NumberFormatException e) {
+                logger.log(Level.INFO, "Could not parse {0}", part);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Position of a level in the paging order, the next page starts after this level.
+     */
+    private static final class LevelPageKey {
+        private final String office;
+        private final String levelId;
+        private final long levelDate;
+
+        private LevelPageKey(String office, String levelId, long levelDate) {
+            this.office = office;
+            this.levelId = levelId;
+            this.levelDate = levelDate;
+        }
+
+        static LevelPageKey of(Record r) {
+            return new LevelPageKey(r.get(AV_LOCATION_LEVEL.OFFICE_ID).toUpperCase(),
+                    r.get(AV_LOCATION_LEVEL.LOCATION_LEVEL_ID).toUpperCase(),
+                    r.get(AV_LOCATION_LEVEL.LEVEL_DATE).getTime());
+        }
+
+        String toCursorPage() {
+            return String.join(CwmsDTOPaginated.delimiter, office, levelId,
+                    Long.toString(levelDate));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            LevelPageKey that = (LevelPageKey) o;
+            return levelDate == that.levelDate && office.equals(that.office)
+                    && levelId.equals(that.levelId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(office, levelId, levelDate);
+        }
     }
 
     private static class LevelLookup {
@@ -237,6 +365,8 @@ public class LocationLevelsDaoImpl extends JooqDao<LocationLevel> implements Loc
                 "F",
                 officeId);
         });
+        DataChangeBus.publish(DataChangeBus.Entity.LOCATION_LEVEL, locationLevel.getOfficeId(),
+                locationLevel.getLocationLevelId());
     }
 
     private static SEASONAL_VALUE_TAB_T getSeasonalValues(LocationLevel locationLevel) {
@@ -314,6 +444,9 @@ public class LocationLevelsDaoImpl extends JooqDao<LocationLevel> implements Loc
 
         } catch (DataAccessException ex) {
             throw new RuntimeException("Failed to delete Location Level ", ex);
+        } finally {
+            DataChangeBus.publish(DataChangeBus.Entity.LOCATION_LEVEL, officeId,
+                    locationLevelName);
         }
     }
 
@@ -322,6 +455,10 @@ public class LocationLevelsDaoImpl extends JooqDao<LocationLevel> implements Loc
                                     String officeId) {
         CWMS_LEVEL_PACKAGE.call_RENAME_LOCATION_LEVEL(dsl.configuration(),
                 oldLocationLevelName, newLocationLevelName, officeId);
+        DataChangeBus.publish(DataChangeBus.Entity.LOCATION_LEVEL, officeId,
+                oldLocationLevelName);
+        DataChangeBus.publish(DataChangeBus.Entity.LOCATION_LEVEL, officeId,
+                newLocationLevelName);
     }
 
     @Override
@@ -365,7 +502,7 @@ public class LocationLevelsDaoImpl extends JooqDao<LocationLevel> implements Loc
     }
 
     // These are all the fields that we need to pull out of jOOQ record for addSeasonalValue
-    private Collection<TableField<?,?>> getAddSeasonalValueFields() {
+    Collection<TableField<?,?>> getAddSeasonalValueFields() {
         Set<TableField<?,?>> retval = new LinkedHashSet<>();
 
         retval.add(AV_LOCATION_LEVEL.OFFICE_ID);
@@ -551,21 +688,102 @@ public class LocationLevelsDaoImpl extends JooqDao<LocationLevel> implements Loc
             attributeUnits = attribute.getUnits();
         }
         ZoneId locationZoneId = getLocationZoneId(levelRef.getLocationRef());
-        ZTSV_ARRAY specifiedTimes = buildTsvArray(start, end, interval, locationZoneId);
-        CWMS_ENV_PACKAGE.call_SET_SESSION_OFFICE_ID(dsl.configuration(), officeId);
-
-        ZTSV_ARRAY locLvlValues = call_RETRIEVE_LOC_LVL_VALUES3(dsl.configuration(),
-                specifiedTimes, locationLevelId, units, attributeId, attributeValue,
-                attributeUnits, "UTC", officeId);
+        List<Instant> times = buildTimes(start, end, interval, locationZoneId);
+        if (attribute == null && !times.isEmpty()
+                && LocationLevelCache.isLocalEvaluationEnabled()) {
+            TimeSeries local = evaluateLocally(levelRef, times, interval, units, locationZoneId);
+            if (local != null) {
+                LocationLevelCache.markValues(true, times.size());
+                return local;
+            }
+        }
+        ZTSV_ARRAY specifiedTimes = buildTsvArray(times);
+        final String attrId = attributeId;
+        final Number attrValue = attributeValue;
+        final String attrUnits = attributeUnits;
+        // set the office on the same connection that retrieves the values
+        ZTSV_ARRAY locLvlValues = connectionResult(dsl, c ->
+                call_RETRIEVE_LOC_LVL_VALUES3(getDslContext(c, officeId).configuration(),
+                        specifiedTimes, locationLevelId, units, attrId, attrValue,
+                        attrUnits, "UTC", officeId));
 
         if (locLvlValues.isEmpty()) {
             throw new NotFoundException(String.format(
                     "No time series found for: %s between start time: %s and end time: %s",
                     levelRef, start, end));
         }
+        LocationLevelCache.markValues(false, locLvlValues.size());
         return buildTimeSeries(levelRef, interval, locLvlValues, locationZoneId);
     }
 
+    /**
+     * Compute the level at the given times from its cached definitions, one per effective date
+     * in the window.
+     *
+     * @return the values, or null if a definition follows a time series or is not seasonal or
+     *     constant and the database has to compute the values.
+     */
+    @Nullable
+    private TimeSeries evaluateLocally(ILocationLevelRef levelRef, List<Instant> times,
+                                       Interval interval, String units, ZoneId locationZoneId) {
+        String officeId = levelRef.getOfficeId();
+        String locationLevelId = levelRef.getLocationLevelId();
+        Instant first = times.get(0);
+        Instant last = times.get(times.size() - 1);
+        usace.cwms.db.jooq.codegen.tables.AV_LOCATION_LEVEL view = AV_LOCATION_LEVEL;
+        List<Record2<Timestamp, String>> definitions = dsl.selectDistinct(view.LEVEL_DATE, view.TSID)
+                .from(view)
+                .where(DSL.upper(view.OFFICE_ID).eq(officeId.toUpperCase()))
+                .and(DSL.upper(view.LOCATION_LEVEL_ID).eq(locationLevelId.toUpperCase()))
+                .and(view.ATTRIBUTE_ID.isNull())
+                .and(view.LEVEL_DATE.lessOrEqual(Timestamp.from(last)))
+                .orderBy(view.LEVEL_DATE)
+                .fetch();
+        if (definitions.isEmpty()) {
+            // virtual levels, or none at all, are left to the database
+            return null;
+        }
+
+        // the definition in effect at the first time and every one that starts later
+        List<Instant> effectiveDates = new ArrayList<>();
+        for (Record2<Timestamp, String> definition : definitions) {
+            if (definition.value2() != null) {
+                return null;
+            }
+            Instant effectiveDate = definition.value1().toInstant();
+            if (!effectiveDate.isAfter(first) && !effectiveDates.isEmpty()) {
+                effectiveDates.set(0, effectiveDate);
+            } else if (effectiveDates.isEmpty()
+                    || !effectiveDate.equals(effectiveDates.get(effectiveDates.size() - 1))) {
+                effectiveDates.add(effectiveDate);
+            }
+        }
+        List<LocationLevelEvaluator> evaluators = new ArrayList<>(effectiveDates.size());
+        for (Instant effectiveDate : effectiveDates) {
+            LocationLevelEvaluator evaluator = LocationLevelCache.get(officeId, locationLevelId,
+                    units, effectiveDate, () -> LocationLevelEvaluator.of(retrieveLocationLevel(
+                            locationLevelId, units,
+                            ZonedDateTime.ofInstant(effectiveDate, ZoneOffset.UTC), officeId)));
+            if (evaluator == null) {
+                return null;
+            }
+            evaluators.add(evaluator);
+        }
+
+        double[] values = new double[times.size()];
+        int current = -1;
+        for (int i = 0; i < values.length; i++) {
+            Instant time = times.get(i);
+            while (current + 1 < effectiveDates.size()
+                    && !effectiveDates.get(current + 1).isAfter(time)) {
+                current++;
+            }
+            values[i] = current < 0 ? NumericalConstants.HEC_UNDEFINED_DOUBLE
+                    : evaluators.get(current).valueAt(time);
+        }
+        return buildTimeSeries(levelRef, interval, times, values, locationZoneId);
+    }
+
     public static ZTSV_ARRAY call_RETRIEVE_LOC_LVL_VALUES3(Configuration configuration,
                                                            ZTSV_ARRAY specifiedTimes,
                                                            String locationLevelId,
@@ -597,22 +815,13 @@ public class LocationLevelsDaoImpl extends JooqDao<LocationLevel> implements Loc
         return OracleTypeMap.toZoneId(timeZone, locationRef.getLocationId());
     }
 
-    private static TimeSeries buildTimeSeries(ILocationLevelRef levelRef, Interval interval,
-                                              ZTSV_ARRAY locLvlValues, ZoneId locationTimeZone) {
-        String timeSeriesId = String.format("%s.%s.%s.%s.%s.%s", levelRef.getLocationRef().getLocationId(),
-                levelRef.getParameter().getParameter(), levelRef.getParameterType().getParameterType(),
-                interval.getInterval(), levelRef.getDuration().toString(), levelRef.getSpecifiedLevel().getId());
+    static TimeSeries buildTimeSeries(ILocationLevelRef levelRef, Interval interval,
+                                      ZTSV_ARRAY locLvlValues, ZoneId locationTimeZone) {
         int size = locLvlValues.size();
-        String levelUnits = levelRef.getParameter().getUnitsString();
-        String officeId = levelRef.getOfficeId();
         Instant start = locLvlValues.get(0).getDATE_TIME().toInstant();
         Instant end = locLvlValues.get(size - 1).getDATE_TIME().toInstant();
-        ZonedDateTime firstValueTime = ZonedDateTime.ofInstant(start, NumericalConstants.UTC_ZONEID);
-        ZonedDateTime lastValueTime = ZonedDateTime.ofInstant(end, NumericalConstants.UTC_ZONEID);
-        TimeSeries timeSeries = new TimeSeries(null, size, size, timeSeriesId,
-                officeId, firstValueTime, lastValueTime, levelUnits,
-                java.time.Duration.ofSeconds(interval.getSeconds()),
-                null, null, locationTimeZone.getId(), null, VersionType.UNVERSIONED);
+        TimeSeries timeSeries = newTimeSeries(levelRef, interval, size, start, end,
+                locationTimeZone);
         for (ZTSV_TYPE tsv : locLvlValues) {
             Timestamp dateTime = tsv.getDATE_TIME();
             Double value = tsv.getVALUE();
@@ -629,9 +838,45 @@ public class LocationLevelsDaoImpl extends JooqDao<LocationLevel> implements Loc
         return timeSeries;
     }
 
-    private ZTSV_ARRAY buildTsvArray(Instant start, Instant end, Interval interval,
-                                     ZoneId locationTimeZone) {
+    static TimeSeries buildTimeSeries(ILocationLevelRef levelRef, Interval interval,
+                                      List<Instant> times, double[] values,
+                                      ZoneId locationTimeZone) {
+        int size = times.size();
+        TimeSeries timeSeries = newTimeSeries(levelRef, interval, size, times.get(0),
+                times.get(size - 1), locationTimeZone);
+        for (int i = 0; i < size; i++) {
+            timeSeries.addValue(Timestamp.from(times.get(i)), values[i], 0);
+        }
+        return timeSeries;
+    }
+
+    private static TimeSeries newTimeSeries(ILocationLevelRef levelRef, Interval interval,
+                                            int size, Instant start, Instant end,
+                                            ZoneId locationTimeZone) {
+        String timeSeriesId = String.format("%s.%s.%s.%s.%s.%s", levelRef.getLocationRef().getLocationId(),
+                levelRef.getParameter().getParameter(), levelRef.getParameterType().getParameterType(),
+                interval.getInterval(), levelRef.getDuration().toString(), levelRef.getSpecifiedLevel().getId());
+        String levelUnits = levelRef.getParameter().getUnitsString();
+        String officeId = levelRef.getOfficeId();
+        ZonedDateTime firstValueTime = ZonedDateTime.ofInstant(start, NumericalConstants.UTC_ZONEID);
+        ZonedDateTime lastValueTime = ZonedDateTime.ofInstant(end, NumericalConstants.UTC_ZONEID);
+        return new TimeSeries(null, size, size, timeSeriesId,
+                officeId, firstValueTime, lastValueTime, levelUnits,
+                java.time.Duration.ofSeconds(interval.getSeconds()),
+                null, null, locationTimeZone.getId(), null, VersionType.UNVERSIONED);
+    }
+
+    static ZTSV_ARRAY buildTsvArray(List<Instant> times) {
         ZTSV_ARRAY retVal = new ZTSV_ARRAY();
+        for (Instant time : times) {
+            retVal.add(new ZTSV_TYPE(Timestamp.from(time), null, null));
+        }
+        return retVal;
+    }
+
+    static List<Instant> buildTimes(Instant start, Instant end, Interval interval,
+                                    ZoneId locationTimeZone) {
+        List<Instant> retVal = new ArrayList<>();
         Interval iterateInterval = interval;
         if (interval.isIrregular()) {
             iterateInterval = IntervalFactory.findAny(isRegular()
@@ -641,7 +886,7 @@ public class LocationLevelsDaoImpl extends JooqDao<LocationLevel> implements Loc
         try {
             Instant time = start;
             while (time.isBefore(end) || time.equals(end)) {
-                retVal.add(new ZTSV_TYPE(Timestamp.from(time), null, null));
+                retVal.add(time);
                 time = iterateInterval.getNextIntervalTime(time, locationTimeZone);
             }
         } catch (mil.army.usace.hec.metadata.DataSetIllegalArgumentException ex) {
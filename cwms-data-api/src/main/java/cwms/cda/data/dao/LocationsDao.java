@@ -33,6 +33,13 @@ import org.geojson.FeatureCollection;
 public interface LocationsDao {
     String getLocations(String names, String format, String units, String datum, String officeId);
 
+    /**
+     * Retrieve legacy formatted locations, handing the CLOB to the consumer while the
+     * connection is still open.
+     */
+    void getLocations(String names, String format, String units, String datum, String officeId,
+                      ClobDao.ClobConsumer consumer) throws IOException;
+
     List<Location> getLocations(String names, String units, String datum, String officeId);
 
     Location getLocation(String locationName, String unitSystem, String officeId) throws IOException;
@@ -28,6 +28,7 @@ import static cwms.cda.api.Controllers.BOUNDING_OFFICE_LIKE;
 import static cwms.cda.api.Controllers.LIKE;
 import static cwms.cda.api.Controllers.LOCATION_CATEGORY_LIKE;
 import static cwms.cda.api.Controllers.LOCATION_GROUP_LIKE;
+import static cwms.cda.api.Controllers.LOCATIONS;
 import static cwms.cda.api.Controllers.OFFICE;
 import static cwms.cda.data.dao.DeleteRule.DELETE_LOC;
 import static cwms.cda.data.dao.DeleteRule.DELETE_LOC_CASCADE;
@@ -41,6 +42,7 @@ import static org.jooq.impl.DSL.name;
 import static org.jooq.impl.DSL.select;
 import static usace.cwms.db.jooq.codegen.tables.AV_LOC.AV_LOC;
 
+import com.codahale.metrics.Timer;
 import cwms.cda.api.enums.Nation;
 import cwms.cda.api.enums.Unit;
 import cwms.cda.api.errors.NotFoundException;
@@ -101,6 +103,13 @@ public class LocationsDaoImpl extends JooqDao<Location> implements LocationsDao
                 names, format, units, datum, officeId);
     }
 
+    @Override
+    public void getLocations(String names, String format, String units, String datum,
+                             String officeId, ClobDao.ClobConsumer consumer) throws IOException {
+        callClobFunction("CWMS_20.CWMS_LOC.RETRIEVE_LOCATIONS_F", consumer,
+                names, format, units, datum, officeId);
+    }
+
     @Override
     public List<Location> getLocations(String nameRegex, String unitSystem, String datum, String officeId) {
 
@@ -212,6 +221,7 @@ public class LocationsDaoImpl extends JooqDao<Location> implements LocationsDao
                         DELETE_LOC.getRule(), officeId);
             }
         });
+        DataChangeBus.publish(DataChangeBus.Entity.LOCATION, officeId, locationName);
     }
 
     @Override
@@ -240,6 +250,8 @@ public class LocationsDaoImpl extends JooqDao<Location> implements LocationsDao
         } catch (DataAccessException ex) {
             throw new IOException("Failed to store Location", ex);
         }
+        DataChangeBus.publish(DataChangeBus.Entity.LOCATION, location.getOfficeId(),
+                location.getName());
     }
 
     @Override
@@ -266,6 +278,10 @@ public class LocationsDaoImpl extends JooqDao<Location> implements LocationsDao
         } catch (DataAccessException ex) {
             throw new IOException("Failed to rename Location", ex);
         }
+        DataChangeBus.publish(DataChangeBus.Entity.LOCATION, renamedLocation.getOfficeId(),
+                oldLocationName);
+        DataChangeBus.publish(DataChangeBus.Entity.LOCATION, renamedLocation.getOfficeId(),
+                renamedLocation.getName());
     }
 
     @Override
@@ -382,7 +398,7 @@ public class LocationsDaoImpl extends JooqDao<Location> implements LocationsDao
         // "condition" needs to be used by the count query and the results query.
         Condition condition = buildWhereCondition(params);
 
-        int total;
+        Integer total;
         String cursorLocation; // The location-id of the cursor in the results
         String cursorOffice; // If the user did not provide a value in the "office" filter then
         // results may contain locations from multiple offices. cursorOffice will track the office
@@ -395,12 +411,19 @@ public class LocationsDaoImpl extends JooqDao<Location> implements LocationsDao
                 .from(avLoc2)
                 .where(condition);
             logger.log(Level.FINER, () -> count.getSQL(ParamType.INLINED));
-            total = count.fetchOne().value1();
+            DSLContext detached = detachedDslContext();
+            total = CatalogCountCache.getTotal(CatalogCountCache.key(LOCATIONS, params),
+                    () -> count.fetchOne().value1(),
+                    detached == null ? null : () -> detached.fetchValue(count));
         } else {
             cursorLocation = catPage.getCursorId();
             cursorOffice = catPage.getCurOffice();
 
             total = catPage.getTotal();
+            if (total == null) {
+                // the first page was returned before the count finished
+                total = CatalogCountCache.getIfPresent(CatalogCountCache.key(LOCATIONS, params));
+            }
             pageSize = catPage.getPageSize();
         }
 
@@ -432,23 +455,26 @@ public class LocationsDaoImpl extends JooqDao<Location> implements LocationsDao
             .leftOuterJoin(avLoc2).on(avLoc2.LOCATION_CODE.eq(limitCode))
             .orderBy(avLoc2.DB_OFFICE_ID.asc(),limitId.asc(),avLoc2.ALIASED_ITEM.asc());
         logger.log(Level.FINER, () -> query.getSQL(ParamType.INLINED));
-        List<? extends CatalogEntry> entries = query
+        List<? extends CatalogEntry> entries;
+        try (Timer.Context ignored = CatalogCountCache.timePage()) {
+            entries = query
                 .fetchSize(1000)
                 .fetchStream()
-            .map(r -> r.into(AV_LOC2.AV_LOC2))
-            .collect(groupingBy(usace.cwms.db.jooq.codegen.tables.records.AV_LOC2::getLOCATION_CODE))
-            .values()
-            .stream()
-            .map(l -> {
-                usace.cwms.db.jooq.codegen.tables.records.AV_LOC2 row = l.stream()
-                    .filter(r -> r.getALIASED_ITEM() == null)
-                    .findFirst()
-                    .orElseThrow(() -> new DataAccessException("Could not find location for list of aliases: " + l));
-                Set<LocationAlias> aliases = l.stream().filter(r -> r.getALIASED_ITEM() != null)
-                    .map(this::buildLocationAlias).collect(toSet());
-                return buildCatalogEntry(row, aliases);
-            })
-            .collect(toList());
+                .map(r -> r.into(AV_LOC2.AV_LOC2))
+                .collect(groupingBy(usace.cwms.db.jooq.codegen.tables.records.AV_LOC2::getLOCATION_CODE))
+                .values()
+                .stream()
+                .map(l -> {
+                    usace.cwms.db.jooq.codegen.tables.records.AV_LOC2 row = l.stream()
+                        .filter(r -> r.getALIASED_ITEM() == null)
+                        .findFirst()
+                        .orElseThrow(() -> new DataAccessException("Could not find location for list of aliases: " + l));
+                    Set<LocationAlias> aliases = l.stream().filter(r -> r.getALIASED_ITEM() != null)
+                        .map(this::buildLocationAlias).collect(toSet());
+                    return buildCatalogEntry(row, aliases);
+                })
+                .collect(toList());
+        }
 
         return new Catalog(cursorLocation, total, pageSize, entries, params);
     }
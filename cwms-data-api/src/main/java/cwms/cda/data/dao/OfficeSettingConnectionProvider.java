@@ -1,5 +1,6 @@
 package cwms.cda.data.dao;
 
+import cwms.cda.datasource.SessionStateTracker;
 import java.sql.Connection;
 import java.sql.SQLException;
 import javax.sql.DataSource;
@@ -23,7 +24,8 @@ class OfficeSettingConnectionProvider extends DataSourceConnectionProvider {
         Connection conn = super.acquire();
         try {
             DSLContext dsl = DSL.using(conn, SQLDialect.ORACLE18C);
-            CWMS_ENV_PACKAGE.call_SET_SESSION_OFFICE_ID(dsl.configuration(), officeId);
+            SessionStateTracker.apply(conn, SessionStateTracker.OFFICE, officeId,
+                    () -> CWMS_ENV_PACKAGE.call_SET_SESSION_OFFICE_ID(dsl.configuration(), officeId));
             return conn;
         } catch (Exception e) {
             try {
@@ -32,7 +34,10 @@ class OfficeSettingConnectionProvider extends DataSourceConnectionProvider {
                 e.addSuppressed(new DataAccessException("Trying to set the session office id to " + officeId + " caused an exception."
                         + " Attempting to close the connection used in order to return it to the pool also triggered an exception.", ex));
             }
-            throw e;
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            throw new DataAccessException("Unable to set session office id to " + officeId, e);
         }
     }
 
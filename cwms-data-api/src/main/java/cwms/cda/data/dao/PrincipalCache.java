@@ -0,0 +1,54 @@
+package cwms.cda.data.dao;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import cwms.cda.security.CwmsAuthException;
+import cwms.cda.security.DataApiPrincipal;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Principals from successful authentication lookups, kept until the TTL passes or the user is
+ * invalidated. A size of 0 disables caching.
+ */
+final class PrincipalCache<K> {
+
+    @FunctionalInterface
+    interface Loader<K> {
+        DataApiPrincipal load(K key) throws CwmsAuthException;
+    }
+
+    private final Cache<K, DataApiPrincipal> cache;
+
+    PrincipalCache(long maximumSize, long ttlSeconds, Ticker ticker) {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Return the cached principal of the key or load and cache it. A failed load caches nothing.
+     */
+    DataApiPrincipal get(K key, Loader<K> loader) throws CwmsAuthException {
+        DataApiPrincipal p = cache.getIfPresent(key);
+        if (p == null) {
+            p = loader.load(key);
+            cache.put(key, p);
+        }
+        return p;
+    }
+
+    /**
+     * Drop the principals of the user, compared ignoring case, or every principal if null.
+     */
+    void invalidateUser(@Nullable String userName) {
+        if (userName == null) {
+            cache.invalidateAll();
+        } else {
+            cache.asMap().values().removeIf(p -> p.getName().equalsIgnoreCase(userName));
+        }
+    }
+}
@@ -44,6 +44,14 @@ public interface RatingDao {
     String retrieveRatings(String format, String names, String unit, String datum, String office,
                            String start, String end, String timezone);
 
+    /**
+     * Retrieve legacy formatted ratings, handing the CLOB to the consumer while the
+     * connection is still open.
+     */
+    void retrieveRatings(String format, String names, String unit, String datum, String office,
+                         String start, String end, String timezone,
+                         ClobDao.ClobConsumer consumer) throws IOException;
+
 
     void store(String ratingSet, boolean storeTemplate) throws IOException, RatingException;
 
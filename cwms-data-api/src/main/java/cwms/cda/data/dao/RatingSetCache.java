@@ -0,0 +1,209 @@
+package cwms.cda.data.dao;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import hec.data.RatingException;
+import hec.data.cwmsRating.RatingSet;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Process wide cache of fully loaded rating sets and their serialized forms, keyed by office,
+ * specification and effective window.
+ *
+ * <p>Entries are dropped whenever the rating DAOs publish a write of a rating, specification or
+ * template to the {@link DataChangeBus}.
+ * Changes made by other processes are picked up once an entry expires.
+ * Only {@link RatingSet.DatabaseLoadMethod#EAGER} rating sets should be stored, the other load
+ * methods keep a reference to the connection they were retrieved with.
+ */
+public final class RatingSetCache {
+    public static final String PROP_BASE = "cwms.cda.data.dao.ratings.cache";
+
+    private static final Cache<Key, Entry> cache = CacheBuilder.newBuilder()
+            .maximumSize(Integer.getInteger(PROP_BASE + ".maxSize", 100))
+            .expireAfterWrite(Integer.getInteger(PROP_BASE + ".expireAfterSeconds", 900),
+                    TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+
+    private static final CacheSupport.Generation generation = new CacheSupport.Generation();
+
+    static {
+        DataChangeBus.subscribe(DataChangeBus.Entity.RATING, RatingSetCache::invalidate);
+    }
+
+    @FunctionalInterface
+    public interface RatingSetLoader {
+        @Nullable
+        RatingSet load() throws IOException, RatingException;
+    }
+
+    @FunctionalInterface
+    public interface RatingSetFormatter {
+        String format(RatingSet ratingSet) throws IOException, RatingException;
+    }
+
+    private RatingSetCache() {
+    }
+
+    /**
+     * Return the cached rating set or load and cache it.
+     *
+     * @return the entry or null if the loader did not find a rating set.
+     */
+    @Nullable
+    public static Entry get(String office, String specificationId, @Nullable Instant begin,
+                            @Nullable Instant end, RatingSetLoader loader)
+            throws IOException, RatingException {
+        Key key = new Key(office, specificationId, begin, end);
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            long startGeneration = generation.current();
+            RatingSet ratingSet = loader.load();
+            if (ratingSet == null) {
+                return null;
+            }
+            entry = new Entry(ratingSet);
+            generation.putIfUnchanged(cache, key, entry, startGeneration);
+        }
+        return entry;
+    }
+
+    /**
+     * Remove every cached window of the given specification.
+     */
+    public static void invalidate(@Nullable String office, @Nullable String specificationId) {
+        if (specificationId == null) {
+            invalidateOffice(office);
+            return;
+        }
+        generation.bump();
+        cache.asMap().keySet().removeIf(k -> k.matchesOffice(office)
+                && k.specificationId.equalsIgnoreCase(specificationId));
+    }
+
+    /**
+     * Remove every cached rating set of the given office, or of all offices if office is null.
+     */
+    public static void invalidateOffice(@Nullable String office) {
+        generation.bump();
+        if (office == null || office.isEmpty()) {
+            cache.invalidateAll();
+        } else {
+            cache.asMap().keySet().removeIf(k -> k.matchesOffice(office));
+        }
+    }
+
+    /**
+     * Register hit, miss and eviction counts with the given registry.
+     */
+    public static void registerMetrics(@Nullable MetricRegistry metrics) {
+        if (metrics != null) {
+            CacheSupport.registerStats(metrics, RatingSetCache.class, cache);
+        }
+    }
+
+    /**
+     * A cached rating set along with each serialized form that has been requested.
+     */
+    public static final class Entry {
+        private static final int MAX_UNIT_COPIES = 8;
+
+        private final RatingSet ratingSet;
+        private final ConcurrentMap<String, String> formatted = new ConcurrentHashMap<>();
+        private final ConcurrentMap<List<String>, RatingSet> withUnits = new ConcurrentHashMap<>();
+
+        private Entry(RatingSet ratingSet) {
+            this.ratingSet = ratingSet;
+        }
+
+        public RatingSet getRatingSet() {
+            return ratingSet;
+        }
+
+        /**
+         * Return a copy of the rating set that rates in the given units, the cached rating set
+         * keeps its own units. A copy is kept for each of the first few unit lists requested.
+         */
+        public RatingSet getRatingSet(List<String> units) throws RatingException {
+            RatingSet retval = withUnits.get(units);
+            if (retval == null) {
+                synchronized (ratingSet) {
+                    retval = new RatingSet(ratingSet.getData());
+                }
+                retval.setDataUnits(units.toArray(new String[0]));
+                if (withUnits.size() < MAX_UNIT_COPIES) {
+                    RatingSet existing = withUnits.putIfAbsent(new ArrayList<>(units), retval);
+                    if (existing != null) {
+                        retval = existing;
+                    }
+                }
+            }
+            return retval;
+        }
+
+        /**
+         * Return the rating set serialized for the given content type, formatting it the
+         * first time that type is requested.
+         */
+        public String getFormatted(String contentType, RatingSetFormatter formatter)
+                throws IOException, RatingException {
+            String retval = formatted.get(contentType);
+            if (retval == null) {
+                synchronized (ratingSet) {
+                    retval = formatter.format(ratingSet);
+                }
+                formatted.putIfAbsent(contentType, retval);
+            }
+            return retval;
+        }
+    }
+
+    private static final class Key {
+        private final String office;
+        private final String specificationId;
+        private final Instant begin;
+        private final Instant end;
+
+        private Key(String office, String specificationId, Instant begin, Instant end) {
+            this.office = office == null ? "" : office.toUpperCase();
+            this.specificationId = Objects.requireNonNull(specificationId,
+                    "A rating specification id is required.").toUpperCase();
+            this.begin = begin;
+            this.end = end;
+        }
+
+        private boolean matchesOffice(String other) {
+            return other == null || office.isEmpty() || office.equalsIgnoreCase(other);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return office.equals(key.office)
+                    && specificationId.equals(key.specificationId)
+                    && Objects.equals(begin, key.begin)
+                    && Objects.equals(end, key.end);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(office, specificationId, begin, end);
+        }
+    }
+}
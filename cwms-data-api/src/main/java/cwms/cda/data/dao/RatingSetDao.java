@@ -51,17 +51,19 @@ public class RatingSetDao extends JooqDao<RatingSet> implements RatingDao {
     @Override
     public void create(String ratingSetXml, boolean storeTemplate) throws IOException, RatingException {
         try {
-            connection(dsl, c -> {
+            String office = connectionResult(dsl, c -> {
                 // can't exist if we are creating, if it exists use store
-                String office = extractOfficeId(ratingSetXml);
-                DSLContext context = getDslContext(c, office);
+                String ratingOffice = extractOfficeId(ratingSetXml);
+                DSLContext context = getDslContext(c, ratingOffice);
                 String errs = CWMS_RATING_PACKAGE.call_STORE_RATINGS_XML__5(context.configuration(),
                         ratingSetXml, "T", storeTemplate ? "T" : "F");
                 if (errs != null && !errs.isEmpty())
                 {
                     throw new DataAccessException(errs);
                 }
+                return ratingOffice;
             });
+            DataChangeBus.publishOffice(DataChangeBus.Entity.RATING, office);
         } catch (DataAccessException ex) {
             Throwable cause = ex.getCause();
             if (cause instanceof RatingException) {
@@ -132,12 +134,14 @@ public class RatingSetDao extends JooqDao<RatingSet> implements RatingDao {
     @Override
     public void store(String ratingSetXml, boolean includeTemplate) throws IOException, RatingException {
         try {
-            connection(dsl, c -> {
-                String office = extractOfficeId(ratingSetXml);
-                DSLContext context = getDslContext(c, office);
+            String office = connectionResult(dsl, c -> {
+                String ratingOffice = extractOfficeId(ratingSetXml);
+                DSLContext context = getDslContext(c, ratingOffice);
                 CWMS_RATING_PACKAGE.call_STORE_RATINGS_XML__5(context.configuration(),
                         ratingSetXml, "F", includeTemplate ? "T" : "F");
+                return ratingOffice;
             });
+            DataChangeBus.publishOffice(DataChangeBus.Entity.RATING, office);
         } catch (DataAccessException ex) {
             Throwable cause = ex.getCause();
             if (cause instanceof RatingException) {
@@ -157,6 +161,7 @@ public class RatingSetDao extends JooqDao<RatingSet> implements RatingDao {
                 endDate, "UTC", officeId
             )
         );
+        DataChangeBus.publish(DataChangeBus.Entity.RATING, officeId, specificationId);
     }
 
 
@@ -169,6 +174,14 @@ public class RatingSetDao extends JooqDao<RatingSet> implements RatingDao {
                 timezone, office);
     }
 
+    @Override
+    public void retrieveRatings(String format, String names, String unit, String datum,
+                                String office, String start, String end, String timezone,
+                                ClobDao.ClobConsumer consumer) throws IOException {
+        callClobFunction("CWMS_20.CWMS_RATING.RETRIEVE_RATINGS_F", consumer, names, format,
+                unit, datum, start, end, timezone, office);
+    }
+
     private static final class RatingConnectionProvider implements ConnectionProvider {
         private final Connection c;
 
@@ -363,6 +363,7 @@ public class RatingSpecDao extends JooqDao<RatingSpec> {
                 deleteAction,
                 office)
         );
+        DataChangeBus.publish(DataChangeBus.Entity.RATING, office, ratingSpecId);
     }
 
     public void create(String xml, boolean failIfExists) {
@@ -373,5 +374,6 @@ public class RatingSpecDao extends JooqDao<RatingSpec> {
                 xml,
                 OracleTypeMap.formatBool(failIfExists))
         );
+        DataChangeBus.publishOffice(DataChangeBus.Entity.RATING, office);
     }
 }
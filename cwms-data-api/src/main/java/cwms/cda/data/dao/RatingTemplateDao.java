@@ -294,6 +294,7 @@ public class RatingTemplateDao extends JooqDao<RatingTemplate> {
             CWMS_RATING_PACKAGE.call_STORE_TEMPLATES__3(
                 getDslContext(c,office).configuration(), xml, OracleTypeMap.formatBool(failIfExists))
         );
+        DataChangeBus.publishOffice(DataChangeBus.Entity.RATING, office);
     }
 
     public void delete(String office, DeleteMethod deleteMethod, String ratingTemplateId) {
@@ -316,5 +317,6 @@ public class RatingTemplateDao extends JooqDao<RatingTemplate> {
             CWMS_RATING_PACKAGE.call_DELETE_TEMPLATES(
                 getDslContext(c,office).configuration(), ratingTemplateId, deleteAction, office)
         );
+        DataChangeBus.publishOffice(DataChangeBus.Entity.RATING, office);
     }
 }
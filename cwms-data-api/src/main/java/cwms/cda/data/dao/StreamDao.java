@@ -133,6 +133,8 @@ public final class StreamDao extends JooqDao<Stream> {
                     stream.getLength(), stream.getAverageSlope(), stream.getComment(), stream.getOfficeId());
             return null;
         });
+        DataChangeBus.publish(DataChangeBus.Entity.STREAM, stream.getOfficeId(),
+                stream.getId().getName());
     }
 
     /**
@@ -146,6 +148,8 @@ public final class StreamDao extends JooqDao<Stream> {
             CWMS_STREAM_PACKAGE.call_RENAME_STREAM(DSL.using(conn).configuration(), oldStreamId,
                     newStreamId, officeId);
         });
+        DataChangeBus.publish(DataChangeBus.Entity.STREAM, officeId, oldStreamId);
+        DataChangeBus.publish(DataChangeBus.Entity.STREAM, officeId, newStreamId);
     }
 
     /**
@@ -162,6 +166,7 @@ public final class StreamDao extends JooqDao<Stream> {
                     officeId);
             return null;
         });
+        DataChangeBus.publish(DataChangeBus.Entity.STREAM, officeId, streamId);
     }
 
     private String getStationUnits(Stream stream) {
@@ -24,8 +24,10 @@
 package cwms.cda.data.dao;
 
 import cwms.cda.api.errors.NotFoundException;
+import cwms.cda.data.dao.basinconnectivity.StreamNetworkCache;
 import cwms.cda.data.dto.CwmsId;
 import cwms.cda.data.dto.stream.Bank;
+import cwms.cda.data.dto.stream.Stream;
 import cwms.cda.data.dto.stream.StreamLocation;
 import cwms.cda.data.dto.stream.StreamLocationNode;
 import cwms.cda.data.dto.stream.StreamNode;
@@ -90,6 +92,23 @@ public final class StreamLocationDao extends JooqDao<StreamLocation> {
      */
     public List<StreamLocation> retrieveDownstreamLocations(String officeId, String locationId, Boolean allDownstream, Boolean sameStreamOnly,
                                                             String stationUnits, String stageUnits, String areaUnits) {
+        if (StreamNetworkCache.isIndexEnabled()) {
+            List<StreamLocation> indexed = getIndex(officeId, stationUnits, stageUnits, areaUnits)
+                    .downstream(locationId, Boolean.TRUE.equals(allDownstream), Boolean.TRUE.equals(sameStreamOnly));
+            if (indexed != null) {
+                return indexed;
+            }
+        }
+        return retrieveDownstreamLocationsFromDatabase(officeId, locationId, allDownstream, sameStreamOnly,
+                stationUnits, stageUnits, areaUnits);
+    }
+
+    /**
+     * Walk downstream with the database routine, bypassing the index.
+     */
+    List<StreamLocation> retrieveDownstreamLocationsFromDatabase(String officeId, String locationId, Boolean allDownstream,
+                                                                 Boolean sameStreamOnly, String stationUnits,
+                                                                 String stageUnits, String areaUnits) {
         return connectionResult(dsl, conn -> {
             String allDsLocationsStr = OracleTypeMap.formatBool(allDownstream);
             String sameStreamOnlyStr = OracleTypeMap.formatBool(sameStreamOnly);
@@ -116,6 +135,23 @@ public final class StreamLocationDao extends JooqDao<StreamLocation> {
      */
     public List<StreamLocation> retrieveUpstreamLocations(String officeId, String locationId, Boolean allUpstream, Boolean sameStreamOnly,
                                                             String stationUnits, String stageUnits, String areaUnits) {
+        if (StreamNetworkCache.isIndexEnabled()) {
+            List<StreamLocation> indexed = getIndex(officeId, stationUnits, stageUnits, areaUnits)
+                    .upstream(locationId, Boolean.TRUE.equals(allUpstream), Boolean.TRUE.equals(sameStreamOnly));
+            if (indexed != null) {
+                return indexed;
+            }
+        }
+        return retrieveUpstreamLocationsFromDatabase(officeId, locationId, allUpstream, sameStreamOnly,
+                stationUnits, stageUnits, areaUnits);
+    }
+
+    /**
+     * Walk upstream with the database routine, bypassing the index.
+     */
+    List<StreamLocation> retrieveUpstreamLocationsFromDatabase(String officeId, String locationId, Boolean allUpstream,
+                                                               Boolean sameStreamOnly, String stationUnits,
+                                                               String stageUnits, String areaUnits) {
         return connectionResult(dsl, conn -> {
             String allUsLocationsStr = OracleTypeMap.formatBool(allUpstream);
             String sameStreamOnlyStr = OracleTypeMap.formatBool(sameStreamOnly);
@@ -129,6 +165,29 @@ public final class StreamLocationDao extends JooqDao<StreamLocation> {
         });
     }
 
+    /**
+     * Return the upstream/downstream index of the office, building it from one catalog query for
+     * the streams and one for the stream locations when it is not cached or out of date.
+     * Locations missing from the index fall back to the database routines.
+     */
+    StreamLocationIndex getIndex(String officeId, String stationUnits, String stageUnits, String areaUnits) {
+        return StreamNetworkCache.getIndex(officeId, stationUnits, stageUnits, areaUnits,
+                () -> connectionResult(dsl, conn -> {
+                    setOffice(conn, officeId);
+                    List<Stream> streams = CWMS_STREAM_PACKAGE.call_CAT_STREAMS(DSL.using(conn).configuration(), null,
+                                    stationUnits, null, null, null,
+                                    null, null, null, null,
+                                    null, null, null, null, null,
+                                    null, null, officeId)
+                            .stream()
+                            .map(r -> StreamDao.fromJooqStreamRecord(r, stationUnits))
+                            .collect(toList());
+                    List<StreamLocation> locations = retrieveStreamLocations(officeId, null, null,
+                            stationUnits, stageUnits, areaUnits, conn);
+                    return new StreamLocationIndex(streams, locations);
+                }));
+    }
+
     /**
      * Retrieve a specific stream location
      * @param locationId - the id of the stream location
@@ -178,6 +237,8 @@ public final class StreamLocationDao extends JooqDao<StreamLocation> {
                     streamLocation.getUngagedDrainageArea(), streamLocation.getAreaUnits(),streamLocationNode.getId().getOfficeId());
             return null;
         });
+        DataChangeBus.publish(DataChangeBus.Entity.STREAM_LOCATION,
+                streamLocation.getId().getOfficeId(), streamLocation.getId().getName());
     }
 
     /**
@@ -204,6 +265,7 @@ public final class StreamLocationDao extends JooqDao<StreamLocation> {
             setOffice(conn, officeId);
             CWMS_STREAM_PACKAGE.call_DELETE_STREAM_LOCATION(DSL.using(conn).configuration(), locationId, streamId, officeId);
         });
+        DataChangeBus.publish(DataChangeBus.Entity.STREAM_LOCATION, officeId, locationId);
     }
 
     static StreamLocation fromJooqStreamLocation(RETRIEVE_STREAM_LOCATION streamLocation, String locationId, String streamId, String officeId, String stationUnit, String stageUnit, String areaUnit) {
@@ -0,0 +1,241 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Hydrologic Engineering Center
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cwms.cda.data.dao;
+
+import cwms.cda.data.dto.stream.Stream;
+import cwms.cda.data.dto.stream.StreamLocation;
+import cwms.cda.data.dto.stream.StreamNode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable upstream/downstream index of the stream locations of one office.
+ *
+ * <p>Locations and streams are numbered, and each stream holds the numbers of its locations
+ * ordered from upstream to downstream along with its receiving stream and its tributaries, so
+ * walking the network only touches arrays. Locations without a station cannot be ordered and
+ * are left out, as are diversions.
+ */
+public final class StreamLocationIndex {
+    private final Map<String, Integer> locationNumbers;
+    private final StreamLocation[] locations;
+    private final int[] streamOf;
+    /** Distance along the stream, increasing downstream whichever way the stream is stationed. */
+    private final double[] position;
+    private final int[][] streamLocations;
+    private final int[] receivingStream;
+    private final double[] confluencePosition;
+    /** Tributaries of each stream, nearest to its mouth first. */
+    private final int[][] tributaries;
+
+    StreamLocationIndex(Collection<Stream> streams, Collection<StreamLocation> locations) {
+        int streamCount = streams.size();
+        Map<String, Integer> streamNumbers = new HashMap<>();
+        Stream[] streamArray = streams.toArray(new Stream[0]);
+        for (int i = 0; i < streamCount; i++) {
+            streamNumbers.put(key(streamArray[i].getId().getName()), i);
+        }
+
+        List<StreamLocation> ordered = new ArrayList<>();
+        for (StreamLocation location : locations) {
+            if (location.getStation() != null
+                    && streamNumbers.containsKey(key(location.getStreamId().getName()))) {
+                ordered.add(location);
+            }
+        }
+        this.locations = ordered.toArray(new StreamLocation[0]);
+        this.locationNumbers = new HashMap<>();
+        this.streamOf = new int[this.locations.length];
+        this.position = new double[this.locations.length];
+        List<List<Integer>> byStream = newLists(streamCount);
+        for (int i = 0; i < this.locations.length; i++) {
+            StreamLocation location = this.locations[i];
+            int stream = streamNumbers.get(key(location.getStreamId().getName()));
+            locationNumbers.put(key(location.getId().getName()), i);
+            streamOf[i] = stream;
+            position[i] = position(streamArray[stream], location.getStation());
+            byStream.get(stream).add(i);
+        }
+        this.streamLocations = new int[streamCount][];
+        for (int s = 0; s < streamCount; s++) {
+            streamLocations[s] = byStream.get(s).stream()
+                    .sorted(Comparator.comparingDouble(i -> position[i]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        this.receivingStream = new int[streamCount];
+        this.confluencePosition = new double[streamCount];
+        Arrays.fill(receivingStream, -1);
+        List<List<Integer>> tributaryLists = newLists(streamCount);
+        for (int s = 0; s < streamCount; s++) {
+            StreamNode flowsInto = streamArray[s].getFlowsIntoStreamNode();
+            if (flowsInto == null || flowsInto.getStreamId() == null
+                    || flowsInto.getStreamId().getName() == null
+                    || flowsInto.getStation() == null) {
+                continue;
+            }
+            Integer receiving = streamNumbers.get(key(flowsInto.getStreamId().getName()));
+            if (receiving != null && receiving != s) {
+                receivingStream[s] = receiving;
+                confluencePosition[s] = position(streamArray[receiving], flowsInto.getStation());
+                tributaryLists.get(receiving).add(s);
+            }
+        }
+        this.tributaries = new int[streamCount][];
+        for (int s = 0; s < streamCount; s++) {
+            tributaries[s] = tributaryLists.get(s).stream()
+                    .sorted(Comparator.comparingDouble((Integer t) -> confluencePosition[t])
+                            .reversed())
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+    }
+
+    private static List<List<Integer>> newLists(int count) {
+        List<List<Integer>> retVal = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            retVal.add(new ArrayList<>());
+        }
+        return retVal;
+    }
+
+    private static double position(Stream stream, double station) {
+        return Boolean.FALSE.equals(stream.getStartsDownstream()) ? station : -station;
+    }
+
+    private static String key(String id) {
+        return id.toUpperCase();
+    }
+
+    /**
+     * @return the number of indexed locations.
+     */
+    public int size() {
+        return locations.length;
+    }
+
+    /**
+     * Whether the location is in the index, i.e. is on a known stream and has a station.
+     */
+    public boolean contains(String locationId) {
+        return locationNumbers.containsKey(key(locationId));
+    }
+
+    /**
+     * Return the locations downstream of the given one, nearest first.
+     *
+     * @param all if false only the nearest downstream location is returned
+     * @param sameStreamOnly if false the walk continues into the receiving streams
+     * @return the locations, or null if the location is not in the index.
+     */
+    @Nullable
+    public List<StreamLocation> downstream(String locationId, boolean all,
+                                           boolean sameStreamOnly) {
+        Integer start = locationNumbers.get(key(locationId));
+        if (start == null) {
+            return null;
+        }
+        List<StreamLocation> retVal = new ArrayList<>();
+        boolean[] visited = new boolean[streamLocations.length];
+        int stream = streamOf[start];
+        double from = position[start];
+        boolean inclusive = false;
+        while (stream >= 0 && !visited[stream]) {
+            visited[stream] = true;
+            for (int i : streamLocations[stream]) {
+                if (i != start && (position[i] > from || (inclusive && position[i] == from))) {
+                    retVal.add(locations[i]);
+                    if (!all) {
+                        return retVal;
+                    }
+                }
+            }
+            if (sameStreamOnly) {
+                break;
+            }
+            from = confluencePosition[stream];
+            stream = receivingStream[stream];
+            inclusive = true;
+        }
+        return retVal;
+    }
+
+    /**
+     * Return the locations upstream of the given one. The locations of a stream come nearest
+     * first, followed by those of the tributaries joining it.
+     *
+     * @param all if false only the nearest upstream location of each branch is returned
+     * @param sameStreamOnly if false the walk continues up the tributaries
+     * @return the locations, or null if the location is not in the index.
+     */
+    @Nullable
+    public List<StreamLocation> upstream(String locationId, boolean all, boolean sameStreamOnly) {
+        Integer start = locationNumbers.get(key(locationId));
+        if (start == null) {
+            return null;
+        }
+        List<StreamLocation> retVal = new ArrayList<>();
+        upstream(streamOf[start], position[start], start, all, sameStreamOnly, retVal,
+                new boolean[streamLocations.length]);
+        return retVal;
+    }
+
+    private void upstream(int stream, double from, int start, boolean all,
+                          boolean sameStreamOnly, List<StreamLocation> retVal,
+                          boolean[] visited) {
+        if (visited[stream]) {
+            return;
+        }
+        visited[stream] = true;
+        double limit = Double.NEGATIVE_INFINITY;
+        int[] ordered = streamLocations[stream];
+        for (int j = ordered.length - 1; j >= 0; j--) {
+            int i = ordered[j];
+            if (i != start && position[i] < from) {
+                retVal.add(locations[i]);
+                if (!all) {
+                    limit = position[i];
+                    break;
+                }
+            }
+        }
+        if (sameStreamOnly) {
+            return;
+        }
+        for (int tributary : tributaries[stream]) {
+            double confluence = confluencePosition[tributary];
+            if (confluence <= from && confluence >= limit) {
+                upstream(tributary, Double.POSITIVE_INFINITY, start, all, false, retVal,
+                        visited);
+            }
+        }
+    }
+}
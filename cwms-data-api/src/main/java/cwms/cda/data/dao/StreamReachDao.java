@@ -115,6 +115,8 @@ public final class StreamReachDao extends JooqDao<StreamReach> {
                     streamReach.getId().getOfficeId());
             return null;
         });
+        DataChangeBus.publish(DataChangeBus.Entity.STREAM_REACH,
+                streamReach.getId().getOfficeId(), streamReach.getId().getName());
     }
 
     /**
@@ -128,6 +130,8 @@ public final class StreamReachDao extends JooqDao<StreamReach> {
             setOffice(conn, officeId);
             CWMS_STREAM_PACKAGE.call_RENAME_STREAM_REACH(DSL.using(conn).configuration(), oldReachId, newReachId, officeId);
         });
+        DataChangeBus.publish(DataChangeBus.Entity.STREAM_REACH, officeId, oldReachId);
+        DataChangeBus.publish(DataChangeBus.Entity.STREAM_REACH, officeId, newReachId);
     }
 
     /**
@@ -140,6 +144,7 @@ public final class StreamReachDao extends JooqDao<StreamReach> {
             setOffice(conn, officeId);
             CWMS_STREAM_PACKAGE.call_DELETE_STREAM_REACH(DSL.using(conn).configuration(), reachId, officeId);
         });
+        DataChangeBus.publish(DataChangeBus.Entity.STREAM_REACH, officeId, reachId);
     }
 
     static StreamReach fromJooqStreamReach(RETRIEVE_STREAM_REACH streamReach, String officeId, String streamId, String stationUnits,
@@ -4,10 +4,14 @@ import cwms.cda.api.enums.UnitSystem;
 import cwms.cda.data.dto.Catalog;
 import cwms.cda.data.dto.RecentValue;
 import cwms.cda.data.dto.TimeSeries;
+import cwms.cda.data.dto.TimeSeriesIngestResult;
+import java.io.IOException;
 import java.sql.Timestamp;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Iterator;
 import java.util.List;
+import org.jetbrains.annotations.Nullable;
 
 public interface TimeSeriesDao {
 
@@ -23,19 +27,70 @@ public interface TimeSeriesDao {
     void store(TimeSeries timeSeries, boolean createAsLrts,
                StoreRule replaceAll, boolean overrideProtection);
 
+    /**
+     * Store many time series at once, reporting which were stored and which failed.
+     *
+     * @param batchSize the most series sent to the database in a single call
+     */
+    TimeSeriesIngestResult storeMulti(List<TimeSeries> input, boolean createAsLrts,
+                                      StoreRule storeRule, boolean overrideProtection,
+                                      int batchSize);
+
+    /**
+     * Store the values of one time series as they are read, at most chunkSize values per call
+     * to the database. With the pool's default auto-commit each chunk is committed as soon as
+     * it is stored, so values should arrive in time order when the store rule acts on the
+     * time window of each call.
+     *
+     * @return the number of values stored
+     */
+    long store(String officeId, String tsId, String units, @Nullable Timestamp versionDate,
+               ValueSource source, int chunkSize, boolean createAsLrts, StoreRule storeRule,
+               boolean overrideProtection) throws IOException;
+
     void delete(String officeId, String tsId, TimeSeriesDeleteOptions options);
 
     TimeSeries getTimeseries(String cursor, int pageSize, String names, String office,
                              String unit, ZonedDateTime begin, ZonedDateTime end,
                              ZonedDateTime versionDate, boolean trim);
 
+    /**
+     * Retrieve every value in the window without paging.  The consumer is called while the
+     * database cursor is still open so values can be written out as they are read.
+     */
+    void streamTimeseries(String names, String office, String unit, ZonedDateTime begin,
+                          ZonedDateTime end, ZonedDateTime versionDate, boolean trim,
+                          TimeSeriesConsumer consumer) throws IOException;
+
     String getTimeseries(String format, String names, String office, String unit, String datum,
                          ZonedDateTime begin, ZonedDateTime end, ZoneId timezone);
 
+    /**
+     * Retrieve a legacy formatted time series without reading it into a String.  The consumer
+     * is called while the connection is still open so the CLOB can be written out as it is read.
+     */
+    void getTimeseries(String format, String names, String office, String unit, String datum,
+                       ZonedDateTime begin, ZonedDateTime end, ZoneId timezone,
+                       ClobDao.ClobConsumer consumer) throws IOException;
+
     List<RecentValue> findRecentsInRange(String office, String categoryId, String groupId,
                                          Timestamp pastLimit, Timestamp futureLimit, UnitSystem unitSystem);
 
     List<RecentValue> findMostRecentsInRange(List<String> tsIds, Timestamp pastLimit,
                                              Timestamp futureLimit, UnitSystem unitSystem);
 
+    @FunctionalInterface
+    interface ValueSource {
+        /**
+         * Fill the arrays from the start with the next values.
+         *
+         * @return the number of values read, 0 once there are no more.
+         */
+        int read(long[] times, double[] values, int[] qualities) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface TimeSeriesConsumer {
+        void accept(TimeSeries header, Iterator<TimeSeries.Record> values) throws IOException;
+    }
 }
@@ -1,5 +1,6 @@
 package cwms.cda.data.dao;
 
+import static cwms.cda.api.Controllers.TIMESERIES;
 import static org.jooq.impl.DSL.asterisk;
 import static org.jooq.impl.DSL.countDistinct;
 import static org.jooq.impl.DSL.field;
@@ -13,6 +14,7 @@ import static usace.cwms.db.jooq.codegen.tables.AV_TS_EXTENTS_UTC.AV_TS_EXTENTS_
 
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheStats;
@@ -22,7 +24,9 @@ import cwms.cda.data.dto.Catalog;
 import cwms.cda.data.dto.CwmsDTOPaginated;
 import cwms.cda.data.dto.RecentValue;
 import cwms.cda.data.dto.TimeSeries;
+import cwms.cda.data.dto.TimeSeriesBatch;
 import cwms.cda.data.dto.TimeSeriesExtents;
+import cwms.cda.data.dto.TimeSeriesIngestResult;
 import cwms.cda.data.dto.Tsv;
 import cwms.cda.data.dto.TsvDqu;
 import cwms.cda.data.dto.TsvId;
@@ -31,6 +35,8 @@ import cwms.cda.data.dto.catalog.CatalogEntry;
 import cwms.cda.data.dto.catalog.TimeseriesCatalogEntry;
 import cwms.cda.formatters.FormattingException;
 import cwms.cda.formatters.xml.XMLv1;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.Connection;
@@ -38,7 +44,9 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -51,6 +59,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -59,6 +68,7 @@ import org.jetbrains.annotations.Nullable;
 import org.jooq.CommonTableExpression;
 import org.jooq.Condition;
 import org.jooq.Configuration;
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.Record;
@@ -66,6 +76,7 @@ import org.jooq.Record1;
 import org.jooq.Record3;
 import org.jooq.Record7;
 import org.jooq.Result;
+import org.jooq.ResultQuery;
 import org.jooq.SQL;
 import org.jooq.SelectConditionStep;
 import org.jooq.SelectHavingStep;
@@ -90,6 +101,10 @@ import usace.cwms.db.jooq.codegen.tables.AV_LOC_GRP_ASSGN;
 import usace.cwms.db.jooq.codegen.tables.AV_TSV;
 import usace.cwms.db.jooq.codegen.tables.AV_TSV_DQU;
 import usace.cwms.db.jooq.codegen.tables.AV_TS_GRP_ASSGN;
+import usace.cwms.db.jooq.codegen.udt.records.TIMESERIES_ARRAY;
+import usace.cwms.db.jooq.codegen.udt.records.TIMESERIES_TYPE;
+import usace.cwms.db.jooq.codegen.udt.records.TSV_ARRAY;
+import usace.cwms.db.jooq.codegen.udt.records.TSV_TYPE;
 
 public class TimeSeriesDaoImpl extends JooqDao<TimeSeries> implements TimeSeriesDao {
     private static final Logger logger = Logger.getLogger(TimeSeriesDaoImpl.class.getName());
@@ -102,6 +117,9 @@ public class TimeSeriesDaoImpl extends JooqDao<TimeSeries> implements TimeSeries
 
     public static final String VERSIONED_NAME = "isVersioned";
 
+    private static final int STREAM_FETCH_SIZE = Integer.getInteger(PROP_BASE
+            + ".stream.fetchSize", 1000);
+
     /** To be able to use a named inner table (otherwise JOOQ creates a random alias which messes
      * with the planner) we need to use fixed names to be able to reference the required columns.
     ) */
@@ -127,6 +145,18 @@ public class TimeSeriesDaoImpl extends JooqDao<TimeSeries> implements TimeSeries
             .recordStats()
             .build();
 
+    static {
+        // storing with a version date makes a time series versioned
+        DataChangeBus.subscribe(DataChangeBus.Entity.TIME_SERIES, (officeId, tsId) -> {
+            if (officeId != null && tsId != null) {
+                isVersionedCache.invalidate(versionedKey(officeId, tsId));
+            } else {
+                isVersionedCache.asMap().keySet().removeIf(k -> officeId == null
+                        || k.get(0).equalsIgnoreCase(officeId));
+            }
+        });
+    }
+
 
     public TimeSeriesDaoImpl(DSLContext dsl) {
         this(dsl, null);
@@ -160,12 +190,88 @@ public class TimeSeriesDaoImpl extends JooqDao<TimeSeries> implements TimeSeries
                 timezone.getId(), office);
     }
 
+    @Override
+    public void getTimeseries(String format, String names, String office, String units,
+                              String datum, ZonedDateTime begin, ZonedDateTime end,
+                              ZoneId timezone, ClobDao.ClobConsumer consumer) throws IOException {
+        callClobFunction("CWMS_20.CWMS_TS.RETRIEVE_TIME_SERIES_F", consumer,
+                names, format, units, datum,
+                begin.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME),
+                end.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME),
+                timezone.getId(), office);
+    }
+
 
     @Override
     public TimeSeries getTimeseries(String page, int pageSize, String names, String office,
                                        String units,
                                        ZonedDateTime beginTime, ZonedDateTime endTime,
                                     ZonedDateTime versionDate, boolean shouldTrim) {
+        return retrieveTimeseries(page, pageSize, names, office, units, beginTime, endTime,
+                versionDate, shouldTrim, TimeSeriesDaoImpl::addValues);
+    }
+
+    /**
+     * Add the (date_time, value, quality_code) rows to the time series.
+     */
+    static void addValues(TimeSeries timeseries,
+                          Iterable<? extends Record3<Timestamp, Double, BigDecimal>> rows) {
+        for (Record3<Timestamp, Double, BigDecimal> tsRecord : rows) {
+            timeseries.addValue(
+                    tsRecord.value1(),
+                    tsRecord.value2(),
+                    tsRecord.value3().intValue()
+            );
+        }
+    }
+
+    @Override
+    public void streamTimeseries(String names, String office, String units,
+                                 ZonedDateTime beginTime, ZonedDateTime endTime,
+                                 ZonedDateTime versionDate, boolean shouldTrim,
+                                 TimeSeriesConsumer consumer) throws IOException {
+        try {
+            retrieveTimeseries(null, -1, names, office, units, beginTime, endTime,
+                    versionDate, shouldTrim, (timeseries, query) -> {
+                        // fetchLazy keeps the connection until the cursor is closed, so the
+                        // consumer must finish with the values inside this block.
+                        try (Cursor<Record3<Timestamp, Double, BigDecimal>> cursor =
+                                     query.fetchSize(STREAM_FETCH_SIZE).fetchLazy()) {
+                            Iterator<Record3<Timestamp, Double, BigDecimal>> rows = cursor.iterator();
+                            if (rows.hasNext()) {
+                                // The first value sets the page marker on the header.
+                                Record3<Timestamp, Double, BigDecimal> first = rows.next();
+                                timeseries.addValue(first.value1(), first.value2(),
+                                        first.value3().intValue());
+                            }
+                            consumer.accept(timeseries, new Iterator<TimeSeries.Record>() {
+                                @Override
+                                public boolean hasNext() {
+                                    return rows.hasNext();
+                                }
+
+                                @Override
+                                public TimeSeries.Record next() {
+                                    Record3<Timestamp, Double, BigDecimal> row = rows.next();
+                                    return new TimeSeries.Record(row.value1(), row.value2(),
+                                            row.value3().intValue());
+                                }
+                            });
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private TimeSeries retrieveTimeseries(String page, int pageSize, String names, String office,
+                                          String units,
+                                          ZonedDateTime beginTime, ZonedDateTime endTime,
+                                          ZonedDateTime versionDate, boolean shouldTrim,
+                                          BiConsumer<TimeSeries, ResultQuery<Record3<Timestamp, Double,
+                                                  BigDecimal>>> valuesHandler) {
         TimeSeries retVal = null;
         String cursor = null;
         Timestamp tsCursor = null;
@@ -393,12 +499,7 @@ public class TimeSeriesDaoImpl extends JooqDao<TimeSeries> implements TimeSeries
 
             logger.fine(() -> query.getSQL(ParamType.INLINED));
 
-            query.forEach(tsRecord -> timeseries.addValue(
-                            tsRecord.getValue(dateTimeCol),
-                            tsRecord.getValue(valueCol),
-                            tsRecord.getValue(qualityNormCol).intValue()
-                    )
-            );
+            valuesHandler.accept(timeseries, query);
 
             retVal = timeseries;
         }
@@ -446,7 +547,7 @@ public class TimeSeriesDaoImpl extends JooqDao<TimeSeries> implements TimeSeries
     }
 
     private static boolean isVersioned(DSLContext dsl, String tsId, String office) {
-        final List<String> cacheKey = Arrays.asList(office, tsId);
+        final List<String> cacheKey = versionedKey(office, tsId);
 
         Boolean cachedValue = isVersionedCache.getIfPresent(cacheKey);
         if (cachedValue == null) {
@@ -462,6 +563,13 @@ public class TimeSeriesDaoImpl extends JooqDao<TimeSeries> implements TimeSeries
         return cachedValue;
     }
 
+    /**
+     * Identifiers are not case sensitive, so neither is the key.
+     */
+    private static List<String> versionedKey(String office, String tsId) {
+        return Arrays.asList(String.valueOf(office).toUpperCase(), tsId.toUpperCase());
+    }
+
     // datumInfo comes back like:
     //        <vertical-datum-info office="LRL" unit="m">
     //          <location>Buckhorn</location>
@@ -486,7 +594,7 @@ public class TimeSeriesDaoImpl extends JooqDao<TimeSeries> implements TimeSeries
 
     @Override
     public Catalog getTimeSeriesCatalog(String page, int pageSize, CatalogRequestParameters inputParams) {
-        int total;
+        Integer total;
         String cursorTsId = "*";
         String cursorOffice = null;
         Catalog.CatalogPage catPage = null;
@@ -496,7 +604,10 @@ public class TimeSeriesDaoImpl extends JooqDao<TimeSeries> implements TimeSeries
                     .select(countDistinct(limiter.field(AV_CWMS_TS_ID.AV_CWMS_TS_ID.TS_CODE)))
                     .from(limiter);
             logger.fine(() -> totalQuery.getSQL(ParamType.INLINED));
-            total = totalQuery.fetchOne(0, int.class);
+            DSLContext detached = detachedDslContext();
+            total = CatalogCountCache.getTotal(CatalogCountCache.key(TIMESERIES, inputParams),
+                    () -> totalQuery.fetchOne(0, int.class),
+                    detached == null ? null : () -> detached.fetchValue(totalQuery));
         } else {
             logger.fine("getting non-default page");
             // Information provided by the page value overrides anything provided
@@ -517,6 +628,10 @@ public class TimeSeriesDaoImpl extends JooqDao<TimeSeries> implements TimeSeries
                     .withIncludeExtents(catPage.isIncludeExtents())
                     .withExcludeEmpty(catPage.isExcludeEmpty())
                     .build();
+            if (total == null) {
+                // the first page was returned before the count finished
+                total = CatalogCountCache.getIfPresent(CatalogCountCache.key(TIMESERIES, inputParams));
+            }
         }
         final CatalogRequestParameters params = inputParams;
 
@@ -542,7 +657,10 @@ public class TimeSeriesDaoImpl extends JooqDao<TimeSeries> implements TimeSeries
         }
         final SelectSeekStep2<?, String, String> overallQuery = tmpQuery.orderBy(AV_CWMS_TS_ID.AV_CWMS_TS_ID.DB_OFFICE_ID, AV_CWMS_TS_ID.AV_CWMS_TS_ID.CWMS_TS_ID);
         logger.info(() -> overallQuery.getSQL(ParamType.INLINED));
-        Result<?> result = overallQuery.fetch();
+        Result<?> result;
+        try (Timer.Context ignored = CatalogCountCache.timePage()) {
+            result = overallQuery.fetch();
+        }
 
         Map<String, TimeseriesCatalogEntry.Builder> tsIdExtentMap = new LinkedHashMap<>();
         result.forEach(row -> {
@@ -1104,10 +1222,12 @@ public class TimeSeriesDaoImpl extends JooqDao<TimeSeries> implements TimeSeries
                 }
 
                 store(connection, input.getOfficeId(), input.getName(), input.getUnits(),
-                        versionDate, input.getValues(), createAsLrts, storeRule,
+                        versionDate, input, createAsLrts, storeRule,
                         overrideProtection);
             }
         });
+        DataChangeBus.publish(DataChangeBus.Entity.TIME_SERIES, input.getOfficeId(),
+                input.getName());
     }
 
     @Override
@@ -1123,54 +1243,221 @@ public class TimeSeriesDaoImpl extends JooqDao<TimeSeries> implements TimeSeries
             }
 
             store(connection, input.getOfficeId(), input.getName(), input.getUnits(),
-                    versionDate, input.getValues(), createAsLrts, replaceAll, overrideProtection);
+                    versionDate, input, createAsLrts, replaceAll, overrideProtection);
         });
+        DataChangeBus.publish(DataChangeBus.Entity.TIME_SERIES, input.getOfficeId(),
+                input.getName());
     }
 
     private void store(Connection connection, String officeId, String tsId, String units,
-                       Timestamp versionDate, List<TimeSeries.Record> values, boolean createAsLrts,
+                       Timestamp versionDate, TimeSeries values, boolean createAsLrts,
                        StoreRule storeRule, boolean overrideProtection) throws SQLException {
         setOffice(connection,officeId);
         CwmsDbTs tsDao = CwmsDbServiceLookup.buildCwmsDb(CwmsDbTs.class, connection);
 
-        final int count = values == null ? 0 : values.size();
+        // The TimeSeries already holds its values as columns, just copy them out.
+        final long[] timeArray = values.getDateTimeArray();
+        final double[] valueArray = values.getValueArray();
+        final int[] qualityArray = values.getQualityArray();
+        final int count = timeArray.length;
 
-        final long[] timeArray = new long[count];
-        final double[] valueArray = new double[count];
-        final int[] qualityArray = new int[count];
-
-        if (values != null && !values.isEmpty()) {
-            Iterator<TimeSeries.Record> iter = values.iterator();
-            for (int i = 0; iter.hasNext(); i++) {
-                TimeSeries.Record value = iter.next();
-                timeArray[i] = value.getDateTime().getTime();
-                valueArray[i] = value.getValue();
-                qualityArray[i] = value.getQualityCode();
-            }
+        if (versionDate != null) {
+            setVersioned(getDslContext(connection, officeId), officeId, tsId);
         }
 
-        if (versionDate != null) {
-            try {
-                CWMS_TS_PACKAGE.call_SET_TSID_VERSIONED(getDslContext(connection, officeId).configuration(),
-                        tsId, "T", officeId);
-            } catch (DataAccessException e) {
-                if (e.getCause() instanceof SQLException) {
-                    SQLException cause = (SQLException)e.getCause();
-
-                    if (cause.getErrorCode() != TS_ID_MISSING_CODE) {
-                        throw e;
+        tsDao.store(connection, officeId, tsId, units, timeArray, valueArray, qualityArray, count,
+                storeRule.getRule(), overrideProtection, versionDate, createAsLrts);
+    }
+
+    @Override
+    public long store(String officeId, String tsId, String units, @Nullable Timestamp versionDate,
+                      ValueSource source, int chunkSize, boolean createAsLrts,
+                      StoreRule storeRule, boolean overrideProtection) throws IOException {
+        try {
+            return connectionResult(dsl, connection -> {
+                setOffice(connection, officeId);
+                CwmsDbTs tsDao = CwmsDbServiceLookup.buildCwmsDb(CwmsDbTs.class, connection);
+                if (versionDate != null) {
+                    setVersioned(getDslContext(connection, officeId), officeId, tsId);
+                }
+
+                // The arrays are reused for every chunk, only count values are sent each time.
+                long[] timeArray = new long[chunkSize];
+                double[] valueArray = new double[chunkSize];
+                int[] qualityArray = new int[chunkSize];
+                long stored = 0;
+                try {
+                    int count;
+                    while ((count = source.read(timeArray, valueArray, qualityArray)) > 0) {
+                        tsDao.store(connection, officeId, tsId, units, timeArray, valueArray,
+                                qualityArray, count, storeRule.getRule(), overrideProtection,
+                                versionDate, createAsLrts);
+                        stored += count;
                     }
-                    // Ignore tsId not found exceptions. tsDao.store() will create tsId if it is not found
-                    logger.log(Level.FINER, e, () -> "TS ID: " + tsId + " not found at office: " + officeId);
-                } else {
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return stored;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            // chunks stored before a failure are kept
+            DataChangeBus.publish(DataChangeBus.Entity.TIME_SERIES, officeId, tsId);
+        }
+    }
+
+    private static void setVersioned(DSLContext dsl, String officeId, String tsId) {
+        try {
+            CWMS_TS_PACKAGE.call_SET_TSID_VERSIONED(dsl.configuration(), tsId, "T", officeId);
+        } catch (DataAccessException e) {
+            if (e.getCause() instanceof SQLException) {
+                SQLException cause = (SQLException)e.getCause();
+
+                if (cause.getErrorCode() != TS_ID_MISSING_CODE) {
                     throw e;
                 }
+                // Ignore tsId not found exceptions. The store will create tsId if it is not found
+                logger.log(Level.FINER, e, () -> "TS ID: " + tsId + " not found at office: " + officeId);
+            } else {
+                throw e;
             }
         }
+    }
 
-        tsDao.store(connection, officeId, tsId, units, timeArray, valueArray, qualityArray, count,
-                storeRule.getRule(), overrideProtection, versionDate, createAsLrts);
+    /**
+     * Store many time series with CWMS_TS.STORE_TS_MULTI on a single connection.
+     * <p>
+     * The series are grouped by office and version date, since both apply to a whole call, and
+     * each call sends at most batchSize series. If a call fails the series it carried are
+     * stored one at a time so that the failure can be attributed to the series that caused it.
+     * Series without an office or a name are reported as failures without being sent.
+     * The stored series are published on the {@link DataChangeBus} once the connection has
+     * been returned, so that a cache reloading them sees the committed values.
+     */
+    @Override
+    public TimeSeriesIngestResult storeMulti(List<TimeSeries> input, boolean createAsLrts,
+                                             StoreRule storeRule, boolean overrideProtection,
+                                             int batchSize) {
+        List<String> stored = new ArrayList<>();
+        List<TimeSeriesBatch.Failure> failures = new ArrayList<>();
+        Map<List<Object>, List<TimeSeries>> groups = new LinkedHashMap<>();
+        for (TimeSeries ts : input) {
+            if (ts.getOfficeId() == null || ts.getOfficeId().isEmpty()) {
+                failures.add(new TimeSeriesBatch.Failure(ts.getName(),
+                        "An office is required to store a time series."));
+                continue;
+            }
+            if (ts.getName() == null || ts.getName().isEmpty()) {
+                failures.add(new TimeSeriesBatch.Failure(ts.getName(),
+                        "A name is required to store a time series."));
+                continue;
+            }
+            groups.computeIfAbsent(storeKey(ts), k -> new ArrayList<>()).add(ts);
+        }
+        if (groups.isEmpty()) {
+            return new TimeSeriesIngestResult(stored, failures);
+        }
+
+        List<TimeSeries> written = new ArrayList<>();
+        try {
+            storeGroups(groups.values(), written, failures, createAsLrts, storeRule,
+                    overrideProtection, batchSize);
+        } finally {
+            // series stored before a failure are kept
+            for (TimeSeries ts : written) {
+                stored.add(ts.getName());
+                DataChangeBus.publish(DataChangeBus.Entity.TIME_SERIES, ts.getOfficeId(),
+                        ts.getName());
+            }
+        }
+        return new TimeSeriesIngestResult(stored, failures);
+    }
 
+    private void storeGroups(Collection<List<TimeSeries>> groups, List<TimeSeries> written,
+                             List<TimeSeriesBatch.Failure> failures, boolean createAsLrts,
+                             StoreRule storeRule, boolean overrideProtection, int batchSize) {
+        connection(dsl, connection -> {
+            for (List<TimeSeries> group : groups) {
+                TimeSeries first = group.get(0);
+                String officeId = first.getOfficeId();
+                Timestamp versionDate = first.getVersionDate() == null ? null
+                        : Timestamp.from(first.getVersionDate().toInstant());
+                DSLContext officeDsl = getDslContext(connection, officeId);
+                for (int start = 0; start < group.size(); start += batchSize) {
+                    List<TimeSeries> chunk = group.subList(start,
+                            Math.min(group.size(), start + batchSize));
+                    try {
+                        if (versionDate != null) {
+                            chunk.forEach(ts -> setVersioned(officeDsl, officeId, ts.getName()));
+                        }
+                        CWMS_TS_PACKAGE.call_STORE_TS_MULTI(officeDsl.configuration(),
+                                buildTimeSeriesArray(chunk), storeRule.getRule(),
+                                OracleTypeMap.formatBool(overrideProtection), versionDate,
+                                officeId, OracleTypeMap.formatBool(createAsLrts));
+                        written.addAll(chunk);
+                    } catch (DataAccessException ex) {
+                        logger.log(Level.FINE, ex, () -> "Unable to store " + chunk.size()
+                                + " time series at once for " + officeId
+                                + ", storing them individually.");
+                        // Storing again with REPLACE_ALL is idempotent, so every series of the
+                        // chunk is sent, including one of the same name an earlier call stored.
+                        for (TimeSeries ts : chunk) {
+                            try {
+                                store(connection, officeId, ts.getName(), ts.getUnits(),
+                                        versionDate, ts, createAsLrts, storeRule,
+                                        overrideProtection);
+                                written.add(ts);
+                            } catch (SQLException | DataAccessException e) {
+                                logger.log(Level.FINE, e, () -> "Unable to store " + ts.getName());
+                                failures.add(new TimeSeriesBatch.Failure(ts.getName(),
+                                        storeFailureMessage(e)));
+                            }
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * The office and version date of the series.
+     */
+    private static List<Object> storeKey(TimeSeries ts) {
+        Instant versionDate = ts.getVersionDate() == null ? null
+                : ts.getVersionDate().toInstant();
+        return Arrays.asList(ts.getOfficeId().toUpperCase(), versionDate);
+    }
+
+    private static TIMESERIES_ARRAY buildTimeSeriesArray(List<TimeSeries> series) {
+        TIMESERIES_ARRAY retval = new TIMESERIES_ARRAY();
+        for (TimeSeries ts : series) {
+            long[] times = ts.getDateTimeArray();
+            double[] values = ts.getValueArray();
+            int[] qualities = ts.getQualityArray();
+            TSV_ARRAY data = new TSV_ARRAY();
+            for (int i = 0; i < times.length; i++) {
+                Double value = Double.isNaN(values[i]) ? null : values[i];
+                data.add(new TSV_TYPE(
+                        OffsetDateTime.ofInstant(Instant.ofEpochMilli(times[i]), ZoneOffset.UTC),
+                        value, BigDecimal.valueOf(qualities[i])));
+            }
+            retval.add(new TIMESERIES_TYPE(ts.getName(), ts.getUnits(), data));
+        }
+        return retval;
+    }
+
+    /**
+     * The first line of the database error, which names the problem without the PL/SQL stack.
+     */
+    private static String storeFailureMessage(Exception e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && !(cause instanceof SQLException)) {
+            cause = cause.getCause();
+        }
+        String message = String.valueOf(cause.getMessage());
+        int eol = message.indexOf('\n');
+        return eol < 0 ? message : message.substring(0, eol);
     }
 
     public void update(TimeSeries input, boolean createAsLrts, StoreRule storeRule,
@@ -1183,8 +1470,9 @@ public class TimeSeriesDaoImpl extends JooqDao<TimeSeries> implements TimeSeries
         connection(dsl, connection -> {
             setOffice(connection,input.getOfficeId());
             store(connection, input.getOfficeId(), name, input.getUnits(), versionDate,
-                    input.getValues(), createAsLrts, storeRule, overrideProtection);
+                    input, createAsLrts, storeRule, overrideProtection);
         });
+        DataChangeBus.publish(DataChangeBus.Entity.TIME_SERIES, input.getOfficeId(), name);
     }
 
 
@@ -1210,6 +1498,7 @@ public class TimeSeriesDaoImpl extends JooqDao<TimeSeries> implements TimeSeries
                     options.getVersionDate(), null, options.getMaxVersion(),
                     options.getTsItemMask(), options.getOverrideProtection());
         });
+        DataChangeBus.publish(DataChangeBus.Entity.TIME_SERIES, officeId, tsId);
     }
 
 
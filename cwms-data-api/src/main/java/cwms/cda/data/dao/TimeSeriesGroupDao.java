@@ -244,6 +244,7 @@ public class TimeSeriesGroupDao extends JooqDao<TimeSeriesGroup> {
                 getDslContext(c,office).configuration(), categoryId, groupId, office
             )
         );
+        DataChangeBus.publish(DataChangeBus.Entity.TIME_SERIES_GROUP, office, groupId);
     }
 
     public void create(TimeSeriesGroup group, boolean failIfExists) {
@@ -256,7 +257,8 @@ public class TimeSeriesGroupDao extends JooqDao<TimeSeriesGroup> {
             group.getSharedRefTsId(), group.getOfficeId());
             assignTs(configuration,group);
         });
-        
+        DataChangeBus.publish(DataChangeBus.Entity.TIME_SERIES_GROUP,
+                group.getOfficeId(), group.getId());
     }
 
     private void assignTs(Configuration configuration,TimeSeriesGroup group) {
@@ -274,6 +276,8 @@ public class TimeSeriesGroupDao extends JooqDao<TimeSeriesGroup> {
 
     public void assignTs(TimeSeriesGroup group) {
         connection(dsl, c->assignTs(getDslContext(c,group.getOfficeId()).configuration(),group));
+        DataChangeBus.publish(DataChangeBus.Entity.TIME_SERIES_GROUP,
+                group.getOfficeId(), group.getId());
     }
 
     private static TS_ALIAS_T convertToTsAliasType(AssignedTimeSeries assignedTimeSeries) {
@@ -289,6 +293,10 @@ public class TimeSeriesGroupDao extends JooqDao<TimeSeriesGroup> {
                 group.getTimeSeriesCategory().getId(), oldGroupId, group.getId(),
                 group.getOfficeId())
         );
+        DataChangeBus.publish(DataChangeBus.Entity.TIME_SERIES_GROUP,
+                group.getOfficeId(), oldGroupId);
+        DataChangeBus.publish(DataChangeBus.Entity.TIME_SERIES_GROUP,
+                group.getOfficeId(), group.getId());
     }
 
     public void unassignAllTs(TimeSeriesGroup group) {
@@ -298,6 +306,8 @@ public class TimeSeriesGroupDao extends JooqDao<TimeSeriesGroup> {
                 group.getTimeSeriesCategory().getId(), group.getId(),
                 null, "T", group.getOfficeId())
         );
+        DataChangeBus.publish(DataChangeBus.Entity.TIME_SERIES_GROUP,
+                group.getOfficeId(), group.getId());
     }
 
 
@@ -9,6 +9,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import org.jetbrains.annotations.Nullable;
 import org.jooq.DSLContext;
 import usace.cwms.db.jooq.dao.CwmsDbBasinJooq;
 
@@ -19,18 +21,30 @@ public class BasinDao extends JooqDao<Basin> {
 
     public List<Basin> getAllBasins(String unitSystem, String officeId) throws SQLException {
         List<Basin> retVal = new ArrayList<>();
+        List<String> primaryStreamIds = new ArrayList<>();
         CwmsDbBasinJooq basinJooq = new CwmsDbBasinJooq();
         String areaUnitIn = UnitSystem.EN.value().equals(unitSystem)
                 ? Unit.SQUARE_MILES.getValue() : Unit.SQUARE_KILOMETERS.getValue();
         try {
             connection(dsl, c -> {
                 try (ResultSet rs = basinJooq.catBasins(c, null, null, null, areaUnitIn, officeId)) {
-                    retVal.addAll(buildBasinsFromResultSet(rs, unitSystem));
+                    while (rs.next()) {
+                        retVal.add(buildBasinFromRow(rs));
+                        primaryStreamIds.add(rs.getString("PRIMARY_STREAM_ID"));
+                    }
                 }
             });
         } catch (Exception ex) {
             throw new SQLException(ex);
         }
+        if (primaryStreamIds.stream().anyMatch(Objects::nonNull)) {
+            // Every basin shares one network instead of querying its streams separately
+            StreamNetwork network = new StreamNetworkDao(dsl).getNetwork(unitSystem, officeId);
+            for (int i = 0; i < retVal.size(); i++) {
+                retVal.set(i, withPrimaryStream(retVal.get(i), primaryStreamIds.get(i),
+                        network, unitSystem));
+            }
+        }
         return retVal;
     }
 
@@ -56,43 +70,42 @@ public class BasinDao extends JooqDao<Basin> {
                 .withSortOrder(pSortOrder[0])
                 .build();
         if (pPrimaryStreamId[0] != null) {
-            StreamDao streamDao = new StreamDao(dsl);
-            Stream primaryStream = streamDao.getStream(pPrimaryStreamId[0], unitSystem, officeId);
-            retVal = new Basin.Builder(retVal).withPrimaryStream(primaryStream).build();
+            StreamNetwork network = new StreamNetworkDao(dsl).getNetwork(unitSystem, officeId);
+            retVal = withPrimaryStream(retVal, pPrimaryStreamId[0], network, unitSystem);
         }
         return retVal;
     }
 
-    private List<Basin> buildBasinsFromResultSet(ResultSet rs, String unitSystem) throws SQLException {
-        List<Basin> retVal = new ArrayList<>();
-        while (rs.next()) {
-            Basin basin = buildBasinFromRow(rs, unitSystem);
-            retVal.add(basin);
+    /**
+     * Attach the primary stream from the network, falling back to retrieving it on its own if
+     * it was added after the network was loaded.
+     */
+    private Basin withPrimaryStream(Basin basin, @Nullable String primaryStreamId,
+                                    StreamNetwork network, String unitSystem) {
+        if (primaryStreamId == null) {
+            return basin;
         }
-
-        return retVal;
+        Stream primaryStream = network.getStream(basin.getOfficeId(), primaryStreamId);
+        if (primaryStream == null) {
+            primaryStream = new StreamDao(dsl).getStream(primaryStreamId, unitSystem,
+                    basin.getOfficeId());
+        }
+        return new Basin.Builder(basin).withPrimaryStream(primaryStream).build();
     }
 
-    private Basin buildBasinFromRow(ResultSet rs, String unitSystem) throws SQLException {
+    private Basin buildBasinFromRow(ResultSet rs) throws SQLException {
         String officeId = rs.getString("OFFICE_ID");
         String basinId = rs.getString("BASIN_ID");
         String parentBasinId = rs.getString("PARENT_BASIN_ID");
         Double sortOrder = rs.getDouble("SORT_ORDER");
-        String primaryStreamId = rs.getString("PRIMARY_STREAM_ID");
         Double basinArea = rs.getDouble("TOTAL_DRAINAGE_AREA");
         Double contributingArea = rs.getDouble("CONTRIBUTING_DRAINAGE_AREA");
-        Basin basin = new Basin.Builder(basinId, officeId)
+        return new Basin.Builder(basinId, officeId)
                 .withBasinArea(basinArea)
                 .withContributingArea(contributingArea)
                 .withParentBasinId(parentBasinId)
                 .withSortOrder(sortOrder)
                 .build();
-        if (primaryStreamId != null) {
-            StreamDao streamDao = new StreamDao(dsl);
-            Stream primaryStream = streamDao.getStream(primaryStreamId, unitSystem, officeId);
-            basin = new Basin.Builder(basin).withPrimaryStream(primaryStream).build();
-        }
-        return basin;
     }
 
 }
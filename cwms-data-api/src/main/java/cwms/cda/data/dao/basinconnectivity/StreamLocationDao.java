@@ -40,7 +40,7 @@ public class StreamLocationDao extends JooqDao<StreamLocation> {
         });
     }
 
-    private Set<StreamLocation> buildStreamLocations(ResultSet rs) throws SQLException {
+    static Set<StreamLocation> buildStreamLocations(ResultSet rs) throws SQLException {
         Set<StreamLocation> retVal = new LinkedHashSet<>();
         while (rs.next()) {
             String locationId = rs.getString("LOCATION_ID");
@@ -0,0 +1,43 @@
+package cwms.cda.data.dao.basinconnectivity;
+
+import cwms.cda.data.dto.basinconnectivity.Stream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Every stream of an office, or of all offices, with its locations, reaches and tributaries
+ * already attached.
+ * <p>
+ * The streams are immutable, so a network can be shared between requests and any stream in it
+ * can be used as the primary stream of a basin without further queries.
+ */
+public final class StreamNetwork {
+    private final Map<String, Stream> streams;
+
+    StreamNetwork(Collection<Stream> streams) {
+        Map<String, Stream> byKey = new HashMap<>();
+        for (Stream stream : streams) {
+            byKey.put(key(stream.getOfficeId(), stream.getStreamName()), stream);
+        }
+        this.streams = Collections.unmodifiableMap(byKey);
+    }
+
+    static String key(String officeId, String streamId) {
+        return String.valueOf(officeId).toUpperCase() + "/" + streamId.toUpperCase();
+    }
+
+    /**
+     * @return the stream with all of its tributaries, or null if it is not in this network.
+     */
+    @Nullable
+    public Stream getStream(String officeId, String streamId) {
+        return streams.get(key(officeId, streamId));
+    }
+
+    public int size() {
+        return streams.size();
+    }
+}
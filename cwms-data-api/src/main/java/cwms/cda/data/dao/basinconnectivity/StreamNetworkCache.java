@@ -0,0 +1,135 @@
+package cwms.cda.data.dao.basinconnectivity;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.UniformReservoir;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import cwms.cda.data.dao.CacheSupport;
+import cwms.cda.data.dao.DataChangeBus;
+import cwms.cda.data.dao.StreamLocationIndex;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Process wide cache of the stream snapshots of an office: the networks keyed by unit system
+ * and the upstream/downstream indexes keyed by station, stage and area unit.
+ *
+ * <p>Both live in one cache so that a write drops them together. An office is invalidated
+ * whenever the stream DAOs publish a write of a stream, stream location or reach to the
+ * {@link DataChangeBus}. Changes made by other processes are picked up once an entry expires.
+ * Setting the system property {@value #INDEX_ENABLED_PROPERTY} to false sends every upstream
+ * and downstream query to the database.
+ */
+public final class StreamNetworkCache {
+    public static final String PROP_BASE = "cwms.cda.data.dao.basinconnectivity.network.cache";
+    public static final String INDEX_ENABLED_PROPERTY = "cwms.cda.data.dao.stream.index.enabled";
+
+    private static final boolean INDEX_ENABLED = Boolean.parseBoolean(
+            System.getProperty(INDEX_ENABLED_PROPERTY, "true"));
+
+    private static final String NETWORK = "network";
+    private static final String INDEX = "index";
+
+    /** Keyed by kind, office and units, the office is empty for every office. */
+    private static final Cache<List<String>, Object> cache = CacheBuilder.newBuilder()
+            .maximumSize(Integer.getInteger(PROP_BASE + ".maxSize", 150))
+            .expireAfterWrite(Integer.getInteger(PROP_BASE + ".expireAfterSeconds", 300),
+                    TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+
+    private static final CacheSupport.Generation generation = new CacheSupport.Generation();
+
+    private static final Timer indexBuildTimer = new Timer();
+    private static final Histogram indexedLocations = new Histogram(new UniformReservoir());
+
+    static {
+        DataChangeBus.Listener listener = (officeId, id) -> invalidateOffice(officeId);
+        DataChangeBus.subscribe(DataChangeBus.Entity.STREAM, listener);
+        DataChangeBus.subscribe(DataChangeBus.Entity.STREAM_REACH, listener);
+        DataChangeBus.subscribe(DataChangeBus.Entity.STREAM_LOCATION, listener);
+    }
+
+    private StreamNetworkCache() {
+    }
+
+    public static boolean isIndexEnabled() {
+        return INDEX_ENABLED;
+    }
+
+    /**
+     * Return the cached network or load and cache it.
+     *
+     * @param officeId the office, or null for the network of every office
+     */
+    public static StreamNetwork get(@Nullable String officeId, String unitSystem,
+                                    Supplier<StreamNetwork> loader) {
+        return get(Arrays.asList(NETWORK, officeKey(officeId), unitSystem.toUpperCase()),
+                loader);
+    }
+
+    /**
+     * Return the cached upstream/downstream index of the office or build and cache it.
+     */
+    public static StreamLocationIndex getIndex(String officeId, @Nullable String stationUnit,
+                                               @Nullable String stageUnit,
+                                               @Nullable String areaUnit,
+                                               Supplier<StreamLocationIndex> builder) {
+        List<String> key = Arrays.asList(INDEX, officeKey(officeId),
+                String.valueOf(stationUnit), String.valueOf(stageUnit),
+                String.valueOf(areaUnit));
+        return get(key, () -> {
+            StreamLocationIndex index;
+            try (Timer.Context ignored = indexBuildTimer.time()) {
+                index = builder.get();
+            }
+            indexedLocations.update(index.size());
+            return index;
+        });
+    }
+
+    private static <T> T get(List<String> key, Supplier<T> loader) {
+        return generation.get(cache, key, loader);
+    }
+
+    private static String officeKey(@Nullable String officeId) {
+        return officeId == null ? "" : officeId.toUpperCase();
+    }
+
+    /**
+     * Remove the networks and indexes of the given office, and the networks of every office
+     * since they include it.
+     */
+    public static void invalidateOffice(@Nullable String officeId) {
+        generation.bump();
+        if (officeId == null || officeId.isEmpty()) {
+            cache.invalidateAll();
+        } else {
+            cache.asMap().keySet().removeIf(k -> k.get(1).isEmpty()
+                    || k.get(1).equalsIgnoreCase(officeId));
+        }
+    }
+
+    /**
+     * Register hit, miss and eviction counts, the index build time and the indexed location
+     * counts with the given registry.
+     */
+    public static void registerMetrics(@Nullable MetricRegistry metrics) {
+        if (metrics != null) {
+            CacheSupport.registerStats(metrics, StreamNetworkCache.class, cache);
+            CacheSupport.registerGauge(metrics, StreamNetworkCache.class, "indexed",
+                    () -> cache.asMap().values().stream()
+                            .filter(StreamLocationIndex.class::isInstance)
+                            .mapToLong(v -> ((StreamLocationIndex) v).size()).sum());
+            CacheSupport.registerTimer(metrics, StreamNetworkCache.class, "index.build",
+                    indexBuildTimer);
+            CacheSupport.registerHistogram(metrics, StreamNetworkCache.class, "index.locations",
+                    indexedLocations);
+        }
+    }
+}
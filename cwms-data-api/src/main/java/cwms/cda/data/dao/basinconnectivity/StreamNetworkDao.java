@@ -0,0 +1,198 @@
+package cwms.cda.data.dao.basinconnectivity;
+
+import cwms.cda.api.enums.Unit;
+import cwms.cda.api.enums.UnitSystem;
+import cwms.cda.data.dao.JooqDao;
+import cwms.cda.data.dto.basinconnectivity.Stream;
+import cwms.cda.data.dto.basinconnectivity.StreamLocation;
+import cwms.cda.data.dto.basinconnectivity.StreamReach;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.Nullable;
+import org.jooq.DSLContext;
+import usace.cwms.db.jooq.dao.CwmsDbStreamJooq;
+
+/**
+ * Loads a whole stream network with one catalog query each for the streams, the stream
+ * locations and the reaches, then links the tributaries in memory.
+ * <p>
+ * {@link StreamDao} retrieves a stream and recursively queries each of its tributaries, which
+ * costs several round trips per stream in the basin.
+ */
+public class StreamNetworkDao extends JooqDao<Stream> {
+    private static final Logger logger = Logger.getLogger(StreamNetworkDao.class.getName());
+
+    public StreamNetworkDao(DSLContext dsl) {
+        super(dsl);
+    }
+
+    /**
+     * Return the cached network of the office, loading it if needed.
+     *
+     * @param officeId the office, or null for the network of every office
+     */
+    public StreamNetwork getNetwork(String unitSystem, @Nullable String officeId) {
+        return StreamNetworkCache.get(officeId, unitSystem,
+                () -> loadNetwork(unitSystem, officeId));
+    }
+
+    /**
+     * Read the network of the office from the database, bypassing the cache.
+     *
+     * @param officeId the office, or null for the network of every office
+     */
+    public StreamNetwork loadNetwork(String unitSystem, @Nullable String officeId) {
+        boolean english = UnitSystem.EN.value().equalsIgnoreCase(unitSystem);
+        String pStationUnit = english ? Unit.MILE.getValue() : Unit.KILOMETER.getValue();
+        String pStageUnit = english ? Unit.FEET.getValue() : Unit.METER.getValue();
+        String pAreaUnit = english
+                ? Unit.SQUARE_MILES.getValue() : Unit.SQUARE_KILOMETERS.getValue();
+        CwmsDbStreamJooq streamJooq = new CwmsDbStreamJooq();
+
+        return connectionResult(dsl, c -> {
+            List<StreamRow> rows = new ArrayList<>();
+            try (ResultSet rs = streamJooq.catStreams(c, null, pStationUnit, null,
+                    null, null, null, null,
+                    null, null, null, null,
+                    null, null, null, null, null, officeId)) {
+                while (rs.next()) {
+                    rows.add(new StreamRow(rs));
+                }
+            }
+
+            Map<String, List<StreamLocation>> locations = new HashMap<>();
+            try (ResultSet rs = streamJooq.catStreamLocations(c, "*", "*", pStationUnit,
+                    pStageUnit, pAreaUnit, officeId)) {
+                for (StreamLocation location : StreamLocationDao.buildStreamLocations(rs)) {
+                    locations.computeIfAbsent(StreamNetwork.key(location.getOfficeId(),
+                            location.getStreamName()), k -> new ArrayList<>()).add(location);
+                }
+            }
+
+            // Reach stations are always in kilometers, as in StreamReachDao
+            Map<String, List<StreamReach>> reaches = new HashMap<>();
+            try (ResultSet rs = streamJooq.catStreamReaches(c, "*", null, null, null,
+                    Unit.KILOMETER.getValue(), officeId)) {
+                for (StreamReach reach : StreamReachDao.buildReachesFromResultSet(rs)) {
+                    reaches.computeIfAbsent(StreamNetwork.key(reach.getOfficeId(),
+                            reach.getStreamName()), k -> new ArrayList<>()).add(reach);
+                }
+            }
+
+            return assemble(rows, locations, reaches);
+        });
+    }
+
+    private static StreamNetwork assemble(List<StreamRow> rows,
+                                          Map<String, List<StreamLocation>> locations,
+                                          Map<String, List<StreamReach>> reaches) {
+        Map<String, List<StreamRow>> tributaryRows = new HashMap<>();
+        for (StreamRow row : rows) {
+            if (row.receivingStreamId != null) {
+                tributaryRows.computeIfAbsent(StreamNetwork.key(row.officeId,
+                        row.receivingStreamId), k -> new ArrayList<>()).add(row);
+            }
+        }
+
+        Map<String, Stream> built = new LinkedHashMap<>();
+        for (StreamRow row : rows) {
+            build(row, tributaryRows, locations, reaches, built, new HashSet<>());
+        }
+        return new StreamNetwork(built.values());
+    }
+
+    /**
+     * Build the stream after its tributaries, so that every stream is built once and shared by
+     * the streams it flows into.
+     */
+    private static Stream build(StreamRow row, Map<String, List<StreamRow>> tributaryRows,
+                                Map<String, List<StreamLocation>> locations,
+                                Map<String, List<StreamReach>> reaches,
+                                Map<String, Stream> built, Set<String> path) {
+        String key = row.key();
+        Stream retVal = built.get(key);
+        if (retVal != null) {
+            return retVal;
+        }
+
+        path.add(key);
+        List<Stream> tributaries = new ArrayList<>();
+        for (StreamRow tributary : tributaryRows.getOrDefault(key, Collections.emptyList())) {
+            if (path.contains(tributary.key())) {
+                logger.warning(() -> "Stream " + tributary.streamId + " of " + tributary.officeId
+                        + " eventually flows into itself, it is not listed as a tributary of "
+                        + row.streamId);
+            } else {
+                tributaries.add(build(tributary, tributaryRows, locations, reaches, built, path));
+            }
+        }
+        path.remove(key);
+
+        retVal = new Stream.Builder(row.streamId, row.startsDownstream, row.streamLength,
+                row.officeId)
+                .withDivertingStreamId(row.divertingStreamId)
+                .withDiversionStation(row.diversionStation)
+                .withDiversionBank(row.diversionBank)
+                .withReceivingStreamId(row.receivingStreamId)
+                .withConfluenceStation(row.confluenceStation)
+                .withConfluenceBank(row.confluenceBank)
+                .withComment(row.comment)
+                .withAverageSlope(row.averageSlope)
+                .withStreamLocations(locations.getOrDefault(key, Collections.emptyList()))
+                .withTributaries(tributaries)
+                .withStreamReaches(reaches.getOrDefault(key, Collections.emptyList()))
+                .build();
+        built.put(key, retVal);
+        return retVal;
+    }
+
+    /**
+     * The columns of one cat_streams row, read the same way StreamDao reads its tributaries.
+     */
+    private static final class StreamRow {
+        private final String officeId;
+        private final String streamId;
+        private final String receivingStreamId;
+        private final Double confluenceStation;
+        private final String confluenceBank;
+        private final String divertingStreamId;
+        private final Double diversionStation;
+        private final String diversionBank;
+        private final Double streamLength;
+        private final boolean startsDownstream;
+        private final Double averageSlope;
+        private final String comment;
+
+        private StreamRow(ResultSet rs) throws SQLException {
+            officeId = rs.getString("OFFICE_ID");
+            streamId = rs.getString("STREAM_ID");
+            receivingStreamId = rs.getString("FLOWS_INTO_STREAM");
+            Object confluenceObject = rs.getObject("FLOWS_INTO_STATION");
+            confluenceStation = confluenceObject instanceof Double ? (Double) confluenceObject
+                    : null;
+            confluenceBank = rs.getString("FLOWS_INTO_BANK");
+            divertingStreamId = rs.getString("DIVERTS_FROM_STREAM");
+            Object diversionObject = rs.getObject("DIVERTS_FROM_STATION");
+            diversionStation = diversionObject instanceof Double ? (Double) diversionObject
+                    : null;
+            diversionBank = rs.getString("DIVERTS_FROM_BANK");
+            streamLength = toDouble(rs.getBigDecimal("STREAM_LENGTH"));
+            startsDownstream = rs.getBoolean("STATIONING_STARTS_DS");
+            averageSlope = toDouble(rs.getBigDecimal("AVERAGE_SLOPE"));
+            comment = rs.getString("COMMENTS");
+        }
+
+        private String key() {
+            return StreamNetwork.key(officeId, streamId);
+        }
+    }
+}
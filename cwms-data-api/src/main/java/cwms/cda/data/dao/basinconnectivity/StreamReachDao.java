@@ -28,7 +28,7 @@ public class StreamReachDao extends JooqDao<StreamReach> {
         });
     }
 
-    private Set<StreamReach> buildReachesFromResultSet(ResultSet rs) throws SQLException {
+    static Set<StreamReach> buildReachesFromResultSet(ResultSet rs) throws SQLException {
         Set<StreamReach> retVal = new HashSet<>();
 
         while (rs.next()) {
@@ -8,6 +8,7 @@ import static usace.cwms.db.dao.util.OracleTypeMap.formatBool;
 import cwms.cda.api.Controllers;
 import cwms.cda.api.enums.VersionType;
 import cwms.cda.data.dao.BlobDao;
+import cwms.cda.data.dao.DateTimePage;
 import cwms.cda.data.dao.JooqDao;
 import cwms.cda.data.dao.TimeSeriesDaoImpl;
 import cwms.cda.data.dto.binarytimeseries.BinaryTimeSeries;
@@ -15,6 +16,7 @@ import cwms.cda.data.dto.binarytimeseries.BinaryTimeSeriesRow;
 import cwms.cda.helpers.ReplaceUtils;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URLEncoder;
 import java.sql.Blob;
 import java.sql.CallableStatement;
@@ -28,7 +30,9 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.function.Consumer;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jooq.Configuration;
 import org.jooq.DSLContext;
 import org.jooq.exception.DataAccessException;
@@ -159,17 +163,56 @@ public final class TimeSeriesBinaryDao extends JooqDao<BinaryTimeSeries> {
         List<BinaryTimeSeriesRow> binRows = retrieveRows(officeId, tsId, mask, startTime, endTime,
                 versionInstant, kiloByteLimit, urlBuilder);
 
+        return buildHeader(officeId, tsId, versionInstant)
+                .withBinaryValues(binRows)
+                .build();
+    }
+
+    /**
+     * Retrieve one page of the binary time series. The consumer is handed the time series
+     * without values and the rows of the page, which are read from the database as the
+     * consumer iterates over them.
+     *
+     * @param page the cursor of the page, or null for the first page
+     * @param pageSize the number of rows of the first page
+     */
+    public void retrieve(String officeId, String tsId, String mask,
+                         @NotNull Instant startTime, @NotNull Instant endTime,
+                         Instant versionInstant, int kiloByteLimit,
+                         ReplaceUtils.OperatorBuilder urlBuilder, @Nullable String page,
+                         int pageSize,
+                         DateTimePage.RowsConsumer<BinaryTimeSeries, BinaryTimeSeriesRow> consumer)
+            throws IOException {
+        DateTimePage dateTimePage = DateTimePage.of(page, startTime, pageSize);
+        BinaryTimeSeries header = buildHeader(officeId, tsId, versionInstant)
+                .withPage(dateTimePage.encode())
+                .withPageSize(dateTimePage.getPageSize())
+                .build();
+        try {
+            streamRows(officeId, tsId, mask, dateTimePage, endTime, versionInstant,
+                    kiloByteLimit, urlBuilder, rows -> {
+                        try {
+                            consumer.accept(header, rows);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private BinaryTimeSeries.Builder buildHeader(String officeId, String tsId,
+                                                 Instant versionInstant) {
         VersionType versionType = TimeSeriesDaoImpl.getVersionType(dsl, tsId, officeId,
                 versionInstant != null);
         String timeZoneId = TimeSeriesDaoImpl.getTimeZoneId(dsl, tsId, officeId);
         return new BinaryTimeSeries.Builder()
                 .withOfficeId(officeId)
                 .withName(tsId)
-                .withBinaryValues(binRows)
                 .withDateVersionType(versionType)
                 .withVersionDate(versionInstant)
-                .withTimeZone(timeZoneId)
-                .build();
+                .withTimeZone(timeZoneId);
     }
 
     public List<BinaryTimeSeriesRow> retrieveRows(String officeId, String tsId, String mask,
@@ -177,11 +220,21 @@ public final class TimeSeriesBinaryDao extends JooqDao<BinaryTimeSeries> {
                                                   @NotNull Instant endTime, Instant versionInstant,
                                                   int kiloByteLimit,
                                                   ReplaceUtils.OperatorBuilder urlBuilder) {
-        return connectionResult(dsl, conn -> {
+        List<BinaryTimeSeriesRow> rows = new ArrayList<>();
+        streamRows(officeId, tsId, mask, DateTimePage.all(startTime), endTime, versionInstant,
+                kiloByteLimit, urlBuilder, page -> page.forEachRemaining(rows::add));
+        return rows;
+    }
+
+    private void streamRows(String officeId, String tsId, String mask, DateTimePage page,
+                            @NotNull Instant endTime, Instant versionInstant,
+                            int kiloByteLimit, ReplaceUtils.OperatorBuilder urlBuilder,
+                            Consumer<DateTimePage.Rows<BinaryTimeSeriesRow>> consumer) {
+        connection(dsl, conn -> {
             // Making the call from jOOQ package codegen does not work
             // b/c jOOQ MockResultSet eagerly loads the BLOB
             // we want to only load BLOB's under kiloByteLimit size.
-            Timestamp pStartTime = Timestamp.from(startTime);
+            Timestamp pStartTime = Timestamp.from(page.getStart());
             Timestamp pEndTime = Timestamp.from(endTime);
             Timestamp pVersionDate = versionInstant == null ? null : Timestamp.from(versionInstant);
             String pTimeZone = "UTC";
@@ -190,14 +243,11 @@ public final class TimeSeriesBinaryDao extends JooqDao<BinaryTimeSeries> {
             try (CallableStatement stmt = conn.prepareCall("{call CWMS_TEXT.RETRIEVE_TS_BINARY(?,?,?,?,?,?,?,?,?,?,?,?)}")) {
                 parameterizeRetrieveTsBinText(stmt, tsId, mask, pStartTime, pEndTime, pVersionDate, pTimeZone, officeId);
                 stmt.execute();
-                List<BinaryTimeSeriesRow> rows = new ArrayList<>();
                 try (ResultSet rs = (ResultSet) stmt.getObject(1)) {
-                    while (rs.next()) {
-                        BinaryTimeSeriesRow row = buildRow(byteLimit, urlBuilder, rs);
-                        rows.add(row);
-                    }
+                    consumer.accept(page.rows(rs,
+                            r -> r.getTimestamp(DATE_TIME, UTC_CALENDAR).toInstant(),
+                            r -> buildRow(byteLimit, urlBuilder, r)));
                 }
-                return rows;
             } catch (SQLException e) {
                 int errorCode = e.getErrorCode();
                 if (errorCode == TEXT_DOES_NOT_EXIST_ERROR_CODE || errorCode == TEXT_ID_DOES_NOT_EXIST_ERROR_CODE) {
@@ -4,6 +4,7 @@ import com.google.common.flogger.FluentLogger;
 import cwms.cda.api.Controllers;
 import cwms.cda.api.enums.VersionType;
 import cwms.cda.data.dao.ClobDao;
+import cwms.cda.data.dao.DateTimePage;
 import cwms.cda.data.dao.JooqDao;
 import cwms.cda.data.dao.TimeSeriesDaoImpl;
 import cwms.cda.data.dto.texttimeseries.RegularTextTimeSeriesRow;
@@ -33,6 +34,7 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.function.Consumer;
 
 import static java.lang.String.format;
 import usace.cwms.db.jooq.codegen.udt.records.DATE_TABLE_TYPE;
@@ -89,23 +91,34 @@ public final class RegularTimeSeriesTextDao extends JooqDao {
             String officeId, String tsId, String textMask,
             Instant startTime, Instant endTime, Instant versionDate,
             int kiloByteLimit, ReplaceUtils.OperatorBuilder urlBuilder)  {
-        return connectionResult(dsl, conn -> {
+        List<RegularTextTimeSeriesRow> rows = new ArrayList<>();
+        streamRows(officeId, tsId, textMask, DateTimePage.all(startTime), endTime, versionDate,
+                kiloByteLimit, urlBuilder, page -> page.forEachRemaining(rows::add));
+        return rows;
+    }
+
+    /**
+     * Hand the rows of the page to the consumer, reading them as the consumer iterates.
+     */
+    public void streamRows(
+            String officeId, String tsId, String textMask,
+            DateTimePage page, Instant endTime, Instant versionDate,
+            int kiloByteLimit, ReplaceUtils.OperatorBuilder urlBuilder,
+            Consumer<DateTimePage.Rows<RegularTextTimeSeriesRow>> consumer)  {
+        connection(dsl, conn -> {
             // Making the call from jOOQ package codegen does not work
             // b/c jOOQ MockResultSet eagerly loads the CLOB
             // we want to only load CLOB's under kiloByteLimit size.
             try (CallableStatement stmt = conn.prepareCall("{call CWMS_TEXT.RETRIEVE_TS_TEXT(?,?,?,?,?,?,?,?,?,?,?)}")) {
-                parameterizeRetrieveTsText(stmt, tsId, textMask, startTime, endTime, versionDate, officeId);
+                parameterizeRetrieveTsText(stmt, tsId, textMask, page.getStart(), endTime, versionDate, officeId);
                 stmt.execute();
-                List<RegularTextTimeSeriesRow> rows = new ArrayList<>();
                 try (ResultSet rs = (ResultSet) stmt.getObject(1)) {
                     //UTF-16 conversion and assumes 2 bytes per character
                     long characterLimit = kiloByteLimit * 1024L / 2;
-                    while (rs.next()) {
-                        RegularTextTimeSeriesRow row = buildRow(rs, characterLimit, urlBuilder);
-                        rows.add(row);
-                    }
+                    consumer.accept(page.rows(rs,
+                            r -> r.getTimestamp(DATE_TIME, UTC_CALENDAR).toInstant(),
+                            r -> buildRow(r, characterLimit, urlBuilder)));
                 }
-                return rows;
             } catch (SQLException e) {
                 if (e.getErrorCode() == TEXT_DOES_NOT_EXIST_ERROR_CODE || e.getErrorCode() == TEXT_ID_DOES_NOT_EXIST_ERROR_CODE) {
                     NoDataFoundException ex = new NoDataFoundException("No data found for text timeseries: " + tsId);
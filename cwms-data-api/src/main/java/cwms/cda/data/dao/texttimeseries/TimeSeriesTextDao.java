@@ -1,6 +1,7 @@
 package cwms.cda.data.dao.texttimeseries;
 
 import cwms.cda.api.enums.VersionType;
+import cwms.cda.data.dao.DateTimePage;
 import cwms.cda.data.dao.JooqDao;
 import cwms.cda.data.dao.TimeSeriesDaoImpl;
 import cwms.cda.data.dto.texttimeseries.RegularTextTimeSeriesRow;
@@ -10,6 +11,8 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jooq.DSLContext;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
@@ -32,16 +35,55 @@ public final class TimeSeriesTextDao extends JooqDao<TextTimeSeries> {
         regRows = regDao.retrieveRows(officeId, tsId, textMask,
                 startTime, endTime, versionDate, kiloByteLimit, urlBuilder);
 
+        return buildHeader(officeId, tsId, versionDate)
+                .withRegularTextValues(regRows)
+                .build();
+    }
+
+    /**
+     * Retrieve one page of the text time series. The consumer is handed the time series
+     * without values and the rows of the page, which are read from the database as the
+     * consumer iterates over them.
+     *
+     * @param page the cursor of the page, or null for the first page
+     * @param pageSize the number of rows of the first page
+     */
+    public void retrieveFromDao(@NotNull String officeId, @NotNull String tsId,
+            String textMask, @NotNull Instant startTime, @NotNull Instant endTime,
+            @Nullable Instant versionDate, int kiloByteLimit, ReplaceUtils.OperatorBuilder urlBuilder,
+            @Nullable String page, int pageSize,
+            DateTimePage.RowsConsumer<TextTimeSeries, RegularTextTimeSeriesRow> consumer)
+            throws IOException {
+        DateTimePage dateTimePage = DateTimePage.of(page, startTime, pageSize);
+        TextTimeSeries header = buildHeader(officeId, tsId, versionDate)
+                .withPage(dateTimePage.encode())
+                .withPageSize(dateTimePage.getPageSize())
+                .build();
+        RegularTimeSeriesTextDao regDao = new RegularTimeSeriesTextDao(dsl);
+        try {
+            regDao.streamRows(officeId, tsId, textMask, dateTimePage, endTime, versionDate,
+                    kiloByteLimit, urlBuilder, rows -> {
+                        try {
+                            consumer.accept(header, rows);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private TextTimeSeries.Builder buildHeader(String officeId, String tsId,
+                                               @Nullable Instant versionDate) {
         VersionType versionType = TimeSeriesDaoImpl.getVersionType(dsl, tsId, officeId, versionDate != null);
         String timeZoneId = TimeSeriesDaoImpl.getTimeZoneId(dsl, tsId, officeId);
         return new TextTimeSeries.Builder()
                 .withOfficeId(officeId)
                 .withName(tsId)
-                .withRegularTextValues(regRows)
                 .withVersionDate(versionDate)
                 .withDateVersionType(versionType)
-                .withTimeZone(timeZoneId)
-                .build();
+                .withTimeZone(timeZoneId);
     }
 
 
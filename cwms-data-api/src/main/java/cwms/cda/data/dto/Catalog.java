@@ -35,12 +35,15 @@ public class Catalog extends CwmsDTOPaginated {
     private Catalog() {
     }
 
-    public Catalog(String page, int total, int pageSize, List<? extends CatalogEntry> entries) {
+    public Catalog(String page, Integer total, int pageSize, List<? extends CatalogEntry> entries) {
         this(page, total, pageSize, entries, new CatalogRequestParameters.Builder().build());
     }
 
 
-    public Catalog(String page, int total, int pageSize, List<? extends CatalogEntry> entries,
+    /**
+     * @param total the number of matching entries, null if it is not known yet
+     */
+    public Catalog(String page, Integer total, int pageSize, List<? extends CatalogEntry> entries,
                    CatalogRequestParameters param) {
         super(page, pageSize, total);
 
@@ -77,7 +80,7 @@ public class Catalog extends CwmsDTOPaginated {
         private final String boundingOfficeLike;
         private final boolean includeExtents;
         private final boolean excludeEmpty;
-        private int total;
+        private Integer total;
         private int pageSize;
 
         public CatalogPage(String page) {
@@ -99,7 +102,8 @@ public class Catalog extends CwmsDTOPaginated {
             boundingOfficeLike = nullOrVal(parts[7]);
             includeExtents = Boolean.parseBoolean(parts[8]);
             excludeEmpty = Boolean.parseBoolean(parts[9]);
-            total = Integer.parseInt(parts[10]);
+            String totalPart = nullOrVal(parts[10]);
+            total = totalPart == null ? null : Integer.valueOf(totalPart);
             pageSize = Integer.parseInt(parts[11]);
         }
 
@@ -145,7 +149,11 @@ public class Catalog extends CwmsDTOPaginated {
             return pageSize;
         }
 
-        public int getTotal() {
+        /**
+         * @return the total carried by the cursor, null if it was not known when the cursor
+         *     was created
+         */
+        public Integer getTotal() {
             return total;
         }
 
@@ -33,6 +33,11 @@ public class LocationLevels extends CwmsDTOPaginated {
         this.offset = offset;
     }
 
+    private LocationLevels(String page, int pageSize, Integer total) {
+        super(page, pageSize, total);
+        levels = new ArrayList<>();
+    }
+
     public List<LocationLevel> getLevels() {
         return Collections.unmodifiableList(levels);
     }
@@ -40,13 +45,40 @@ public class LocationLevels extends CwmsDTOPaginated {
 
     public static class Builder {
         private LocationLevels workingLevels;
+        private final boolean keyed;
+        private String nextPage;
 
         public Builder(int offset, int pageSize, Integer total) {
             workingLevels = new LocationLevels(offset, pageSize, total);
+            keyed = false;
+        }
+
+        /**
+         * Builder for a page that starts after the given position instead of at an offset.
+         *
+         * @param page position the page starts after, null for the first page
+         * @param pageSize requested number of rows
+         * @param total total number of rows, if known
+         */
+        public Builder(String page, int pageSize, Integer total) {
+            workingLevels = new LocationLevels(page, pageSize, total);
+            keyed = true;
+        }
+
+        /**
+         * @param nextPage position the following page starts after, null if this is the last page
+         */
+        public LocationLevels.Builder withNextPage(String nextPage) {
+            this.nextPage = nextPage;
+            return this;
         }
 
         public LocationLevels build() {
-            if (this.workingLevels.levels.size() == this.workingLevels.pageSize) {
+            if (keyed) {
+                this.workingLevels.nextPage = encodeCursor(nextPage,
+                        this.workingLevels.pageSize,
+                        this.workingLevels.total);
+            } else if (this.workingLevels.levels.size() == this.workingLevels.pageSize) {
 
                 String cursor =
                         Integer.toString(this.workingLevels.offset + this.workingLevels.levels.size());
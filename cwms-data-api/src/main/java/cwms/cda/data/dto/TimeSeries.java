@@ -9,10 +9,12 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.JsonRootName;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import cwms.cda.api.enums.VersionType;
 import cwms.cda.formatters.Formats;
 import cwms.cda.formatters.annotations.FormattableWith;
 import cwms.cda.formatters.json.JsonV2;
+import cwms.cda.formatters.json.adapters.TimeSeriesValuesSerializer;
 import cwms.cda.formatters.xml.XMLv2;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -22,8 +24,12 @@ import java.lang.reflect.Field;
 import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.RandomAccess;
 
 @JsonRootName("timeseries")
 @JsonPropertyOrder(alphabetic = true)
@@ -75,13 +81,23 @@ public class TimeSeries extends CwmsDTOPaginated {
     )
     ZonedDateTime end;
 
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Values are held as parallel primitive columns rather than a list of Record objects,
+    // getValues() provides a List view over them.
+    private long[] dateTimes = new long[0];
+    private double[] dataValues = new double[0];
+    private int[] qualityCodes = new int[0];
+    private final BitSet missingValues = new BitSet();
+    private int valueCount;
+
     @ArraySchema(
             schema = @Schema(
                     description = "List of retrieved time-series values",
                     implementation = Record.class
             )
     )
-    List<Record> values;
+    private final RecordList values = new RecordList();
 
     @Schema(
             accessMode = AccessMode.READ_ONLY,
@@ -126,7 +142,7 @@ public class TimeSeries extends CwmsDTOPaginated {
         this.verticalDatumInfo = info;
         this.intervalOffset = intervalOffset;
         this.timeZone = timeZone;
-        values = new ArrayList<>();
+        ensureCapacity(pageSize > 0 ? Math.min(pageSize + 1, INITIAL_CAPACITY * 64) : INITIAL_CAPACITY);
     }
 
     public String getName() {
@@ -160,15 +176,54 @@ public class TimeSeries extends CwmsDTOPaginated {
 
     // Use the array shape to optimize data transfer to client
     @JsonFormat(shape=JsonFormat.Shape.ARRAY)
+    @JsonSerialize(using = TimeSeriesValuesSerializer.class)
     public List<Record> getValues() {
         return values;
     }
 
+    @JsonProperty("values")
+    private void setValues(List<Record> records) {
+        valueCount = 0;
+        missingValues.clear();
+        if (records != null) {
+            ensureCapacity(records.size());
+            for (Record tsRecord : records) {
+                appendValue(tsRecord.getDateTime().getTime(), tsRecord.getValue(),
+                        tsRecord.getQualityCode());
+            }
+        }
+    }
+
     @JsonIgnore
     public List<Record> getXmlValues() {
         return values;
     }
 
+    /**
+     * @return the date-times of the values as epoch milliseconds.  A copy sized to the number
+     *     of values.
+     */
+    @JsonIgnore
+    public long[] getDateTimeArray() {
+        return Arrays.copyOf(dateTimes, valueCount);
+    }
+
+    /**
+     * @return the data values, missing values are NaN.  A copy sized to the number of values.
+     */
+    @JsonIgnore
+    public double[] getValueArray() {
+        return Arrays.copyOf(dataValues, valueCount);
+    }
+
+    /**
+     * @return the quality codes of the values.  A copy sized to the number of values.
+     */
+    @JsonIgnore
+    public int[] getQualityArray() {
+        return Arrays.copyOf(qualityCodes, valueCount);
+    }
+
     public VerticalDatumInfo getVerticalDatumInfo()
     {
         return verticalDatumInfo;
@@ -195,15 +250,111 @@ public class TimeSeries extends CwmsDTOPaginated {
     }
 
     public boolean addValue(Timestamp dateTime, Double value, int qualityCode) {
+        return addValue(dateTime.getTime(), value, qualityCode);
+    }
+
+    public boolean addValue(long dateTimeMillis, Double value, int qualityCode) {
         // Set the current page, if not set
-        if((page == null || page.isEmpty()) && values.isEmpty()) {
-            page = encodeCursor(String.format("%d", dateTime.getTime()), pageSize, total);
+        if((page == null || page.isEmpty()) && valueCount == 0) {
+            page = encodeCursor(String.format("%d", dateTimeMillis), pageSize, total);
         }
-        if(pageSize > 0 && values.size() == pageSize) {
-            nextPage = encodeCursor(String.format("%d", dateTime.toInstant().toEpochMilli()), pageSize, total);
+        if(pageSize > 0 && valueCount == pageSize) {
+            nextPage = encodeCursor(String.format("%d", dateTimeMillis), pageSize, total);
             return false;
         } else {
-            return values.add(new Record(dateTime, value, qualityCode));
+            appendValue(dateTimeMillis, value, qualityCode);
+            return true;
+        }
+    }
+
+    private void appendValue(long dateTimeMillis, Double value, int qualityCode) {
+        if (valueCount == dateTimes.length) {
+            ensureCapacity(Math.max(INITIAL_CAPACITY, valueCount + (valueCount >> 1)));
+        }
+        dateTimes[valueCount] = dateTimeMillis;
+        if (value == null) {
+            dataValues[valueCount] = Double.NaN;
+            missingValues.set(valueCount);
+        } else {
+            dataValues[valueCount] = value;
+        }
+        qualityCodes[valueCount] = qualityCode;
+        valueCount++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > dateTimes.length) {
+            dateTimes = Arrays.copyOf(dateTimes, capacity);
+            dataValues = Arrays.copyOf(dataValues, capacity);
+            qualityCodes = Arrays.copyOf(qualityCodes, capacity);
+        }
+    }
+
+    /**
+     * List view over the value columns of this time series.  Records are created on access,
+     * serializers should use the indexed accessors instead.
+     */
+    public final class RecordList extends AbstractList<Record> implements RandomAccess {
+
+        private RecordList() {
+        }
+
+        @Override
+        public int size() {
+            return valueCount;
+        }
+
+        @Override
+        public Record get(int index) {
+            checkIndex(index);
+            return new Record(new Timestamp(dateTimes[index]), getValue(index), qualityCodes[index]);
+        }
+
+        @Override
+        public boolean add(Record tsRecord) {
+            appendValue(tsRecord.getDateTime().getTime(), tsRecord.getValue(), tsRecord.getQualityCode());
+            modCount++;
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            valueCount = 0;
+            missingValues.clear();
+            modCount++;
+        }
+
+        public long getDateTimeMillis(int index) {
+            checkIndex(index);
+            return dateTimes[index];
+        }
+
+        public boolean isMissing(int index) {
+            checkIndex(index);
+            return missingValues.get(index);
+        }
+
+        /**
+         * @return the value at the index, NaN if the value is missing.
+         */
+        public double getDoubleValue(int index) {
+            checkIndex(index);
+            return dataValues[index];
+        }
+
+        public Double getValue(int index) {
+            return isMissing(index) ? null : dataValues[index];
+        }
+
+        public int getQualityCode(int index) {
+            checkIndex(index);
+            return qualityCodes[index];
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= valueCount) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + valueCount);
+            }
         }
     }
 
@@ -251,7 +402,7 @@ public class TimeSeries extends CwmsDTOPaginated {
         @SuppressWarnings("unused") // required so JAXB can initialize and marshal
         private Record() {}
 
-        protected Record(Timestamp dateTime, Double value, int qualityCode) {
+        public Record(Timestamp dateTime, Double value, int qualityCode) {
             this.dateTime = dateTime;
             this.value = value;
             this.qualityCode = qualityCode;
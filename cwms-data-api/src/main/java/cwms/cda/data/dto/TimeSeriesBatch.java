@@ -0,0 +1,66 @@
+package cwms.cda.data.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import cwms.cda.formatters.Formats;
+import cwms.cda.formatters.annotations.FormattableWith;
+import cwms.cda.formatters.json.JsonV2;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Several time series retrieved over a common window in a single request.
+ * <p>
+ * The series are listed in the order their retrieval finished, not the order they were
+ * requested. Series that could not be retrieved are listed in errors instead.
+ */
+@FormattableWith(contentType = Formats.JSONV2, formatter = JsonV2.class, aliases = {Formats.JSON, Formats.DEFAULT})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonNaming(PropertyNamingStrategies.KebabCaseStrategy.class)
+public final class TimeSeriesBatch extends CwmsDTOBase {
+    public static final String TIME_SERIES = "time-series";
+    public static final String ERRORS = "errors";
+
+    @JsonProperty(TIME_SERIES)
+    private final List<TimeSeries> timeSeries;
+    @JsonProperty(ERRORS)
+    private final List<Failure> errors;
+
+    public TimeSeriesBatch(List<TimeSeries> timeSeries, List<Failure> errors) {
+        this.timeSeries = Collections.unmodifiableList(new ArrayList<>(timeSeries));
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+    }
+
+    public List<TimeSeries> getTimeSeries() {
+        return timeSeries;
+    }
+
+    public List<Failure> getErrors() {
+        return errors;
+    }
+
+    /**
+     * A requested time series that could not be retrieved.
+     */
+    @JsonNaming(PropertyNamingStrategies.KebabCaseStrategy.class)
+    public static final class Failure {
+        private final String name;
+        private final String message;
+
+        public Failure(String name, String message) {
+            this.name = name;
+            this.message = message;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package cwms.cda.data.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import cwms.cda.formatters.Formats;
+import cwms.cda.formatters.annotations.FormattableWith;
+import cwms.cda.formatters.json.JsonV2;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of storing several time series in a single request.
+ * <p>
+ * Every submitted series is listed either in stored or in errors.
+ */
+@FormattableWith(contentType = Formats.JSONV2, formatter = JsonV2.class, aliases = {Formats.JSON, Formats.DEFAULT})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonNaming(PropertyNamingStrategies.KebabCaseStrategy.class)
+public final class TimeSeriesIngestResult extends CwmsDTOBase {
+    @JsonProperty("stored")
+    private final List<String> stored;
+    @JsonProperty(TimeSeriesBatch.ERRORS)
+    private final List<TimeSeriesBatch.Failure> errors;
+
+    public TimeSeriesIngestResult(List<String> stored, List<TimeSeriesBatch.Failure> errors) {
+        this.stored = Collections.unmodifiableList(new ArrayList<>(stored));
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+    }
+
+    public List<String> getStored() {
+        return stored;
+    }
+
+    public List<TimeSeriesBatch.Failure> getErrors() {
+        return errors;
+    }
+}
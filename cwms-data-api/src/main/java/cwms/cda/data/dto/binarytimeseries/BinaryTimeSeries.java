@@ -41,6 +41,17 @@ public class BinaryTimeSeries extends CwmsDTO {
     @Schema(description = "The version date of the time series trace")
     Instant versionDate;
 
+    @Schema(description = "The cursor to the current page of values; only present when the "
+            + "values were retrieved by page", accessMode = Schema.AccessMode.READ_ONLY)
+    private final String page;
+
+    @Schema(description = "The cursor to the next page of values; null if there are no more "
+            + "values", accessMode = Schema.AccessMode.READ_ONLY)
+    private final String nextPage;
+
+    @Schema(description = "The number of values per page", accessMode = Schema.AccessMode.READ_ONLY)
+    private final Integer pageSize;
+
     private final NavigableMap<DateDateKey, BinaryTimeSeriesRow> entries;
 
     private BinaryTimeSeries(Builder builder) {
@@ -51,6 +62,9 @@ public class BinaryTimeSeries extends CwmsDTO {
 
         dateVersionType = builder.dateVersionType;
         versionDate = builder.versionDate;
+        page = builder.page;
+        nextPage = builder.nextPage;
+        pageSize = builder.pageSize;
 
         if (builder.entriesMap != null) {
             entries = new TreeMap<>(builder.entriesMap);
@@ -80,6 +94,18 @@ public class BinaryTimeSeries extends CwmsDTO {
         return versionDate;
     }
 
+    public String getPage() {
+        return page;
+    }
+
+    public String getNextPage() {
+        return nextPage;
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
     @Nullable
     public Collection<BinaryTimeSeriesRow> getBinaryValues() {
         if (entries == null) {
@@ -99,6 +125,9 @@ public class BinaryTimeSeries extends CwmsDTO {
         private String timeZone;
         private VersionType dateVersionType;
         private Instant versionDate;
+        private String page;
+        private String nextPage;
+        private Integer pageSize;
 
         NavigableMap<DateDateKey, BinaryTimeSeriesRow> entriesMap = null;
 
@@ -135,6 +164,21 @@ public class BinaryTimeSeries extends CwmsDTO {
             return this;
         }
 
+        public Builder withPage(String page) {
+            this.page = page;
+            return this;
+        }
+
+        public Builder withNextPage(String nextPage) {
+            this.nextPage = nextPage;
+            return this;
+        }
+
+        public Builder withPageSize(Integer pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
 
         public Builder withBinaryValues(Collection<BinaryTimeSeriesRow> rows) {
             if (rows == null) {
@@ -0,0 +1,167 @@
+package cwms.cda.data.dto.rating;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import cwms.cda.data.dto.CwmsDTOBase;
+import cwms.cda.data.dto.CwmsDTOValidator;
+import cwms.cda.formatters.Formats;
+import cwms.cda.formatters.annotations.FormattableWith;
+import cwms.cda.formatters.json.JsonV2;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Input to, and result of, rating a set of values with a stored rating.
+ * <p>
+ * The independent values are either supplied directly, one array per independent parameter,
+ * or read from the time series named by timeseries-id between begin and end.
+ * Value times are milliseconds since the epoch; when they are omitted the values are rated
+ * with the ratings in effect at the current time.
+ */
+@FormattableWith(contentType = Formats.JSONV2, formatter = JsonV2.class, aliases = {Formats.JSON, Formats.DEFAULT})
+@JsonDeserialize(builder = RatedValues.Builder.class)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonNaming(PropertyNamingStrategies.KebabCaseStrategy.class)
+public final class RatedValues extends CwmsDTOBase {
+    private final List<String> units;
+    private final String timeseriesId;
+    private final ZonedDateTime begin;
+    private final ZonedDateTime end;
+    private final long[] valueTimes;
+    private final List<List<Double>> independentValues;
+    private final List<Double> dependentValues;
+
+    private RatedValues(Builder builder) {
+        this.units = builder.units;
+        this.timeseriesId = builder.timeseriesId;
+        this.begin = builder.begin;
+        this.end = builder.end;
+        this.valueTimes = builder.valueTimes;
+        this.independentValues = builder.independentValues;
+        this.dependentValues = builder.dependentValues;
+    }
+
+    @Override
+    protected void validateInternal(CwmsDTOValidator validator) {
+        super.validateInternal(validator);
+        validator.mutuallyExclusive("Only one of independent-values or timeseries-id may be provided",
+                independentValues, timeseriesId);
+        if (timeseriesId == null) {
+            validator.required(independentValues, "independent-values");
+        } else {
+            validator.required(begin, "begin");
+            validator.required(end, "end");
+        }
+        validator.validate(() -> {
+            if (independentValues != null && !independentValues.isEmpty()) {
+                int count = independentValues.get(0).size();
+                for (List<Double> values : independentValues) {
+                    if (values.size() != count) {
+                        throw new IllegalArgumentException(
+                                "Each independent-values array must have the same number of values");
+                    }
+                }
+            }
+            return null;
+        });
+        validator.validate(() -> {
+            if (independentValues != null && valueTimes != null) {
+                for (List<Double> values : independentValues) {
+                    if (values.size() != valueTimes.length) {
+                        throw new IllegalArgumentException(
+                                "Each independent-values array must have one value per value-time");
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Units of the independent parameters followed by the unit of the dependent parameter.
+     * If not provided the rating's own units are used.
+     */
+    public List<String> getUnits() {
+        return units;
+    }
+
+    public String getTimeseriesId() {
+        return timeseriesId;
+    }
+
+    public ZonedDateTime getBegin() {
+        return begin;
+    }
+
+    public ZonedDateTime getEnd() {
+        return end;
+    }
+
+    public long[] getValueTimes() {
+        return valueTimes;
+    }
+
+    public List<List<Double>> getIndependentValues() {
+        return independentValues;
+    }
+
+    /**
+     * The rated values, null where an input was missing or could not be rated.
+     */
+    public List<Double> getDependentValues() {
+        return dependentValues;
+    }
+
+    public static class Builder {
+        private List<String> units;
+        private String timeseriesId;
+        private ZonedDateTime begin;
+        private ZonedDateTime end;
+        private long[] valueTimes;
+        private List<List<Double>> independentValues;
+        private List<Double> dependentValues;
+
+        public Builder withUnits(List<String> units) {
+            this.units = units == null ? null : Collections.unmodifiableList(new ArrayList<>(units));
+            return this;
+        }
+
+        public Builder withTimeseriesId(String timeseriesId) {
+            this.timeseriesId = timeseriesId;
+            return this;
+        }
+
+        public Builder withBegin(ZonedDateTime begin) {
+            this.begin = begin;
+            return this;
+        }
+
+        public Builder withEnd(ZonedDateTime end) {
+            this.end = end;
+            return this;
+        }
+
+        public Builder withValueTimes(long[] valueTimes) {
+            this.valueTimes = valueTimes;
+            return this;
+        }
+
+        public Builder withIndependentValues(List<List<Double>> independentValues) {
+            this.independentValues = independentValues;
+            return this;
+        }
+
+        public Builder withDependentValues(List<Double> dependentValues) {
+            this.dependentValues = dependentValues;
+            return this;
+        }
+
+        public RatedValues build() {
+            return new RatedValues(this);
+        }
+    }
+}
@@ -50,6 +50,17 @@ public class TextTimeSeries extends CwmsDTO {
     @Schema(description = "The version date of the time series trace")
     Instant versionDate;
 
+    @Schema(description = "The cursor to the current page of values; only present when the "
+            + "values were retrieved by page", accessMode = Schema.AccessMode.READ_ONLY)
+    private final String page;
+
+    @Schema(description = "The cursor to the next page of values; null if there are no more "
+            + "values", accessMode = Schema.AccessMode.READ_ONLY)
+    private final String nextPage;
+
+    @Schema(description = "The number of values per page", accessMode = Schema.AccessMode.READ_ONLY)
+    private final Integer pageSize;
+
     private final NavigableMap<DateDateKey, RegularTextTimeSeriesRow> regularMap;
 
 
@@ -60,6 +71,9 @@ public class TextTimeSeries extends CwmsDTO {
         timeZone = builder.timeZone;
         dateVersionType = builder.dateVersionType;
         versionDate = builder.versionDate;
+        page = builder.page;
+        nextPage = builder.nextPage;
+        pageSize = builder.pageSize;
 
         if (builder.regMap == null) {
             regularMap = null;
@@ -89,6 +103,18 @@ public class TextTimeSeries extends CwmsDTO {
         return versionDate;
     }
 
+    public String getPage() {
+        return page;
+    }
+
+    public String getNextPage() {
+        return nextPage;
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
     @Nullable
     public Collection<RegularTextTimeSeriesRow> getRegularTextValues() {
         if (regularMap == null) {
@@ -112,6 +138,9 @@ public class TextTimeSeries extends CwmsDTO {
 
         private VersionType dateVersionType;
         private Instant versionDate;
+        private String page;
+        private String nextPage;
+        private Integer pageSize;
         NavigableMap<DateDateKey, RegularTextTimeSeriesRow> regMap = null;
 
 
@@ -148,6 +177,21 @@ public class TextTimeSeries extends CwmsDTO {
             return this;
         }
 
+        public Builder withPage(String page) {
+            this.page = page;
+            return this;
+        }
+
+        public Builder withNextPage(String nextPage) {
+            this.nextPage = nextPage;
+            return this;
+        }
+
+        public Builder withPageSize(Integer pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
         public Builder withRows(Collection<TextTimeSeriesRow> rows) {
             if (rows == null) {
                 regMap = null;
@@ -2,6 +2,7 @@ package cwms.cda.datasource;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import org.jooq.exception.DataAccessException;
 
 
@@ -15,10 +16,9 @@ public class DirectUserPreparer implements ConnectionPreparer {
     @Override
     public Connection prepare(Connection conn) {
         if (user != null) {
-            String sql = "begin cwms_env.set_session_user_direct(upper(?)); end;";
-            try (PreparedStatement setApiUser = conn.prepareStatement(sql)) {
-                setApiUser.setString(1,user);
-                setApiUser.execute();                
+            try {
+                SessionStateTracker.apply(conn, SessionStateTracker.USER, user.toUpperCase(),
+                        () -> setUser(conn));
             } catch (Exception e) {
                 throw new DataAccessException("Unable to set user session.  "
                         + "user empty = " + user.isEmpty(), e);
@@ -27,4 +27,14 @@ public class DirectUserPreparer implements ConnectionPreparer {
 
         return conn;
     }
+
+    private void setUser(Connection conn) throws SQLException {
+        String sql = "begin cwms_env.set_session_user_direct(upper(?)); end;";
+        try (PreparedStatement setApiUser = conn.prepareStatement(sql)) {
+            setApiUser.setString(1,user);
+            setApiUser.execute();
+        }
+        // Changing the user resets the session privileges, don't trust the cached office.
+        SessionStateTracker.forget(conn, SessionStateTracker.OFFICE);
+    }
 }
@@ -0,0 +1,156 @@
+package cwms.cda.datasource;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Remembers the session settings (office, user, time zone, client info) last applied to each
+ * physical database connection so the preparers only make a round trip when a value changes.
+ *
+ * <p>Pooled connections are usually handed out as proxies; the state is keyed on the object
+ * returned by {@code unwrap(Connection.class)} and held weakly so it goes away with the
+ * physical connection. Code that changes session state without going through
+ * {@link #apply(Connection, String, String, SessionUpdate)} must call
+ * {@link #applied(Connection, String, String)} or {@link #forget(Connection, String)}.
+ *
+ * <p>Setting the system property {@value #ENABLED_PROPERTY} to false always applies the
+ * settings.
+ */
+public final class SessionStateTracker {
+    private static final Logger logger = Logger.getLogger(SessionStateTracker.class.getName());
+
+    public static final String ENABLED_PROPERTY = "cwms.cda.datasource.session.cache";
+    public static final String OFFICE = "office";
+    public static final String USER = "user";
+    public static final String TIME_ZONE = "time_zone";
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+
+    private static final Cache<Connection, Map<String, String>> STATES =
+            CacheBuilder.newBuilder().weakKeys().build();
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    @FunctionalInterface
+    public interface SessionUpdate {
+        void apply() throws SQLException;
+    }
+
+    private SessionStateTracker() {
+    }
+
+    /**
+     * Run the update unless the connection already has the given value for this setting.
+     *
+     * @param conn the connection being prepared
+     * @param key which session setting the update changes
+     * @param value the value the update applies, null values are never cached
+     * @param update the database call to make when the value has changed
+     * @throws SQLException if the update fails, the setting is then treated as unknown
+     */
+    public static void apply(Connection conn, String key, String value, SessionUpdate update)
+            throws SQLException {
+        Map<String, String> state = ENABLED ? stateFor(conn) : null;
+        if (state == null) {
+            update.apply();
+            return;
+        }
+        if (value != null && value.equals(state.get(key))) {
+            HITS.increment();
+            return;
+        }
+        MISSES.increment();
+        state.remove(key);
+        update.apply();
+        if (value != null) {
+            state.put(key, value);
+        }
+    }
+
+    /**
+     * Record a setting that was applied to the connection outside of this tracker.
+     */
+    public static void applied(Connection conn, String key, String value) {
+        Map<String, String> state = ENABLED ? stateFor(conn) : null;
+        if (state != null) {
+            if (value == null) {
+                state.remove(key);
+            } else {
+                state.put(key, value);
+            }
+        }
+    }
+
+    /**
+     * Mark a setting as unknown so that the next apply always reaches the database.
+     */
+    public static void forget(Connection conn, String key) {
+        applied(conn, key, null);
+    }
+
+    public static long getHits() {
+        return HITS.sum();
+    }
+
+    public static long getMisses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Expose the hit and miss counts as gauges.
+     *
+     * @param metrics registry to add the gauges to, may be null
+     */
+    public static void registerMetrics(MetricRegistry metrics) {
+        if (metrics == null) {
+            return;
+        }
+        String hitName = MetricRegistry.name(SessionStateTracker.class.getName(), "hits");
+        if (metrics.getGauges().get(hitName) == null) {
+            MetricRegistry.MetricSupplier<? extends Gauge> hits =
+                    () -> (Gauge<Long>) SessionStateTracker::getHits;
+            metrics.gauge(hitName, hits);
+        }
+        String missName = MetricRegistry.name(SessionStateTracker.class.getName(), "misses");
+        if (metrics.getGauges().get(missName) == null) {
+            MetricRegistry.MetricSupplier<? extends Gauge> misses =
+                    () -> (Gauge<Long>) SessionStateTracker::getMisses;
+            metrics.gauge(missName, misses);
+        }
+    }
+
+    private static Map<String, String> stateFor(Connection conn) {
+        Connection physical = physicalConnection(conn);
+        if (physical == null) {
+            return null;
+        }
+        return STATES.asMap().computeIfAbsent(physical, c -> new ConcurrentHashMap<>());
+    }
+
+    private static Connection physicalConnection(Connection conn) {
+        Objects.requireNonNull(conn, "A connection is required to track session state.");
+        try {
+            if (conn.isWrapperFor(Connection.class)) {
+                Connection unwrapped = conn.unwrap(Connection.class);
+                if (unwrapped != null) {
+                    return unwrapped;
+                }
+            }
+            return conn;
+        } catch (SQLException ex) {
+            logger.log(Level.FINE, "Unable to unwrap connection, session state not tracked.", ex);
+            return null;
+        }
+    }
+}
@@ -34,7 +34,8 @@ public class SessionTimeZonePreparer implements ConnectionPreparer {
 
     @Override
     public Connection prepare(Connection conn) throws SQLException {
-        setSessionTimeZoneUtc(conn);
+        SessionStateTracker.apply(conn, SessionStateTracker.TIME_ZONE, "UTC",
+                () -> setSessionTimeZoneUtc(conn));
         return conn;
     }
 
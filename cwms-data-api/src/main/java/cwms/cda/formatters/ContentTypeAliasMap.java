@@ -17,13 +17,20 @@ import java.util.Map;
 final class ContentTypeAliasMap
 {
 	private final Map<String, ContentType> _contentTypeMap = new HashMap<>();
-	private static final Map<Class<? extends CwmsDTOBase>, ContentTypeAliasMap> ALIAS_MAP = new HashMap<>();
+	private static final ClassValue<ContentTypeAliasMap> ALIAS_MAP = new ClassValue<ContentTypeAliasMap>()
+	{
+		@Override
+		protected ContentTypeAliasMap computeValue(Class<?> dtoClass)
+		{
+			return new ContentTypeAliasMap(dtoClass);
+		}
+	};
 
 	private ContentTypeAliasMap()
 	{
 	}
 
-	private ContentTypeAliasMap(Class<? extends CwmsDTOBase> dtoClass)
+	private ContentTypeAliasMap(Class<?> dtoClass)
 	{
 		FormattableWith[] formats = dtoClass.getAnnotationsByType(FormattableWith.class);
 		for (FormattableWith format : formats)
@@ -39,7 +46,7 @@ final class ContentTypeAliasMap
 
 	public static ContentTypeAliasMap forDtoClass(@NotNull Class<? extends CwmsDTOBase> dtoClass)
 	{
-		return ALIAS_MAP.computeIfAbsent(dtoClass, ContentTypeAliasMap::new);
+		return ALIAS_MAP.get(dtoClass);
 	}
 
 	public static ContentTypeAliasMap empty()
@@ -24,19 +24,25 @@
 
 package cwms.cda.formatters;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import cwms.cda.data.dto.CwmsDTOBase;
+import cwms.cda.data.dto.TimeSeries;
 import cwms.cda.formatters.annotations.FormattableWith;
 
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Level;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -59,6 +65,8 @@ public class Formats {
     public static final String PGJSON = "application/vnd.pg+json";
     public static final String NAMED_PGJSON = "application/vnd.named+pg+json";
     public static final String DEFAULT = "*/*";
+    public static final String NDJSON = "application/x-ndjson";    // Only used as a constant,
+    // read directly by the streaming endpoints
 
     public static final String JSON_LEGACY = "json";
     public static final String XML_LEGACY = "xml";
@@ -93,7 +101,25 @@ public class Formats {
     }
 
 
-    private final Map<ContentType, Map<Class<? extends CwmsDTOBase>, OutputFormatter>> formatters = new LinkedHashMap<>();
+    /**
+     * Formatters of each DTO class, read from its FormattableWith annotations the first time the
+     * class is formatted. The maps are never modified after they are built.
+     */
+    private static final ClassValue<Map<ContentType, OutputFormatter>> formatters =
+            new ClassValue<Map<ContentType, OutputFormatter>>() {
+                @Override
+                protected Map<ContentType, OutputFormatter> computeValue(Class<?> klass) {
+                    return buildFormatters(klass);
+                }
+            };
+
+    /**
+     * Results of parseHeader by Accept header and DTO class. Bounded because the header is
+     * supplied by the client.
+     */
+    private static final Cache<HeaderKey, ContentType> parsedHeaders = CacheBuilder.newBuilder()
+            .maximumSize(Integer.getInteger("cwms.cda.formatters.parsedHeaderCacheSize", 500))
+            .build();
 
     private static final Formats formats = new Formats();
 
@@ -112,7 +138,6 @@ public class Formats {
 
     private String getFormatted(ContentType type, CwmsDTOBase toFormat) throws FormattingException {
         Objects.requireNonNull(toFormat, "Object to be formatted should not be null");
-        formatters.keySet().forEach(k -> logger.fine(k::toString));
         OutputFormatter outputFormatter = getOutputFormatter(type, toFormat.getClass());
 
         if (outputFormatter != null) {
@@ -127,10 +152,6 @@ public class Formats {
 
     private String getFormatted(ContentType type, List<? extends CwmsDTOBase> dtos, Class<?
             extends CwmsDTOBase> rootType) throws FormattingException {
-        for (ContentType key : formatters.keySet()) {
-            logger.finest(() -> key.toString());
-        }
-
         OutputFormatter outputFormatter = getOutputFormatter(type, rootType);
 
         if (outputFormatter != null) {
@@ -142,6 +163,58 @@ public class Formats {
         }
     }
 
+    private void writeFormatted(ContentType type, CwmsDTOBase toFormat, OutputStream out)
+            throws IOException {
+        Objects.requireNonNull(toFormat, "Object to be formatted should not be null");
+        OutputFormatter outputFormatter = getOutputFormatter(type, toFormat.getClass());
+
+        if (outputFormatter != null) {
+            outputFormatter.format(toFormat, out);
+        } else {
+            String message = String.format("No Format for this content-type and data-type : (%s, %s)",
+                    type.toString(), toFormat.getClass().getName());
+            throw new UnsupportedFormatException(message);
+        }
+    }
+
+    private void writeFormatted(ContentType type, TimeSeries header,
+                                Iterator<TimeSeries.Record> values, OutputStream out)
+            throws IOException {
+        Objects.requireNonNull(header, "Object to be formatted should not be null");
+        OutputFormatter outputFormatter = getOutputFormatter(type, header.getClass());
+
+        if (outputFormatter instanceof StreamingTimeSeriesFormatter) {
+            ((StreamingTimeSeriesFormatter) outputFormatter).format(header, values, out);
+        } else if (outputFormatter != null) {
+            // Formatter can't stream rows, collect them and format normally.
+            while (values.hasNext()) {
+                TimeSeries.Record tsRecord = values.next();
+                header.addValue(tsRecord.getDateTime(), tsRecord.getValue(), tsRecord.getQualityCode());
+            }
+            outputFormatter.format(header, out);
+        } else {
+            String message = String.format("No Format for this content-type and data-type : (%s, %s)",
+                    type.toString(), header.getClass().getName());
+            throw new UnsupportedFormatException(message);
+        }
+    }
+
+    private void writeFormatted(ContentType type, CwmsDTOBase header, String rowsField,
+                                Iterator<?> rows, Supplier<String> nextPage, OutputStream out)
+            throws IOException {
+        Objects.requireNonNull(header, "Object to be formatted should not be null");
+        OutputFormatter outputFormatter = getOutputFormatter(type, header.getClass());
+
+        if (outputFormatter instanceof StreamingRowsFormatter) {
+            ((StreamingRowsFormatter) outputFormatter).format(header, rowsField, rows, nextPage,
+                    out);
+        } else {
+            String message = String.format("No streaming Format for this content-type and "
+                            + "data-type : (%s, %s)", type.toString(), header.getClass().getName());
+            throw new UnsupportedFormatException(message);
+        }
+    }
+
     private <T extends CwmsDTOBase> T parseContentFromType(ContentType type, String content, Class<T> rootType)
             throws FormattingException {
         OutputFormatter outputFormatter = getOutputFormatter(type, rootType);
@@ -191,31 +264,32 @@ public class Formats {
 
     private OutputFormatter getOutputFormatter(ContentType type,
                                                Class<? extends CwmsDTOBase> klass) {
-        OutputFormatter outputFormatter = null;
-        Map<Class<? extends CwmsDTOBase>, OutputFormatter> contentFormatters = formatters.get(type);
-        if (contentFormatters != null && contentFormatters.containsKey(klass)) {
-            outputFormatter = contentFormatters.get(klass);
-        } else { // not in the list, look it up.
-            FormattableWith[] annotationsByType = klass.getAnnotationsByType(FormattableWith.class);
-            for (FormattableWith fw : annotationsByType) {
-                ContentType fwCt = new ContentType(fw.contentType());
-                if (type.equals(fwCt)) {
-                    try {
-                        outputFormatter = fw.formatter()
-                                            .getDeclaredConstructor()
-                                            .newInstance();
-                        formatters.computeIfAbsent(type, k -> new HashMap<>())
-                                  .put(klass,outputFormatter);
-                    } catch (Exception ex) {
-                        logger.log(Level.SEVERE, "Unable to create formatter.", ex);
-                        return null;
-                    }
+        Map<ContentType, OutputFormatter> classFormatters = formatters.get(klass);
+        OutputFormatter outputFormatter = classFormatters.get(type);
+        if (outputFormatter == null) {
+            // ContentType equality ignores parameters other than version, the hash does not.
+            for (Map.Entry<ContentType, OutputFormatter> entry : classFormatters.entrySet()) {
+                if (type.equals(entry.getKey())) {
+                    outputFormatter = entry.getValue();
                 }
             }
         }
         return outputFormatter;
     }
 
+    private static Map<ContentType, OutputFormatter> buildFormatters(Class<?> klass) {
+        Map<ContentType, OutputFormatter> retval = new LinkedHashMap<>();
+        for (FormattableWith fw : klass.getAnnotationsByType(FormattableWith.class)) {
+            try {
+                retval.put(new ContentType(fw.contentType()),
+                        fw.formatter().getDeclaredConstructor().newInstance());
+            } catch (Exception ex) {
+                logger.log(Level.SEVERE, ex, () -> "Unable to create formatter for " + klass.getName());
+            }
+        }
+        return Collections.unmodifiableMap(retval);
+    }
+
     public static String format(ContentType type, CwmsDTOBase toFormat) throws FormattingException {
         return formats.getFormatted(type, toFormat);
     }
@@ -225,6 +299,36 @@ public class Formats {
         return formats.getFormatted(type, toFormat, rootType);
     }
 
+    /**
+     * Write the formatted object directly to the provided stream instead of building a String.
+     * The stream is not closed.
+     */
+    public static void format(ContentType type, CwmsDTOBase toFormat, OutputStream out)
+            throws IOException {
+        formats.writeFormatted(type, toFormat, out);
+    }
+
+    /**
+     * Write a time series to the provided stream while its values are still being read.
+     * The values held by the header are written first, followed by the remaining values.
+     * The stream is not closed.
+     */
+    public static void format(ContentType type, TimeSeries header,
+                              Iterator<TimeSeries.Record> values, OutputStream out)
+            throws IOException {
+        formats.writeFormatted(type, header, values, out);
+    }
+
+    /**
+     * Write a paged DTO to the provided stream while its rows are still being read.
+     * The stream is not closed.
+     */
+    public static void format(ContentType type, CwmsDTOBase header, String rowsField,
+                              Iterator<?> rows, Supplier<String> nextPage, OutputStream out)
+            throws IOException {
+        formats.writeFormatted(type, header, rowsField, rows, nextPage, out);
+    }
+
     public static <T extends CwmsDTOBase> T parseContent(ContentType type, String content, Class<T> rootType)
             throws FormattingException {
         return formats.parseContentFromType(type, content, rootType);
@@ -341,6 +445,20 @@ public class Formats {
      * @throws FormattingException if the header can't be identified as a mimetype
      */
     public static @NotNull ContentType parseHeader(String header, Class<? extends CwmsDTOBase> klass) {
+        if (header == null) {
+            return negotiate(null, klass);
+        }
+        HeaderKey key = new HeaderKey(header, klass);
+        ContentType retval = parsedHeaders.getIfPresent(key);
+        if (retval == null) {
+            // failures are not cached, they throw
+            retval = negotiate(header, klass);
+            parsedHeaders.put(key, retval);
+        }
+        return retval;
+    }
+
+    private static ContentType negotiate(String header, Class<? extends CwmsDTOBase> klass) {
         ContentTypeAliasMap aliasMap = ContentTypeAliasMap.empty();
         if (klass != null) {
             aliasMap = ContentTypeAliasMap.forDtoClass(klass);
@@ -376,4 +494,31 @@ public class Formats {
         }
         throw new UnsupportedFormatException("Format header " + header + " could not be parsed");
     }
+
+    private static final class HeaderKey {
+        private final String header;
+        private final Class<? extends CwmsDTOBase> klass;
+
+        private HeaderKey(String header, Class<? extends CwmsDTOBase> klass) {
+            this.header = header;
+            this.klass = klass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof HeaderKey)) {
+                return false;
+            }
+            HeaderKey other = (HeaderKey) o;
+            return header.equals(other.header) && klass == other.klass;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * header.hashCode() + Objects.hashCode(klass);
+        }
+    }
 }
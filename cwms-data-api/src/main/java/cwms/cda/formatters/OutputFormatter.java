@@ -1,6 +1,9 @@
 package cwms.cda.formatters;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import cwms.cda.data.dto.CwmsDTOBase;
@@ -11,6 +14,20 @@ public interface OutputFormatter {
     String getContentType();
     String format(CwmsDTOBase dto);
     String format(List<? extends CwmsDTOBase> dtoList);
+
+    /**
+     * Write the formatted dto to the provided stream. The stream is not closed.
+     * Formatters that can serialize directly to a stream should override this so
+     * the full response is never held as a String.
+     *
+     * @param dto the object to format
+     * @param out destination of the formatted data
+     * @throws IOException if the stream cannot be written to
+     */
+    default void format(CwmsDTOBase dto, OutputStream out) throws IOException {
+        out.write(format(dto).getBytes(StandardCharsets.UTF_8));
+    }
+
     default <T extends CwmsDTOBase> T parseContent(String content, Class<T> type) {
         throw new UnsupportedOperationException(String.format(UNSUPPORTED_MESSAGE, getContentType()));
     }
@@ -0,0 +1,28 @@
+package cwms.cda.formatters;
+
+import cwms.cda.data.dto.CwmsDTOBase;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+/**
+ * Implemented by formatters that can write a paged DTO, like a text or binary time series, while
+ * its rows are still being read from the database. Only a single row needs to be in memory at a
+ * time.
+ */
+public interface StreamingRowsFormatter {
+
+    /**
+     * Write the DTO to the provided stream. The stream is not closed.
+     *
+     * @param header the DTO without its rows
+     * @param rowsField the name of the field holding the rows
+     * @param rows the rows, consumed exactly once
+     * @param nextPage the cursor of the next page, asked for once every row has been written
+     * @param out destination of the formatted data
+     * @throws IOException if the stream cannot be written to
+     */
+    void format(CwmsDTOBase header, String rowsField, Iterator<?> rows,
+                Supplier<String> nextPage, OutputStream out) throws IOException;
+}
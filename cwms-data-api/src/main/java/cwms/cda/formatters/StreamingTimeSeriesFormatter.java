@@ -0,0 +1,25 @@
+package cwms.cda.formatters;
+
+import cwms.cda.data.dto.TimeSeries;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+/**
+ * Implemented by formatters that can write a time series while its values are still being
+ * read from the database.  The values already held by the header are written first, followed
+ * by everything remaining in the iterator, so only a single row needs to be in memory at a time.
+ */
+public interface StreamingTimeSeriesFormatter {
+
+    /**
+     * Write the time series to the provided stream. The stream is not closed.
+     *
+     * @param header time series metadata and any values already retrieved
+     * @param values the remaining values, consumed exactly once
+     * @param out destination of the formatted data
+     * @throws IOException if the stream cannot be written to
+     */
+    void format(TimeSeries header, Iterator<TimeSeries.Record> values, OutputStream out)
+            throws IOException;
+}
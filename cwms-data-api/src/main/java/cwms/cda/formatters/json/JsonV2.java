@@ -25,31 +25,51 @@
 package cwms.cda.formatters.json;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import cwms.cda.data.dto.CwmsDTOBase;
+import cwms.cda.data.dto.TimeSeries;
 import cwms.cda.formatters.Formats;
 import cwms.cda.formatters.FormattingException;
 import cwms.cda.formatters.OutputFormatter;
+import cwms.cda.formatters.StreamingRowsFormatter;
+import cwms.cda.formatters.StreamingTimeSeriesFormatter;
+import cwms.cda.formatters.json.adapters.TimeSeriesValuesSerializer;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Formatter for CDA generated JSON.
  */
-public class JsonV2 implements OutputFormatter {
+public class JsonV2 implements OutputFormatter, StreamingTimeSeriesFormatter,
+        StreamingRowsFormatter {
+    private static final String VALUES = "values";
+    private static final String NEXT_PAGE = "next-page";
 
     private final ObjectMapper om;
+    private final ObjectWriter streamWriter;
+    private final ObjectWriter rowWriter;
 
     public JsonV2() {
         this.om = buildObjectMapper();
+        this.streamWriter = om.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // leave flushing to the servlet buffer instead of flushing after every row
+        this.rowWriter = streamWriter.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @NotNull
@@ -90,6 +110,80 @@ public class JsonV2 implements OutputFormatter {
         }
     }
 
+    @Override
+    public void format(CwmsDTOBase dto, OutputStream out) throws IOException {
+        streamWriter.writeValue(out, dto);
+    }
+
+    @Override
+    public void format(TimeSeries header, Iterator<TimeSeries.Record> values, OutputStream out)
+            throws IOException {
+        // The header is small, let jackson render it so the fields match the non-streaming
+        // output exactly, then write the values by hand as they come off the iterator.
+        ObjectNode node = om.valueToTree(header);
+        JsonGenerator gen = om.getFactory().createGenerator(out);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.writeStartObject();
+        boolean valuesWritten = false;
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            gen.writeFieldName(field.getKey());
+            if (VALUES.equals(field.getKey())) {
+                writeValues(gen, header, values);
+                valuesWritten = true;
+            } else {
+                gen.writeTree(field.getValue());
+            }
+        }
+        if (!valuesWritten) {
+            gen.writeFieldName(VALUES);
+            writeValues(gen, header, values);
+        }
+        gen.writeEndObject();
+        gen.close();
+    }
+
+    @Override
+    public void format(CwmsDTOBase header, String rowsField, Iterator<?> rows,
+                       Supplier<String> nextPage, OutputStream out) throws IOException {
+        ObjectNode node = om.valueToTree(header);
+        node.remove(rowsField);
+        node.remove(NEXT_PAGE);
+        JsonGenerator gen = om.getFactory().createGenerator(out);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.writeStartObject();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            gen.writeFieldName(field.getKey());
+            gen.writeTree(field.getValue());
+        }
+        gen.writeArrayFieldStart(rowsField);
+        while (rows.hasNext()) {
+            rowWriter.writeValue(gen, rows.next());
+        }
+        gen.writeEndArray();
+        String next = nextPage.get();
+        if (next != null) {
+            gen.writeStringField(NEXT_PAGE, next);
+        }
+        gen.writeEndObject();
+        gen.close();
+    }
+
+    private static void writeValues(JsonGenerator gen, TimeSeries header,
+                                    Iterator<TimeSeries.Record> values) throws IOException {
+        gen.writeStartArray();
+        for (TimeSeries.Record tsRecord : header.getValues()) {
+            TimeSeriesValuesSerializer.writeRecord(gen, tsRecord);
+        }
+        while (values.hasNext()) {
+            TimeSeriesValuesSerializer.writeRecord(gen, values.next());
+        }
+        gen.writeEndArray();
+    }
+
     @Override
     public <T extends CwmsDTOBase> T parseContent(String content, Class<T> type) {
         try {
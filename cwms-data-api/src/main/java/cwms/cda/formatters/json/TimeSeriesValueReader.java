@@ -0,0 +1,124 @@
+package cwms.cda.formatters.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads newline delimited time series values one chunk at a time.
+ * <p>
+ * Each value is either an array {@code [date-time, value, quality-code]}, the same layout as
+ * the values of a JSON time series, or an object with those fields. The date-time is in epoch
+ * milliseconds, a null value is stored as missing and the quality code defaults to 0.
+ */
+public final class TimeSeriesValueReader implements Closeable {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final JsonParser parser;
+
+    public TimeSeriesValueReader(InputStream in) throws IOException {
+        this.parser = FACTORY.createParser(in);
+    }
+
+    /**
+     * Fill the arrays from the start with the next values.
+     *
+     * @return the number of values read, less than the length of the arrays only once the
+     *     input is exhausted.
+     */
+    public int read(long[] times, double[] values, int[] qualities) throws IOException {
+        int count = 0;
+        while (count < times.length) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                break;
+            } else if (token == JsonToken.START_ARRAY) {
+                readArray(times, values, qualities, count);
+            } else if (token == JsonToken.START_OBJECT) {
+                readObject(times, values, qualities, count);
+            } else {
+                throw new JsonParseException(parser, "Expected a time series value but found "
+                        + token);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private void readArray(long[] times, double[] values, int[] qualities, int index)
+            throws IOException {
+        if (parser.nextToken() != JsonToken.VALUE_NUMBER_INT) {
+            throw new JsonParseException(parser, "Expected a date-time in epoch milliseconds");
+        }
+        times[index] = parser.getLongValue();
+        values[index] = readValue(parser.nextToken());
+        qualities[index] = 0;
+        JsonToken token = parser.nextToken();
+        if (token != JsonToken.END_ARRAY) {
+            qualities[index] = readQuality(token);
+            if (parser.nextToken() != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Expected at most three fields in a value");
+            }
+        }
+    }
+
+    private void readObject(long[] times, double[] values, int[] qualities, int index)
+            throws IOException {
+        boolean hasTime = false;
+        values[index] = Double.NaN;
+        qualities[index] = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "date-time":
+                    if (token != JsonToken.VALUE_NUMBER_INT) {
+                        throw new JsonParseException(parser,
+                                "Expected a date-time in epoch milliseconds");
+                    }
+                    times[index] = parser.getLongValue();
+                    hasTime = true;
+                    break;
+                case "value":
+                    values[index] = readValue(token);
+                    break;
+                case "quality-code":
+                    qualities[index] = readQuality(token);
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        if (!hasTime) {
+            throw new JsonParseException(parser, "A time series value requires a date-time");
+        }
+    }
+
+    private double readValue(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return Double.NaN;
+        } else if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        throw new JsonParseException(parser, "Expected a numeric value or null");
+    }
+
+    private int readQuality(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return 0;
+        } else if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        throw new JsonParseException(parser, "Expected an integer quality code");
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
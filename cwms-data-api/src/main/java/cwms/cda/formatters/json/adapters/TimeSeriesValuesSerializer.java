@@ -0,0 +1,56 @@
+package cwms.cda.formatters.json.adapters;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import cwms.cda.data.dto.TimeSeries;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes time series values as [date-time, value, quality-code] arrays directly from the
+ * value columns, without creating a Record per value.
+ */
+public class TimeSeriesValuesSerializer extends StdSerializer<List<TimeSeries.Record>> {
+
+    public TimeSeriesValuesSerializer() {
+        super(List.class, false);
+    }
+
+    @Override
+    public void serialize(List<TimeSeries.Record> values, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        gen.writeStartArray(values, values.size());
+        if (values instanceof TimeSeries.RecordList) {
+            TimeSeries.RecordList columns = (TimeSeries.RecordList) values;
+            for (int i = 0; i < columns.size(); i++) {
+                gen.writeStartArray();
+                gen.writeNumber(columns.getDateTimeMillis(i));
+                if (columns.isMissing(i)) {
+                    gen.writeNull();
+                } else {
+                    gen.writeNumber(columns.getDoubleValue(i));
+                }
+                gen.writeNumber(columns.getQualityCode(i));
+                gen.writeEndArray();
+            }
+        } else {
+            for (TimeSeries.Record tsRecord : values) {
+                writeRecord(gen, tsRecord);
+            }
+        }
+        gen.writeEndArray();
+    }
+
+    public static void writeRecord(JsonGenerator gen, TimeSeries.Record tsRecord) throws IOException {
+        gen.writeStartArray();
+        gen.writeNumber(tsRecord.getDateTime().getTime());
+        if (tsRecord.getValue() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(tsRecord.getValue());
+        }
+        gen.writeNumber(tsRecord.getQualityCode());
+        gen.writeEndArray();
+    }
+}
@@ -26,7 +26,9 @@ package cwms.cda.formatters.xml;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import cwms.cda.data.dto.TimeSeries;
+import cwms.cda.formatters.xml.adapters.TimeSeriesValuesXmlSerializer;
 
 import java.util.List;
 
@@ -34,5 +36,6 @@ import java.util.List;
 abstract class TimeSeriesXmlMixin {
     //XML serialization doesn't optimize the same as JSON and needs to list the element names
     @JsonFormat(shape=JsonFormat.Shape.OBJECT)
+    @JsonSerialize(using = TimeSeriesValuesXmlSerializer.class)
     abstract List<TimeSeries.Record> getValues();
 }
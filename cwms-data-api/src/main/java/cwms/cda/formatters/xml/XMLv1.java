@@ -2,6 +2,8 @@ package cwms.cda.formatters.xml;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
@@ -24,6 +26,14 @@ import java.util.logging.Logger;
 
 public class XMLv1 implements OutputFormatter {
     private static final Logger logger = Logger.getLogger(XMLv1.class.getName());
+    private static final XmlMapper MAPPER = buildObjectMapper();
+    private static final ObjectWriter WRITER = MAPPER.writer();
+    private static final ClassValue<ObjectReader> READERS = new ClassValue<ObjectReader>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return MAPPER.readerFor(type);
+        }
+    };
 
     public XMLv1() {
 
@@ -37,11 +47,10 @@ public class XMLv1 implements OutputFormatter {
     @Override
     public String format(CwmsDTOBase dto) {
         try {
-            XmlMapper xmlMapper = buildObjectMapper();
             if (dto instanceof Office) {
-                return xmlMapper.writeValueAsString(new XMLv1Office(Collections.singletonList((Office)dto)));
+                return WRITER.writeValueAsString(new XMLv1Office(Collections.singletonList((Office)dto)));
             }
-            return xmlMapper.writeValueAsString(dto);
+            return WRITER.writeValueAsString(dto);
         } catch (IOException ex) {
             String msg = dto != null ?
                     "Error rendering '" + dto + "' to XML"
@@ -56,11 +65,10 @@ public class XMLv1 implements OutputFormatter {
     @SuppressWarnings("unchecked") // we're ALWAYS checking before conversion in this function
     public String format(List<? extends CwmsDTOBase> dtoList) {
         try {
-            XmlMapper xmlMapper = buildObjectMapper();
             if (!dtoList.isEmpty() && dtoList.get(0) instanceof Office) {
-                return xmlMapper.writeValueAsString(new XMLv1Office((List<Office>) dtoList));
+                return WRITER.writeValueAsString(new XMLv1Office((List<Office>) dtoList));
             }
-            return xmlMapper.writeValueAsString(dtoList);
+            return WRITER.writeValueAsString(dtoList);
         } catch (Exception err) {
             logger.log(Level.WARNING, "Error doing XML format of office list", err);
             throw new InternalServerErrorResponse("Invalid Parameters");
@@ -70,8 +78,7 @@ public class XMLv1 implements OutputFormatter {
     @Override
     public <T extends CwmsDTOBase> T parseContent(String content, Class<T> type) {
         try {
-            XmlMapper retval = buildObjectMapper();
-            return retval.readValue(content, type);
+            return READERS.get(type).readValue(content);
         } catch (IOException e) {
             throw new FormattingException("Could not deserialize:" + content, e);
         }
@@ -80,8 +87,7 @@ public class XMLv1 implements OutputFormatter {
     @Override
     public <T extends CwmsDTOBase> T parseContent(InputStream content, Class<T> type) {
         try {
-            XmlMapper retval = buildObjectMapper();
-            return retval.readValue(content, type);
+            return READERS.get(type).readValue(content);
         } catch (IOException e) {
             throw new FormattingException("Could not deserialize:" + content, e);
         }
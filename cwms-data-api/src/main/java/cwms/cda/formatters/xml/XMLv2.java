@@ -1,28 +1,63 @@
 package cwms.cda.formatters.xml;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import cwms.cda.data.dto.CwmsDTOBase;
 import cwms.cda.data.dto.TimeSeries;
 import cwms.cda.formatters.Formats;
 import cwms.cda.formatters.FormattingException;
 import cwms.cda.formatters.OutputFormatter;
+import cwms.cda.formatters.StreamingTimeSeriesFormatter;
+import cwms.cda.formatters.xml.adapters.TimeSeriesValuesXmlSerializer;
 import io.javalin.http.InternalServerErrorResponse;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.xml.namespace.QName;
 
-public class XMLv2 implements OutputFormatter {
+public class XMLv2 implements OutputFormatter, StreamingTimeSeriesFormatter {
     private static final Logger logger = Logger.getLogger(XMLv2.class.getName());
+    private static final String TIMESERIES = "timeseries";
+    private static final String VALUES = "values";
+
+    /**
+     * Configuring a mapper scans for modules and every new mapper starts with empty serializer
+     * caches, so a single mapper is shared. It is not reconfigured after this point.
+     */
+    private static final XmlMapper MAPPER = buildXmlMapper();
+    private static final ObjectWriter WRITER = MAPPER.writer();
+    private static final ObjectWriter STREAM_WRITER =
+            WRITER.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private static final ClassValue<ObjectWriter> WRITERS = new ClassValue<ObjectWriter>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return WRITER.forType(type);
+        }
+    };
+    private static final ClassValue<ObjectReader> READERS = new ClassValue<ObjectReader>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return MAPPER.readerFor(type);
+        }
+    };
 
     public XMLv2() {
     }
@@ -35,7 +70,8 @@ public class XMLv2 implements OutputFormatter {
     @Override
     public String format(CwmsDTOBase dto) {
         try {
-            return buildXmlMapper().writeValueAsString(dto);
+            return dto == null ? WRITER.writeValueAsString(null)
+                    : WRITERS.get(dto.getClass()).writeValueAsString(dto);
         } catch (JsonProcessingException ex) {
             String msg = dto != null ?
                     "Error rendering '" + dto + "' to XML"
@@ -49,7 +85,7 @@ public class XMLv2 implements OutputFormatter {
     @Override
     public String format(List<? extends CwmsDTOBase> dtoList) {
         try {
-            return buildXmlMapper().writeValueAsString(dtoList);
+            return WRITER.writeValueAsString(dtoList);
         } catch (JsonProcessingException ex) {
             String msg = dtoList != null ?
                     "Error rendering '" + dtoList + "' to XML"
@@ -60,11 +96,81 @@ public class XMLv2 implements OutputFormatter {
         }
     }
 
+    @Override
+    public void format(CwmsDTOBase dto, OutputStream out) throws IOException {
+        STREAM_WRITER.writeValue(out, dto);
+    }
+
+    @Override
+    public void format(TimeSeries header, Iterator<TimeSeries.Record> values, OutputStream out)
+            throws IOException {
+        ObjectNode node = MAPPER.valueToTree(header);
+        ToXmlGenerator gen = MAPPER.getFactory().createGenerator(out);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.setNextName(new QName(TIMESERIES));
+        gen.writeStartObject();
+        boolean valuesWritten = false;
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (VALUES.equals(field.getKey())) {
+                writeValues(gen, header, values);
+                valuesWritten = true;
+            } else {
+                writeNode(gen, field.getKey(), field.getValue());
+            }
+        }
+        if (!valuesWritten) {
+            writeValues(gen, header, values);
+        }
+        gen.writeEndObject();
+        gen.close();
+    }
+
+    /**
+     * Tree nodes lose the wrapper element jackson adds for collections, so lists are
+     * re-wrapped here to match what the bean serializer produces.
+     */
+    private static void writeNode(ToXmlGenerator gen, String name, JsonNode value) throws IOException {
+        gen.writeFieldName(name);
+        if (value.isArray()) {
+            gen.writeStartObject();
+            for (JsonNode element : value) {
+                writeNode(gen, name, element);
+            }
+            gen.writeEndObject();
+        } else if (value.isObject()) {
+            gen.writeStartObject();
+            Iterator<Map.Entry<String, JsonNode>> fields = value.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                writeNode(gen, field.getKey(), field.getValue());
+            }
+            gen.writeEndObject();
+        } else {
+            gen.writeTree(value);
+        }
+    }
+
+    private static void writeValues(ToXmlGenerator gen, TimeSeries header,
+                                    Iterator<TimeSeries.Record> values) throws IOException {
+        gen.writeFieldName(VALUES);
+        gen.writeStartObject();
+        for (TimeSeries.Record tsRecord : header.getValues()) {
+            gen.writeFieldName(VALUES);
+            TimeSeriesValuesXmlSerializer.writeRecord(gen, tsRecord);
+        }
+        while (values.hasNext()) {
+            gen.writeFieldName(VALUES);
+            TimeSeriesValuesXmlSerializer.writeRecord(gen, values.next());
+        }
+        gen.writeEndObject();
+    }
+
     @Override
     public <T extends CwmsDTOBase> T parseContent(String content, Class<T> type) {
         try {
-            XmlMapper retval = buildXmlMapper();
-            return retval.readValue(content, type);
+            return READERS.get(type).readValue(content);
         } catch (IOException e) {
             throw new FormattingException("Could not deserialize:" + content, e);
         }
@@ -73,14 +179,17 @@ public class XMLv2 implements OutputFormatter {
     @Override
     public <T extends CwmsDTOBase> T parseContent(InputStream content, Class<T> type) {
         try {
-            XmlMapper retval = buildXmlMapper();
-            return retval.readValue(content, type);
+            return READERS.get(type).readValue(content);
         } catch (IOException e) {
             throw new FormattingException("Could not deserialize:" + content, e);
         }
     }
 
-    private static @NotNull XmlMapper buildXmlMapper() {
+    /**
+     * Build a new mapper with the XMLv2 configuration. The formatter itself uses a shared
+     * instance; this is only needed by code that must change the configuration.
+     */
+    public static @NotNull XmlMapper buildXmlMapper() {
         XmlMapper retval = new XmlMapper();
         retval.findAndRegisterModules();
         // Without these two disables an Instant gets written as 3333333.335000000
@@ -0,0 +1,56 @@
+package cwms.cda.formatters.xml.adapters;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import cwms.cda.data.dto.TimeSeries;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes time series values as date-time, value and quality-code elements directly from the
+ * value columns, without creating a Record per value.  The wrapping element is written by the
+ * property writer, the same as for any other list.
+ */
+public class TimeSeriesValuesXmlSerializer extends StdSerializer<List<TimeSeries.Record>> {
+    public static final String DATE_TIME = "date-time";
+    public static final String VALUE = "value";
+    public static final String QUALITY_CODE = "quality-code";
+
+    public TimeSeriesValuesXmlSerializer() {
+        super(List.class, false);
+    }
+
+    @Override
+    public void serialize(List<TimeSeries.Record> values, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        gen.writeStartArray(values, values.size());
+        if (values instanceof TimeSeries.RecordList) {
+            TimeSeries.RecordList columns = (TimeSeries.RecordList) values;
+            for (int i = 0; i < columns.size(); i++) {
+                gen.writeStartObject();
+                gen.writeNumberField(DATE_TIME, columns.getDateTimeMillis(i));
+                if (!columns.isMissing(i)) {
+                    gen.writeNumberField(VALUE, columns.getDoubleValue(i));
+                }
+                gen.writeNumberField(QUALITY_CODE, columns.getQualityCode(i));
+                gen.writeEndObject();
+            }
+        } else {
+            for (TimeSeries.Record tsRecord : values) {
+                writeRecord(gen, tsRecord);
+            }
+        }
+        gen.writeEndArray();
+    }
+
+    public static void writeRecord(JsonGenerator gen, TimeSeries.Record tsRecord) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField(DATE_TIME, tsRecord.getDateTime().getTime());
+        if (tsRecord.getValue() != null) {
+            gen.writeNumberField(VALUE, tsRecord.getValue());
+        }
+        gen.writeNumberField(QUALITY_CODE, tsRecord.getQualityCode());
+        gen.writeEndObject();
+    }
+}
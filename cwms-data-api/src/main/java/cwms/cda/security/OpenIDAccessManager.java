@@ -27,12 +27,17 @@ import java.security.KeyFactory;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.RSAPublicKeySpec;
-import java.time.ZonedDateTime;
 import java.util.Base64;
 import java.util.Base64.Decoder;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.servlet.http.HttpServletResponse;
 import org.jetbrains.annotations.NotNull;
 
@@ -67,13 +72,21 @@ public class OpenIDAccessManager extends CdaAccessManager {
     }
 
     private DataApiPrincipal getUserFromToken(Context ctx) throws CwmsAuthException {
+        String jwt = getToken(ctx);
+        DataApiPrincipal p = VerifiedTokenCache.get(jwt);
+        if (p != null) {
+            return p;
+        }
         try {
-            Jws<Claims> token = jwtParser.parseClaimsJws(getToken(ctx));
+            Jws<Claims> token = jwtParser.parseClaimsJws(jwt);
             String username = token.getBody().get("preferred_username",String.class);
             AuthDao dao = AuthDao.getInstance(JooqDao.getDslContext(ctx),ctx.attribute(ApiServlet.OFFICE_ID));
             String edipiStr = username.substring(username.lastIndexOf(".") + 1);
             long edipi = Long.parseLong(edipiStr);
-            return dao.getPrincipalFromEdipi(edipi);
+            p = dao.getPrincipalFromEdipi(edipi);
+            Date expiration = token.getBody().getExpiration();
+            VerifiedTokenCache.put(jwt, p, expiration == null ? null : expiration.toInstant());
+            return p;
         } catch (NumberFormatException | JwtException ex) {
             throw new CwmsAuthException("JWT not valid",ex,HttpServletResponse.SC_UNAUTHORIZED);
         }
@@ -116,43 +129,65 @@ public class OpenIDAccessManager extends CdaAccessManager {
     }
 
 
+    /**
+     * Holds the realm's public keys by key id. The keys are fetched when the resolver is
+     * created and then refreshed in the background; a refresh replaces the whole map at once
+     * and keeps the previous keys when it fails, so resolving a key never waits on the realm.
+     */
     private static class UrlResolver extends SigningKeyResolverAdapter {
+        /**
+         * Minimum time between refreshes triggered by tokens signed with an unknown key.
+         */
+        private static final long UNKNOWN_KEY_REFRESH_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
         private final URL jwksUrl;
-        private ZonedDateTime lastCheck;
-        private final Map<String,Key> realmPublicKeys = new HashMap<>();
-        private final int realmPublicKeyTimeoutMinutes;
+        private volatile Map<String,Key> realmPublicKeys = Collections.emptyMap();
+        private final AtomicLong lastUnknownKeyRefresh = new AtomicLong();
+        private final ScheduledExecutorService refresher =
+                Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, UrlResolver.class.getSimpleName());
+                    thread.setDaemon(true);
+                    return thread;
+                });
         private KeyFactory keyFactory = null;
 
         public UrlResolver(URL jwksUrl, int keyTimeoutMinutes) {
             this.jwksUrl = jwksUrl;
-            this.realmPublicKeyTimeoutMinutes = keyTimeoutMinutes;
             try {
                 keyFactory = KeyFactory.getInstance("RSA");
             } catch (NoSuchAlgorithmException ex) {
                 log.atSevere().withCause(ex).log("Unable to initialize key factory.");
             }
+            updateKeys();
+            long period = Math.max(1, keyTimeoutMinutes);
+            refresher.scheduleWithFixedDelay(this::updateKeys, period, period, TimeUnit.MINUTES);
         }
 
         /**
          * TODO: This needs more, some configurations may be more complex (like the
          * authelia test environment) than others.
          */
-        private void updateKey() {
-            if (realmPublicKeys.isEmpty() || ZonedDateTime.now().isAfter(lastCheck.plusMinutes(realmPublicKeyTimeoutMinutes))) {
-                log.atInfo().log("Checking for new key at %s",jwksUrl);
-                try {
-                    realmPublicKeys.clear();
-                    updateSigningKey();
-                } catch (IOException ex) {
-                    log.atSevere().withCause(ex).log("Unable to update key. Will continue to use previous key.");
-                } catch (InvalidKeySpecException ex) {
-                    log.atSevere().withCause(ex).log("New Public Key was not valid. Will continue to use previous key.");
+        private void updateKeys() {
+            log.atInfo().log("Checking for new key at %s",jwksUrl);
+            try {
+                Map<String,Key> keys = retrieveSigningKeys();
+                if (keys.isEmpty()) {
+                    log.atSevere().log("No keys retrieved. Will continue to use previous keys.");
+                } else {
+                    realmPublicKeys = Collections.unmodifiableMap(keys);
                 }
-                lastCheck = ZonedDateTime.now();
+            } catch (IOException ex) {
+                log.atSevere().withCause(ex).log("Unable to update key. Will continue to use previous key.");
+            } catch (InvalidKeySpecException ex) {
+                log.atSevere().withCause(ex).log("New Public Key was not valid. Will continue to use previous key.");
+            } catch (RuntimeException ex) {
+                // an exception would cancel the scheduled refresh
+                log.atSevere().withCause(ex).log("Unable to update key. Will continue to use previous key.");
             }
         }
 
-        private void updateSigningKey() throws IOException, InvalidKeySpecException {
+        private Map<String,Key> retrieveSigningKeys() throws IOException, InvalidKeySpecException {
+            Map<String,Key> retVal = new HashMap<>();
             HttpURLConnection http = null;
             try {
                 http = (HttpURLConnection)jwksUrl.openConnection();
@@ -171,7 +206,7 @@ public class OpenIDAccessManager extends CdaAccessManager {
                         BigInteger n = new BigInteger(1,b64.decode(nStr));
                         BigInteger e = new BigInteger(1,b64.decode(eStr));
                         Key pubKey = keyFactory.generatePublic(new RSAPublicKeySpec(n, e));
-                        realmPublicKeys.put(kid,pubKey);
+                        retVal.put(kid,pubKey);
                     }
                 } else {
                     log.atSevere().log("Unable to retrieve actual keys. Response code %d",status);
@@ -181,6 +216,7 @@ public class OpenIDAccessManager extends CdaAccessManager {
                     http.disconnect();
                 }
             }
+            return retVal;
         }
 
         @Override
@@ -189,10 +225,16 @@ public class OpenIDAccessManager extends CdaAccessManager {
                 log.atWarning().log("Request with invalid algorithm '%s'",header.getAlgorithm());
                 return null; // we only deal with RSA keys right now.
             }
-            updateKey();
             Key key = realmPublicKeys.get(header.getKeyId());
             if (key == null) {
                 log.atSevere().log("Key not found for id '%s'",header.getKeyId());
+                // the realm may have rotated its keys, check again without holding up this request
+                long now = System.currentTimeMillis();
+                long last = lastUnknownKeyRefresh.get();
+                if (now - last >= UNKNOWN_KEY_REFRESH_MILLIS
+                        && lastUnknownKeyRefresh.compareAndSet(last, now)) {
+                    refresher.execute(this::updateKeys);
+                }
             }
             return key;
         }
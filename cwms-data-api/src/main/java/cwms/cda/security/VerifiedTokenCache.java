@@ -0,0 +1,97 @@
+package cwms.cda.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import cwms.cda.data.dao.DataChangeBus;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Principals of bearer tokens that have already been verified, keyed by a hash of the token.
+ *
+ * <p>A client sends the same token until it expires, so a hit skips the signature check and the
+ * role lookup. An entry is never returned after the token's own expiration, the tokens of a user
+ * are dropped when {@link cwms.cda.data.dao.AuthDao} publishes a change of their keys or roles,
+ * and the TTL bounds how long a role change made by another instance can go unnoticed. A size
+ * of 0 disables the cache.
+ */
+public final class VerifiedTokenCache {
+    public static final String PROP_BASE = "cwms.dataapi.access.openid.tokenCache";
+    public static final String SIZE_PROPERTY = PROP_BASE + ".size";
+    public static final String TTL_PROPERTY = PROP_BASE + ".ttlSeconds";
+
+    private static final Cache<String, Entry> cache = CacheBuilder.newBuilder()
+            .maximumSize(Integer.getInteger(SIZE_PROPERTY, 1000))
+            .expireAfterWrite(Integer.getInteger(TTL_PROPERTY, 60), TimeUnit.SECONDS)
+            .build();
+
+    static {
+        DataChangeBus.subscribe(DataChangeBus.Entity.USER, (officeId, userName) -> {
+            if (userName == null) {
+                invalidateAll();
+            } else {
+                invalidateUser(userName);
+            }
+        });
+    }
+
+    private VerifiedTokenCache() {
+    }
+
+    /**
+     * @return the principal of the token, or null if it has not been verified recently or has
+     *     expired since.
+     */
+    @Nullable
+    public static DataApiPrincipal get(String token) {
+        String hash = hash(token);
+        Entry entry = cache.getIfPresent(hash);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiration != null && !Instant.now().isBefore(entry.expiration)) {
+            cache.invalidate(hash);
+            return null;
+        }
+        return entry.principal;
+    }
+
+    /**
+     * Remember the principal of a verified token.
+     *
+     * @param expiration the exp claim of the token, or null if it has none.
+     */
+    public static void put(String token, DataApiPrincipal principal,
+                           @Nullable Instant expiration) {
+        cache.put(hash(token), new Entry(principal, expiration));
+    }
+
+    /**
+     * Drop the tokens of the given user so the next request verifies them again.
+     */
+    public static void invalidateUser(String userName) {
+        cache.asMap().values().removeIf(e -> e.principal.getName().equalsIgnoreCase(userName));
+    }
+
+    public static void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static String hash(String token) {
+        return Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+    }
+
+    private static final class Entry {
+        private final DataApiPrincipal principal;
+        @Nullable
+        private final Instant expiration;
+
+        private Entry(DataApiPrincipal principal, @Nullable Instant expiration) {
+            this.principal = principal;
+            this.expiration = expiration;
+        }
+    }
+}
@@ -3,13 +3,20 @@ package cwms.cda.api;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.flogger.FluentLogger;
+import com.google.common.io.CharStreams;
+import cwms.cda.data.dao.ClobDao;
 import cwms.cda.data.dto.Clob;
 import cwms.cda.formatters.Formats;
 import cwms.cda.formatters.FormattingException;
@@ -17,13 +24,19 @@ import fixtures.TestServletInputStream;
 import io.javalin.core.util.Header;
 import io.javalin.http.Context;
 import io.javalin.http.HandlerType;
+import io.javalin.http.HttpResponseException;
 import io.javalin.http.util.ContextUtil;
 import io.javalin.plugin.json.JavalinJackson;
 import io.javalin.plugin.json.JsonMapperKt;
+import java.io.ByteArrayInputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import org.jooq.DSLContext;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 public class ClobControllerTest extends ControllerTest {
     public static final FluentLogger logger = FluentLogger.forEnclosingClass();
@@ -71,5 +84,72 @@ public class ClobControllerTest extends ControllerTest {
         assertEquals("MYVALUE", clob.getValue());
     }
 
+    @Test
+    void test_plain_text_upload_streams_body_and_meters_bytes() throws Exception {
+        String value = "d\u00e9bit \u2192 cr\u00e9dit";
+        byte[] body = value.getBytes(StandardCharsets.UTF_8);
+        ClobDao dao = mock(ClobDao.class);
+        String[] received = new String[1];
+        when(dao.create(any(Clob.class), any(Reader.class), anyBoolean())).thenAnswer(inv -> {
+            received[0] = CharStreams.toString(inv.<Reader>getArgument(1));
+            return (long) received[0].length();
+        });
+        MetricRegistry metrics = new MetricRegistry();
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        Context context = uploadContext(body, -1, response);
+
+        controller(metrics, dao).create(context);
+
+        ArgumentCaptor<Clob> clob = ArgumentCaptor.forClass(Clob.class);
+        verify(dao).create(clob.capture(), any(Reader.class), eq(true));
+        assertEquals("SPK", clob.getValue().getOfficeId());
+        assertEquals("TEST_CLOB", clob.getValue().getId());
+        assertEquals(value, received[0]);
+        verify(response).setStatus(HttpServletResponse.SC_CREATED);
+        // the meter counts what came over the wire, not the characters it decoded to
+        String meter = MetricRegistry.name(ClobController.class.getName(), "upload", "bytes");
+        assertEquals(body.length, metrics.getMeters().get(meter).getCount());
+    }
+
+    @Test
+    void test_oversized_upload_answers_413() throws Exception {
+        ClobDao dao = mock(ClobDao.class);
+        Context context = uploadContext("too large".getBytes(StandardCharsets.UTF_8),
+                Long.MAX_VALUE, mock(HttpServletResponse.class));
+
+        HttpResponseException ex = assertThrows(HttpResponseException.class,
+                () -> controller(new MetricRegistry(), dao).create(context));
+
+        assertEquals(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, ex.getStatus());
+        verify(dao, never()).create(any(Clob.class), any(Reader.class), anyBoolean());
+    }
+
+    private static ClobController controller(MetricRegistry metrics, ClobDao dao) {
+        return new ClobController(metrics) {
+            @Override
+            protected DSLContext getDslContext(Context ctx) {
+                return mock(DSLContext.class);
+            }
+
+            @Override
+            protected ClobDao getDao(DSLContext dsl) {
+                return dao;
+            }
+        };
+    }
 
+    private static Context uploadContext(byte[] body, long contentLength,
+                                         HttpServletResponse response) throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HashMap<String, Object> attributes = new HashMap<>();
+        attributes.put(ContextUtil.maxRequestSizeKey, Integer.MAX_VALUE);
+        when(request.getContentType()).thenReturn(ClobController.TEXT_PLAIN);
+        when(request.getContentLengthLong()).thenReturn(contentLength);
+        when(request.getQueryString()).thenReturn(Controllers.OFFICE + "=SPK&"
+                + Controllers.CLOB_ID + "=TEST_CLOB");
+        when(request.getInputStream())
+                .thenReturn(new TestServletInputStream(new ByteArrayInputStream(body)));
+        return ContextUtil.init(request, response, "*", new HashMap<>(), HandlerType.POST,
+                attributes);
+    }
 }
@@ -0,0 +1,95 @@
+package cwms.cda.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cwms.cda.ApiServlet;
+import fixtures.TestHttpServletResponse;
+import fixtures.TestServletOutputStream;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.javalin.http.util.ContextUtil;
+import io.javalin.plugin.json.JavalinJackson;
+import io.javalin.plugin.json.JsonMapperKt;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+
+class ClobValuesControllerTest {
+    private static final String PATH = "/cwms-data/clobs/values";
+
+    private static Context context(String query, HttpServletResponse response,
+                                   DataSource dataSource) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getQueryString()).thenReturn(query);
+        when(request.getRequestURI()).thenReturn(PATH);
+        when(request.getRequestURL()).thenReturn(new StringBuffer("http://localhost" + PATH));
+        when(request.getContextPath()).thenReturn("/cwms-data");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getAttribute(ApiServlet.DATA_SOURCE)).thenReturn(dataSource);
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(JsonMapperKt.JSON_MAPPER_KEY, new JavalinJackson());
+        return ContextUtil.init(request, response, "*", new HashMap<>(), HandlerType.GET,
+                attributes);
+    }
+
+    @Test
+    void test_too_many_ids_rejected() {
+        StringBuilder query = new StringBuilder("office=SWT");
+        for (int i = 0; i < 501; i++) {
+            query.append('&').append(Controllers.CLOB_ID).append("=TEXT_").append(i);
+        }
+        HttpServletResponse response = new TestHttpServletResponse();
+        DataSource dataSource = mock(DataSource.class);
+
+        new ClobValuesController(new MetricRegistry())
+                .handle(context(query.toString(), response, dataSource));
+
+        assertEquals(HttpServletResponse.SC_BAD_REQUEST, response.getStatus());
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    void test_values_streamed_and_missing_ids_listed() throws Exception {
+        java.sql.Clob clob = mock(java.sql.Clob.class);
+        when(clob.getCharacterStream()).thenReturn(new StringReader("a \"long\"\ntext value"));
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getString("ID")).thenReturn("TEXT_1", "TEXT_2");
+        when(resultSet.getClob("VALUE")).thenReturn(clob, null);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        HttpServletResponse response = new TestHttpServletResponse();
+
+        new ClobValuesController(new MetricRegistry()).handle(context(
+                "office=SWT&clob-id=TEXT_1&clob-id=TEXT_2&clob-id=TEXT_3&clob-id=TEXT_1",
+                response, dataSource));
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        String body = ((TestServletOutputStream) response.getOutputStream()).getOutput();
+        JsonNode json = new ObjectMapper().readTree(body);
+        assertEquals("a \"long\"\ntext value",
+                json.get(ClobValuesController.VALUES).get("TEXT_1").asText());
+        assertTrue(json.get(ClobValuesController.VALUES).get("TEXT_2").isNull());
+        assertEquals(1, json.get(ClobValuesController.NOT_FOUND).size());
+        assertEquals("TEXT_3", json.get(ClobValuesController.NOT_FOUND).get(0).asText());
+    }
+}
@@ -8,7 +8,12 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.codahale.metrics.MetricRegistry;
@@ -20,10 +25,25 @@ import cwms.cda.formatters.Formats;
 import io.javalin.core.util.Header;
 import io.javalin.core.validation.JavalinValidation;
 import io.javalin.http.Context;
+import io.javalin.http.HttpResponseException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Clob;
+import java.sql.SQLException;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import org.jooq.exception.DataAccessException;
 import org.junit.jupiter.api.Test;
 
 class ControllersTest {
@@ -135,6 +155,166 @@ class ControllersTest {
     }
 
 
+    @Test
+    void testWriteClob() throws Exception {
+        String text = "<ratings>\u00b0F</ratings>";
+        Clob clob = mock(Clob.class);
+        when(clob.getCharacterStream()).thenReturn(new StringReader(text));
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        Context ctx = buildStreamingContext(null, body);
+        long count = Controllers.writeClob(ctx, clob);
+
+        byte[] expected = text.getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected.length, count);
+        assertEquals(text, new String(body.toByteArray(), StandardCharsets.UTF_8));
+
+        assertEquals(0, Controllers.writeClob(ctx, null));
+    }
+
+    @Test
+    void testWriteClobGzip() throws Exception {
+        String text = "<ratings>\u00b0F</ratings>";
+        Clob clob = mock(Clob.class);
+        when(clob.getCharacterStream()).thenReturn(new StringReader(text));
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        Context ctx = buildStreamingContext("gzip, deflate", body);
+        long count = Controllers.writeClob(ctx, clob);
+
+        assertEquals(text.getBytes(StandardCharsets.UTF_8).length, count);
+        verify(ctx.res).setHeader(Header.CONTENT_ENCODING, "gzip");
+        ByteArrayOutputStream unzipped = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            byte[] buffer = new byte[256];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                unzipped.write(buffer, 0, read);
+            }
+        }
+        assertEquals(text, new String(unzipped.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testResponseBodyGzipEncodedOnce() throws Exception {
+        String text = "{\"values\":[[1,2.5,0]]}";
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        Context ctx = buildStreamingContext("gzip, deflate", body);
+        Controllers.ResponseBody out = Controllers.responseBody(ctx);
+        out.stream().write(text.getBytes(StandardCharsets.UTF_8));
+        long count = out.finish();
+
+        assertEquals(text.getBytes(StandardCharsets.UTF_8).length, count);
+        verify(ctx.res, times(1)).setHeader(Header.CONTENT_ENCODING, "gzip");
+        // nothing is left in the result for Javalin to compress again
+        assertNull(ctx.resultStream());
+        ByteArrayOutputStream unzipped = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            byte[] buffer = new byte[256];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                unzipped.write(buffer, 0, read);
+            }
+        }
+        // a single decode gives the body back
+        assertEquals(text, new String(unzipped.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testResponseBodyPlain() throws Exception {
+        String text = "{\"values\":[]}";
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        Context ctx = buildStreamingContext(null, body);
+        Controllers.ResponseBody out = Controllers.responseBody(ctx);
+        out.stream().write(text.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(text.length(), out.finish());
+        verify(ctx.res, never()).setHeader(eq(Header.CONTENT_ENCODING), anyString());
+        assertEquals(text, new String(body.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testIsDtoContentType() {
+        assertTrue(Controllers.isDtoContentType(null));
+        assertTrue(Controllers.isDtoContentType(Formats.JSONV2));
+        assertTrue(Controllers.isDtoContentType(Formats.XML + "; charset=utf-8"));
+        assertFalse(Controllers.isDtoContentType("application/octet-stream"));
+        assertFalse(Controllers.isDtoContentType(Formats.PLAIN));
+    }
+
+    @Test
+    void testLimitedBody() throws Exception {
+        byte[] body = new byte[100];
+        Context ctx = buildUploadContext(body, -1);
+        try (InputStream in = Controllers.limitedBody(ctx, 100)) {
+            assertEquals(100, in.read(new byte[200]));
+            assertEquals(-1, in.read());
+        }
+
+        Context tooLarge = buildUploadContext(body, -1);
+        try (InputStream in = Controllers.limitedBody(tooLarge, 99)) {
+            HttpResponseException ex = assertThrows(HttpResponseException.class,
+                    () -> in.read(new byte[200]));
+            assertEquals(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, ex.getStatus());
+        }
+
+        Context declared = buildUploadContext(body, body.length);
+        assertThrows(HttpResponseException.class, () -> Controllers.limitedBody(declared, 99));
+    }
+
+    private Context buildUploadContext(byte[] body, long contentLength) throws IOException {
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+        ByteArrayInputStream input = new ByteArrayInputStream(body);
+        when(request.getContentLengthLong()).thenReturn(contentLength);
+        when(request.getInputStream()).thenReturn(new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return input.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+            }
+
+            @Override
+            public int read() {
+                return input.read();
+            }
+        });
+        return new Context(request, response, new LinkedHashMap<>());
+    }
+
+    private Context buildStreamingContext(String acceptEncoding, ByteArrayOutputStream body)
+            throws IOException {
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+        when(request.getHeader(Header.ACCEPT_ENCODING)).thenReturn(acceptEncoding);
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
+        return new Context(request, response, new LinkedHashMap<>());
+    }
+
     private Context buildContext(String nameToUse, int expected) {
         // build mock request and response
         final HttpServletRequest request = mock(HttpServletRequest.class);
@@ -186,6 +366,17 @@ class ControllersTest {
         return ctx;
     }
 
+    @Test
+    void testWrappedResponse() {
+        HttpResponseException tooLarge = new HttpResponseException(
+                HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "too large");
+        DataAccessException wrapped = new DataAccessException("SQL [begin ... end;]",
+                new SQLException("IO Error", new IOException(tooLarge)));
+        assertEquals(tooLarge, Controllers.wrappedResponse(wrapped));
+        assertNull(Controllers.wrappedResponse(new DataAccessException("SQL [begin ... end;]",
+                new SQLException("ORA-20001"))));
+    }
+
     @Test
     void testDeprecatedQueryParams() {
         String nameToUse = "pageSize";
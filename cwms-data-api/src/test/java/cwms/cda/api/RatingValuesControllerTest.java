@@ -0,0 +1,45 @@
+package cwms.cda.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import hec.data.cwmsRating.RatingSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RatingValuesControllerTest {
+
+    @Test
+    void test_rates_all_values_in_one_call() throws Exception {
+        RatingSet ratingSet = mock(RatingSet.class);
+        when(ratingSet.rate(any(double[].class))).thenAnswer(inv -> {
+            double[] in = inv.getArgument(0);
+            return Arrays.stream(in).map(v -> v * 2).toArray();
+        });
+
+        List<Double> stage = Arrays.asList(1.0, null, 3.0, Double.NaN);
+        List<Double> rated = RatingValuesController.rate(ratingSet, null,
+                Collections.singletonList(stage));
+
+        assertEquals(Arrays.asList(2.0, null, 6.0, null), rated);
+        verify(ratingSet, times(1)).rate(any(double[].class));
+    }
+
+    @Test
+    void test_undefined_result_is_null() throws Exception {
+        RatingSet ratingSet = mock(RatingSet.class);
+        when(ratingSet.rate(any(long[].class), any(double[].class)))
+                .thenReturn(new double[]{RatingValuesController.UNDEFINED_DOUBLE, 5.0});
+
+        List<Double> rated = RatingValuesController.rate(ratingSet, new long[]{1000L, 2000L},
+                Collections.singletonList(Arrays.asList(100.0, 2.0)));
+
+        assertEquals(Arrays.asList(null, 5.0), rated);
+    }
+}
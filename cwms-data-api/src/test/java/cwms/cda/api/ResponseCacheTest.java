@@ -0,0 +1,49 @@
+package cwms.cda.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import fixtures.TestHttpServletResponse;
+import io.javalin.core.util.Header;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.javalin.http.util.ContextUtil;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import javax.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+
+class ResponseCacheTest {
+
+    private static Context context(String uri, String query, String accept) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getRequestURI()).thenReturn(uri);
+        when(request.getQueryString()).thenReturn(query);
+        when(request.getHeader(Header.ACCEPT)).thenReturn(accept);
+        when(request.getMethod()).thenReturn("GET");
+        return ContextUtil.init(request, new TestHttpServletResponse(), "*", new HashMap<>(),
+                HandlerType.GET, new HashMap<>());
+    }
+
+    @Test
+    void test_key_ignores_query_order() {
+        String key = ResponseCache.key("/units/",
+                context("/cwms-data/units", "format=json&office=SWT", "application/json"));
+        assertEquals(key, ResponseCache.key("/units/",
+                context("/cwms-data/units", "office=SWT&format=json", "application/json")));
+        assertNotEquals(key, ResponseCache.key("/units/",
+                context("/cwms-data/units", "office=SWT&format=json", "application/xml")));
+        assertNotEquals(key, ResponseCache.key("/units/",
+                context("/cwms-data/units", "office=SWL&format=json", "application/json")));
+    }
+
+    @Test
+    void test_etag_follows_body() {
+        byte[] body = "{\"units\":[]}".getBytes(StandardCharsets.UTF_8);
+        assertEquals(ResponseCache.etag(body), ResponseCache.etag(body.clone()));
+        assertNotEquals(ResponseCache.etag(body),
+                ResponseCache.etag("{\"units\":[1]}".getBytes(StandardCharsets.UTF_8)));
+    }
+}
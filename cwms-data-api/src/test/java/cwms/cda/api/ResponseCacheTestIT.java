@@ -0,0 +1,184 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Hydrologic Engineering Center
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package cwms.cda.api;
+
+import static cwms.cda.security.KeyAccessManager.AUTH_HEADER;
+import static io.restassured.RestAssured.given;
+import static io.restassured.RestAssured.withArgs;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cwms.cda.data.dao.LookupTypeDao;
+import cwms.cda.data.dto.LookupType;
+import cwms.cda.formatters.ContentType;
+import cwms.cda.formatters.Formats;
+import fixtures.CwmsDataApiSetupCallback;
+import fixtures.TestAccounts;
+import io.javalin.core.util.Header;
+import io.restassured.filter.log.LogDetail;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
+import io.restassured.response.ValidatableResponse;
+import io.restassured.specification.RequestSpecification;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("integration")
+final class ResponseCacheTestIT extends DataApiTestIT {
+
+    private static final String CATEGORY = "AT_EMBANK_STRUCTURE_TYPE";
+    private static final String PREFIX = "STRUCTURE_TYPE";
+    private static final String DIRECT = "response_cache_direct";
+    private static final String THROUGH_API = "response_cache_api";
+
+    private static final TestAccounts.KeyUser USER = TestAccounts.KeyUser.SPK_NORMAL;
+
+    @AfterEach
+    void cleanup() throws Exception {
+        CwmsDataApiSetupCallback.getDatabaseLink().connection(c -> {
+            LookupTypeDao dao = new LookupTypeDao(dslContext(c, USER.getOperatingOffice()));
+            for (String displayValue : new String[]{DIRECT, THROUGH_API}) {
+                try {
+                    dao.deleteLookupType(CATEGORY, PREFIX, USER.getOperatingOffice(),
+                            displayValue);
+                } catch (RuntimeException ex) {
+                    // not stored by this test
+                }
+            }
+        });
+    }
+
+    @Test
+    void test_hit_skips_endpoint_until_write() throws Exception {
+        ExtractableResponse<Response> first = getLookupTypes(null)
+            .statusCode(is(HttpServletResponse.SC_OK))
+            .header(Header.ETAG, notNullValue())
+            .body("find { it.'display-value' == '%s' }", withArgs(DIRECT), nullValue())
+            .extract();
+        String etag = first.header(Header.ETAG);
+
+        // stored behind the server's back, so only an endpoint call can see it
+        CwmsDataApiSetupCallback.getDatabaseLink().connection(c ->
+            new LookupTypeDao(dslContext(c, USER.getOperatingOffice()))
+                .storeLookupType(CATEGORY, PREFIX, lookupType(DIRECT)));
+
+        getLookupTypes(null)
+            .statusCode(is(HttpServletResponse.SC_OK))
+            .header(Header.ETAG, equalTo(etag))
+            .body("find { it.'display-value' == '%s' }", withArgs(DIRECT), nullValue());
+
+        getLookupTypes(etag)
+            .statusCode(is(HttpServletResponse.SC_NOT_MODIFIED));
+
+        given()
+            .log().ifValidationFails(LogDetail.ALL, true)
+            .accept(Formats.JSON)
+            .queryParam(Controllers.CATEGORY, CATEGORY)
+            .queryParam(Controllers.PREFIX, PREFIX)
+            .contentType(Formats.JSON)
+            .body(Formats.format(new ContentType(Formats.JSON), lookupType(THROUGH_API)))
+            .header(AUTH_HEADER, USER.toHeaderValue())
+        .when()
+            .redirects().follow(true)
+            .redirects().max(3)
+            .post("/lookup-types/")
+        .then()
+            .log().ifValidationFails(LogDetail.ALL, true)
+        .assertThat()
+            .statusCode(is(HttpServletResponse.SC_CREATED));
+
+        // the write dropped the entry, so both are read again
+        getLookupTypes(etag)
+            .statusCode(is(HttpServletResponse.SC_OK))
+            .body("find { it.'display-value' == '%s' }.display-value", withArgs(DIRECT),
+                equalTo(DIRECT))
+            .body("find { it.'display-value' == '%s' }.display-value", withArgs(THROUGH_API),
+                equalTo(THROUGH_API));
+    }
+
+    @Test
+    void test_gzipped_hit_is_encoded_once() throws Exception {
+        String miss = getUnits().extract().asString();
+        ExtractableResponse<Response> hit = getUnits().extract();
+
+        // RestAssured undoes one gzip, a body compressed twice would not parse
+        assertEquals("gzip", hit.header(Header.CONTENT_ENCODING));
+        JsonNode body = new ObjectMapper().readTree(hit.asString());
+        assertTrue(body.size() > 0);
+        assertEquals(new ObjectMapper().readTree(miss), body);
+    }
+
+    private static ValidatableResponse getLookupTypes(String ifNoneMatch) {
+        RequestSpecification request = given()
+            .log().ifValidationFails(LogDetail.ALL, true)
+            .accept(Formats.JSON);
+        if (ifNoneMatch != null) {
+            request.header(Header.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request
+            .queryParam(Controllers.OFFICE, USER.getOperatingOffice())
+            .queryParam(Controllers.CATEGORY, CATEGORY)
+            .queryParam(Controllers.PREFIX, PREFIX)
+        .when()
+            .redirects().follow(true)
+            .redirects().max(3)
+            .get("/lookup-types/")
+        .then()
+            .log().ifValidationFails(LogDetail.ALL, true)
+        .assertThat();
+    }
+
+    private static ValidatableResponse getUnits() {
+        return given()
+            .log().ifValidationFails(LogDetail.ALL, true)
+            .accept(Formats.JSONV2)
+            .header(Header.ACCEPT_ENCODING, "gzip")
+        .when()
+            .redirects().follow(true)
+            .redirects().max(3)
+            .get("/units")
+        .then()
+            .log().ifValidationFails(LogDetail.ALL, true)
+        .assertThat()
+            .statusCode(is(HttpServletResponse.SC_OK));
+    }
+
+    private static LookupType lookupType(String displayValue) {
+        return new LookupType.Builder()
+            .withOfficeId(USER.getOperatingOffice())
+            .withDisplayValue(displayValue)
+            .withTooltip("response cache test")
+            .withActive(true)
+            .build();
+    }
+}
@@ -0,0 +1,208 @@
+package cwms.cda.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cwms.cda.ApiServlet;
+import cwms.cda.data.dao.DateTimePage;
+import cwms.cda.data.dao.binarytimeseries.TimeSeriesBinaryDao;
+import cwms.cda.data.dao.texttimeseries.TimeSeriesTextDao;
+import cwms.cda.data.dto.binarytimeseries.BinaryTimeSeries;
+import cwms.cda.data.dto.binarytimeseries.BinaryTimeSeriesRow;
+import cwms.cda.data.dto.texttimeseries.RegularTextTimeSeriesRow;
+import cwms.cda.data.dto.texttimeseries.TextTimeSeries;
+import cwms.cda.formatters.Formats;
+import fixtures.TestHttpServletResponse;
+import fixtures.TestServletOutputStream;
+import io.javalin.core.util.Header;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.javalin.http.util.ContextUtil;
+import io.javalin.plugin.json.JavalinJackson;
+import io.javalin.plugin.json.JsonMapperKt;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pages through text and binary time series responses that are written while their rows are
+ * read, checking the paging fields and the order of the rows.
+ */
+class StreamedRowsControllerTest {
+    private static final String OFFICE = "SWT";
+    private static final String TS_ID = "TEST.Text.Inst.1Hour.0.test";
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant T1 = Instant.parse("2024-01-01T01:00:00Z");
+    private static final Instant T2 = Instant.parse("2024-01-01T02:00:00Z");
+    private static final List<Instant> TIMES = Arrays.asList(T0, T0, T0, T1, T2);
+
+    private static Context context(String path, @Nullable String page,
+                                   HttpServletResponse response) throws Exception {
+        String query = "office=" + OFFICE + "&name=" + TS_ID + "&begin=" + T0 + "&end=" + T2
+                + "&page-size=2";
+        if (page != null) {
+            query += "&page=" + URLEncoder.encode(page, StandardCharsets.UTF_8.name());
+        }
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getQueryString()).thenReturn(query);
+        when(request.getRequestURI()).thenReturn(path);
+        when(request.getRequestURL()).thenReturn(new StringBuffer("http://localhost" + path));
+        when(request.getContextPath()).thenReturn("/cwms-data");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader(Header.ACCEPT)).thenReturn(Formats.JSONV2);
+        when(request.getAttribute(ApiServlet.DATA_SOURCE)).thenReturn(mock(DataSource.class));
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(JsonMapperKt.JSON_MAPPER_KEY, new JavalinJackson());
+        return ContextUtil.init(request, response, "*", new HashMap<>(), HandlerType.GET,
+                attributes);
+    }
+
+    /**
+     * The rows of the page the way a dao reads them, starting at the page's start time.
+     */
+    private static <T> DateTimePage.Rows<T> rows(DateTimePage page,
+                                                 IntFunction<T> reader)
+            throws Exception {
+        AtomicInteger row = new AtomicInteger(-1);
+        while (row.get() + 1 < TIMES.size()
+                && TIMES.get(row.get() + 1).isBefore(page.getStart())) {
+            row.incrementAndGet();
+        }
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenAnswer(i -> row.incrementAndGet() < TIMES.size());
+        return page.rows(rs, r -> TIMES.get(row.get()), r -> reader.apply(row.get()));
+    }
+
+    /**
+     * Request every page and return the responses in order.
+     */
+    private static List<JsonNode> pages(PageRequest request) throws Exception {
+        List<JsonNode> retval = new ArrayList<>();
+        String page = null;
+        do {
+            HttpServletResponse response = new TestHttpServletResponse();
+            request.get(page, response);
+            assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+            JsonNode json = new ObjectMapper().readTree(
+                    ((TestServletOutputStream) response.getOutputStream()).getOutput());
+            retval.add(json);
+            page = json.hasNonNull("next-page") ? json.get("next-page").asText() : null;
+        } while (page != null && retval.size() < 10);
+        return retval;
+    }
+
+    private static void assertPages(List<JsonNode> pages, String rowsField, String valueField) {
+        assertEquals(3, pages.size());
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < pages.size(); i++) {
+            JsonNode page = pages.get(i);
+            // the page size of the first request is kept by the cursor
+            assertEquals(2, page.get("page-size").asInt());
+            assertTrue(page.hasNonNull("page"));
+            assertEquals(i < pages.size() - 1, page.hasNonNull("next-page"));
+            page.get(rowsField).forEach(r -> values.add(r.get(valueField).asText()));
+        }
+        assertFalse(pages.get(0).get("page").asText().equals(pages.get(1).get("page").asText()));
+        assertEquals(Arrays.asList("row 0", "row 1", "row 2", "row 3", "row 4"), values);
+    }
+
+    @Test
+    void test_text_pages_in_order() throws Exception {
+        TimeSeriesTextDao dao = mock(TimeSeriesTextDao.class);
+        doAnswer(invocation -> {
+            DateTimePage page = DateTimePage.of(invocation.getArgument(8), T0,
+                    invocation.<Integer>getArgument(9));
+            TextTimeSeries header = new TextTimeSeries.Builder()
+                    .withOfficeId(OFFICE)
+                    .withName(TS_ID)
+                    .withPage(page.encode())
+                    .withPageSize(page.getPageSize())
+                    .build();
+            DateTimePage.RowsConsumer<TextTimeSeries, RegularTextTimeSeriesRow> consumer =
+                    invocation.getArgument(10);
+            consumer.accept(header, rows(page, row -> new RegularTextTimeSeriesRow.Builder()
+                    .withDateTime(TIMES.get(row))
+                    .withTextValue("row " + row)
+                    .build()));
+            return null;
+        }).when(dao).retrieveFromDao(anyString(), anyString(), anyString(), any(), any(), any(),
+                anyInt(), any(), any(), anyInt(), any());
+        TextTimeSeriesController controller = new TextTimeSeriesController(new MetricRegistry()) {
+            @NotNull
+            @Override
+            protected TimeSeriesTextDao getDao(DSLContext dsl) {
+                return dao;
+            }
+        };
+
+        assertPages(pages((page, response) -> controller.getAll(
+                context("/cwms-data/timeseries/text", page, response))),
+                "regular-text-values", "text-value");
+    }
+
+    @Test
+    void test_binary_pages_in_order() throws Exception {
+        TimeSeriesBinaryDao dao = mock(TimeSeriesBinaryDao.class);
+        doAnswer(invocation -> {
+            DateTimePage page = DateTimePage.of(invocation.getArgument(8), T0,
+                    invocation.<Integer>getArgument(9));
+            BinaryTimeSeries header = new BinaryTimeSeries.Builder()
+                    .withOfficeId(OFFICE)
+                    .withName(TS_ID)
+                    .withPage(page.encode())
+                    .withPageSize(page.getPageSize())
+                    .build();
+            DateTimePage.RowsConsumer<BinaryTimeSeries, BinaryTimeSeriesRow> consumer =
+                    invocation.getArgument(10);
+            consumer.accept(header, rows(page, row -> new BinaryTimeSeriesRow.Builder()
+                    .withDateTime(TIMES.get(row))
+                    .withMediaType("text/plain")
+                    .withValueUrl("row " + row)
+                    .build()));
+            return null;
+        }).when(dao).retrieve(anyString(), anyString(), anyString(), any(), any(), any(),
+                anyInt(), any(), any(), anyInt(), any());
+        BinaryTimeSeriesController controller =
+                new BinaryTimeSeriesController(new MetricRegistry()) {
+                    @Override
+                    protected TimeSeriesBinaryDao getDao(DSLContext dsl) {
+                        return dao;
+                    }
+                };
+
+        assertPages(pages((page, response) -> controller.getAll(
+                context("/cwms-data/timeseries/binary", page, response))),
+                "binary-values", "value-url");
+    }
+
+    @FunctionalInterface
+    private interface PageRequest {
+        void get(@Nullable String page, HttpServletResponse response)
+                throws Exception;
+    }
+}
@@ -0,0 +1,207 @@
+package cwms.cda.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cwms.cda.api.errors.NotFoundException;
+import cwms.cda.data.dao.TimeSeriesDao;
+import cwms.cda.data.dto.TimeSeries;
+import cwms.cda.data.dto.TimeSeriesBatch;
+import cwms.cda.formatters.Formats;
+import fixtures.TestHttpServletResponse;
+import fixtures.TestServletOutputStream;
+import io.javalin.core.util.Header;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.javalin.http.util.ContextUtil;
+import io.javalin.plugin.json.JavalinJackson;
+import io.javalin.plugin.json.JsonMapperKt;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+
+class TimeSeriesBatchControllerTest {
+    private static final String OFFICE = "SWT";
+
+    private static Context context(String tsIds, HttpServletResponse response) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getQueryString()).thenReturn("office=" + OFFICE + "&"
+                + Controllers.TS_IDS + "=" + tsIds + "&begin=2021-06-21T08:00:00Z"
+                + "&end=2021-06-21T09:00:00Z");
+        when(request.getRequestURL()).thenReturn(
+                new StringBuffer("http://127.0.0.1:7001/timeseries/batch"));
+        when(request.getHeader(Header.ACCEPT)).thenReturn(Formats.JSONV2);
+        when(request.getMethod()).thenReturn("GET");
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(JsonMapperKt.JSON_MAPPER_KEY, new JavalinJackson());
+        return ContextUtil.init(request, response, "*", new HashMap<>(), HandlerType.GET,
+                attributes);
+    }
+
+    private static TimeSeriesBatchController controller(TimeSeriesDao dao) {
+        return new TimeSeriesBatchController(new MetricRegistry()) {
+            @Override
+            protected DSLContext getDslContext(Context ctx) {
+                return null;
+            }
+
+            @NotNull
+            @Override
+            protected TimeSeriesDao getTimeSeriesDao(DSLContext dsl) {
+                return dao;
+            }
+        };
+    }
+
+    private static TimeSeriesBatchController controller(TimeSeriesDao dao, Executor executor) {
+        return new TimeSeriesBatchController(new MetricRegistry()) {
+            @Override
+            protected DSLContext getDslContext(Context ctx) {
+                return null;
+            }
+
+            @NotNull
+            @Override
+            protected TimeSeriesDao getTimeSeriesDao(DSLContext dsl) {
+                return dao;
+            }
+
+            @Override
+            protected Executor getExecutor() {
+                return executor;
+            }
+        };
+    }
+
+    private static TimeSeries series(String tsId) {
+        ZonedDateTime begin = ZonedDateTime.parse("2021-06-21T08:00:00Z");
+        return new TimeSeries(null, -1, 0, tsId, OFFICE, begin, begin.plusHours(1), "ft",
+                Duration.ofHours(1));
+    }
+
+    private static String ids(String prefix, int count) {
+        StringBuilder retval = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                retval.append(',');
+            }
+            retval.append(prefix).append(i).append(".Stage.Inst.1Hour.0.test");
+        }
+        return retval.toString();
+    }
+
+    @Test
+    void test_too_many_series_rejected() {
+        TimeSeriesDao dao = mock(TimeSeriesDao.class);
+        HttpServletResponse response = new TestHttpServletResponse();
+
+        controller(dao).handle(context(ids("LOC", 201), response));
+
+        assertEquals(HttpServletResponse.SC_BAD_REQUEST, response.getStatus());
+        verifyNoInteractions(dao);
+    }
+
+    @Test
+    void test_failed_series_listed_under_errors() throws Exception {
+        String good = "GOOD.Stage.Inst.1Hour.0.test";
+        String missing = "MISSING.Stage.Inst.1Hour.0.test";
+        String broken = "BROKEN.Stage.Inst.1Hour.0.test";
+        TimeSeriesDao dao = mock(TimeSeriesDao.class);
+        when(dao.getTimeseries(isNull(), eq(-1), eq(good), eq(OFFICE), anyString(), any(), any(),
+                isNull(), anyBoolean())).thenReturn(series(good));
+        when(dao.getTimeseries(isNull(), eq(-1), eq(missing), eq(OFFICE), anyString(), any(),
+                any(), isNull(), anyBoolean())).thenThrow(new NotFoundException("not here"));
+        when(dao.getTimeseries(isNull(), eq(-1), eq(broken), eq(OFFICE), anyString(), any(),
+                any(), isNull(), anyBoolean())).thenThrow(new IllegalStateException("broken"));
+        HttpServletResponse response = new TestHttpServletResponse();
+
+        controller(dao).handle(context(good + "," + missing + "," + broken, response));
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        JsonNode json = new ObjectMapper().readTree(
+                ((TestServletOutputStream) response.getOutputStream()).getOutput());
+        JsonNode series = json.get(TimeSeriesBatch.TIME_SERIES);
+        assertEquals(1, series.size());
+        assertEquals(good, series.get(0).get("name").asText());
+
+        Map<String, String> errors = new HashMap<>();
+        json.get(TimeSeriesBatch.ERRORS).forEach(e ->
+                errors.put(e.get("name").asText(), e.get("message").asText()));
+        assertEquals(2, errors.size());
+        assertEquals("Not found.", errors.get(missing));
+        assertTrue(errors.get(broken).startsWith("Unable to retrieve time series"));
+    }
+
+    @Test
+    void test_requests_share_the_executor() throws Exception {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        TimeSeriesDao dao = mock(TimeSeriesDao.class);
+        when(dao.getTimeseries(isNull(), anyInt(), anyString(), anyString(), anyString(), any(),
+                any(), isNull(), anyBoolean())).thenAnswer(invocation -> {
+                    threads.add(Thread.currentThread());
+                    Thread.sleep(20);
+                    return series(invocation.getArgument(2));
+                });
+
+        for (int i = 0; i < 2; i++) {
+            HttpServletResponse response = new TestHttpServletResponse();
+            controller(dao).handle(context(ids("LOC" + i + "_", 8), response));
+            assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        }
+
+        Set<String> names = new HashSet<>();
+        threads.forEach(t -> names.add(t.getName()));
+        assertEquals(1, names.size());
+        assertEquals(TimeSeriesBatchController.class.getSimpleName(), names.iterator().next());
+        // both controllers ran their series on the same pool of cda.api.ts.batch.threads threads
+        assertTrue(threads.size() <= Integer.parseInt(
+                System.getProperty("cda.api.ts.batch.threads", "4")));
+    }
+
+    @Test
+    void test_full_queue_answers_503() {
+        TimeSeriesDao dao = mock(TimeSeriesDao.class);
+        List<Runnable> accepted = new ArrayList<>();
+        // takes two series and then rejects, like the shared pool once its queue is full
+        Executor full = command -> {
+            if (accepted.size() == 2) {
+                throw new RejectedExecutionException("full");
+            }
+            accepted.add(command);
+        };
+        HttpServletResponse response = new TestHttpServletResponse();
+
+        controller(dao, full).handle(context(ids("LOC", 5), response));
+
+        assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, response.getStatus());
+        assertEquals(2, accepted.size());
+        // the series that were queued before the rejection were cancelled and never run
+        accepted.forEach(Runnable::run);
+        verifyNoInteractions(dao);
+    }
+}
@@ -0,0 +1,193 @@
+package cwms.cda.api;
+
+import static io.restassured.RestAssured.given;
+import static io.restassured.config.JsonConfig.jsonConfig;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import cwms.cda.formatters.Formats;
+import fixtures.TestAccounts;
+import io.restassured.RestAssured;
+import io.restassured.filter.log.LogDetail;
+import io.restassured.path.json.config.JsonPathConfig;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("integration")
+class TimeSeriesBulkControllerTestIT extends DataApiTestIT {
+    private static final String OFFICE = "SPK";
+    private static final String LOCATION = "Buckhorn";
+
+    private static String series(String version, String officeId, String units) {
+        return series(version, officeId, units, "[1675335600000,35,0],[1675422000000,36,0]");
+    }
+
+    private static String series(String version, String officeId, String units,
+                                 String values) {
+        return "{\"name\":\"" + LOCATION + ".Temp-Water.Inst.1Day.0." + version + "\","
+                + (officeId == null ? "" : "\"office-id\":\"" + officeId + "\",")
+                + "\"units\":\"" + units + "\","
+                + "\"values\":[" + values + "]}";
+    }
+
+    private static String name(String version) {
+        return LOCATION + ".Temp-Water.Inst.1Day.0." + version;
+    }
+
+    @Test
+    void test_json_array_stored() throws Exception {
+        createLocation(LOCATION, true, OFFICE);
+        TestAccounts.KeyUser user = TestAccounts.KeyUser.SPK_NORMAL;
+
+        given()
+                .log().ifValidationFails(LogDetail.ALL, true)
+                .accept(Formats.JSONV2)
+                .contentType(Formats.JSONV2)
+                .body("[" + series("bulk-array-1", OFFICE, "F") + ","
+                        + series("bulk-array-2", OFFICE, "F") + "]")
+                .header("Authorization", user.toHeaderValue())
+            .when()
+                .redirects().follow(true)
+                .redirects().max(3)
+                .post("/timeseries/bulk")
+            .then()
+                .log().ifValidationFails(LogDetail.ALL, true)
+            .assertThat()
+                .statusCode(is(HttpServletResponse.SC_OK))
+                .body("stored", containsInAnyOrder(name("bulk-array-1"), name("bulk-array-2")))
+                .body("errors", hasSize(0));
+    }
+
+    @Test
+    void test_ndjson_stored() throws Exception {
+        createLocation(LOCATION, true, OFFICE);
+        TestAccounts.KeyUser user = TestAccounts.KeyUser.SPK_NORMAL;
+
+        given()
+                .log().ifValidationFails(LogDetail.ALL, true)
+                .accept(Formats.JSONV2)
+                .contentType(Formats.NDJSON)
+                .body(series("bulk-nd-1", OFFICE, "F") + "\n"
+                        + series("bulk-nd-2", OFFICE, "F") + "\n")
+                .header("Authorization", user.toHeaderValue())
+            .when()
+                .redirects().follow(true)
+                .redirects().max(3)
+                .post("/timeseries/bulk")
+            .then()
+                .log().ifValidationFails(LogDetail.ALL, true)
+            .assertThat()
+                .statusCode(is(HttpServletResponse.SC_OK))
+                .body("stored", containsInAnyOrder(name("bulk-nd-1"), name("bulk-nd-2")))
+                .body("errors", hasSize(0));
+    }
+
+    @Test
+    void test_mixed_batch_reports_failures_per_series() throws Exception {
+        createLocation(LOCATION, true, OFFICE);
+        TestAccounts.KeyUser user = TestAccounts.KeyUser.SPK_NORMAL;
+
+        // The bad units make the batched call fail, so the series are stored one at a time and
+        // only the one with bad units is reported. The one without an office is never sent.
+        given()
+                .log().ifValidationFails(LogDetail.ALL, true)
+                .accept(Formats.JSONV2)
+                .contentType(Formats.JSONV2)
+                .body("[" + series("bulk-mixed-1", OFFICE, "F") + ","
+                        + series("bulk-mixed-2", OFFICE, "M") + ","
+                        + series("bulk-mixed-3", null, "F") + ","
+                        + series("bulk-mixed-4", OFFICE, "F") + "]")
+                .header("Authorization", user.toHeaderValue())
+            .when()
+                .redirects().follow(true)
+                .redirects().max(3)
+                .post("/timeseries/bulk")
+            .then()
+                .log().ifValidationFails(LogDetail.ALL, true)
+            .assertThat()
+                .statusCode(is(HttpServletResponse.SC_OK))
+                .body("stored", containsInAnyOrder(name("bulk-mixed-1"), name("bulk-mixed-4")))
+                .body("errors", hasSize(2))
+                .body("errors.name", containsInAnyOrder(name("bulk-mixed-2"),
+                        name("bulk-mixed-3")))
+                .body("errors.find { it.name == '" + name("bulk-mixed-3") + "' }.message",
+                        equalTo("An office is required to store a time series."));
+    }
+
+    @Test
+    void test_duplicate_series_in_failing_batch_keeps_both_chunks() throws Exception {
+        createLocation(LOCATION, true, OFFICE);
+        TestAccounts.KeyUser user = TestAccounts.KeyUser.SPK_NORMAL;
+
+        // Two chunks of values for one series in a batch the bad units make fail, each chunk is
+        // stored on its own when the series are stored one at a time.
+        given()
+                .log().ifValidationFails(LogDetail.ALL, true)
+                .accept(Formats.JSONV2)
+                .contentType(Formats.JSONV2)
+                .body("[" + series("bulk-dup-1", OFFICE, "F",
+                                "[1675335600000,35,0],[1675422000000,36,0]") + ","
+                        + series("bulk-dup-2", OFFICE, "M") + ","
+                        + series("bulk-dup-1", OFFICE, "F",
+                                "[1675508400000,37,0],[1675594800000,38,0]") + "]")
+                .header("Authorization", user.toHeaderValue())
+            .when()
+                .redirects().follow(true)
+                .redirects().max(3)
+                .post("/timeseries/bulk")
+            .then()
+                .log().ifValidationFails(LogDetail.ALL, true)
+            .assertThat()
+                .statusCode(is(HttpServletResponse.SC_OK))
+                .body("stored", contains(name("bulk-dup-1"), name("bulk-dup-1")))
+                .body("errors.name", contains(name("bulk-dup-2")));
+
+        given()
+                .config(RestAssured.config().jsonConfig(jsonConfig()
+                        .numberReturnType(JsonPathConfig.NumberReturnType.DOUBLE)))
+                .log().ifValidationFails(LogDetail.ALL, true)
+                .accept(Formats.JSONV2)
+                .header("Authorization", user.toHeaderValue())
+                .queryParam("office", OFFICE)
+                .queryParam("units", "F")
+                .queryParam("name", name("bulk-dup-1"))
+                .queryParam("begin", "2023-02-02T11:00:00Z")
+                .queryParam("end", "2023-02-05T11:00:00Z")
+            .when()
+                .redirects().follow(true)
+                .redirects().max(3)
+                .get("/timeseries/")
+            .then()
+                .log().ifValidationFails(LogDetail.ALL, true)
+            .assertThat()
+                .statusCode(is(HttpServletResponse.SC_OK))
+                .body("values", hasSize(4))
+                .body("values[0][1]", closeTo(35.0, 0.0001))
+                .body("values[3][1]", closeTo(38.0, 0.0001));
+    }
+
+    @Test
+    void test_unreadable_body_rejected() throws Exception {
+        TestAccounts.KeyUser user = TestAccounts.KeyUser.SPK_NORMAL;
+
+        given()
+                .log().ifValidationFails(LogDetail.ALL, true)
+                .accept(Formats.JSONV2)
+                .contentType(Formats.JSONV2)
+                .body("[" + series("bulk-bad-1", OFFICE, "F") + ",{")
+                .header("Authorization", user.toHeaderValue())
+            .when()
+                .redirects().follow(true)
+                .redirects().max(3)
+                .post("/timeseries/bulk")
+            .then()
+                .log().ifValidationFails(LogDetail.ALL, true)
+            .assertThat()
+                .statusCode(is(HttpServletResponse.SC_BAD_REQUEST));
+    }
+}
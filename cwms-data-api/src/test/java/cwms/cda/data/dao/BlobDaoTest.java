@@ -0,0 +1,98 @@
+package cwms.cda.data.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import cwms.cda.data.dto.Blob;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jooq.ConnectionRunnable;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.junit.jupiter.api.Test;
+
+class BlobDaoTest {
+
+    @Test
+    void test_null_value_reaches_consumer() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString("MEDIA_TYPE_ID")).thenReturn("text/plain");
+        when(resultSet.getString("VERSION")).thenReturn("100");
+        when(resultSet.getBlob("VALUE")).thenReturn(null);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        DSLContext dsl = mock(DSLContext.class);
+        doAnswer(invocation -> {
+            invocation.<ConnectionRunnable>getArgument(0).run(connection);
+            return null;
+        }).when(dsl).connection(any(ConnectionRunnable.class));
+
+        List<Object> received = new ArrayList<>();
+        InputStream[] streams = new InputStream[1];
+        new BlobDao(dsl).getBlob("NULL_BLOB", "SWT", (stream, mediaType, size) -> {
+            streams[0] = stream;
+            received.add(mediaType);
+            received.add(size);
+        });
+
+        // the controllers answer a null stream with 404
+        assertNull(streams[0]);
+        assertEquals("text/plain", received.get(0));
+        assertEquals(0L, received.get(1));
+    }
+
+    @Test
+    void test_write_published_after_connection_returned() {
+        List<String> events = new ArrayList<>();
+        DSLContext dsl = mock(DSLContext.class);
+        // the pooled connection commits the call before it is handed back
+        doAnswer(invocation -> {
+            events.add("committed");
+            return null;
+        }).when(dsl).connection(any(ConnectionRunnable.class));
+        DataChangeBus.Listener listener = (officeId, id) -> events.add("published " + id);
+        DataChangeBus.subscribe(DataChangeBus.Entity.BLOB, listener);
+        try {
+            new BlobDao(dsl).create(new Blob("SWT", "PUBLISHED_BLOB", null, "text/plain",
+                    new byte[]{1}), false, false);
+        } finally {
+            DataChangeBus.unsubscribe(DataChangeBus.Entity.BLOB, listener);
+        }
+
+        assertEquals(Arrays.asList("committed", "published PUBLISHED_BLOB"), events);
+    }
+
+    @Test
+    void test_failed_write_not_published() {
+        List<String> events = new ArrayList<>();
+        DSLContext dsl = mock(DSLContext.class);
+        doThrow(new DataAccessException("rolled back"))
+                .when(dsl).connection(any(ConnectionRunnable.class));
+        DataChangeBus.Listener listener = (officeId, id) -> events.add("published " + id);
+        DataChangeBus.subscribe(DataChangeBus.Entity.BLOB, listener);
+        try {
+            BlobDao dao = new BlobDao(dsl);
+            Blob blob = new Blob("SWT", "FAILED_BLOB", null, "text/plain", new byte[]{1});
+            assertThrows(DataAccessException.class, () -> dao.create(blob, false, false));
+        } finally {
+            DataChangeBus.unsubscribe(DataChangeBus.Entity.BLOB, listener);
+        }
+
+        assertEquals(new ArrayList<>(), events);
+    }
+}
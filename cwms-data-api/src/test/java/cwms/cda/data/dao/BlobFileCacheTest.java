@@ -0,0 +1,90 @@
+package cwms.cda.data.dao;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.io.ByteStreams;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import javax.sql.rowset.serial.SerialBlob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BlobFileCacheTest {
+
+    private static byte[] read(BlobFileCache.CachedBlob cached) throws Exception {
+        try (InputStream is = cached.getStream()) {
+            return ByteStreams.toByteArray(is);
+        }
+    }
+
+    @Test
+    void test_copy_served_while_version_matches() throws Exception {
+        byte[] content = "forecast file content".getBytes(StandardCharsets.UTF_8);
+        String key = "blob/SWT/TEST_FILE";
+        BlobFileCache.CachedBlob stored = BlobFileCache.store(key, "100", new SerialBlob(content));
+        assertNotNull(stored);
+        assertEquals(content.length, stored.getSize());
+        assertArrayEquals(content, read(stored));
+
+        BlobFileCache.CachedBlob cached = BlobFileCache.open(key, "100");
+        assertNotNull(cached);
+        assertArrayEquals(content, read(cached));
+
+        assertNull(BlobFileCache.open(key, "101"));
+        assertNull(BlobFileCache.open("blob/SWT/OTHER_FILE", "100"));
+
+        BlobFileCache.invalidate(key);
+        assertNull(BlobFileCache.open(key, "100"));
+    }
+
+    @Test
+    void test_ranges_skip_into_copy() throws Exception {
+        byte[] content = "0123456789".getBytes(StandardCharsets.UTF_8);
+        BlobFileCache.store("blob/SWT/RANGE", "1", new SerialBlob(content)).getStream().close();
+        BlobFileCache.CachedBlob cached = BlobFileCache.open("blob/SWT/RANGE", "1");
+        assertNotNull(cached);
+        try (InputStream is = cached.getStream()) {
+            assertEquals(6, is.skip(6));
+            assertEquals('6', is.read());
+        }
+    }
+
+    @Test
+    void test_null_blob_not_cached() throws Exception {
+        assertNull(BlobFileCache.store("blob/SWT/NULL_VALUE", "1", null));
+        assertNull(BlobFileCache.open("blob/SWT/NULL_VALUE", "1"));
+    }
+
+    @Test
+    void test_only_abandoned_instance_directories_removed(@TempDir Path base) throws Exception {
+        Path stopped = Files.createDirectory(base.resolve("instance-stopped"));
+        Files.createFile(stopped.resolve(".lock"));
+        Files.createFile(stopped.resolve("a.blob"));
+        Path running = Files.createDirectory(base.resolve("instance-running"));
+        Files.createFile(running.resolve("b.blob"));
+        Path starting = Files.createDirectory(base.resolve("instance-starting"));
+        Path shared = Files.createFile(base.resolve("other.blob"));
+
+        try (FileChannel channel = FileChannel.open(running.resolve(".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            BlobFileCache.removeAbandoned(base);
+        }
+
+        assertFalse(Files.exists(stopped));
+        assertTrue(Files.exists(running.resolve("b.blob")));
+        assertTrue(Files.exists(starting));
+        // files that are not in an instance directory belong to someone else
+        assertTrue(Files.exists(shared));
+    }
+}
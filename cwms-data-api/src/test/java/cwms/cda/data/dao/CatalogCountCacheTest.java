@@ -0,0 +1,57 @@
+package cwms.cda.data.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.codahale.metrics.MetricRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class CatalogCountCacheTest {
+
+    @Test
+    void test_counted_once_per_request() {
+        CatalogRequestParameters params = new CatalogRequestParameters.Builder()
+                .withOffice("swt")
+                .withIdLike("KEYS.*")
+                .build();
+        String key = CatalogCountCache.key("timeseries", params);
+        assertNull(CatalogCountCache.getIfPresent(key));
+
+        AtomicInteger counts = new AtomicInteger();
+        CatalogCountCache.CountQuery query = () -> {
+            counts.incrementAndGet();
+            return 42;
+        };
+        assertEquals(42, CatalogCountCache.getTotal(key, query, null));
+        assertEquals(42, CatalogCountCache.getTotal(key, query, null));
+        assertEquals(1, counts.get());
+        assertEquals(42, CatalogCountCache.getIfPresent(key));
+
+        CatalogRequestParameters upper = CatalogRequestParameters.Builder.from(params)
+                .withOffice("SWT")
+                .build();
+        assertEquals(key, CatalogCountCache.key("timeseries", upper));
+        assertNotEquals(key, CatalogCountCache.key("locations", params));
+        CatalogRequestParameters otherLike = CatalogRequestParameters.Builder.from(params)
+                .withIdLike("keys.*")
+                .build();
+        assertNotEquals(key, CatalogCountCache.key("timeseries", otherLike));
+    }
+
+    @Test
+    void test_metrics_registered_once() {
+        MetricRegistry metrics = new MetricRegistry();
+        CatalogCountCache.registerMetrics(metrics);
+        CatalogCountCache.registerMetrics(metrics);
+        String count = MetricRegistry.name(CatalogCountCache.class.getName(), "count");
+        String page = MetricRegistry.name(CatalogCountCache.class.getName(), "page");
+        assertEquals(2, metrics.getTimers().size());
+        long before = metrics.getTimers().get(page).getCount();
+        CatalogCountCache.timePage().stop();
+        assertEquals(before + 1, metrics.getTimers().get(page).getCount());
+        assertNotNull(metrics.getTimers().get(count));
+    }
+}
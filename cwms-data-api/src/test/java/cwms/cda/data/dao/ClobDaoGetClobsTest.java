@@ -0,0 +1,78 @@
+package cwms.cda.data.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jooq.ConnectionRunnable;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+
+class ClobDaoGetClobsTest {
+
+    @Test
+    void test_ids_queried_a_thousand_at_a_time() throws Exception {
+        List<String> queries = new ArrayList<>();
+        Map<String, java.sql.Clob> rows = new LinkedHashMap<>();
+        java.sql.Clob first = mock(java.sql.Clob.class);
+        rows.put("TEXT_0", first);
+        rows.put("TEXT_2499", null);
+        Connection connection = mock(Connection.class);
+        // the first batch finds its first id, the second nothing and the third its last id
+        List<String> found = Arrays.asList("TEXT_0", null, "TEXT_2499");
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+            queries.add(invocation.getArgument(0));
+            return statement(found.get(queries.size() - 1), rows);
+        });
+        DSLContext dsl = mock(DSLContext.class);
+        doAnswer(invocation -> {
+            invocation.<ConnectionRunnable>getArgument(0).run(connection);
+            return null;
+        }).when(dsl).connection(any(ConnectionRunnable.class));
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            ids.add("TEXT_" + i);
+        }
+        Map<String, java.sql.Clob> received = new LinkedHashMap<>();
+        new ClobDao(dsl).getClobs("SWT", ids, received::put);
+
+        assertEquals(3, queries.size());
+        // the office and then one placeholder per id
+        assertEquals(Arrays.asList(1001L, 1001L, 501L), Arrays.asList(
+                placeholders(queries.get(0)), placeholders(queries.get(1)),
+                placeholders(queries.get(2))));
+        // ids that are not found are left out
+        assertEquals(rows, received);
+    }
+
+    private static PreparedStatement statement(String id, Map<String, java.sql.Clob> rows)
+            throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        if (id == null) {
+            when(resultSet.next()).thenReturn(false);
+        } else {
+            when(resultSet.next()).thenReturn(true, false);
+            when(resultSet.getString("ID")).thenReturn(id);
+            when(resultSet.getClob("VALUE")).thenReturn(rows.get(id));
+        }
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        return statement;
+    }
+
+    private static long placeholders(String query) {
+        return query.chars().filter(c -> c == '?').count();
+    }
+}
@@ -0,0 +1,45 @@
+package cwms.cda.data.dao;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import cwms.cda.datasource.SessionStateTracker;
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+
+class DaoSetOfficeTest {
+
+    private static final class TestDao extends Dao<Object> {
+        TestDao() {
+            super(mock(DSLContext.class));
+        }
+
+        @Override
+        public List<Object> getAll(String office) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Optional<Object> getByUniqueName(String uniqueName, String office) {
+            return Optional.empty();
+        }
+    }
+
+    @Test
+    void test_set_office_skipped_when_tracker_has_office() throws Exception {
+        Connection conn = mock(Connection.class);
+        SessionStateTracker.applied(conn, SessionStateTracker.OFFICE, "SWT");
+
+        new TestDao().setOffice(conn, "SWT");
+
+        // the office was already set on this connection, the database is not called
+        verify(conn, never()).prepareCall(anyString());
+        verify(conn, never()).prepareStatement(anyString());
+    }
+}
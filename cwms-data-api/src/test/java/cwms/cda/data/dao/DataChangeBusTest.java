@@ -0,0 +1,77 @@
+package cwms.cda.data.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.codahale.metrics.MetricRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class DataChangeBusTest {
+    private final List<DataChangeBus.Listener> subscribed = new ArrayList<>();
+
+    @AfterEach
+    void clear() {
+        subscribed.forEach(l -> DataChangeBus.unsubscribe(DataChangeBus.Entity.TIME_SERIES_GROUP, l));
+        LocationLevelCache.invalidateOffice(null);
+    }
+
+    @Test
+    void test_listeners_called_after_a_failing_one() {
+        List<List<String>> changes = new ArrayList<>();
+        subscribed.add((officeId, id) -> {
+            throw new IllegalStateException("broken listener");
+        });
+        subscribed.add((officeId, id) -> changes.add(Arrays.asList(officeId, id)));
+        subscribed.forEach(l -> DataChangeBus.subscribe(DataChangeBus.Entity.TIME_SERIES_GROUP, l));
+
+        DataChangeBus.publish(DataChangeBus.Entity.TIME_SERIES_GROUP, "SWT", "Test Group");
+        DataChangeBus.publishOffice(DataChangeBus.Entity.TIME_SERIES_GROUP, "");
+
+        assertEquals(Arrays.asList(Arrays.asList("SWT", "Test Group"),
+                Arrays.asList(null, null)), changes);
+    }
+
+    @Test
+    void test_location_change_drops_only_its_levels() {
+        Instant date = Instant.parse("2024-01-01T00:00:00Z");
+        AtomicInteger loads = new AtomicInteger();
+        String[] levels = {"LOC1.Elev.Inst.0.Top of Flood", "LOC2.Elev.Inst.0.Top of Flood"};
+        for (int i = 0; i < 2; i++) {
+            for (String level : levels) {
+                assertNull(LocationLevelCache.get("SWT", level, "ft", date, () -> {
+                    loads.incrementAndGet();
+                    return null;
+                }));
+            }
+        }
+        assertEquals(2, loads.get());
+
+        DataChangeBus.publish(DataChangeBus.Entity.LOCATION, "swt", "loc1");
+        for (String level : levels) {
+            LocationLevelCache.get("SWT", level, "ft", date, () -> {
+                loads.incrementAndGet();
+                return null;
+            });
+        }
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void test_published_changes_metered_per_entity() {
+        MetricRegistry metrics = new MetricRegistry();
+        DataChangeBus.registerMetrics(metrics);
+        String name = MetricRegistry.name(DataChangeBus.class.getName(), "published", "blob");
+        assertNotNull(metrics.getMeters().get(name));
+
+        long before = metrics.getMeters().get(name).getCount();
+        DataChangeBus.publish(DataChangeBus.Entity.BLOB, "SWT", "TEST_BLOB");
+        assertEquals(before + 1, metrics.getMeters().get(name).getCount());
+    }
+}
@@ -0,0 +1,80 @@
+package cwms.cda.data.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import cwms.cda.data.dto.CwmsDTOPaginated;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class DateTimePageTest {
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant T1 = Instant.parse("2024-01-01T01:00:00Z");
+    private static final Instant T2 = Instant.parse("2024-01-01T02:00:00Z");
+
+    private static final List<Instant> TIMES = Arrays.asList(T0, T0, T0, T1, T2);
+
+    /**
+     * Read a page the way a dao does, with the query starting at the page's start time.
+     */
+    private static DateTimePage.Rows<String> read(DateTimePage page, List<String> out)
+            throws Exception {
+        AtomicInteger row = new AtomicInteger(-1);
+        while (row.get() + 1 < TIMES.size()
+                && TIMES.get(row.get() + 1).isBefore(page.getStart())) {
+            row.incrementAndGet();
+        }
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenAnswer(i -> row.incrementAndGet() < TIMES.size());
+        DateTimePage.Rows<String> rows = page.rows(rs, r -> TIMES.get(row.get()),
+                r -> String.valueOf(row.get()));
+        rows.forEachRemaining(out::add);
+        return rows;
+    }
+
+    @Test
+    void test_pages_split_rows_at_the_same_time() throws Exception {
+        List<String> values = new ArrayList<>();
+
+        DateTimePage.Rows<String> rows = read(DateTimePage.of(null, T0, 2), values);
+        assertEquals(Arrays.asList("0", "1"), values);
+        assertNotNull(rows.getNextPage());
+
+        rows = read(DateTimePage.of(rows.getNextPage(), T0, 100), values);
+        assertEquals(Arrays.asList("0", "1", "2", "3"), values);
+        assertNotNull(rows.getNextPage());
+
+        rows = read(DateTimePage.of(rows.getNextPage(), T0, 100), values);
+        assertEquals(Arrays.asList("0", "1", "2", "3", "4"), values);
+        assertNull(rows.getNextPage());
+    }
+
+    @Test
+    void test_cursor_keeps_page_size() {
+        DateTimePage page = DateTimePage.of(DateTimePage.of(null, T1, 7).encode(), T0, 100);
+        assertEquals(T1, page.getStart());
+        assertEquals(7, page.getPageSize());
+    }
+
+    @Test
+    void test_invalid_page_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> DateTimePage.of(null, T0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> DateTimePage.of(CwmsDTOPaginated.encodeCursor("a", 5), T0, 5));
+        assertThrows(IllegalArgumentException.class, () -> DateTimePage.of(
+                CwmsDTOPaginated.encodeCursor(T0.toEpochMilli(), 0, 0), T0, 5));
+        assertThrows(IllegalArgumentException.class, () -> DateTimePage.of(
+                CwmsDTOPaginated.encodeCursor(T0.toEpochMilli(), 0, -5), T0, 5));
+        assertThrows(IllegalArgumentException.class, () -> DateTimePage.of(
+                CwmsDTOPaginated.encodeCursor(T0.toEpochMilli(), -1, 5), T0, 5));
+    }
+}
@@ -0,0 +1,100 @@
+package cwms.cda.data.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import cwms.cda.data.dto.LocationLevel;
+import cwms.cda.data.dto.SeasonalValueBean;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.Test;
+
+final class LocationLevelEvaluatorTest {
+    private static final ZonedDateTime ORIGIN =
+            ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+
+    private static Instant at(String time) {
+        return Instant.parse(time);
+    }
+
+    private static LocationLevel.Builder level() {
+        return new LocationLevel.Builder("LOC.Stage.Inst.0.Top of Flood", ORIGIN)
+                .withOfficeId("SWT")
+                .withLevelUnitsId("ft");
+    }
+
+    private static SeasonalValueBean value(double value, int months, long minutes) {
+        return new SeasonalValueBean.Builder(value)
+                .withOffsetMonths(months)
+                .withOffsetMinutes(BigInteger.valueOf(minutes))
+                .build();
+    }
+
+    private static LocationLevelEvaluator yearly(String interpolate) {
+        return LocationLevelEvaluator.of(level()
+                .withIntervalOrigin(ORIGIN)
+                .withIntervalMonths(12)
+                .withInterpolateString(interpolate)
+                .withSeasonalValue(value(20.0, 6, 0))
+                .withSeasonalValue(value(10.0, 0, 0))
+                .build());
+    }
+
+    @Test
+    void testConstant() {
+        LocationLevelEvaluator evaluator = LocationLevelEvaluator.of(level()
+                .withConstantValue(42.0)
+                .build());
+        assertEquals(42.0, evaluator.valueAt(at("1990-05-05T12:00:00Z")));
+    }
+
+    @Test
+    void testTimeSeriesLevelIsNotEvaluated() {
+        assertNull(LocationLevelEvaluator.of(level()
+                .withSeasonalTimeSeriesId("LOC.Stage.Inst.1Hour.0.Rule")
+                .build()));
+    }
+
+    @Test
+    void testMonthlyInterpolated() {
+        LocationLevelEvaluator evaluator = yearly("T");
+        assertEquals(10.0, evaluator.valueAt(at("2024-01-01T00:00:00Z")));
+        assertEquals(20.0, evaluator.valueAt(at("2024-07-01T00:00:00Z")));
+        // 91 of the 182 days from January to July
+        assertEquals(15.0, evaluator.valueAt(at("2024-04-01T00:00:00Z")), 1e-9);
+        // 92 of the 184 days from July back to the next January
+        assertEquals(15.0, evaluator.valueAt(at("2024-10-01T00:00:00Z")), 1e-9);
+        assertEquals(10.0, evaluator.valueAt(at("2025-01-01T00:00:00Z")));
+        // before the origin the intervals repeat backwards
+        assertEquals(15.0, evaluator.valueAt(at("2023-10-01T00:00:00Z")), 1e-9);
+    }
+
+    @Test
+    void testMonthlyStepped() {
+        LocationLevelEvaluator evaluator = yearly("F");
+        assertEquals(10.0, evaluator.valueAt(at("2024-04-01T00:00:00Z")));
+        assertEquals(20.0, evaluator.valueAt(at("2024-10-01T00:00:00Z")));
+        assertEquals(20.0, evaluator.valueAt(at("2023-12-31T23:00:00Z")));
+    }
+
+    @Test
+    void testMinutes() {
+        LocationLevel.Builder daily = level()
+                .withIntervalOrigin(ORIGIN)
+                .withIntervalMinutes(1440)
+                .withSeasonalValue(value(1.0, 0, 0))
+                .withSeasonalValue(value(3.0, 0, 720));
+        LocationLevelEvaluator stepped = LocationLevelEvaluator.of(daily
+                .withInterpolateString("F").build());
+        assertEquals(1.0, stepped.valueAt(at("2024-03-10T06:00:00Z")));
+        assertEquals(3.0, stepped.valueAt(at("2024-03-10T18:00:00Z")));
+
+        LocationLevelEvaluator interpolated = LocationLevelEvaluator.of(daily
+                .withInterpolateString("T").build());
+        assertEquals(2.0, interpolated.valueAt(at("2024-03-10T06:00:00Z")), 1e-9);
+        assertEquals(2.0, interpolated.valueAt(at("2024-03-10T18:00:00Z")), 1e-9);
+        assertEquals(3.0, interpolated.valueAt(at("2024-03-10T12:00:00Z")));
+    }
+}
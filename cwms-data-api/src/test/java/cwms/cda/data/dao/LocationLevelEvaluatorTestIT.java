@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Hydrologic Engineering Center
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cwms.cda.data.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import cwms.cda.api.DataApiTestIT;
+import cwms.cda.data.dto.LocationLevel;
+import cwms.cda.data.dto.SeasonalValueBean;
+import fixtures.CwmsDataApiSetupCallback;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import usace.cwms.db.jooq.codegen.udt.records.ZTSV_ARRAY;
+
+/**
+ * Compares the values of a seasonal level computed in process with those of the database
+ * routine, across interval boundaries and at and between the seasonal points.
+ */
+@Tag("integration")
+final class LocationLevelEvaluatorTestIT extends DataApiTestIT {
+
+    private static final String OFFICE = "SPK";
+
+    @Test
+    void test_seasonal_level_matches_database() throws Exception {
+        createLocation("level_evaluator_seasonal", true, OFFICE);
+        String levelId = "level_evaluator_seasonal.Elev.Inst.0.Regulating";
+        ZonedDateTime levelDate = ZonedDateTime.of(2023, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        List<SeasonalValueBean> seasonalValues = Arrays.asList(
+                seasonal(100.0, 0, 0),
+                seasonal(120.0, 3, 0),
+                seasonal(150.0, 6, 14 * 24 * 60),
+                seasonal(110.0, 9, 0));
+        LocationLevel level = new LocationLevel.Builder(levelId, levelDate)
+                .withOfficeId(OFFICE)
+                .withSeasonalValues(seasonalValues)
+                .withIntervalOrigin(levelDate)
+                .withIntervalMonths(12)
+                .withInterpolateString("T")
+                .withLevelUnitsId("ft")
+                .build();
+
+        List<Instant> times = new ArrayList<>();
+        for (Instant time = levelDate.toInstant();
+             time.isBefore(levelDate.plusYears(2).toInstant());
+             time = time.plus(5, ChronoUnit.DAYS).plus(7, ChronoUnit.HOURS)) {
+            times.add(time);
+        }
+        // the seasonal points themselves
+        times.add(levelDate.plusYears(1).toInstant());
+        times.add(levelDate.plusYears(1).plusMonths(6).plusDays(14).toInstant());
+
+        CwmsDataApiSetupCallback.getDatabaseLink().connection(c -> {
+            DSLContext dsl = dslContext(c, OFFICE);
+            LocationLevelsDaoImpl dao = new LocationLevelsDaoImpl(dsl);
+            dao.storeLocationLevel(level);
+            try {
+                LocationLevelEvaluator evaluator = LocationLevelEvaluator.of(
+                        dao.retrieveLocationLevel(levelId, "ft", levelDate, OFFICE));
+                assertNotNull(evaluator);
+                ZTSV_ARRAY expected = LocationLevelsDaoImpl.call_RETRIEVE_LOC_LVL_VALUES3(
+                        dsl.configuration(), LocationLevelsDaoImpl.buildTsvArray(times),
+                        levelId, "ft", null, null, null, "UTC", OFFICE);
+                assertEquals(times.size(), expected.size());
+                double[] actual = evaluator.valuesAt(times);
+                for (int i = 0; i < actual.length; i++) {
+                    assertEquals(expected.get(i).getVALUE(), actual[i], 1e-4,
+                            "Value check failed at " + times.get(i));
+                }
+            } finally {
+                dao.deleteLocationLevel(levelId, levelDate, OFFICE, true);
+            }
+        });
+    }
+
+    private static SeasonalValueBean seasonal(double value, int offsetMonths, int offsetMinutes) {
+        return new SeasonalValueBean.Builder(value)
+                .withOffsetMonths(offsetMonths)
+                .withOffsetMinutes(BigInteger.valueOf(offsetMinutes))
+                .build();
+    }
+}
@@ -0,0 +1,208 @@
+package cwms.cda.data.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static usace.cwms.db.jooq.codegen.tables.AV_LOCATION_LEVEL.AV_LOCATION_LEVEL;
+
+import cwms.cda.data.dto.CwmsDTOPaginated;
+import cwms.cda.data.dto.LocationLevel;
+import cwms.cda.data.dto.LocationLevels;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockDataProvider;
+import org.jooq.tools.jdbc.MockExecuteContext;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pages through the levels of a view served from memory: a constant level, a level with three
+ * seasonal rows, another constant level and a level with five seasonal rows.
+ */
+class LocationLevelsPagingTest {
+    private static final String OFFICE = "SPK";
+    private static final Timestamp LEVEL_DATE =
+            Timestamp.from(Instant.parse("2024-01-01T00:00:00Z"));
+    private static final String A = "A.Elev.Inst.0.Top of Flood";
+    private static final String B = "B.Elev.Inst.0.Regulating";
+    private static final String C = "C.Elev.Inst.0.Top of Flood";
+    private static final String D = "D.Elev.Inst.0.Regulating";
+
+    /**
+     * Answers the page queries with the rows after the seek position, skipping the offset and
+     * limited to the limit, and the query for a single level with all of its rows.
+     */
+    private static final class LevelRows implements MockDataProvider {
+        private final DSLContext create = DSL.using(SQLDialect.ORACLE18C);
+        private final Field<?>[] fields;
+        private final List<Record> rows = new ArrayList<>();
+        private final List<String> queries = new ArrayList<>();
+        private int singleLevelQueries;
+
+        LevelRows(LocationLevelsDaoImpl dao) {
+            fields = dao.getAddSeasonalValueFields().toArray(new Field<?>[0]);
+            add(A, 1);
+            add(B, 3);
+            add(C, 1);
+            add(D, 5);
+        }
+
+        private void add(String levelId, int count) {
+            for (int i = 0; i < count; i++) {
+                Record row = create.newRecord(fields);
+                row.set(AV_LOCATION_LEVEL.OFFICE_ID, OFFICE);
+                row.set(AV_LOCATION_LEVEL.LOCATION_LEVEL_ID, levelId);
+                row.set(AV_LOCATION_LEVEL.LEVEL_DATE, LEVEL_DATE);
+                row.set(AV_LOCATION_LEVEL.LEVEL_UNIT, "ft");
+                row.set(AV_LOCATION_LEVEL.CONSTANT_LEVEL, (double) i);
+                rows.add(row);
+            }
+        }
+
+        private static String key(Record r) {
+            return r.get(AV_LOCATION_LEVEL.OFFICE_ID).toUpperCase() + "/"
+                    + r.get(AV_LOCATION_LEVEL.LOCATION_LEVEL_ID).toUpperCase() + "/"
+                    + r.get(AV_LOCATION_LEVEL.LEVEL_DATE).getTime();
+        }
+
+        @Override
+        public MockResult[] execute(MockExecuteContext ctx) {
+            queries.add(ctx.sql());
+            // the first string is the unit system, the office and level id of a seek position
+            // or of a single level come first and last among the others
+            List<String> strings = new ArrayList<>();
+            List<Number> numbers = new ArrayList<>();
+            Timestamp date = null;
+            for (Object binding : ctx.bindings()) {
+                if (binding instanceof String) {
+                    strings.add((String) binding);
+                } else if (binding instanceof Number) {
+                    numbers.add((Number) binding);
+                } else if (binding instanceof Timestamp) {
+                    date = (Timestamp) binding;
+                }
+            }
+            String position = date == null ? null : strings.get(1) + "/"
+                    + strings.get(strings.size() - 1) + "/" + date.getTime();
+
+            Result<Record> result = create.newResult(fields);
+            if (numbers.isEmpty()) {
+                singleLevelQueries++;
+                rows.stream().filter(r -> key(r).equals(position)).forEach(result::add);
+            } else {
+                int limit = numbers.get(numbers.size() - 1).intValue();
+                int offset = numbers.size() > 1 ? numbers.get(0).intValue() : 0;
+                rows.stream()
+                        .filter(r -> position == null || key(r).compareTo(position) > 0)
+                        .skip(offset)
+                        .limit(limit)
+                        .forEach(result::add);
+            }
+            return new MockResult[]{new MockResult(result.size(), result)};
+        }
+    }
+
+    private static List<String> ids(LocationLevels page) {
+        return page.getLevels().stream()
+                .map(LocationLevel::getLocationLevelId)
+                .collect(Collectors.toList());
+    }
+
+    private static String[] seekPosition(String cursor) {
+        return Arrays.copyOf(CwmsDTOPaginated.decodeCursor(cursor), 3);
+    }
+
+    @Test
+    void test_pages_keep_levels_whole() {
+        LocationLevelsDaoImpl dao = new LocationLevelsDaoImpl(null);
+        LevelRows provider = new LevelRows(dao);
+        dao = new LocationLevelsDaoImpl(DSL.using(new MockConnection(provider),
+                SQLDialect.ORACLE18C));
+
+        // the fifth row starts level C, the page ends after B
+        LocationLevels first = dao.getLocationLevels(null, 4, null, OFFICE, "EN", null, null,
+                null);
+        assertEquals(Arrays.asList(A, B), ids(first));
+        assertNotNull(first.getNextPage());
+        assertEquals(Arrays.asList(OFFICE, B.toUpperCase(), String.valueOf(LEVEL_DATE.getTime())),
+                Arrays.asList(seekPosition(first.getNextPage())));
+
+        // the page boundary falls inside D, which moves whole to the next page
+        LocationLevels second = dao.getLocationLevels(first.getNextPage(), 100, null, OFFICE,
+                "EN", null, null, null);
+        assertEquals(4, second.getPageSize());
+        assertEquals(Arrays.asList(seekPosition(first.getNextPage())),
+                Arrays.asList(seekPosition(second.getPage())));
+        assertEquals(Arrays.asList(C), ids(second));
+        assertNotNull(second.getNextPage());
+
+        // D alone has more rows than the page size and is read in full
+        LocationLevels third = dao.getLocationLevels(second.getNextPage(), 4, null, OFFICE,
+                "EN", null, null, null);
+        assertEquals(Arrays.asList(D), ids(third));
+        assertEquals(1, provider.singleLevelQueries);
+        assertNotNull(third.getNextPage());
+
+        LocationLevels last = dao.getLocationLevels(third.getNextPage(), 4, null, OFFICE,
+                "EN", null, null, null);
+        assertEquals(0, last.getLevels().size());
+        assertNull(last.getNextPage());
+        assertEquals(5, provider.queries.size());
+    }
+
+    @Test
+    void test_offset_cursor_still_accepted() {
+        LocationLevelsDaoImpl dao = new LocationLevelsDaoImpl(null);
+        LevelRows provider = new LevelRows(dao);
+        dao = new LocationLevelsDaoImpl(DSL.using(new MockConnection(provider),
+                SQLDialect.ORACLE18C));
+
+        // offset||total||pageSize
+        LocationLevels page = dao.getLocationLevels(cursor("1||10||4"), 100, null, OFFICE,
+                "EN", null, null, null);
+        assertEquals(4, page.getPageSize());
+        assertEquals(Arrays.asList(B, C), ids(page));
+        assertEquals(Arrays.asList(OFFICE, C.toUpperCase(), String.valueOf(LEVEL_DATE.getTime())),
+                Arrays.asList(seekPosition(page.getNextPage())));
+    }
+
+    @Test
+    void test_invalid_cursor_rejected() {
+        LocationLevelsDaoImpl dao = new LocationLevelsDaoImpl(null);
+        LevelRows provider = new LevelRows(dao);
+        LocationLevelsDaoImpl mocked = new LocationLevelsDaoImpl(DSL.using(
+                new MockConnection(provider), SQLDialect.ORACLE18C));
+
+        // IllegalArgumentException is answered with a 400
+        for (String cursor : Arrays.asList(
+                cursor("SPK||" + A + "||not-a-date||null||4"),
+                cursor("SPK||" + A + "||0||null||four"),
+                cursor("x||10||4"),
+                cursor("1||4"),
+                cursor("1||10||0"),
+                cursor("-1||10||4"),
+                "not base64!")) {
+            assertThrows(IllegalArgumentException.class, () -> mocked.getLocationLevels(cursor, 4,
+                    null, OFFICE, "EN", null, null, null), cursor);
+        }
+        assertEquals(0, provider.queries.size());
+    }
+
+    private static String cursor(String decoded) {
+        return Base64.getEncoder().encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,108 @@
+package cwms.cda.data.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.base.Ticker;
+import cwms.cda.security.CwmsAuthException;
+import cwms.cda.security.DataApiPrincipal;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class PrincipalCacheTest {
+
+    private static final class ManualTicker extends Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(long duration, TimeUnit unit) {
+            nanos.addAndGet(unit.toNanos(duration));
+        }
+    }
+
+    private static PrincipalCache.Loader<Object> counting(AtomicInteger loads, String user) {
+        return key -> {
+            loads.incrementAndGet();
+            return new DataApiPrincipal(user, Collections.emptySet());
+        };
+    }
+
+    @AfterEach
+    void clear() {
+        AuthDao.invalidatePrincipals(null);
+    }
+
+    @Test
+    void test_cached_principal_reused_until_expired() throws Exception {
+        ManualTicker ticker = new ManualTicker();
+        PrincipalCache<Object> cache = new PrincipalCache<>(10, 60, ticker);
+        AtomicInteger loads = new AtomicInteger();
+
+        DataApiPrincipal first = cache.get("key", counting(loads, "user.1"));
+        ticker.advance(59, TimeUnit.SECONDS);
+        assertSame(first, cache.get("key", counting(loads, "user.1")));
+        assertEquals(1, loads.get());
+
+        ticker.advance(2, TimeUnit.SECONDS);
+        cache.get("key", counting(loads, "user.1"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void test_failed_load_not_cached() throws Exception {
+        PrincipalCache<Object> cache = new PrincipalCache<>(10, 60, Ticker.systemTicker());
+        assertThrows(CwmsAuthException.class, () -> cache.get("key", key -> {
+            throw new CwmsAuthException("No user for key");
+        }));
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("key", counting(loads, "user.1"));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void test_user_change_evicts_key_and_edipi_principals() throws Exception {
+        AtomicInteger keyLoads = new AtomicInteger();
+        AtomicInteger edipiLoads = new AtomicInteger();
+        AtomicInteger otherLoads = new AtomicInteger();
+        AuthDao.apiKeyPrincipals.get("hash-1", key -> {
+            keyLoads.incrementAndGet();
+            return new DataApiPrincipal("user.1", Collections.emptySet());
+        });
+        AuthDao.edipiPrincipals.get(1234567890L, key -> {
+            edipiLoads.incrementAndGet();
+            return new DataApiPrincipal("user.1", Collections.emptySet());
+        });
+        AuthDao.apiKeyPrincipals.get("hash-2", key -> {
+            otherLoads.incrementAndGet();
+            return new DataApiPrincipal("other.2", Collections.emptySet());
+        });
+
+        // published on the DataChangeBus as a USER change
+        AuthDao.invalidatePrincipals("USER.1");
+
+        AuthDao.apiKeyPrincipals.get("hash-1", key -> {
+            keyLoads.incrementAndGet();
+            return new DataApiPrincipal("user.1", Collections.emptySet());
+        });
+        AuthDao.edipiPrincipals.get(1234567890L, key -> {
+            edipiLoads.incrementAndGet();
+            return new DataApiPrincipal("user.1", Collections.emptySet());
+        });
+        AuthDao.apiKeyPrincipals.get("hash-2", key -> {
+            otherLoads.incrementAndGet();
+            return new DataApiPrincipal("other.2", Collections.emptySet());
+        });
+        assertEquals(2, keyLoads.get());
+        assertEquals(2, edipiLoads.get());
+        assertEquals(1, otherLoads.get());
+    }
+}
@@ -0,0 +1,96 @@
+package cwms.cda.data.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+import hec.data.cwmsRating.RatingSet;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import mil.army.usace.hec.cwms.rating.io.xml.RatingXmlFactory;
+import org.junit.jupiter.api.Test;
+
+class RatingSetCacheTest {
+    private static final String SPEC = "TEST.Stage;Flow.BASE.PRODUCTION";
+
+    @AfterEach
+    void clear() {
+        RatingSetCache.invalidateOffice(null);
+    }
+
+    @Test
+    void test_loaded_once_per_window() throws Exception {
+        RatingSet ratingSet = mock(RatingSet.class);
+        AtomicInteger loads = new AtomicInteger();
+        RatingSetCache.RatingSetLoader loader = () -> {
+            loads.incrementAndGet();
+            return ratingSet;
+        };
+        Instant begin = Instant.parse("2020-01-01T00:00:00Z");
+
+        RatingSetCache.Entry first = RatingSetCache.get("SWT", SPEC, begin, null, loader);
+        RatingSetCache.Entry second = RatingSetCache.get("swt", SPEC.toLowerCase(), begin, null, loader);
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+
+        RatingSetCache.get("SWT", SPEC, null, null, loader);
+        assertEquals(2, loads.get());
+
+        AtomicInteger formats = new AtomicInteger();
+        first.getFormatted("application/json;version=2", r -> "json" + formats.incrementAndGet());
+        assertEquals("json1", first.getFormatted("application/json;version=2", r -> "other"));
+    }
+
+    @Test
+    void test_invalidate_spec() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        RatingSetCache.RatingSetLoader loader = () -> {
+            loads.incrementAndGet();
+            return mock(RatingSet.class);
+        };
+
+        RatingSetCache.get("SWT", SPEC, null, null, loader);
+        RatingSetCache.get("SWT", "OTHER.Stage;Flow.BASE.PRODUCTION", null, null, loader);
+        RatingSetCache.invalidate("SWT", SPEC);
+        RatingSetCache.get("SWT", SPEC, null, null, loader);
+        RatingSetCache.get("SWT", "OTHER.Stage;Flow.BASE.PRODUCTION", null, null, loader);
+        assertEquals(3, loads.get());
+
+        RatingSetCache.invalidateOffice("SPK");
+        RatingSetCache.get("SWT", SPEC, null, null, loader);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void test_missing_not_cached() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        RatingSetCache.RatingSetLoader loader = () -> {
+            loads.incrementAndGet();
+            return null;
+        };
+        assertNull(RatingSetCache.get("SWT", SPEC, null, null, loader));
+        assertNull(RatingSetCache.get("SWT", SPEC, null, null, loader));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void test_units_applied_to_a_copy() throws Exception {
+        RatingSet ratingSet = RatingXmlFactory.ratingSet(JsonRatingUtilsTest.loadResourceAsString(
+                "cwms/cda/data/dao/SMNM_Stage_Flow_Linear_Step.xml"));
+        String[] units = ratingSet.getDataUnits();
+        RatingSetCache.Entry entry = RatingSetCache.get("SWT", SPEC, null, null, () -> ratingSet);
+
+        List<String> metric = Arrays.asList("m", "cms");
+        RatingSet copy = entry.getRatingSet(metric);
+        assertNotSame(ratingSet, copy);
+        assertArrayEquals(new String[]{"m", "cms"}, copy.getDataUnits());
+        assertArrayEquals(units, entry.getRatingSet().getDataUnits());
+        assertSame(copy, entry.getRatingSet(Arrays.asList("m", "cms")));
+    }
+}
@@ -0,0 +1,124 @@
+package cwms.cda.data.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import cwms.cda.data.dao.basinconnectivity.StreamNetworkCache;
+import cwms.cda.data.dto.CwmsId;
+import cwms.cda.data.dto.stream.Stream;
+import cwms.cda.data.dto.stream.StreamLocation;
+import cwms.cda.data.dto.stream.StreamNode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+final class StreamLocationIndexTest {
+    private static final String OFFICE = "SWT";
+
+    private static CwmsId id(String name) {
+        return new CwmsId.Builder().withOfficeId(OFFICE).withName(name).build();
+    }
+
+    private static Stream stream(String name, boolean startsDownstream, String flowsInto,
+                                 Double confluenceStation) {
+        Stream.Builder builder = new Stream.Builder()
+                .withId(id(name))
+                .withStartsDownstream(startsDownstream);
+        if (flowsInto != null) {
+            builder.withFlowsIntoStreamNode(new StreamNode.Builder()
+                    .withStreamId(id(flowsInto))
+                    .withStation(confluenceStation)
+                    .build());
+        }
+        return builder.build();
+    }
+
+    private static StreamLocation location(String streamId, String name, Double station) {
+        return new StreamLocation.Builder()
+                .withStreamLocationNode(StreamLocationDao.buildStreamLocationNode(OFFICE,
+                        streamId, name, station, null, "km"))
+                .build();
+    }
+
+    /**
+     * Main is stationed from its mouth, Trib from its head and joins Main between B and C.
+     */
+    private static StreamLocationIndex index() {
+        return new StreamLocationIndex(
+                Arrays.asList(stream("Main", true, null, null),
+                        stream("Trib", false, "Main", 25.0)),
+                Arrays.asList(location("Main", "A", 10.0),
+                        location("Main", "C", 30.0),
+                        location("Main", "B", 20.0),
+                        location("Trib", "T2", 8.0),
+                        location("Trib", "T1", 2.0),
+                        location("Main", "Unstationed", null)));
+    }
+
+    private static List<String> names(List<StreamLocation> locations) {
+        return locations.stream().map(l -> l.getId().getName()).collect(Collectors.toList());
+    }
+
+    @Test
+    void test_downstream() {
+        StreamLocationIndex index = index();
+        assertEquals(5, index.size());
+        assertEquals(Arrays.asList("B", "A"), names(index.downstream("C", true, false)));
+        assertEquals(Arrays.asList("B"), names(index.downstream("c", false, false)));
+        assertEquals(Arrays.asList("T2", "B", "A"), names(index.downstream("T1", true, false)));
+        assertEquals(Arrays.asList("T2"), names(index.downstream("T1", true, true)));
+        assertEquals(Arrays.asList("B"), names(index.downstream("T2", false, false)));
+        assertEquals(Arrays.asList(), names(index.downstream("A", true, false)));
+        assertNull(index.downstream("Unstationed", true, false));
+        assertNull(index.downstream("Missing", true, false));
+    }
+
+    @Test
+    void test_upstream() {
+        StreamLocationIndex index = index();
+        assertEquals(Arrays.asList("B", "C", "T2", "T1"), names(index.upstream("A", true, false)));
+        assertEquals(Arrays.asList("B"), names(index.upstream("A", false, false)));
+        assertEquals(Arrays.asList("C", "T2"), names(index.upstream("B", false, false)));
+        assertEquals(Arrays.asList("C"), names(index.upstream("B", true, true)));
+        assertEquals(Arrays.asList("T1"), names(index.upstream("T2", true, false)));
+        assertNull(index.upstream("Missing", true, false));
+    }
+
+    @Test
+    void test_rebuilt_after_invalidation() {
+        AtomicInteger builds = new AtomicInteger();
+        Supplier<StreamLocationIndex> builder = () -> {
+            builds.incrementAndGet();
+            return index();
+        };
+        StreamLocationIndex first = StreamNetworkCache.getIndex("SWT", "km", "m", "km2", builder);
+        assertSame(first, StreamNetworkCache.getIndex("swt", "km", "m", "km2", builder));
+        assertEquals(1, builds.get());
+
+        StreamNetworkCache.invalidateOffice("SWL");
+        assertSame(first, StreamNetworkCache.getIndex("SWT", "km", "m", "km2", builder));
+
+        StreamNetworkCache.invalidateOffice("swt");
+        assertNotSame(first, StreamNetworkCache.getIndex("SWT", "km", "m", "km2", builder));
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void test_stream_write_drops_index_with_network() {
+        AtomicInteger builds = new AtomicInteger();
+        Supplier<StreamLocationIndex> builder = () -> {
+            builds.incrementAndGet();
+            return index();
+        };
+        StreamNetworkCache.getIndex("SWF", "mi", "ft", "mi2", builder);
+        // a reach write used to leave the index alone while the network was dropped
+        DataChangeBus.publish(DataChangeBus.Entity.STREAM_REACH, "SWF", "Trinity");
+        StreamNetworkCache.getIndex("SWF", "mi", "ft", "mi2", builder);
+        assertEquals(2, builds.get());
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Hydrologic Engineering Center
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cwms.cda.data.dao;
+
+import static cwms.cda.data.dao.DaoTest.getDslContext;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import cwms.cda.api.DataApiTestIT;
+import cwms.cda.data.dto.CwmsId;
+import cwms.cda.data.dto.stream.Bank;
+import cwms.cda.data.dto.stream.Stream;
+import cwms.cda.data.dto.stream.StreamLocation;
+import cwms.cda.data.dto.stream.StreamLocationNode;
+import cwms.cda.data.dto.stream.StreamNode;
+import fixtures.CwmsDataApiSetupCallback;
+import fixtures.TestAccounts;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import mil.army.usace.hec.test.database.CwmsDatabaseContainer;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the walks of the in-memory index with the database routines on a small network: a
+ * main stream with four locations and a tributary with two, joining the main stream between
+ * its second and third locations.
+ */
+@Tag("integration")
+final class StreamLocationIndexTestIT extends DataApiTestIT {
+
+    private static final String OFFICE_ID = TestAccounts.KeyUser.SWT_NORMAL.getOperatingOffice();
+    private static final String MAIN = "SLI_MAIN";
+    private static final String TRIBUTARY = "SLI_TRIB";
+    private static final List<String> MAIN_LOCATIONS = Arrays.asList("SLI_M10", "SLI_M40",
+            "SLI_M60", "SLI_M90");
+    private static final List<String> TRIBUTARY_LOCATIONS = Arrays.asList("SLI_T5", "SLI_T20");
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        createLocation(MAIN, true, OFFICE_ID, "STREAM");
+        createLocation(TRIBUTARY, true, OFFICE_ID, "STREAM");
+        for (String location : MAIN_LOCATIONS) {
+            createLocation(location, true, OFFICE_ID, "STREAM_LOCATION");
+        }
+        for (String location : TRIBUTARY_LOCATIONS) {
+            createLocation(location, true, OFFICE_ID, "STREAM_LOCATION");
+        }
+        CwmsDatabaseContainer<?> db = CwmsDataApiSetupCallback.getDatabaseLink();
+        db.connection(c -> {
+            DSLContext context = getDslContext(c, OFFICE_ID);
+            StreamDao streamDao = new StreamDao(context);
+            streamDao.storeStream(buildStream(MAIN, 100.0, null), false);
+            streamDao.storeStream(buildStream(TRIBUTARY, 30.0,
+                    buildStreamNode(MAIN, 50.0, Bank.LEFT)), false);
+            StreamLocationDao streamLocationDao = new StreamLocationDao(context);
+            streamLocationDao.storeStreamLocation(buildStreamLocation(MAIN, "SLI_M10", 10.0), false);
+            streamLocationDao.storeStreamLocation(buildStreamLocation(MAIN, "SLI_M40", 40.0), false);
+            streamLocationDao.storeStreamLocation(buildStreamLocation(MAIN, "SLI_M60", 60.0), false);
+            streamLocationDao.storeStreamLocation(buildStreamLocation(MAIN, "SLI_M90", 90.0), false);
+            streamLocationDao.storeStreamLocation(buildStreamLocation(TRIBUTARY, "SLI_T5", 5.0), false);
+            streamLocationDao.storeStreamLocation(buildStreamLocation(TRIBUTARY, "SLI_T20", 20.0), false);
+        }, CwmsDataApiSetupCallback.getWebUser());
+    }
+
+    @AfterAll
+    public static void tearDown() throws SQLException {
+        CwmsDatabaseContainer<?> db = CwmsDataApiSetupCallback.getDatabaseLink();
+        db.connection(c -> {
+            StreamDao streamDao = new StreamDao(getDslContext(c, OFFICE_ID));
+            for (String stream : Arrays.asList(TRIBUTARY, MAIN)) {
+                try {
+                    streamDao.deleteStream(OFFICE_ID, stream, DeleteRule.DELETE_ALL);
+                } catch (Exception e) {
+                    //ignore
+                }
+            }
+        }, CwmsDataApiSetupCallback.getWebUser());
+    }
+
+    @Test
+    void test_index_matches_database_routines() throws Exception {
+        CwmsDatabaseContainer<?> db = CwmsDataApiSetupCallback.getDatabaseLink();
+        db.connection(c -> {
+            StreamLocationDao dao = new StreamLocationDao(getDslContext(c, OFFICE_ID));
+            StreamLocationIndex index = dao.getIndex(OFFICE_ID, "km", "m", "km2");
+            for (String location : Arrays.asList("SLI_M10", "SLI_M40", "SLI_M60", "SLI_M90",
+                    "SLI_T5", "SLI_T20")) {
+                for (boolean all : new boolean[]{true, false}) {
+                    for (boolean sameStreamOnly : new boolean[]{true, false}) {
+                        String query = location + " all=" + all + " sameStreamOnly=" + sameStreamOnly;
+                        List<StreamLocation> downstream = index.downstream(location, all, sameStreamOnly);
+                        assertNotNull(downstream, query);
+                        assertEquals(names(dao.retrieveDownstreamLocationsFromDatabase(OFFICE_ID,
+                                        location, all, sameStreamOnly, "km", "m", "km2")),
+                                names(downstream), "downstream of " + query);
+
+                        List<StreamLocation> upstream = index.upstream(location, all, sameStreamOnly);
+                        assertNotNull(upstream, query);
+                        // the routine does not define an order between the branches
+                        assertEquals(sortedNames(dao.retrieveUpstreamLocationsFromDatabase(OFFICE_ID,
+                                        location, all, sameStreamOnly, "km", "m", "km2")),
+                                sortedNames(upstream), "upstream of " + query);
+                    }
+                }
+            }
+        }, CwmsDataApiSetupCallback.getWebUser());
+    }
+
+    private static List<String> names(List<StreamLocation> locations) {
+        return locations.stream()
+                .map(l -> l.getId().getName().toUpperCase())
+                .collect(toList());
+    }
+
+    private static List<String> sortedNames(List<StreamLocation> locations) {
+        return names(locations).stream().sorted().collect(toList());
+    }
+
+    private static Stream buildStream(String streamId, double length, StreamNode flowsIntoNode) {
+        return new Stream.Builder()
+                .withId(new CwmsId.Builder()
+                        .withName(streamId)
+                        .withOfficeId(OFFICE_ID)
+                        .build())
+                .withStartsDownstream(true)
+                .withFlowsIntoStreamNode(flowsIntoNode)
+                .withLength(length)
+                .withLengthUnits("km")
+                .build();
+    }
+
+    private static StreamNode buildStreamNode(String streamId, double station, Bank bank) {
+        return new StreamNode.Builder()
+                .withStreamId(new CwmsId.Builder()
+                        .withName(streamId)
+                        .withOfficeId(OFFICE_ID)
+                        .build())
+                .withStation(station)
+                .withBank(bank)
+                .withStationUnits("km")
+                .build();
+    }
+
+    private static StreamLocation buildStreamLocation(String streamId, String locationId,
+                                                      double station) {
+        return new StreamLocation.Builder()
+                .withStreamLocationNode(new StreamLocationNode.Builder()
+                        .withId(new CwmsId.Builder()
+                                .withName(locationId)
+                                .withOfficeId(OFFICE_ID)
+                                .build())
+                        .withStreamNode(buildStreamNode(streamId, station, Bank.LEFT))
+                        .build())
+                .withPublishedStation(station)
+                .withAreaUnits("km2")
+                .withStageUnits("m")
+                .build();
+    }
+}
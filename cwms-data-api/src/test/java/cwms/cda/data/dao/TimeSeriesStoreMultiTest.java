@@ -0,0 +1,70 @@
+package cwms.cda.data.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import cwms.cda.data.dto.TimeSeries;
+import cwms.cda.data.dto.TimeSeriesIngestResult;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jooq.ConnectionRunnable;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+
+class TimeSeriesStoreMultiTest {
+
+    private static TimeSeries series(String name, String officeId) {
+        ZonedDateTime begin = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+        return new TimeSeries(null, 0, 0, name, officeId, begin, begin.plusHours(1), "ft",
+                null);
+    }
+
+    @Test
+    void test_missing_office_or_name_reported_per_series() {
+        DSLContext dsl = mock(DSLContext.class);
+        TimeSeriesDaoImpl dao = new TimeSeriesDaoImpl(dsl);
+
+        TimeSeriesIngestResult result = dao.storeMulti(Arrays.asList(
+                series("LOC1.Stage.Inst.1Hour.0.test", null),
+                series("LOC2.Stage.Inst.1Hour.0.test", ""),
+                series(null, "SWT")), false, StoreRule.REPLACE_ALL, false, 100);
+
+        assertTrue(result.getStored().isEmpty());
+        assertEquals(3, result.getErrors().size());
+        assertEquals("LOC1.Stage.Inst.1Hour.0.test", result.getErrors().get(0).getName());
+        assertEquals("LOC2.Stage.Inst.1Hour.0.test", result.getErrors().get(1).getName());
+        assertTrue(result.getErrors().get(2).getMessage().contains("name"));
+        // nothing was left to send to the database
+        verify(dsl, never()).connection(any(ConnectionRunnable.class));
+    }
+
+    @Test
+    void test_store_published_after_connection_returned() {
+        List<String> events = new ArrayList<>();
+        DSLContext dsl = mock(DSLContext.class);
+        // the pooled connection commits the call before it is handed back
+        doAnswer(invocation -> {
+            events.add("committed");
+            return null;
+        }).when(dsl).connection(any(ConnectionRunnable.class));
+        DataChangeBus.Listener listener = (officeId, id) -> events.add("published " + id);
+        DataChangeBus.subscribe(DataChangeBus.Entity.TIME_SERIES, listener);
+        try {
+            new TimeSeriesDaoImpl(dsl).store(series("LOC1.Stage.Inst.1Hour.0.test", "SWT"),
+                    false, StoreRule.REPLACE_ALL, false);
+        } finally {
+            DataChangeBus.unsubscribe(DataChangeBus.Entity.TIME_SERIES, listener);
+        }
+
+        assertEquals(Arrays.asList("committed", "published LOC1.Stage.Inst.1Hour.0.test"),
+                events);
+    }
+}
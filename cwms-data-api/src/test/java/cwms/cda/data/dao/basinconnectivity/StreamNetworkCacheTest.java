@@ -0,0 +1,72 @@
+package cwms.cda.data.dao.basinconnectivity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import cwms.cda.data.dto.basinconnectivity.Stream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class StreamNetworkCacheTest {
+
+    private static StreamNetwork network(String officeId, String streamId) {
+        Stream tributary = new Stream.Builder("Trib", true, 2.0, officeId)
+                .withReceivingStreamId(streamId)
+                .withConfluenceStation(1.0)
+                .withConfluenceBank("L")
+                .build();
+        Stream stream = new Stream.Builder(streamId, true, 10.0, officeId)
+                .withTributaries(Collections.singletonList(tributary))
+                .build();
+        return new StreamNetwork(Arrays.asList(stream, tributary));
+    }
+
+    @Test
+    void test_lookup_ignores_case() {
+        StreamNetwork network = network("SWT", "Arkansas");
+        assertEquals(2, network.size());
+        Stream stream = network.getStream("swt", "ARKANSAS");
+        assertEquals("Arkansas", stream.getStreamName());
+        assertEquals(1, stream.getTributaries().size());
+        assertNull(network.getStream("SWL", "Arkansas"));
+    }
+
+    @Test
+    void test_loaded_once_until_invalidated() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<StreamNetwork> loader = () -> {
+            loads.incrementAndGet();
+            return network("SWF", "Trinity");
+        };
+        StreamNetwork first = StreamNetworkCache.get("SWF", "EN", loader);
+        assertSame(first, StreamNetworkCache.get("swf", "en", loader));
+        assertEquals(1, loads.get());
+
+        StreamNetworkCache.invalidateOffice("SWL");
+        assertSame(first, StreamNetworkCache.get("SWF", "EN", loader));
+
+        StreamNetworkCache.invalidateOffice("swf");
+        assertNotSame(first, StreamNetworkCache.get("SWF", "EN", loader));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void test_all_offices_invalidated_by_any_office() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<StreamNetwork> loader = () -> {
+            loads.incrementAndGet();
+            return network("SPK", "Sacramento");
+        };
+        StreamNetworkCache.get(null, "SI", loader);
+        StreamNetworkCache.get(null, "SI", loader);
+        assertEquals(1, loads.get());
+        StreamNetworkCache.invalidateOffice("SPK");
+        StreamNetworkCache.get(null, "SI", loader);
+        assertEquals(2, loads.get());
+    }
+}
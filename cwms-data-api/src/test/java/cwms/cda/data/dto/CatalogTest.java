@@ -45,4 +45,18 @@ class CatalogTest
 		assertNull(page.getSearchOffice());
 		assertEquals(page.getCurOffice(),fromString.getCurOffice());
 	}
+
+	@Test
+	void test_catalog_page_unknown_total() {
+		CatalogRequestParameters params = new CatalogRequestParameters.Builder()
+				.withIdLike(".*")
+				.build();
+
+		final CatalogPage page = new CatalogPage("SPK/a", params);
+		final String pageString = Catalog.encodeCursor(page.toString(), 10, null);
+		final CatalogPage fromString = new CatalogPage(pageString);
+		assertNull(fromString.getTotal());
+		assertEquals(10, fromString.getPageSize());
+		assertEquals(page.getCursorId(), fromString.getCursorId());
+	}
 }
@@ -1,6 +1,7 @@
 package cwms.cda.data.dto;
 
 import cwms.cda.formatters.json.JsonV2;
+import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
@@ -147,4 +148,32 @@ public class TimeSeriesTest
 		assertFalse(xmlStr.contains("officeId"));
 		assertTrue(xmlStr.contains("office-id"));
 	}
+
+	@Test
+	void testColumnarValues() throws JsonProcessingException
+	{
+		TimeSeries ts = buildTimeSeries();
+		long start = ts.getBegin().toInstant().toEpochMilli();
+		for (int i = 0; i < 100; i++)
+		{
+			Double value = i % 10 == 0 ? null : (double) i;
+			ts.addValue(new Timestamp(start + i * 60_000L), value, i % 3);
+		}
+
+		assertEquals(100, ts.getValues().size());
+		assertEquals(100, ts.getValueArray().length);
+		assertNull(ts.getValues().get(10).getValue());
+		assertTrue(Double.isNaN(ts.getValueArray()[10]));
+		assertEquals(11.0, ts.getValues().get(11).getValue());
+		assertEquals(start + 11 * 60_000L, ts.getDateTimeArray()[11]);
+		assertEquals(2, ts.getQualityArray()[11]);
+
+		ObjectMapper om = buildObjectMapper();
+		TimeSeries ts2 = om.readValue(om.writeValueAsString(ts), TimeSeries.class);
+		assertEquals(ts.getValues(), ts2.getValues());
+
+		XMLv2 xmlV2 = new XMLv2();
+		TimeSeries ts3 = xmlV2.parseContent(xmlV2.format(ts), TimeSeries.class);
+		assertEquals(ts.getValues(), ts3.getValues());
+	}
 }
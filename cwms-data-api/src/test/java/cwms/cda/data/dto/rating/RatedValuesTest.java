@@ -0,0 +1,30 @@
+package cwms.cda.data.dto.rating;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import cwms.cda.api.errors.FieldException;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class RatedValuesTest {
+
+    @Test
+    void test_independent_values_of_unequal_length_rejected() {
+        RatedValues input = new RatedValues.Builder()
+                .withIndependentValues(Arrays.asList(Arrays.asList(1.0, 2.0, 3.0),
+                        Arrays.asList(1.0, 2.0)))
+                .build();
+        assertThrows(FieldException.class, input::validate);
+    }
+
+    @Test
+    void test_independent_values_of_equal_length_accepted() {
+        RatedValues input = new RatedValues.Builder()
+                .withValueTimes(new long[]{1000L, 2000L})
+                .withIndependentValues(Arrays.asList(Arrays.asList(1.0, 2.0),
+                        Arrays.asList(3.0, 4.0)))
+                .build();
+        assertDoesNotThrow(input::validate);
+    }
+}
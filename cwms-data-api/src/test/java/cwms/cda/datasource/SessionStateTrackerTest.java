@@ -0,0 +1,67 @@
+package cwms.cda.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SessionStateTrackerTest {
+
+    @Test
+    void test_unchanged_value_skips_update() throws Exception {
+        Connection conn = mock(Connection.class);
+        AtomicInteger calls = new AtomicInteger();
+        long hits = SessionStateTracker.getHits();
+        long misses = SessionStateTracker.getMisses();
+
+        SessionStateTracker.apply(conn, SessionStateTracker.OFFICE, "SWT", calls::incrementAndGet);
+        SessionStateTracker.apply(conn, SessionStateTracker.OFFICE, "SWT", calls::incrementAndGet);
+        assertEquals(1, calls.get());
+
+        SessionStateTracker.apply(conn, SessionStateTracker.OFFICE, "SPK", calls::incrementAndGet);
+        assertEquals(2, calls.get());
+        assertEquals(hits + 1, SessionStateTracker.getHits());
+        assertEquals(misses + 2, SessionStateTracker.getMisses());
+
+        SessionStateTracker.forget(conn, SessionStateTracker.OFFICE);
+        SessionStateTracker.apply(conn, SessionStateTracker.OFFICE, "SPK", calls::incrementAndGet);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void test_time_zone_set_once_per_connection() throws Exception {
+        Connection conn = mock(Connection.class);
+        CallableStatement stmt = mock(CallableStatement.class);
+        when(conn.prepareCall(anyString())).thenReturn(stmt);
+
+        SessionTimeZonePreparer preparer = new SessionTimeZonePreparer();
+        preparer.prepare(conn);
+        preparer.prepare(conn);
+
+        verify(stmt, times(1)).execute();
+    }
+
+    @Test
+    void test_user_change_resets_office() throws Exception {
+        Connection conn = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        when(conn.prepareStatement(anyString())).thenReturn(stmt);
+        AtomicInteger officeCalls = new AtomicInteger();
+
+        SessionStateTracker.apply(conn, SessionStateTracker.OFFICE, "SWT", officeCalls::incrementAndGet);
+        new DirectUserPreparer("user1").prepare(conn);
+        new DirectUserPreparer("user1").prepare(conn);
+        verify(stmt, times(1)).execute();
+
+        SessionStateTracker.apply(conn, SessionStateTracker.OFFICE, "SWT", officeCalls::incrementAndGet);
+        assertEquals(2, officeCalls.get());
+    }
+}
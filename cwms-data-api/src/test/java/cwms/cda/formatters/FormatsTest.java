@@ -11,6 +11,7 @@ import cwms.cda.data.dto.County;
 import cwms.cda.data.dto.CwmsDTOBase;
 import cwms.cda.data.dto.Office;
 import cwms.cda.data.dto.State;
+import cwms.cda.data.dto.TimeSeriesBatch;
 import cwms.cda.data.dto.basinconnectivity.Basin;
 import cwms.cda.data.dto.project.Project;
 import java.util.Map;
@@ -165,6 +166,25 @@ class FormatsTest {
         assertEquals(Formats.XML, contentType.toString());
     }
 
+    @Test
+    void testParseHeaderCachedPerClass() {
+        ContentType first = Formats.parseHeader(Formats.JSON, Office.class);
+        assertSame(first, Formats.parseHeader(Formats.JSON, Office.class));
+        assertEquals(Formats.JSONV2, first.toString());
+        // The same header negotiates differently without the class aliases
+        assertEquals(Formats.JSON, Formats.parseHeader(Formats.JSON, null).toString());
+        assertThrows(FormattingException.class, () -> Formats.parseHeader("image/avif", Office.class));
+    }
+
+    @Test
+    void testFormatUsesRegisteredFormatter() {
+        Office office = new Office("SWT", "Tulsa District", "MSC", "SWD");
+        String json = Formats.format(new ContentType(Formats.JSONV2 + "; charset=utf-8"), office);
+        assertTrue(json.contains("Tulsa District"));
+        assertThrows(FormattingException.class,
+            () -> Formats.format(new ContentType(Formats.WML2), office));
+    }
+
     @EnumSource(ParseHeaderClassAliasTest.class)
     @ParameterizedTest
     void testParseHeaderWithClass(ParseHeaderClassAliasTest test) {
@@ -205,6 +225,9 @@ class FormatsTest {
         BASIN_NAMED_PGJSON(Basin.class, Formats.NAMED_PGJSON, Formats.NAMED_PGJSON),
         PROJECT_JSONV1(Project.class, Formats.JSONV1, Formats.JSONV1),
         PROJECT_JSON(Project.class, Formats.JSON, Formats.JSONV1),
+        TS_BATCH_DEFAULT(TimeSeriesBatch.class, Formats.DEFAULT, Formats.JSONV2),
+        TS_BATCH_JSON(TimeSeriesBatch.class, Formats.JSON, Formats.JSONV2),
+        TS_BATCH_JSONV2(TimeSeriesBatch.class, Formats.JSONV2, Formats.JSONV2),
         ;
 
         final Class<? extends CwmsDTOBase> klass;
@@ -1,13 +1,18 @@
 package cwms.cda.formatters;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 import cwms.cda.data.dto.LocationLevel;
 import cwms.cda.data.dto.LocationLevels;
+import cwms.cda.data.dto.TimeSeries;
 import cwms.cda.formatters.json.JsonV2;
 
 class JsonV2Test extends TimeSeriesTestBase {
@@ -23,6 +28,20 @@ class JsonV2Test extends TimeSeriesTestBase {
         super.singleTimeseriesFormat();
     }
 
+    @Test
+    @Override
+    public void streamedTimeseriesFormat() throws IOException {
+        super.streamedTimeseriesFormat();
+    }
+
+    @Test
+    void streamedMatchesFormatted() throws IOException {
+        List<TimeSeries.Record> remaining = new ArrayList<>();
+        TimeSeries expected = getLongerTimeSeries(remaining);
+
+        assertEquals(new JsonV2().format(expected), formatStreamed(getTimeSeries(), remaining));
+    }
+
     @Test
     void canSerializeLocationLevel(){
         String crazyName = "crazyName" + System.nanoTime();
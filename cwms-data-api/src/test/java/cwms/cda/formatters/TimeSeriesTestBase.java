@@ -1,11 +1,17 @@
 package cwms.cda.formatters;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import cwms.cda.data.dto.TimeSeries;
 
@@ -27,4 +33,35 @@ public abstract class TimeSeriesTestBase {
 		assertTrue(result.contains("values"));
     }
 
+    /**
+     * @return the time series from getTimeSeries() with a few more values, including a missing one.
+     */
+    protected TimeSeries getLongerTimeSeries(List<TimeSeries.Record> added) {
+        TimeSeries ts = getTimeSeries();
+        for (int i = 1; i < 5; i++) {
+            Timestamp time = Timestamp.from(ts.getBegin().toInstant().plus(Duration.ofHours(i)));
+            Double value = i == 2 ? null : 30.0 + i;
+            ts.addValue(time, value, 0);
+            added.add(new TimeSeries.Record(time, value, 0));
+        }
+        return ts;
+    }
+
+    protected String formatStreamed(TimeSeries header, List<TimeSeries.Record> remaining) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingTimeSeriesFormatter) getOutputFormatter()).format(header, remaining.iterator(), out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    public void streamedTimeseriesFormat() throws IOException {
+        List<TimeSeries.Record> remaining = new ArrayList<>();
+        TimeSeries expected = getLongerTimeSeries(remaining);
+
+        String streamed = formatStreamed(getTimeSeries(), remaining);
+        TimeSeries actual = getOutputFormatter().parseContent(streamed, TimeSeries.class);
+
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getPage(), actual.getPage());
+        assertEquals(expected.getValues(), actual.getValues());
+    }
 }
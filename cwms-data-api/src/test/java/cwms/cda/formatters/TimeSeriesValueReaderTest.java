@@ -0,0 +1,62 @@
+package cwms.cda.formatters;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import cwms.cda.formatters.json.TimeSeriesValueReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class TimeSeriesValueReaderTest {
+
+    private static TimeSeriesValueReader reader(String body) throws IOException {
+        return new TimeSeriesValueReader(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testReadsInChunks() throws IOException {
+        String body = "[1000,1.5,0]\n"
+                + "{\"date-time\":2000,\"value\":null,\"quality-code\":5}\n"
+                + "[3000,3]\n"
+                + "{\"quality-code\":3,\"extra\":[1,2],\"date-time\":4000,\"value\":4.25}\n";
+        long[] times = new long[3];
+        double[] values = new double[3];
+        int[] qualities = new int[3];
+        try (TimeSeriesValueReader reader = reader(body)) {
+            assertEquals(3, reader.read(times, values, qualities));
+            assertArrayEquals(new long[]{1000, 2000, 3000}, times);
+            assertEquals(1.5, values[0]);
+            assertTrue(Double.isNaN(values[1]));
+            assertEquals(3.0, values[2]);
+            assertArrayEquals(new int[]{0, 5, 0}, qualities);
+
+            assertEquals(1, reader.read(times, values, qualities));
+            assertEquals(4000, times[0]);
+            assertEquals(4.25, values[0]);
+            assertEquals(3, qualities[0]);
+
+            assertEquals(0, reader.read(times, values, qualities));
+        }
+    }
+
+    @Test
+    void testRejectsMalformedValues() throws IOException {
+        long[] times = new long[10];
+        double[] values = new double[10];
+        int[] qualities = new int[10];
+        try (TimeSeriesValueReader reader = reader("[\"2024-01-01\",1,0]")) {
+            assertThrows(IOException.class, () -> reader.read(times, values, qualities));
+        }
+        try (TimeSeriesValueReader reader = reader("{\"value\":1}")) {
+            assertThrows(IOException.class, () -> reader.read(times, values, qualities));
+        }
+        try (TimeSeriesValueReader reader = reader("[1000,1,0,7]")) {
+            assertThrows(IOException.class, () -> reader.read(times, values, qualities));
+        }
+    }
+}
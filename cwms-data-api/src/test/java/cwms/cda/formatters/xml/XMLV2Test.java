@@ -1,5 +1,6 @@
 package cwms.cda.formatters.xml;
 
+import java.io.IOException;
 import org.junit.jupiter.api.Test;
 
 import cwms.cda.formatters.OutputFormatter;
@@ -19,4 +20,10 @@ public class XMLV2Test extends TimeSeriesTestBase {
     public void singleTimeseriesFormat() {
         super.singleTimeseriesFormat();
     }
+
+    @Test
+    @Override
+    public void streamedTimeseriesFormat() throws IOException {
+        super.streamedTimeseriesFormat();
+    }
 }
@@ -0,0 +1,33 @@
+package cwms.cda.security;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class VerifiedTokenCacheTest {
+
+    @Test
+    void test_token_returned_until_expired() {
+        DataApiPrincipal p = new DataApiPrincipal("user.1234567890", Collections.emptySet());
+        VerifiedTokenCache.put("valid-token", p, Instant.now().plus(5, ChronoUnit.MINUTES));
+        VerifiedTokenCache.put("expired-token", p, Instant.now().minusSeconds(1));
+        assertSame(p, VerifiedTokenCache.get("valid-token"));
+        assertNull(VerifiedTokenCache.get("expired-token"));
+        assertNull(VerifiedTokenCache.get("other-token"));
+    }
+
+    @Test
+    void test_user_invalidated() {
+        DataApiPrincipal p = new DataApiPrincipal("user.42", Collections.emptySet());
+        DataApiPrincipal other = new DataApiPrincipal("other.43", Collections.emptySet());
+        VerifiedTokenCache.put("token-42", p, null);
+        VerifiedTokenCache.put("token-43", other, null);
+        VerifiedTokenCache.invalidateUser("USER.42");
+        assertNull(VerifiedTokenCache.get("token-42"));
+        assertSame(other, VerifiedTokenCache.get("token-43"));
+    }
+}